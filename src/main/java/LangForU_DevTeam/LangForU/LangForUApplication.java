@@ -5,6 +5,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
@@ -14,10 +15,12 @@ import org.springframework.web.client.RestTemplate;
  * Анотациите, използвани тук, активират основни функционалности на Spring:
  * - {@code @SpringBootApplication} конфигурира и стартира приложението
  * - {@code @EnableScheduling} позволява използване на планирани задачи (@Scheduled)
+ * - {@code @EnableAsync} позволява асинхронно изпълнение на методи (@Async), напр. изпращане на имейли
  * - {@code @EnableConfigurationProperties} зарежда конфигурационен клас за OpenAI API
  */
 @SpringBootApplication
 @EnableScheduling
+@EnableAsync
 @EnableConfigurationProperties(OpenAIConfig.class)
 public class LangForUApplication {
 
@@ -1,18 +1,23 @@
 package LangForU_DevTeam.LangForU.appuser;
 
-import LangForU_DevTeam.LangForU.blog.Blog;
+import LangForU_DevTeam.LangForU.blog.BlogFeedPage;
 import LangForU_DevTeam.LangForU.blog.BlogService;
 import LangForU_DevTeam.LangForU.contactRequest.ContactRequest;
 import LangForU_DevTeam.LangForU.contactRequest.ContactRequestService;
 import LangForU_DevTeam.LangForU.courses.Course;
+import LangForU_DevTeam.LangForU.courses.CourseImportReport;
+import LangForU_DevTeam.LangForU.courses.CourseImportService;
 import LangForU_DevTeam.LangForU.courses.CourseService;
-import LangForU_DevTeam.LangForU.email.EmailService;
+import LangForU_DevTeam.LangForU.email.EmailSender;
+import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import LangForU_DevTeam.LangForU.finalexam.FinalExam;
 import LangForU_DevTeam.LangForU.finalexam.FinalExamService;
 import LangForU_DevTeam.LangForU.lections.Lection;
 import LangForU_DevTeam.LangForU.lections.LectionService;
 import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequest;
 import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequestService;
+import LangForU_DevTeam.LangForU.subscriber.NewsletterJobProgress;
+import LangForU_DevTeam.LangForU.subscriber.NewsletterService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -21,8 +26,11 @@ import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,14 +43,19 @@ import java.util.Optional;
 @AllArgsConstructor
 public class AdminController {
 
+    private static final int BLOGS_PAGE_SIZE = 20;
+
     private final AppUserService appUserService;
     private final UserCourseRequestService userCourseRequestService;
     private final ContactRequestService contactRequestService;
-    private final EmailService emailService;
+    private final EmailSender emailSender;
+    private final EmailTemplateService emailTemplateService;
     private final BlogService blogService;
     private final LectionService lectionService;
     private final CourseService coursesServices;
     private final FinalExamService finalExamService;
+    private final NewsletterService newsletterService;
+    private final CourseImportService courseImportService;
 
     @GetMapping("/users-list")
     @ResponseBody
@@ -283,7 +296,8 @@ public class AdminController {
             String userEmail = request.getEmail();
             String userName = request.getName();
 
-            emailService.sendEmail(userEmail, middleContent, adminName, userName);
+            // Шаблонът се попълва тук, а изпращането минава през асинхронния EmailSender (в пула за имейли).
+            emailSender.send(userEmail, emailTemplateService.buildEmail_contactAnswer(middleContent, adminName, userName));
             contactRequestService.deleteRequestById(id);
 
             redirectAttributes.addFlashAttribute("successMessage", "Имейлът беше изпратен успешно и заявката е изтрита!");
@@ -295,15 +309,22 @@ public class AdminController {
         }
     }
 
+    /**
+     * Показва списъка с блог публикации на страници, обхождани с курсор (keyset пагинация).
+     */
     @GetMapping("/blogs")
-    public String listBlogs(Model model) {
+    public String listBlogs(@RequestParam(value = "cursor", required = false) String cursor, Model model) {
         try {
-            List<Blog> blogs = blogService.findAllBlogs();
-            if (blogs.isEmpty()) {
+            BlogFeedPage feedPage = blogService.findBlogsFeed(cursor, BLOGS_PAGE_SIZE);
+            if (feedPage.getBlogs().isEmpty()) {
                 model.addAttribute("message", "Няма налични блогове.");
                 model.addAttribute("success", false);
             } else {
-                model.addAttribute("blogs", blogs);
+                model.addAttribute("blogs", feedPage.getBlogs());
+                model.addAttribute("currentPage", feedPage.getCurrentPage());
+                model.addAttribute("totalPages", feedPage.getTotalPages());
+                model.addAttribute("previousCursor", feedPage.getPreviousCursor());
+                model.addAttribute("nextCursor", feedPage.getNextCursor());
             }
             return "blog/blogList";
         } catch (Exception e) {
@@ -313,6 +334,15 @@ public class AdminController {
         }
     }
 
+    /**
+     * Връща последните задачи за разпращане на бюлетини заедно с прогреса им.
+     */
+    @GetMapping("/newsletter-jobs")
+    @ResponseBody
+    public List<NewsletterJobProgress> listNewsletterJobs() {
+        return newsletterService.findRecentJobs();
+    }
+
     @GetMapping("/lections")
     public String listLections(Model model) {
         try {
@@ -349,6 +379,20 @@ public class AdminController {
         }
     }
 
+    /**
+     * Импортира курсове (с лекциите, упражненията и финалните им изпити) от качен JSON архив.
+     * При невалиден архив връща 400 и не записва нищо.
+     * @param archive JSON файлът с архива.
+     * @return Отчет за записаните редове и скоростта на запис.
+     */
+    @PostMapping("/courses/import")
+    @ResponseBody
+    public CourseImportReport importCourses(@RequestParam("archive") MultipartFile archive) throws IOException {
+        try (InputStream in = archive.getInputStream()) {
+            return courseImportService.importArchive(in);
+        }
+    }
+
     @GetMapping("/final-exams")
     public String showFinalExamsList(Model model) {
         try {
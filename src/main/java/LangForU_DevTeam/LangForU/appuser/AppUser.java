@@ -105,6 +105,14 @@ public class AppUser implements UserDetails {
      */
     private Boolean enabled = false;
 
+    /**
+     * Флаг, който показва дали потребителят желае да получава един обобщен имейл (digest)
+     * вместо отделно писмо за всяка нова лекция или блог публикация.
+     * По подразбиране е 'false'. Стойност null (за вече съществуващи записи) се третира като 'false'.
+     */
+    @Column(name = "digest_opt_in")
+    private Boolean digestOptIn = false;
+
     /**
      * Списък с курсовете, за които потребителят е записан.
      * Това е връзка тип "много към много" (Many-to-Many) с ентитета Course.
@@ -119,6 +127,15 @@ public class AppUser implements UserDetails {
     )
     private List<Course> courses;
 
+    /**
+     * Конструктор с всички полета без настройката за обобщен имейл (запазва досегашната сигнатура).
+     * Обобщеният имейл е изключен.
+     */
+    public AppUser(Long id, String profilePicture, String email, String password, String name, LocalDate dateOfBirth,
+                   String gender, AppUserRole appUserRole, Boolean enabled, List<Course> courses) {
+        this(id, profilePicture, email, password, name, dateOfBirth, gender, appUserRole, enabled, false, courses);
+    }
+
     /**
      * Персонализиран конструктор за създаване на потребител.
      * Позволява изрично задаване на статуса 'enabled'.
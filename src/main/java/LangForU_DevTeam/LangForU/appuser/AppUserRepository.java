@@ -75,6 +75,18 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> { // Н
     @Query("SELECT u.email FROM AppUser u JOIN u.courses c WHERE c.id = :courseId")
     List<String> findUserEmailsByCourseId(Long courseId);
 
+    /**
+     * Записва потребител в курс, като добавя само реда в междинната таблица user_courses,
+     * без да зарежда и записва целия потребител с всичките му курсове.
+     * @param userId ID на потребителя.
+     * @param courseId ID на курса.
+     * @return Броят добавени редове (1).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_courses (user_id, course_id) VALUES (:userId, :courseId)", nativeQuery = true)
+    int addCourse(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
     /**
      * Намира всички потребители с определена роля.
      * @param role Търсената роля.
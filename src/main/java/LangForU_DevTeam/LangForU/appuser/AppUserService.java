@@ -1,6 +1,7 @@
 package LangForU_DevTeam.LangForU.appuser;
 
 import LangForU_DevTeam.LangForU.courses.Course;
+import LangForU_DevTeam.LangForU.email.EmailOutboxService;
 import LangForU_DevTeam.LangForU.email.EmailService;
 import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import LangForU_DevTeam.LangForU.registration.admin.AdminConfirmationToken;
@@ -40,6 +41,7 @@ public class AppUserService implements UserDetailsService {
     private final AdminConfirmationTokenService adminConfirmationTokenService;
     private final EmailService emailService;
     private final EmailTemplateService emailTemplateService;
+    private final EmailOutboxService emailOutboxService;
     private UserCourseRequestService userCourseRequestService;
     //</editor-fold>
 
@@ -106,7 +108,7 @@ public class AppUserService implements UserDetailsService {
             }
 
             appUserRepository.deleteById(userId); // Изтрива самия потребител.
-            sendUserDeleteAccountEmail(user); // Изпраща уведомителен имейл.
+            sendUserDeleteAccountEmail(user); // Добавя уведомителен имейл в опашката (в същата трансакция).
         } catch (Exception e) {
             throw new RuntimeException("Възникна грешка при изтриването на потребителя с ID: " + userId + ". Причина: " + e.getMessage());
         }
@@ -131,7 +133,7 @@ public class AppUserService implements UserDetailsService {
         }
 
         AppUser user = findUserById(id);
-        sendUserDisableAccountEmail(user); // Изпраща уведомителен имейл.
+        sendUserDisableAccountEmail(user); // Добавя уведомителен имейл в опашката (в същата трансакция).
     }
 
     /**
@@ -166,7 +168,7 @@ public class AppUserService implements UserDetailsService {
         try {
             user.setEnabled(true);
             appUserRepository.save(user);
-            sendUserEnabledAccountEmail(user); // Изпраща уведомителен имейл.
+            sendUserEnabledAccountEmail(user); // Добавя уведомителен имейл в опашката (в същата трансакция).
         } catch (Exception e) {
             throw new RuntimeException("Възникна грешка при активирането на акаунта на потребителя с ID: " + id + ". Причина: " + e.getMessage());
         }
@@ -360,7 +362,7 @@ public class AppUserService implements UserDetailsService {
     }
 
     /**
-     * Изпраща имейл за уведомяване при изтриване на акаунт.
+     * Добавя в изходящата опашка имейл за уведомяване при изтриване на акаунт.
      * @param appUser Потребителят, чийто акаунт е изтрит.
      */
     public void sendUserDeleteAccountEmail(AppUser appUser) {
@@ -372,14 +374,14 @@ public class AppUserService implements UserDetailsService {
         }
         try {
             String emailBody = emailTemplateService.buildEmail_AccountDeletion(appUser.getName(), appUser.getEmail());
-            emailService.send(appUser.getEmail(), emailBody);
+            emailOutboxService.enqueue(appUser.getEmail(), emailBody);
         } catch (Exception e) {
             throw new RuntimeException("Възникна грешка при изпращането на имейла за изтриване на акаунта: " + e.getMessage());
         }
     }
 
     /**
-     * Изпраща имейл за уведомяване при деактивиране на акаунт.
+     * Добавя в изходящата опашка имейл за уведомяване при деактивиране на акаунт.
      * @param appUser Потребителят, чийто акаунт е деактивиран.
      */
     public void sendUserDisableAccountEmail(AppUser appUser) {
@@ -391,14 +393,14 @@ public class AppUserService implements UserDetailsService {
         }
         try {
             String emailBody = emailTemplateService.buildEmail_AccountDisable(appUser.getName(), appUser.getEmail());
-            emailService.send(appUser.getEmail(), emailBody);
+            emailOutboxService.enqueue(appUser.getEmail(), emailBody);
         } catch (Exception e) {
             throw new RuntimeException("Възникна грешка при изпращането на имейла за деактивиране на акаунта: " + e.getMessage());
         }
     }
 
     /**
-     * Изпраща имейл за уведомяване при активиране на акаунт.
+     * Добавя в изходящата опашка имейл за уведомяване при активиране на акаунт.
      * @param appUser Потребителят, чийто акаунт е активиран.
      */
     private void sendUserEnabledAccountEmail(AppUser appUser) {
@@ -410,7 +412,7 @@ public class AppUserService implements UserDetailsService {
         }
         try {
             String emailBody = emailTemplateService.buildEmail_AccountEnabled(appUser.getName(), appUser.getEmail());
-            emailService.send(appUser.getEmail(), emailBody);
+            emailOutboxService.enqueue(appUser.getEmail(), emailBody);
         } catch (Exception e) {
             throw new RuntimeException("Възникна грешка при изпращането на имейла за активиране на акаунта: " + e.getMessage());
         }
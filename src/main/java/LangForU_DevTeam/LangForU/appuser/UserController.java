@@ -1,8 +1,9 @@
 package LangForU_DevTeam.LangForU.appuser;
 
-import LangForU_DevTeam.LangForU.courses.Course;
+import LangForU_DevTeam.LangForU.courses.ActiveCourseCard;
 import LangForU_DevTeam.LangForU.courses.CourseService;
 import LangForU_DevTeam.LangForU.lections.Lection;
+import LangForU_DevTeam.LangForU.trending.TrendingService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -30,6 +31,7 @@ public class UserController {
 
     private final AppUserService userService;
     private final CourseService courseService;
+    private final TrendingService trendingService;
 
     /**
      * Пренасочва заявките от основния път ("/") към началната страница ("/index").
@@ -44,7 +46,7 @@ public class UserController {
 
     /**
      * Обработва заявки за началната страница.
-     * Добавя списък с активни курсове и флаг за автентикация към модела.
+     * Добавя списък с активни курсове (от каталога в паметта, без заявка към базата), популярните в момента курсове и публикации и флаг за автентикация към модела.
      * Достъпен за всички.
      * @param model Модел за подаване на данни към изгледа (view).
      * @param principal Обект, представляващ текущо логнатия потребител (може да бъде null).
@@ -56,11 +58,13 @@ public class UserController {
         // Проверява дали потребителят е автентикиран по наличието на Principal обекта.
         model.addAttribute("isAuthenticated", principal != null);
 
-        List<Course> courses = courseService.getAllActiveCourses();
+        List<ActiveCourseCard> courses = courseService.getActiveCourseCards();
         if (courses.isEmpty()) {
             model.addAttribute("message", "В момента няма налични курсове.");
         }
         model.addAttribute("courses", courses);
+        model.addAttribute("trendingCourses", trendingService.getTrendingCourses());
+        model.addAttribute("trendingPosts", trendingService.getTrendingBlogs());
 
         return "index";
     }
@@ -75,7 +79,7 @@ public class UserController {
     public String about(Model model, Principal principal) {
         model.addAttribute("isAuthenticated", principal != null);
 
-        List<Course> courses = courseService.getAllActiveCourses();
+        List<ActiveCourseCard> courses = courseService.getActiveCourseCards();
         model.addAttribute("courses", courses);
 
         return "about";
@@ -190,4 +194,20 @@ public class UserController {
             return ResponseEntity.internalServerError().body(Map.of("message", "Грешка при записване на аватара: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Включва или изключва обобщения имейл (digest) за текущия потребител.
+     * Изисква потребителят да бъде автентикиран.
+     * @param enabled 'true', ако потребителят желае един обобщен имейл вместо отделни известия.
+     * @param principal Обект, представляващ текущо логнатия потребител.
+     * @return Пренасочване към профила.
+     */
+    @PostMapping("/profile/digest")
+    @PreAuthorize("isAuthenticated()")
+    public String updateDigestPreference(@RequestParam("enabled") boolean enabled, Principal principal) {
+        AppUser currentUser = (AppUser) userService.loadUserByUsername(principal.getName());
+        currentUser.setDigestOptIn(enabled);
+        userService.save(currentUser);
+        return "redirect:/profile";
+    }
+}
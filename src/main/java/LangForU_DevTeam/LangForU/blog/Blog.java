@@ -5,10 +5,14 @@ import LangForU_DevTeam.LangForU.coment.Blog_Comment;
 import LangForU_DevTeam.LangForU.like.Blog_Like;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -22,6 +26,7 @@ import java.util.Set;
 @NoArgsConstructor // Lombok: Автоматично генерира конструктор без аргументи.
 @EqualsAndHashCode // Lombok: Автоматично генерира equals() и hashCode() методи.
 @Entity // JPA: Посочва, че този клас е ентитет и се мапва към таблица в базата данни.
+@Table(indexes = @Index(name = "idx_blog_date_id", columnList = "date, id")) // Индекс за keyset пагинацията по (дата, ID).
 public class Blog {
 
     /**
@@ -65,17 +70,19 @@ public class Blog {
     private String image;
 
     /**
-     * Списък с категории, към които принадлежи публикацията.
-     * Съхранява се в отделна таблица, свързана с тази.
+     * Имената на категориите, към които принадлежи публикацията, както са въведени във формата.
+     * Не се съхраняват директно - при запис {@link BlogTaxonomyService} ги превръща в {@link #assignedCategories}.
      */
-    @ElementCollection
+    @Transient
+    @EqualsAndHashCode.Exclude
     private List<String> categories;
 
     /**
-     * Списък с тагове, описващи публикацията.
-     * Съхранява се в отделна таблица, свързана с тази.
+     * Имената на таговете, описващи публикацията, както са въведени във формата.
+     * Не се съхраняват директно - при запис {@link BlogTaxonomyService} ги превръща в {@link #assignedTags}.
      */
-    @ElementCollection
+    @Transient
+    @EqualsAndHashCode.Exclude
     private List<String> tags;
 
     /**
@@ -90,11 +97,21 @@ public class Blog {
     /**
      * Множество от харесвания към тази публикация.
      * Използва Set, за да се гарантира, че един потребител не може да хареса публикацията повече от веднъж.
-     * FetchType.EAGER - харесванията се зареждат веднага заедно с блога.
+     * FetchType.LAZY - харесванията се зареждат само при нужда; за броя им се използва {@link #likeCount}.
      */
-    @OneToMany(mappedBy = "blog", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "blog", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<Blog_Like> likes = new HashSet<>();
 
+    /**
+     * Брой харесвания (денормализиран брояч).
+     * Променя се само атомарно в базата данни (UPDATE ... SET like_count = like_count + 1) от
+     * {@link LangForU_DevTeam.LangForU.like.Blog_Like_Service}, затова JPA никога не го записва
+     * (insertable/updatable = false) и редакцията на публикацията не може да презапише паралелно харесване.
+     */
+    @ColumnDefault("0") // Hibernate: стойност по подразбиране в DDL (и за вече съществуващите редове).
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false)
+    private long likeCount;
+
     /**
      * Авторът на публикацията.
      * Връзка тип "много към едно" с AppUser.
@@ -104,6 +121,83 @@ public class Blog {
     @JoinColumn(name = "author_id", nullable = false)
     private AppUser author;
 
+    /**
+     * Момент на последната промяна на страницата на публикацията (редакция, коментар или харесване).
+     * Използва се за условните GET заявки (ETag / Last-Modified) към детайлната страница.
+     * Hibernate го обновява при всяка редакция, а коментарите и харесванията го обновяват с UPDATE заявка.
+     */
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP") // За вече съществуващите редове.
+    private LocalDateTime lastModified;
+
+    /**
+     * Текстът на публикацията ({@link #blogText}, писан на Markdown), преобразуван в санитизиран HTML.
+     * Генерира се веднъж при всеки запис от {@link BlogMarkdownRenderer} и се показва директно на детайлната страница.
+     * Дължината позволява и най-лошия случай - текст само от екранирани символи (напр. {@code &} става {@code &amp;}).
+     */
+    @Column(length = 60000)
+    private String blogHtml;
+
+    /**
+     * Категориите на публикацията.
+     * Връзка тип "много към много" през таблицата blog_category, с индекс и в обратна посока (категория, публикация)
+     * за филтрирането по категория.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "blog_category",
+            joinColumns = @JoinColumn(name = "blog_id"),
+            inverseJoinColumns = @JoinColumn(name = "category_id"),
+            indexes = @Index(name = "idx_blog_category_category", columnList = "category_id, blog_id"))
+    @OrderBy("name")
+    @EqualsAndHashCode.Exclude
+    private Set<Category> assignedCategories = new LinkedHashSet<>();
+
+    /**
+     * Таговете на публикацията.
+     * Връзка тип "много към много" през таблицата blog_tag, с индекс и в обратна посока (таг, публикация)
+     * за филтрирането по таг.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "blog_tag",
+            joinColumns = @JoinColumn(name = "blog_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_blog_tag_tag", columnList = "tag_id, blog_id"))
+    @OrderBy("name")
+    @EqualsAndHashCode.Exclude
+    private Set<Tag> assignedTags = new LinkedHashSet<>();
+
+    /**
+     * Конструктор с всички полета без брояча на харесванията (запазва досегашната сигнатура).
+     * Броячът започва от 0 и се поддържа само от базата данни.
+     */
+    public Blog(Long id, String name, String shortExplanation, String blogText, LocalDate date, String image,
+                List<String> categories, List<String> tags, List<Blog_Comment> comments, Set<Blog_Like> likes, AppUser author) {
+        this(id, name, shortExplanation, blogText, date, image, categories, tags, comments, likes, 0L, author, null, null,
+                new LinkedHashSet<>(), new LinkedHashSet<>());
+    }
+
+    /**
+     * Връща имената на категориите - въведените във формата или, ако няма такива, тези на {@link #assignedCategories}.
+     * @return Списък с имената на категориите.
+     */
+    public List<String> getCategories() {
+        if (categories == null && assignedCategories != null) {
+            return assignedCategories.stream().map(Category::getName).toList();
+        }
+        return categories;
+    }
+
+    /**
+     * Връща имената на таговете - въведените във формата или, ако няма такива, тези на {@link #assignedTags}.
+     * @return Списък с имената на таговете.
+     */
+    public List<String> getTags() {
+        if (tags == null && assignedTags != null) {
+            return assignedTags.stream().map(Tag::getName).toList();
+        }
+        return tags;
+    }
+
     /**
      * Помощен метод, който връща броя на коментарите.
      * @return int - общият брой коментари.
@@ -113,11 +207,11 @@ public class Blog {
     }
 
     /**
-     * Помощен метод, който връща броя на харесванията.
+     * Помощен метод, който връща броя на харесванията (от брояча, без зареждане на харесванията).
      * @return int - общият брой харесвания.
      */
     public int getLikesCount() {
-        return likes.size();
+        return (int) likeCount;
     }
 
 }
\ No newline at end of file
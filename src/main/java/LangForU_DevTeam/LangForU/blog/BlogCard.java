@@ -0,0 +1,56 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция (DTO) с данните за една карта в списъка с блог публикации.
+ * Попълва се директно от JPQL заявка - без основния текст, а броят на коментарите и харесванията
+ * се изчисляват в същата заявка, без да се зареждат самите коментари и харесвания.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета (използва се от JPQL "SELECT new").
+public class BlogCard {
+
+    /**
+     * ID на публикацията.
+     */
+    private final Long id;
+
+    /**
+     * Заглавие на публикацията.
+     */
+    private final String name;
+
+    /**
+     * Кратко обяснение (резюме) на публикацията.
+     */
+    private final String shortExplanation;
+
+    /**
+     * Дата на публикуване.
+     */
+    private final LocalDate date;
+
+    /**
+     * Път до изображението на публикацията.
+     */
+    private final String image;
+
+    /**
+     * Име на автора на публикацията.
+     */
+    private final String authorName;
+
+    /**
+     * Брой коментари към публикацията.
+     */
+    private final long commentsCount;
+
+    /**
+     * Брой харесвания на публикацията.
+     */
+    private final long likesCount;
+}
@@ -2,11 +2,15 @@ package LangForU_DevTeam.LangForU.blog;
 
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.appuser.AppUserService;
+import LangForU_DevTeam.LangForU.coment.BlogCommentPage;
+import LangForU_DevTeam.LangForU.coment.BlogCommentView;
 import LangForU_DevTeam.LangForU.coment.Blog_Comment;
 import LangForU_DevTeam.LangForU.coment.Blog_Comment_Service;
-import LangForU_DevTeam.LangForU.like.Blog_Like;
+import LangForU_DevTeam.LangForU.customSettings.ConditionalGet;
 import LangForU_DevTeam.LangForU.like.Blog_Like_Service;
 import LangForU_DevTeam.LangForU.subscriber.SubscriberService;
+import LangForU_DevTeam.LangForU.trending.TrendingService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
@@ -17,12 +21,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.security.Principal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -34,6 +40,9 @@ import java.util.Optional;
 public class BlogController {
 
     private static final int PAGE_SIZE = 5; // Константа за брой публикации на страница.
+    private static final int COMMENT_PAGE_SIZE = 10; // Брой нишки с коментари на страница.
+    private static final int REPLIES_PER_THREAD = 3; // Брой отговори, показвани във всяка нишка.
+    private static final int SUGGESTIONS = 8; // Брой предложения при автоматичното допълване на тагове и категории.
 
     //<editor-fold desc="Dependencies">
     private final AppUserService userService; // Забележка: Двойно инжектиране на AppUserService. Едното е излишно.
@@ -42,6 +51,8 @@ public class BlogController {
     private final Blog_Comment_Service blogCommentService;
     private final Blog_Like_Service blogLikeService;
     private final SubscriberService subscriberService;
+    private final TrendingService trendingService;
+    private final TaxonomyAutocomplete taxonomyAutocomplete;
     //</editor-fold>
 
     /**
@@ -49,70 +60,83 @@ public class BlogController {
      */
     @Autowired
     public BlogController(AppUserService userService, AppUserService appUserService, BlogService blogService,
-                          Blog_Comment_Service blogCommentService, Blog_Like_Service blogLikeService, SubscriberService subscriberService) {
+                          Blog_Comment_Service blogCommentService, Blog_Like_Service blogLikeService, SubscriberService subscriberService,
+                          TrendingService trendingService, TaxonomyAutocomplete taxonomyAutocomplete) {
         this.userService = userService;
         this.appUserService = appUserService;
         this.blogService = blogService;
         this.blogCommentService = blogCommentService;
         this.blogLikeService = blogLikeService;
         this.subscriberService = subscriberService;
+        this.trendingService = trendingService;
+        this.taxonomyAutocomplete = taxonomyAutocomplete;
     }
 
     /**
-     * Метод, който добавя общи атрибути към модела за всяка заявка в този контролер.
-     * Използва се за показване на топ тагове, скорошни постове и категории в страничната лента на блога.
+     * Добавя данните за страничната лента на блога (топ тагове, скорошни и популярни постове, категории) към модела.
+     * Извиква се само от изгледите, които показват лентата; данните идват от кеша (вж. {@link BlogSidebarCache})
+     * и от класацията в паметта (вж. {@link TrendingService}).
      * @param model Моделът, към който се добавят атрибутите.
      */
-    @ModelAttribute
-    public void addCommonAttributes(Model model) {
-        model.addAttribute("tags", blogService.getTop5Tags());
-        model.addAttribute("recentPosts", blogService.getRecentPosts(5));
-        model.addAttribute("categories", blogService.getTop5Categories());
+    private void addCommonAttributes(Model model) {
+        BlogSidebar sidebar = blogService.getSidebar();
+        model.addAttribute("tags", sidebar.getTags());
+        model.addAttribute("recentPosts", sidebar.getRecentPosts());
+        model.addAttribute("categories", sidebar.getCategories());
+        model.addAttribute("trendingPosts", trendingService.getTrendingBlogs());
     }
 
     /**
      * Показва главната страница на блога с пагиниран списък на публикациите.
-     * @param currentPage Текущият номер на страницата (по подразбиране 0).
+     * Страниците се обхождат с непрозрачен курсор (keyset пагинация), така че всяка страница струва колкото първата.
+     * @param cursor Курсор към страницата (липсва за първата страница).
      * @param model Модел за подаване на данни към изгледа.
      * @return Името на шаблона 'blog'.
      */
     @GetMapping("")
-    public String getAllBlogs(@RequestParam(value = "page", defaultValue = "0") int currentPage, Model model) {
-        Page<Blog> blogPage = blogService.findBlogsPaginated(currentPage, PAGE_SIZE);
+    public String getAllBlogs(@RequestParam(value = "cursor", required = false) String cursor, Model model) {
+        BlogFeedPage feedPage = blogService.findBlogsFeed(cursor, PAGE_SIZE);
 
         // Ако няма блогове, показва съобщение.
-        if (blogPage.isEmpty()) {
+        if (feedPage.getBlogs().isEmpty()) {
             model.addAttribute("message", "Очаквайте нови блогове скоро");
-            model.addAttribute("blogs", Collections.emptyList());
-            model.addAttribute("totalPages", 0);
-            model.addAttribute("currentPage", 0);
-            addCommonAttributes(model); // Добавя общите атрибути дори при празна страница.
-            return "blog";
         }
-
-        // Валидация на номера на страницата.
-        if (currentPage < 0) {
-            return "redirect:/blog?page=0";
-        } else if (currentPage >= blogPage.getTotalPages()) {
-            return "redirect:/blog?page=" + (blogPage.getTotalPages() - 1);
-        }
-
-        model.addAttribute("blogs", blogPage.getContent());
-        model.addAttribute("totalPages", blogPage.getTotalPages());
-        model.addAttribute("currentPage", currentPage);
+        addFeedAttributes(model, feedPage, "/blog");
+        addCommonAttributes(model);
 
         return "blog";
     }
 
+    /**
+     * Добавя страницата от списъка с публикации и курсорите за навигация към модела.
+     * @param feedUrl Адресът на списъка (към него се добавя курсорът във връзките "Предишно" и "Следващо").
+     */
+    private void addFeedAttributes(Model model, BlogFeedPage feedPage, String feedUrl) {
+        model.addAttribute("blogs", feedPage.getBlogs());
+        model.addAttribute("totalPages", feedPage.getTotalPages());
+        model.addAttribute("currentPage", feedPage.getCurrentPage());
+        model.addAttribute("previousCursor", feedPage.getPreviousCursor());
+        model.addAttribute("nextCursor", feedPage.getNextCursor());
+        model.addAttribute("feedUrl", feedUrl);
+    }
+
     /**
      * Показва детайлната страница на една блог публикация.
      * @param id ID на публикацията.
      * @param principal Обект, представляващ текущо логнатия потребител.
      * @param model Модел за подаване на данни към изгледа.
-     * @return Името на шаблона 'blog/blogDetail' или 'error/404' ако публикацията не е намерена.
+     * @param webRequest Текущата заявка (за условния GET).
+     * @return Името на шаблона 'blog/blogDetail', страница за грешка със статус 404, ако публикацията не е намерена,
+     * или null при отговор 304 Not Modified.
      */
     @GetMapping("/detail/{id}")
-    public String getBlogDetail(@PathVariable("id") Long id, Principal principal, Model model) {
+    public String getBlogDetail(@PathVariable("id") Long id, Principal principal, Model model, NativeWebRequest webRequest) {
+        // Ако браузърът има актуалната версия, се отговаря с 304, преди да се изпълнят останалите заявки.
+        Optional<LocalDateTime> lastModified = blogService.findDetailLastModified(id);
+        if (lastModified.isPresent() && ConditionalGet.checkNotModified(webRequest, principal, lastModified.get())) {
+            return null;
+        }
+
         Optional<Blog> blogOptional = blogService.getBlogWithCommentsById(id);
 
         if (blogOptional.isPresent()) {
@@ -122,12 +146,17 @@ public class BlogController {
             // Проверява дали потребителят е харесал публикацията.
             if (principal != null) {
                 AppUser currentUser = userService.findByEmail(principal.getName());
-                isLikedByCurrentUser = blogLikeService.findByBlogAndUser(blog, currentUser).isPresent();
+                isLikedByCurrentUser = blogLikeService.isLikedBy(id, currentUser.getId());
             }
 
             model.addAttribute("blog", blog);
-            model.addAttribute("likesCount", blogLikeService.countLikesByBlogId(id));
-            model.addAttribute("comments", blog.getComments());
+            model.addAttribute("likesCount", blog.getLikesCount());
+            // Показва се само първата страница от нишките; останалите се зареждат от /blog/{id}/comments.
+            BlogCommentPage comments = blogCommentService.findThreadPage(id, null, COMMENT_PAGE_SIZE, REPLIES_PER_THREAD);
+            model.addAttribute("comments", comments.getComments());
+            model.addAttribute("commentsCursor", comments.getNextCursor());
+            model.addAttribute("commentsCount", blogCommentService.countByBlogId(id));
+            model.addAttribute("repliesPerThread", REPLIES_PER_THREAD);
             model.addAttribute("previousBlog", blogService.getPreviousBlogById(id));
             model.addAttribute("nextBlog", blogService.getNextBlogById(id));
             model.addAttribute("isLikedByCurrentUser", isLikedByCurrentUser);
@@ -135,20 +164,48 @@ public class BlogController {
 
             return "blog/blogDetail";
         } else {
+            // 404, за да не се кешира страницата за грешка и да не се отчита разглеждане на несъществуваща публикация.
+            webRequest.getNativeResponse(HttpServletResponse.class).setStatus(HttpServletResponse.SC_NOT_FOUND);
             return "notifications/error";
         }
     }
 
+    /**
+     * Връща следващата страница от нишките с коментари към публикация (за бутона "Зареди още").
+     * @param id ID на публикацията.
+     * @param before Курсор от предишната страница (ID на последната показана нишка).
+     * @return {@link BlogCommentPage} като JSON.
+     */
+    @GetMapping("/{id}/comments")
+    @ResponseBody
+    public BlogCommentPage getComments(@PathVariable("id") Long id, @RequestParam(value = "before", required = false) Long before) {
+        return blogCommentService.findThreadPage(id, before, COMMENT_PAGE_SIZE, REPLIES_PER_THREAD);
+    }
+
+    /**
+     * Връща всички отговори под даден коментар (за бутона "Покажи всички отговори").
+     * @param id ID на публикацията.
+     * @param commentId ID на коментара.
+     * @return Списък от {@link BlogCommentView} като JSON, в реда на показване.
+     */
+    @GetMapping("/{id}/comments/{commentId}/replies")
+    @ResponseBody
+    public List<BlogCommentView> getReplies(@PathVariable("id") Long id, @PathVariable("commentId") Long commentId) {
+        return blogCommentService.findReplies(id, commentId);
+    }
+
     /**
      * Обработва публикуването на нов коментар към публикация.
      * @param blogId ID на публикацията, която се коментира.
      * @param commentText Текстът на коментара.
+     * @param parentId ID на коментара, на който се отговаря (по избор).
      * @param principal Обект на текущия потребител.
      * @param redirectAttributes Атрибути за съобщения след пренасочване.
      * @return Пренасочване към детайлната страница на публикацията.
      */
     @PostMapping("/{id}/comment")
     public String postComment(@PathVariable("id") Long blogId, @RequestParam("commentText") String commentText,
+                              @RequestParam(value = "parentId", required = false) Long parentId,
                               Principal principal, RedirectAttributes redirectAttributes) {
         if (principal == null) {
             redirectAttributes.addFlashAttribute("error", "Трябва да сте влезли, за да публикувате коментар.");
@@ -166,7 +223,12 @@ public class BlogController {
         comment.setUser(userService.findByEmail(principal.getName()));
         comment.setCommentText(commentText);
         comment.setCommentedAt(LocalDateTime.now());
-        blogCommentService.save(comment);
+        try {
+            blogCommentService.save(comment, parentId);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", "Коментарът, на който отговаряте, не е намерен.");
+            return "redirect:/blog/detail/" + blogId;
+        }
 
         redirectAttributes.addFlashAttribute("success", "Коментарът е публикуван успешно.");
         return "redirect:/blog/detail/" + blogId;
@@ -194,14 +256,10 @@ public class BlogController {
             return "redirect:/blog";
         }
 
-        Optional<Blog_Like> existingLike = blogLikeService.findByBlogAndUser(blog, currentUser);
-        if (existingLike.isPresent()) {
-            blogLikeService.delete(existingLike.get()); // Премахване на харесване
-            redirectAttributes.addFlashAttribute("message", "Отхаресахте тази публикация.");
-        } else {
-            Blog_Like newLike = new Blog_Like(null, blog, currentUser, LocalDateTime.now());
-            blogLikeService.save(newLike); // Добавяне на харесване
+        if (blogLikeService.toggle(blogId, currentUser.getId())) {
             redirectAttributes.addFlashAttribute("message", "Харесахте тази публикация.");
+        } else {
+            redirectAttributes.addFlashAttribute("message", "Отхаресахте тази публикация.");
         }
         return "redirect:/blog/detail/" + blogId;
     }
@@ -215,45 +273,46 @@ public class BlogController {
      */
     @GetMapping("/search")
     public String searchBlogs(@RequestParam("query") String query, @RequestParam(value = "page", defaultValue = "0") int currentPage, Model model) {
-        Page<Blog> blogPage = blogService.searchBlogs(query, currentPage, PAGE_SIZE);
+        Page<BlogCard> blogPage = blogService.searchBlogs(query, currentPage, PAGE_SIZE);
         model.addAttribute("blogs", blogPage.getContent());
         model.addAttribute("totalPages", blogPage.getTotalPages());
         model.addAttribute("currentPage", currentPage);
         model.addAttribute("query", query);
+        addCommonAttributes(model);
         return "blog";
     }
 
     /**
      * Показва пагиниран списък с публикации от определена категория.
      * @param categoryName Името на категорията.
-     * @param currentPage Номер на текущата страница.
+     * @param cursor Курсор към страницата (липсва за първата страница).
      * @param model Модел за подаване на данни.
      * @return Името на шаблона 'blog'.
      */
     @GetMapping("/category/{categoryName}")
-    public String getBlogsByCategory(@PathVariable("categoryName") String categoryName, @RequestParam(value = "page", defaultValue = "0") int currentPage, Model model) {
-        Page<Blog> blogPage = blogService.findBlogsByCategoryPaginated(categoryName, currentPage, PAGE_SIZE);
-        model.addAttribute("blogs", blogPage.getContent());
-        model.addAttribute("totalPages", blogPage.getTotalPages());
-        model.addAttribute("currentPage", currentPage);
+    public String getBlogsByCategory(@PathVariable("categoryName") String categoryName,
+                                     @RequestParam(value = "cursor", required = false) String cursor, Model model) {
+        BlogFeedPage feedPage = blogService.findBlogsByCategoryFeed(categoryName, cursor, PAGE_SIZE);
+        addFeedAttributes(model, feedPage, UriComponentsBuilder.fromPath("/blog/category/{name}").buildAndExpand(categoryName).encode().toUriString());
         model.addAttribute("categoryName", categoryName);
+        addCommonAttributes(model);
         return "blog";
     }
 
     /**
      * Показва пагиниран списък с публикации, маркирани с определен таг.
      * @param tagName Името на тага.
-     * @param currentPage Номер на текущата страница.
+     * @param cursor Курсор към страницата (липсва за първата страница).
      * @param model Модел за подаване на данни.
      * @return Името на шаблона 'blog'.
      */
     @GetMapping("/tag/{tagName}")
-    public String getBlogsByTag(@PathVariable("tagName") String tagName, @RequestParam(value = "page", defaultValue = "0") int currentPage, Model model) {
-        Page<Blog> blogPage = blogService.findBlogsByTagPaginated(tagName, currentPage, PAGE_SIZE);
-        model.addAttribute("blogs", blogPage.getContent());
-        model.addAttribute("totalPages", blogPage.getTotalPages());
-        model.addAttribute("currentPage", currentPage);
+    public String getBlogsByTag(@PathVariable("tagName") String tagName,
+                                @RequestParam(value = "cursor", required = false) String cursor, Model model) {
+        BlogFeedPage feedPage = blogService.findBlogsByTagFeed(tagName, cursor, PAGE_SIZE);
+        addFeedAttributes(model, feedPage, UriComponentsBuilder.fromPath("/blog/tag/{name}").buildAndExpand(tagName).encode().toUriString());
         model.addAttribute("tagName", tagName);
+        addCommonAttributes(model);
         return "blog";
     }
 
@@ -273,6 +332,28 @@ public class BlogController {
         }
     }
 
+    /**
+     * Предлага съществуващи тагове, докато авторът пише във формата за публикация.
+     * @param prefix Въведеното начало на тага (без значение от регистъра).
+     * @return Списък с имена като JSON, подредени по брой публикации.
+     */
+    @GetMapping("/suggest/tags")
+    @ResponseBody
+    public List<String> suggestTags(@RequestParam(value = "q", defaultValue = "") String prefix) {
+        return taxonomyAutocomplete.suggestTags(prefix, SUGGESTIONS);
+    }
+
+    /**
+     * Предлага съществуващи категории, докато авторът пише във формата за публикация.
+     * @param prefix Въведеното начало на категорията (без значение от регистъра).
+     * @return Списък с имена като JSON, подредени по брой публикации.
+     */
+    @GetMapping("/suggest/categories")
+    @ResponseBody
+    public List<String> suggestCategories(@RequestParam(value = "q", defaultValue = "") String prefix) {
+        return taxonomyAutocomplete.suggestCategories(prefix, SUGGESTIONS);
+    }
+
 
     /**
      * Обработва създаването на нова блог публикация (от администратор).
@@ -337,7 +418,7 @@ public class BlogController {
             existingBlog.setImage(updatedBlog.getImage());
             existingBlog.setCategories(updatedBlog.getCategories());
             existingBlog.setTags(updatedBlog.getTags());
-            blogService.save(existingBlog);
+            blogService.update(existingBlog);
             redirectAttributes.addFlashAttribute("success", "Блогът е обновен успешно.");
         } else {
             redirectAttributes.addFlashAttribute("error", "Блогът не е намерен.");
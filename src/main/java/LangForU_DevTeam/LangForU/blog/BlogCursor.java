@@ -0,0 +1,76 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Позиция в списък с блог публикации, подредени по (дата, ID) в низходящ ред (keyset пагинация).
+ * <p>
+ * Курсорът сочи публикацията на границата на страницата и посоката на четене: напред - публикациите след нея,
+ * назад - публикациите преди нея. Пази се и номерът на страницата, към която води, само за показване.
+ * Към клиента се подава като непрозрачен низ ({@link #encode()}), за да не зависят връзките от формата му.
+ */
+@Getter
+@AllArgsConstructor
+public final class BlogCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Дата на граничната публикация.
+     */
+    private final LocalDate date;
+
+    /**
+     * ID на граничната публикация.
+     */
+    private final long id;
+
+    /**
+     * true - следващата страница (по-стари публикации), false - предишната (по-нови публикации).
+     */
+    private final boolean forward;
+
+    /**
+     * Номер на страницата (от 0), към която води курсорът.
+     */
+    private final int page;
+
+    /**
+     * @return Курсорът като низ, безопасен за URL.
+     */
+    public String encode() {
+        String raw = date + "|" + id + "|" + (forward ? "n" : "p") + "|" + page;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разчита курсор, получен от клиента.
+     * @param token Низът от {@link #encode()} (може да бъде null).
+     * @return {@link Optional} с курсора или празен, ако низът липсва или е невалиден.
+     */
+    public static Optional<BlogCursor> decode(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 4 || !(parts[2].equals("n") || parts[2].equals("p"))) {
+                return Optional.empty();
+            }
+            int page = Integer.parseInt(parts[3]);
+            if (page < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new BlogCursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]), parts[2].equals("n"), page));
+        } catch (RuntimeException e) { // Невалиден Base64, дата или число.
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import LangForU_DevTeam.LangForU.customSettings.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Кеш за броя на публикациите във всеки списък (всички, по категория, по таг).
+ * <p>
+ * При keyset пагинацията самата страница не се нуждае от COUNT заявка - броят се използва само за
+ * показване на общия брой страници. Затова се изчислява веднъж за всеки списък и се изчиства от
+ * {@link BlogService} при създаване, редакция и изтриване на публикация.
+ * <p>
+ * Пази и момента на последната такава промяна: от него зависят връзките към предишната и следващата
+ * публикация на детайлната страница, затова участва в нейния Last-Modified.
+ */
+@Component
+public class BlogFeedCountCache {
+
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    // Началото е моментът на стартиране, за да не се потвърди страница, кеширана преди рестарта.
+    private volatile LocalDateTime changedAt = LocalDateTime.now();
+
+    /**
+     * Връща броя на публикациите в даден списък, като го изчислява при първа заявка.
+     * @param feed Ключ на списъка (напр. "category:English").
+     * @param loader Заявка за преброяване.
+     * @return Броят на публикациите.
+     */
+    public long get(String feed, LongSupplier loader) {
+        return counts.computeIfAbsent(feed, key -> loader.getAsLong());
+    }
+
+    /**
+     * Изчиства всички броеве след потвърждаване на записа, за да не се кешира отново старият брой (вж. {@link AfterCommit}).
+     */
+    public void invalidate() {
+        AfterCommit.run(this::clear);
+    }
+
+    /**
+     * @return Моментът на последното създаване, редакция или изтриване на публикация
+     * (или на стартиране на приложението, ако няма такива оттогава).
+     */
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    private void clear() {
+        counts.clear();
+        changedAt = LocalDateTime.now();
+    }
+}
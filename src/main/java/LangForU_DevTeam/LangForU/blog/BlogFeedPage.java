@@ -0,0 +1,39 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Една страница от списък с блог публикации, прочетена с keyset пагинация (вж. {@link BlogCursor}).
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета.
+public class BlogFeedPage {
+
+    /**
+     * Картите на публикациите от страницата.
+     */
+    private final List<BlogCard> blogs;
+
+    /**
+     * Курсор към предишната страница или null, ако това е първата.
+     */
+    private final String previousCursor;
+
+    /**
+     * Курсор към следващата страница или null, ако това е последната.
+     */
+    private final String nextCursor;
+
+    /**
+     * Номер на страницата (от 0).
+     */
+    private final int currentPage;
+
+    /**
+     * Общ брой страници (от кеширания брой публикации).
+     */
+    private final int totalPages;
+}
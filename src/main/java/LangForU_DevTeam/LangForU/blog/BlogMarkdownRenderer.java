@@ -0,0 +1,54 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Safelist;
+import org.springframework.stereotype.Component;
+
+/**
+ * Преобразува текста на блог публикация от Markdown в санитизиран HTML.
+ * <p>
+ * Преобразуването се извършва веднъж при запис на публикацията, а резултатът се пази в
+ * {@link Blog#getBlogHtml()} и се показва директно, без работа при всяко отваряне на страницата.
+ * <ul>
+ *     <li>Суровият HTML в Markdown текста се екранира, а опасните адреси (напр. {@code javascript:}) се премахват.</li>
+ *     <li>Резултатът минава и през списък с позволени елементи и атрибути ({@link Safelist#relaxed()}).</li>
+ *     <li>Единичните нови редове се запазват като {@code <br>}, така че досегашните публикации с обикновен текст
+ *     изглеждат както преди.</li>
+ * </ul>
+ * Парсерът и рендерерът нямат състояние и се споделят между нишките.
+ */
+@Component
+public class BlogMarkdownRenderer {
+
+    /**
+     * Базов адрес, спрямо който се проверяват относителните връзки (напр. {@code /courses}); в резултата те остават относителни.
+     */
+    private static final String BASE_URI = "https://langforu.local/";
+
+    private final Parser parser = Parser.builder().build();
+
+    private final HtmlRenderer renderer = HtmlRenderer.builder()
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .softbreak("<br>\n")
+            .build();
+
+    private final Safelist safelist = Safelist.relaxed()
+            .addEnforcedAttribute("a", "rel", "nofollow noopener")
+            .preserveRelativeLinks(true);
+
+    /**
+     * @param markdown Текстът на публикацията в Markdown (може да бъде null).
+     * @return Санитизираният HTML или празен низ за празен текст.
+     */
+    public String render(String markdown) {
+        if (markdown == null || markdown.isBlank()) {
+            return "";
+        }
+        String html = renderer.render(parser.parse(markdown));
+        return Jsoup.clean(html, BASE_URI, safelist, new Document.OutputSettings().prettyPrint(false));
+    }
+}
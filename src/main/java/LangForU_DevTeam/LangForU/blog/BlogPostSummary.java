@@ -0,0 +1,35 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция (DTO) с основните данни за блог публикация, показвани в страничната лента.
+ * Попълва се директно от JPQL заявка, без да се зареждат текстът, коментарите и харесванията.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета (използва се от JPQL "SELECT new").
+public class BlogPostSummary {
+
+    /**
+     * ID на публикацията.
+     */
+    private final Long id;
+
+    /**
+     * Заглавие на публикацията.
+     */
+    private final String name;
+
+    /**
+     * Път до изображението на публикацията.
+     */
+    private final String image;
+
+    /**
+     * Дата на публикуване.
+     */
+    private final LocalDate date;
+}
@@ -2,11 +2,17 @@ package LangForU_DevTeam.LangForU.blog;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,24 +38,127 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
      */
     List<Blog> findTop5ByOrderByDateDesc();
 
+    /**
+     * Намира най-новите публикации като проекции, без да зарежда текста, коментарите и харесванията.
+     * @param pageable Броят на публикациите (номерът на страницата трябва да бъде 0).
+     * @return Списък от {@link BlogPostSummary}, подредени по дата в низходящ ред.
+     */
+    @Query("SELECT new LangForU_DevTeam.LangForU.blog.BlogPostSummary(b.id, b.name, b.image, b.date) FROM Blog b ORDER BY b.date DESC, b.id DESC")
+    List<BlogPostSummary> findRecentPostSummaries(Pageable pageable);
+
+    /**
+     * Намира публикациите с дадените ID-та като проекции (в произволен ред).
+     * Използва се за класацията "Популярни сега", подредена в паметта.
+     * @param ids ID-тата на публикациите.
+     * @return Списък от {@link BlogPostSummary}.
+     */
+    @Query("SELECT new LangForU_DevTeam.LangForU.blog.BlogPostSummary(b.id, b.name, b.image, b.date) FROM Blog b WHERE b.id IN :ids")
+    List<BlogPostSummary> findPostSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Начало на заявките, които връщат {@link BlogCard}: броят на коментарите се изчислява в същата заявка,
+     * а броят на харесванията идва от брояча в публикацията.
+     */
+    String CARD_SELECT = "SELECT new LangForU_DevTeam.LangForU.blog.BlogCard(b.id, b.name, b.shortExplanation, b.date, b.image, a.name, " +
+            "(SELECT COUNT(c) FROM Blog_Comment c WHERE c.blog = b), b.likeCount) FROM Blog b JOIN b.author a ";
+
+    /**
+     * Условие за публикациите след курсора (по-стари) при подредба по (дата, ID) в низходящ ред.
+     */
+    String AFTER_CURSOR = "(b.date < :date OR (b.date = :date AND b.id < :id)) ";
+
+    /**
+     * Условие за публикациите преди курсора (по-нови) - четат се във възходящ ред и се обръщат.
+     */
+    String BEFORE_CURSOR = "(b.date > :date OR (b.date = :date AND b.id > :id)) ";
+
+    /**
+     * Намира следващите публикации след курсора (keyset пагинация), без OFFSET и без COUNT.
+     * @param date Дата на граничната публикация.
+     * @param id ID на граничната публикация.
+     * @param pageable Размерът на страницата (номерът на страницата трябва да бъде 0).
+     * @return Списък от {@link BlogCard}, подредени по дата и ID в низходящ ред.
+     */
+    @Query(CARD_SELECT + "WHERE " + AFTER_CURSOR + "ORDER BY b.date DESC, b.id DESC")
+    List<BlogCard> findCardsAfter(@Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Намира предишните публикации преди курсора (keyset пагинация).
+     * @param date Дата на граничната публикация.
+     * @param id ID на граничната публикация.
+     * @param pageable Размерът на страницата (номерът на страницата трябва да бъде 0).
+     * @return Списък от {@link BlogCard}, подредени по дата и ID във възходящ ред.
+     */
+    @Query(CARD_SELECT + "WHERE " + BEFORE_CURSOR + "ORDER BY b.date ASC, b.id ASC")
+    List<BlogCard> findCardsBefore(@Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Като {@link #findCardsAfter}, но само за публикациите от дадена категория.
+     */
+    @Query(CARD_SELECT + "JOIN b.assignedCategories bc WHERE bc.name = :category AND " + AFTER_CURSOR + "ORDER BY b.date DESC, b.id DESC")
+    List<BlogCard> findCardsByCategoryAfter(@Param("category") String category, @Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Като {@link #findCardsBefore}, но само за публикациите от дадена категория.
+     */
+    @Query(CARD_SELECT + "JOIN b.assignedCategories bc WHERE bc.name = :category AND " + BEFORE_CURSOR + "ORDER BY b.date ASC, b.id ASC")
+    List<BlogCard> findCardsByCategoryBefore(@Param("category") String category, @Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Като {@link #findCardsAfter}, но само за публикациите с даден таг.
+     */
+    @Query(CARD_SELECT + "JOIN b.assignedTags bt WHERE bt.name = :tagName AND " + AFTER_CURSOR + "ORDER BY b.date DESC, b.id DESC")
+    List<BlogCard> findCardsByTagAfter(@Param("tagName") String tagName, @Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Като {@link #findCardsBefore}, но само за публикациите с даден таг.
+     */
+    @Query(CARD_SELECT + "JOIN b.assignedTags bt WHERE bt.name = :tagName AND " + BEFORE_CURSOR + "ORDER BY b.date ASC, b.id ASC")
+    List<BlogCard> findCardsByTagBefore(@Param("tagName") String tagName, @Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Преброява публикациите от дадена категория.
+     * @param category Името на категорията.
+     * @return Броят на публикациите.
+     */
+    @Query("SELECT COUNT(b) FROM Blog b JOIN b.assignedCategories bc WHERE bc.name = :category")
+    long countByCategory(@Param("category") String category);
+
+    /**
+     * Преброява публикациите с даден таг.
+     * @param tagName Името на тага.
+     * @return Броят на публикациите.
+     */
+    @Query("SELECT COUNT(b) FROM Blog b JOIN b.assignedTags bt WHERE bt.name = :tagName")
+    long countByTag(@Param("tagName") String tagName);
+
+    /**
+     * Връща картите на публикациите с дадените ID-та (в произволен ред).
+     * Използва се за показване на резултатите от търсенето, подредени от {@link BlogSearchIndex}.
+     * @param ids ID-тата на публикациите.
+     * @return Списък от {@link BlogCard}.
+     */
+    @Query(CARD_SELECT + "WHERE b.id IN :ids")
+    List<BlogCard> findCardsByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Намира всички блог публикации, които принадлежат към дадена категория.
-     * Използва JPQL заявка с оператор 'MEMBER OF' за търсене в колекция.
+     * Използва съединяване по индексираната свързваща таблица blog_category.
      * @param category Името на категорията за филтриране.
      * @param pageable Обект за пагинация.
      * @return {@link Page} с намерените публикации.
      */
-    @Query("SELECT b FROM Blog b WHERE :category MEMBER OF b.categories")
+    @Query("SELECT b FROM Blog b JOIN b.assignedCategories bc WHERE bc.name = :category")
     Page<Blog> findByCategory(@Param("category") String category, Pageable pageable);
 
     /**
      * Намира всички блог публикации, които са маркирани с даден таг.
-     * Използва JPQL заявка с оператор 'MEMBER OF' за търсене в колекция.
+     * Използва съединяване по индексираната свързваща таблица blog_tag.
      * @param tagName Името на тага за филтриране.
      * @param pageable Обект за пагинация.
      * @return {@link Page} с намерените публикации.
      */
-    @Query("SELECT b FROM Blog b WHERE :tagName MEMBER OF b.tags")
+    @Query("SELECT b FROM Blog b JOIN b.assignedTags bt WHERE bt.name = :tagName")
     Page<Blog> findByTag(@Param("tagName") String tagName, Pageable pageable);
 
     /**
@@ -69,19 +178,105 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
     Optional<Blog> findFirstByIdGreaterThanOrderByIdAsc(Long id);
 
     /**
-     * Извлича топ 5 (въпреки LIMIT 6) най-популярни категории по брой публикации.
-     * Използва се Native SQL заявка.
-     * @return Списък от масиви Object[], където всеки масив съдържа [име на категория, брой публикации].
+     * Проверява дали в базата данни има таблица с дадено име (напр. старите таблици с тагове).
+     * Използва се Native SQL заявка към information_schema.
+     * @param tableName Името на таблицата с малки букви.
+     * @return Броят на таблиците с това име.
+     */
+    @Query(value = "SELECT COUNT(*) FROM information_schema.tables WHERE LOWER(table_name) = :tableName", nativeQuery = true)
+    long countTablesNamed(@Param("tableName") String tableName);
+
+    /**
+     * Извлича текстовите полета на следващата страница от публикации (по ID) за изграждане на индекса за търсене.
+     * @param afterId ID на последната вече прочетена публикация (0 за начало).
+     * @param pageable Размерът на страницата (номерът на страницата трябва да бъде 0).
+     * @return Списък от масиви [ID, заглавие, кратко обяснение, текст], подредени по ID.
+     */
+    @Query("SELECT b.id, b.name, b.shortExplanation, b.blogText FROM Blog b WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findSearchDocumentsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Извлича таговете на дадените публикации с една заявка.
+     * @param ids ID-тата на публикациите.
+     * @return Списък от масиви [ID на публикация, таг].
+     */
+    @Query("SELECT b.id, t.name FROM Blog b JOIN b.assignedTags t WHERE b.id IN :ids")
+    List<Object[]> findTagsByBlogIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Намира публикация по ID и заключва реда ѝ до края на трансакцията.
+     * Използва се, за да се сериализират харесванията на една и съща публикация.
+     * @param id ID на публикацията.
+     * @return {@link Optional} със заключената публикация.
      */
-    @Query(value = "SELECT bc.categories, COUNT(b.id) FROM blog b JOIN blog_categories bc ON b.id = bc.blog_id GROUP BY bc.categories ORDER BY COUNT(b.id) DESC LIMIT 6", nativeQuery = true)
-    List<Object[]> findTop5Categories();
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Blog b WHERE b.id = :id")
+    Optional<Blog> findByIdForUpdate(@Param("id") Long id);
 
     /**
-     * Извлича топ 5 (въпреки LIMIT 10) най-популярни тагове по брой публикации.
-     * Използва се Native SQL заявка.
-     * @return Списък от масиви Object[], където всеки масив съдържа [име на таг, брой публикации].
+     * Атомарно променя брояча на харесванията с дадена стойност.
+     * @param id ID на публикацията.
+     * @param delta С колко да се промени броячът (+1 или -1).
+     * @return Броят на обновените редове.
      */
-    @Query(value = "SELECT bt.tags, COUNT(b.id) FROM blog b JOIN blog_tags bt ON b.id = bt.blog_id GROUP BY bt.tags ORDER BY COUNT(b.id) DESC LIMIT 10", nativeQuery = true)
-    List<Object[]> findTop5Tags();
+    @Modifying
+    @Query("UPDATE Blog b SET b.likeCount = b.likeCount + :delta WHERE b.id = :id")
+    int adjustLikeCount(@Param("id") Long id, @Param("delta") long delta);
 
-}
\ No newline at end of file
+    /**
+     * Коригира броячите на харесванията, които се разминават с таблицата с харесвания.
+     * Публикациите с верен брояч не се презаписват.
+     * @return Броят на коригираните публикации.
+     */
+    @Modifying
+    @Query("UPDATE Blog b SET b.likeCount = (SELECT COUNT(l) FROM Blog_Like l WHERE l.blog = b) " +
+            "WHERE b.likeCount <> (SELECT COUNT(l) FROM Blog_Like l WHERE l.blog = b)")
+    int resyncLikeCounts();
+
+    /**
+     * Премахва връзките родител-отговор между коментарите към публикация,
+     * за да могат коментарите да се изтрият каскадно в произволен ред.
+     * @param blogId ID на публикацията.
+     * @return Броят на обновените коментари.
+     */
+    @Modifying
+    @Query("UPDATE Blog_Comment c SET c.parent = null WHERE c.blog.id = :blogId AND c.parent IS NOT NULL")
+    int detachCommentReplies(@Param("blogId") Long blogId);
+
+    /**
+     * Чете момента на последната промяна на публикация, без да я зарежда.
+     * @param id ID на публикацията.
+     * @return {@link Optional} с момента (празен, ако публикацията не съществува).
+     */
+    @Query("SELECT b.lastModified FROM Blog b WHERE b.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Long id);
+
+    /**
+     * Отбелязва, че страницата на публикацията е променена (нов коментар или харесване).
+     * @param id ID на публикацията.
+     * @param now Моментът на промяната.
+     * @return Броят на обновените редове.
+     */
+    @Modifying
+    @Query("UPDATE Blog b SET b.lastModified = :now WHERE b.id = :id")
+    int markModified(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Извлича следващата страница от публикации, чийто текст още не е преобразуван в HTML.
+     * @param afterId ID на последната вече обработена публикация (0 за начало).
+     * @param pageable Размерът на страницата (номерът на страницата трябва да бъде 0).
+     * @return Списък от масиви [ID, текст], подредени по ID.
+     */
+    @Query("SELECT b.id, b.blogText FROM Blog b WHERE b.blogHtml IS NULL AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findWithoutHtmlAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Записва генерирания HTML на публикация, без да я зарежда.
+     * @param id ID на публикацията.
+     * @param html Санитизираният HTML.
+     * @return Броят на обновените редове.
+     */
+    @Modifying
+    @Query("UPDATE Blog b SET b.blogHtml = :html WHERE b.id = :id")
+    int updateHtml(@Param("id") Long id, @Param("html") String html);
+}
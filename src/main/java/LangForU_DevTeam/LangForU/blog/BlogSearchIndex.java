@@ -0,0 +1,445 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import LangForU_DevTeam.LangForU.customSettings.AfterCommit;
+import LangForU_DevTeam.LangForU.search.TextAnalyzer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Пълнотекстов индекс в паметта за блог публикациите (обърнат индекс с BM25 класиране).
+ * <p>
+ * Индексират се заглавието, краткото обяснение, основният текст и таговете, анализирани с {@link TextAnalyzer}.
+ * Съвпадение в заглавието тежи повече от съвпадение в текста (BM25F с тегла на полетата).
+ * Индексът се изгражда изцяло от базата данни при стартиране и се обновява от {@link BlogService}
+ * при създаване, редакция и изтриване на публикация.
+ */
+@Component
+public class BlogSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlogSearchIndex.class);
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float TAG_WEIGHT = 2f;
+    private static final float SHORT_EXPLANATION_WEIGHT = 2f;
+    private static final float TEXT_WEIGHT = 1f;
+    private static final double K1 = 1.2; // BM25: насищане на честотата на термина.
+    private static final double B = 0.75; // BM25: нормализация по дължината на документа.
+
+    //<editor-fold desc="Dependencies">
+    private final BlogRepository blogRepository;
+    //</editor-fold>
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>(); // термин -> публикациите, в които се среща
+    private final Map<Long, Integer> ordinals = new HashMap<>(); // ID на публикация -> пореден номер в индекса
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>(); // Освободени поредни номера за повторна употреба.
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>(); // Буфери за натрупване на резултатите.
+    private long[] ids = new long[16]; // пореден номер -> ID на публикация
+    private IndexedDocument[] documents = new IndexedDocument[16]; // пореден номер -> термини и дължина
+    private float[] lengths = new float[16]; // пореден номер -> претеглена дължина (копие за бързо четене при търсене)
+    private int nextOrdinal;
+    private double totalLength;
+    private Map<Long, IndexedDocument> changedDuringRebuild; // промени, потвърдени по време на пълно изграждане (null = изтриване)
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param blogRepository Репозитори за блог публикации (за пълното изграждане на индекса).
+     */
+    public BlogSearchIndex(BlogRepository blogRepository) {
+        this.blogRepository = blogRepository;
+    }
+
+    /**
+     * Изгражда индекса наново от всички публикации в базата данни.
+     * Публикациите се четат на страници по ID като проекции, без да се зареждат ентитети.
+     * Четенето става без заключване, затова публикациите, добавени, редактирани или изтрити междувременно,
+     * се записват отделно и се прилагат върху новия индекс при подмяната му.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, IndexedDocument> fresh = new HashMap<>();
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = blogRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add((Long) row[0]);
+            }
+            Map<Long, List<String>> tags = new HashMap<>();
+            for (Object[] tag : blogRepository.findTagsByBlogIds(ids)) {
+                tags.computeIfAbsent((Long) tag[0], id -> new ArrayList<>()).add((String) tag[1]);
+            }
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                fresh.put(id, analyze((String) row[1], (String) row[2], (String) row[3], tags.get(id)));
+            }
+            afterId = ids.get(ids.size() - 1);
+        } while (rows.size() == REBUILD_PAGE_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach((id, document) -> {
+                if (document == null) {
+                    fresh.remove(id);
+                } else {
+                    fresh.put(id, document);
+                }
+            });
+            changedDuringRebuild = null;
+            postings.clear();
+            ordinals.clear();
+            freeOrdinals.clear();
+            ids = new long[Math.max(16, fresh.size())];
+            documents = new IndexedDocument[ids.length];
+            lengths = new float[ids.length];
+            nextOrdinal = 0;
+            totalLength = 0;
+            fresh.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Индексът за търсене в блога е изграден: {} публикации, {} термина.", fresh.size(), postings.size());
+    }
+
+    /**
+     * Добавя или обновява публикация в индекса.
+     * Текстът се анализира веднага, а промяната в индекса се прилага след потвърждаване на активната трансакция.
+     * @param blog Запазената публикация (с ID).
+     */
+    public void index(Blog blog) {
+        Long id = blog.getId();
+        IndexedDocument document = analyze(blog.getName(), blog.getShortExplanation(), blog.getBlogText(), blog.getTags());
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(id);
+                add(id, document);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.put(id, document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Премахва публикация от индекса (след потвърждаване на активната трансакция).
+     * @param blogId ID на изтритата публикация.
+     */
+    public void delete(Long blogId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(blogId);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.put(blogId, null);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Търси публикации по заявка и ги подрежда по релевантност (BM25).
+     * Публикация съвпада, ако съдържа поне един от термините на заявката.
+     * Резултатите се натрупват в масив по пореден номер на публикацията, а най-добрите се избират с куп
+     * с ограничен размер, така че заявката не заделя обекти за всяко съвпадение.
+     * @param query Текстът на заявката.
+     * @param offset Колко от най-релевантните резултати да се пропуснат.
+     * @param limit Максимален брой върнати резултати.
+     * @return {@link Hits} с ID-тата на публикациите от страницата и общия брой съвпадения.
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return new Hits(Collections.emptyList(), 0);
+        }
+
+        lock.readLock().lock();
+        Scratch scratch = borrowScratch();
+        try {
+            float[] scores = scratch.scores;
+            int[] touched = scratch.touched;
+            float[] lengths = this.lengths;
+            int matches = 0;
+            int documentCount = ordinals.size();
+            double averageLength = documentCount == 0 ? 0 : totalLength / documentCount;
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int df = termPostings.size;
+                double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+                int[] docs = termPostings.docs;
+                float[] tfs = termPostings.tfs;
+                for (int i = 0; i < df; i++) {
+                    int ordinal = docs[i];
+                    float tf = tfs[i];
+                    double norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                    if (scores[ordinal] == 0) { // BM25 резултатът винаги е положителен.
+                        touched[matches++] = ordinal;
+                    }
+                    scores[ordinal] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            List<Long> page = topIds(scores, touched, matches, offset, limit);
+            for (int i = 0; i < matches; i++) {
+                scores[touched[i]] = 0;
+            }
+            return new Hits(page, matches);
+        } finally {
+            scratchPool.offer(scratch);
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Броят на индексираните публикации.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Избира най-добрите {@code offset + limit} резултата с min-куп върху поредните номера,
+     * вместо да сортира всички съвпадения. При равен резултат по-новата публикация (по-голямо ID) е първа.
+     */
+    private List<Long> topIds(float[] scores, int[] touched, int matches, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, matches);
+        if (offset >= wanted) {
+            return Collections.emptyList();
+        }
+        int[] heap = new int[wanted];
+        int size = 0;
+        for (int i = 0; i < matches; i++) {
+            int ordinal = touched[i];
+            if (size < wanted) {
+                heap[size] = ordinal;
+                siftUp(heap, size++, scores);
+            } else if (better(ordinal, heap[0], scores)) {
+                heap[0] = ordinal;
+                siftDown(heap, size, scores);
+            }
+        }
+        Long[] ranked = new Long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ranked[i] = ids[heap[0]];
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+        return Arrays.asList(ranked).subList(offset, size);
+    }
+
+    private boolean better(int a, int b, float[] scores) {
+        return scores[a] != scores[b] ? scores[a] > scores[b] : ids[a] > ids[b];
+    }
+
+    private void siftUp(int[] heap, int index, float[] scores) {
+        int ordinal = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], ordinal, scores)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = ordinal;
+    }
+
+    private void siftDown(int[] heap, int size, float[] scores) {
+        int ordinal = heap[0];
+        int index = 0;
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && better(heap[child], heap[child + 1], scores)) {
+                child++;
+            }
+            if (!better(ordinal, heap[child], scores)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = ordinal;
+    }
+
+    /**
+     * Взема буфер от пула или създава нов. Извиква се само под заключване за четене,
+     * така че размерът на индекса не се променя, докато буферът се използва.
+     */
+    private Scratch borrowScratch() {
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null || scratch.scores.length < nextOrdinal) {
+            scratch = new Scratch(Math.max(nextOrdinal, ids.length));
+        }
+        return scratch;
+    }
+
+    private static IndexedDocument analyze(String title, String shortExplanation, String text, List<String> tags) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        length += addField(frequencies, title, TITLE_WEIGHT);
+        length += addField(frequencies, shortExplanation, SHORT_EXPLANATION_WEIGHT);
+        length += addField(frequencies, text, TEXT_WEIGHT);
+        if (tags != null) {
+            for (String tag : tags) {
+                length += addField(frequencies, tag, TAG_WEIGHT);
+            }
+        }
+        return new IndexedDocument(frequencies, length);
+    }
+
+    private static float addField(Map<String, Float> frequencies, String value, float weight) {
+        List<String> terms = TextAnalyzer.analyze(value);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    /**
+     * Извиква се само под заключване за запис.
+     */
+    private void add(Long id, IndexedDocument document) {
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        if (ordinal >= ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            documents = Arrays.copyOf(documents, ids.length);
+            lengths = Arrays.copyOf(lengths, ids.length);
+        }
+        ordinals.put(id, ordinal);
+        ids[ordinal] = id;
+        documents[ordinal] = document;
+        lengths[ordinal] = document.getLength();
+        totalLength += document.getLength();
+        document.getFrequencies().forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, tf));
+    }
+
+    /**
+     * Извиква се само под заключване за запис.
+     */
+    private void remove(Long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        IndexedDocument previous = documents[ordinal];
+        documents[ordinal] = null;
+        freeOrdinals.push(ordinal);
+        totalLength -= previous.getLength();
+        for (String term : previous.getFrequencies().keySet()) {
+            Postings termPostings = postings.get(term);
+            if (termPostings != null && termPostings.remove(ordinal) && termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Резултат от търсене: ID-тата на публикациите от поисканата страница (по релевантност) и общият брой съвпадения.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Hits {
+        private final List<Long> ids;
+        private final long total;
+    }
+
+    /**
+     * Списък с публикациите, в които се среща един термин: поредни номера и претеглени честоти в паралелни масиви.
+     */
+    private static class Postings {
+        private int[] docs = new int[4];
+        private float[] tfs = new float[4];
+        private int size;
+
+        void add(int ordinal, float tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = ordinal;
+            tfs[size] = tf;
+            size++;
+        }
+
+        /**
+         * Премахва публикация, като на мястото ѝ се премества последният елемент (редът не е от значение).
+         */
+        boolean remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == ordinal) {
+                    size--;
+                    docs[i] = docs[size];
+                    tfs[i] = tfs[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Буфер за една заявка: натрупаните резултати по пореден номер и списък с докоснатите публикации.
+     * Буферите се използват повторно, а след всяка заявка се нулират само докоснатите позиции.
+     */
+    private static class Scratch {
+        private final float[] scores;
+        private final int[] touched;
+
+        Scratch(int capacity) {
+            this.scores = new float[capacity];
+            this.touched = new int[capacity];
+        }
+    }
+
+    /**
+     * Анализирана публикация: претеглените честоти на термините ѝ и претеглената ѝ дължина.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class IndexedDocument {
+        private final Map<String, Float> frequencies;
+        private final float length;
+    }
+}
@@ -3,20 +3,30 @@ package LangForU_DevTeam.LangForU.blog;
 import LangForU_DevTeam.LangForU.email.EmailService;
 import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import LangForU_DevTeam.LangForU.like.Blog_Like_Service;
-import LangForU_DevTeam.LangForU.subscriber.Subscriber;
-import LangForU_DevTeam.LangForU.subscriber.SubscriberRepository;
-import LangForU_DevTeam.LangForU.subscriber.SubscriberService;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import LangForU_DevTeam.LangForU.subscriber.NewsletterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 /**
  * Сервизен клас, който капсулира бизнес логиката, свързана с блог публикациите.
@@ -25,28 +35,64 @@ import java.util.Optional;
 @Service
 public class BlogService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlogService.class);
+
+    /**
+     * Брой публикации, чийто HTML се генерира наведнъж при стартиране.
+     */
+    private static final int HTML_BACKFILL_PAGE_SIZE = 100;
+
+    /**
+     * Позиция преди най-новата възможна публикация - курсорът на първата страница.
+     */
+    private static final LocalDate FEED_START_DATE = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Брой категории и тагове в страничната лента.
+     */
+    private static final int TOP_CATEGORIES = 6;
+    private static final int TOP_TAGS = 10;
+
     //<editor-fold desc="Dependencies">
     private final BlogRepository blogRepository;
     private final Blog_Like_Service blogLikeService;
-    private final SubscriberService subscriberService;
-    private final SubscriberRepository subscriberRepository;
+    private final NewsletterService newsletterService;
+    private final BlogSidebarCache sidebarCache;
+    private final BlogSearchIndex searchIndex;
+    private final BlogFeedCountCache feedCounts;
+    private final RenderedPageCache pageCache;
+    private final BlogMarkdownRenderer markdownRenderer;
+    private final BlogTaxonomyService taxonomyService;
     //</editor-fold>
 
     /**
      * Конструктор за инжектиране на зависимости.
      * @param blogRepository Репозитори за блог публикации.
      * @param blogLikeService Сервиз за управление на харесвания. Използва @Lazy за предотвратяване на циклични зависимости.
-     * @param subscriberService Сервиз за управление на абонати.
      * @param emailService Сервиз за изпращане на имейли (не се използва в класа).
      * @param emailTemplateService Сервиз за имейл шаблони (не се използва в класа).
-     * @param subscriberRepository Репозитори за абонати.
+     * @param newsletterService Сервиз за разпращане на бюлетини до абонатите.
+     * @param sidebarCache Кеш за страничната лента на блога.
+     * @param searchIndex Пълнотекстов индекс за търсене в блога.
+     * @param feedCounts Кеш за броя на публикациите във всеки списък.
+     * @param pageCache Кеш за генерираните страници на анонимните посетители.
+     * @param markdownRenderer Преобразува текста на публикациите от Markdown в HTML.
+     * @param taxonomyService Поддържа таговете и категориите на публикациите и броячите им.
      */
     @Autowired
-    public BlogService(BlogRepository blogRepository, @Lazy Blog_Like_Service blogLikeService, SubscriberService subscriberService, EmailService emailService, EmailTemplateService emailTemplateService, SubscriberRepository subscriberRepository) {
+    public BlogService(BlogRepository blogRepository, @Lazy Blog_Like_Service blogLikeService, EmailService emailService, EmailTemplateService emailTemplateService,
+                       NewsletterService newsletterService, BlogSidebarCache sidebarCache, BlogSearchIndex searchIndex,
+                       BlogFeedCountCache feedCounts, RenderedPageCache pageCache,
+                       BlogMarkdownRenderer markdownRenderer, BlogTaxonomyService taxonomyService) {
         this.blogRepository = blogRepository;
         this.blogLikeService = blogLikeService;
-        this.subscriberService = subscriberService;
-        this.subscriberRepository = subscriberRepository;
+        this.newsletterService = newsletterService;
+        this.sidebarCache = sidebarCache;
+        this.searchIndex = searchIndex;
+        this.feedCounts = feedCounts;
+        this.pageCache = pageCache;
+        this.markdownRenderer = markdownRenderer;
+        this.taxonomyService = taxonomyService;
     }
 
     /**
@@ -67,32 +113,65 @@ public class BlogService {
     }
 
     /**
-     * Запазва нова блог публикация и уведомява всички абонати за нея.
+     * Запазва нова блог публикация и създава задача за уведомяване на абонатите.
+     * Самото разпращане се извършва във фонов режим, на страници (вж. {@link NewsletterService}),
+     * така че заявката не чака обхождането на всички абонати. Текстът се преобразува в HTML веднъж, преди записа.
      * @param blog Обектът {@link Blog}, който да бъде запазен.
      * @return Запазеният {@link Blog} обект.
      */
+    @Transactional
     public Blog saveAndNotifySubscribers(Blog blog) {
+        blog.setBlogHtml(markdownRenderer.render(blog.getBlogText()));
+        taxonomyService.assign(blog);
         Blog savedBlog = blogRepository.save(blog);
-        List<Subscriber> subscribers = new ArrayList<>(subscriberRepository.findAll());
-
-        for (Subscriber subscriber : subscribers) {
-            try {
-                subscriberService.notifySubscriber(subscriber, blog);
-            } catch (Exception e) {
-                // Логва грешка, ако уведомлението за конкретен абонат се провали, но продължава със следващите.
-                System.err.println("Неуспешно уведомление за абонат: " + subscriber.getEmail());
-            }
-        }
+        newsletterService.startFanout(savedBlog);
+        sidebarCache.refresh();
+        searchIndex.index(savedBlog);
+        feedCounts.invalidate();
+        pageCache.invalidate();
         return savedBlog;
     }
 
     /**
      * Запазва (създава или обновява) блог публикация.
+     * Не обновява страничната лента, тъй като се използва и при промени, които не я засягат (напр. харесвания).
+     * HTML-ът на текста се генерира наново, а таговете и категориите се свързват наново.
      * @param blog Обектът {@link Blog} за запис.
      * @return Запазеният {@link Blog} обект.
      */
+    @Transactional
     public Blog save(Blog blog) {
-        return blogRepository.save(blog);
+        blog.setBlogHtml(markdownRenderer.render(blog.getBlogText()));
+        taxonomyService.assign(blog);
+        Blog savedBlog = blogRepository.save(blog);
+        pageCache.invalidate();
+        return savedBlog;
+    }
+
+    /**
+     * Запазва редактирана блог публикация, генерира наново HTML-а на текста и обновява страничната лента
+     * (заглавие, тагове, категории) и индекса за търсене.
+     * @param blog Редактираният {@link Blog}.
+     * @return Запазеният {@link Blog} обект.
+     */
+    @Transactional
+    public Blog update(Blog blog) {
+        blog.setBlogHtml(markdownRenderer.render(blog.getBlogText()));
+        taxonomyService.assign(blog);
+        Blog savedBlog = blogRepository.save(blog);
+        sidebarCache.refresh();
+        searchIndex.index(savedBlog);
+        feedCounts.invalidate(); // Категориите и таговете може да са променени.
+        pageCache.invalidate();
+        return savedBlog;
+    }
+
+    /**
+     * Връща данните за страничната лента на блога от кеша.
+     * @return {@link BlogSidebar}.
+     */
+    public BlogSidebar getSidebar() {
+        return sidebarCache.get();
     }
 
     /**
@@ -105,14 +184,23 @@ public class BlogService {
     }
 
     /**
-     * Връща пагиниран списък с всички блог публикации, подредени по дата на публикуване.
-     * @param currentPage Номер на текущата страница.
+     * Връща най-новите публикации като проекции (за страничната лента).
+     * @param limit Броят на публикациите.
+     * @return {@link List} от {@link BlogPostSummary}.
+     */
+    public List<BlogPostSummary> getRecentPostSummaries(int limit) {
+        return blogRepository.findRecentPostSummaries(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Връща страница от списъка с всички блог публикации, подредени по дата на публикуване (keyset пагинация).
+     * @param cursor Курсор от предишна страница ({@link BlogCursor#encode()}) или null за първата страница.
      * @param pageSize Брой елементи на страница.
-     * @return {@link Page} с блог публикации.
+     * @return {@link BlogFeedPage} с картите на публикациите и курсорите към съседните страници.
      */
-    public Page<Blog> findBlogsPaginated(int currentPage, int pageSize) {
-        Pageable pageable = PageRequest.of(currentPage, pageSize, Sort.by("date").descending());
-        return blogRepository.findAll(pageable);
+    public BlogFeedPage findBlogsFeed(String cursor, int pageSize) {
+        return readFeed(cursor, pageSize, blogRepository::findCardsAfter, blogRepository::findCardsBefore,
+                "all", blogRepository::count);
     }
 
     /**
@@ -133,6 +221,19 @@ public class BlogService {
         return blogRepository.findFirstByIdLessThanOrderByIdDesc(id).orElse(null);
     }
 
+    /**
+     * Връща момента на последната промяна на детайлната страница на публикация, без да я зарежда.
+     * Това е по-късният от момента на промяна на самата публикация (редакция, коментар, харесване) и
+     * момента на последната промяна в списъка с публикации (от който зависят връзките към съседните публикации).
+     * @param id ID на публикацията.
+     * @return {@link Optional} с момента (празен, ако публикацията не съществува или моментът е неизвестен).
+     */
+    public Optional<LocalDateTime> findDetailLastModified(Long id) {
+        LocalDateTime feedChangedAt = feedCounts.getChangedAt();
+        return blogRepository.findLastModifiedById(id)
+                .map(lastModified -> lastModified.isAfter(feedChangedAt) ? lastModified : feedChangedAt);
+    }
+
     /**
      * Намира следващата публикация спрямо текущата (по ID).
      * @param id ID на текущата публикация.
@@ -143,74 +244,170 @@ public class BlogService {
     }
 
     /**
-     * Търси в блог публикациите по ключова дума в заглавието.
-     * @param query Ключова дума за търсене.
+     * Търси в заглавието, краткото обяснение, текста и таговете на публикациите чрез индекса в паметта
+     * ({@link BlogSearchIndex}) и връща резултатите, подредени по релевантност.
+     * От базата данни се зареждат само картите на публикациите от текущата страница.
+     * @param query Заявка за търсене.
      * @param currentPage Номер на текущата страница.
      * @param pageSize Брой елементи на страница.
-     * @return {@link Page} с намерените публикации.
+     * @return {@link Page} с карти на намерените публикации.
      */
-    public Page<Blog> searchBlogs(String query, int currentPage, int pageSize) {
+    public Page<BlogCard> searchBlogs(String query, int currentPage, int pageSize) {
         Pageable pageable = PageRequest.of(currentPage, pageSize);
-        return blogRepository.findByNameContainingIgnoreCase(query, pageable);
+        BlogSearchIndex.Hits hits = searchIndex.search(query, (int) pageable.getOffset(), pageSize);
+        if (hits.getIds().isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, hits.getTotal());
+        }
+
+        Map<Long, BlogCard> cards = new HashMap<>();
+        for (BlogCard card : blogRepository.findCardsByIds(hits.getIds())) {
+            cards.put(card.getId(), card);
+        }
+        List<BlogCard> ranked = new ArrayList<>(hits.getIds().size());
+        for (Long id : hits.getIds()) {
+            BlogCard card = cards.get(id);
+            if (card != null) { // Публикацията може да е изтрита след търсенето.
+                ranked.add(card);
+            }
+        }
+        return new PageImpl<>(ranked, pageable, hits.getTotal());
     }
 
     /**
-     * Намира пагиниран списък с публикации от определена категория.
+     * Връща страница от списъка с публикации от определена категория (keyset пагинация).
      * @param categoryName Име на категорията.
-     * @param currentPage Номер на текущата страница.
+     * @param cursor Курсор от предишна страница или null за първата страница.
      * @param pageSize Брой елементи на страница.
-     * @return {@link Page} с публикации от дадената категория.
+     * @return {@link BlogFeedPage} с публикации от дадената категория.
      */
-    public Page<Blog> findBlogsByCategoryPaginated(String categoryName, int currentPage, int pageSize) {
-        Pageable pageable = PageRequest.of(currentPage, pageSize);
-        return blogRepository.findByCategory(categoryName, pageable);
+    public BlogFeedPage findBlogsByCategoryFeed(String categoryName, String cursor, int pageSize) {
+        return readFeed(cursor, pageSize,
+                (date, id, limit) -> blogRepository.findCardsByCategoryAfter(categoryName, date, id, limit),
+                (date, id, limit) -> blogRepository.findCardsByCategoryBefore(categoryName, date, id, limit),
+                "category:" + categoryName, () -> blogRepository.countByCategory(categoryName));
     }
 
     /**
-     * Намира пагиниран списък с публикации, маркирани с определен таг.
+     * Връща страница от списъка с публикации, маркирани с определен таг (keyset пагинация).
      * @param tagName Име на тага.
-     * @param currentPage Номер на текущата страница.
+     * @param cursor Курсор от предишна страница или null за първата страница.
      * @param pageSize Брой елементи на страница.
-     * @return {@link Page} с публикации с дадения таг.
+     * @return {@link BlogFeedPage} с публикации с дадения таг.
      */
-    public Page<Blog> findBlogsByTagPaginated(String tagName, int currentPage, int pageSize) {
-        Pageable pageable = PageRequest.of(currentPage, pageSize);
-        return blogRepository.findByTag(tagName, pageable);
+    public BlogFeedPage findBlogsByTagFeed(String tagName, String cursor, int pageSize) {
+        return readFeed(cursor, pageSize,
+                (date, id, limit) -> blogRepository.findCardsByTagAfter(tagName, date, id, limit),
+                (date, id, limit) -> blogRepository.findCardsByTagBefore(tagName, date, id, limit),
+                "tag:" + tagName, () -> blogRepository.countByTag(tagName));
     }
 
     /**
-     * Изтрива блог публикация.
+     * Чете една страница от списък с публикации по курсор.
+     * <p>
+     * Вместо OFFSET се чете от позицията на курсора ({@code WHERE (date, id) < (:date, :id)}), така че всяка
+     * страница струва колкото първата. Чете се един ред повече от размера на страницата, за да се разбере
+     * дали има следваща (или предишна) страница без COUNT заявка. Общият брой страници идва от
+     * {@link BlogFeedCountCache}. Невалиден курсор или курсор след края на списъка води до първата страница.
+     */
+    private BlogFeedPage readFeed(String token, int pageSize, KeysetQuery after, KeysetQuery before,
+                                  String feed, LongSupplier counter) {
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        BlogCursor cursor = BlogCursor.decode(token).orElse(null);
+
+        if (cursor != null && !cursor.isForward()) {
+            List<BlogCard> blogs = new ArrayList<>(before.find(cursor.getDate(), cursor.getId(), limit));
+            if (blogs.size() > pageSize) {
+                blogs.remove(pageSize);
+                Collections.reverse(blogs);
+                return toFeedPage(blogs, true, true, Math.max(1, cursor.getPage()), pageSize, feed, counter);
+            }
+            cursor = null; // Достигнато е началото на списъка - показва се първата страница.
+        }
+
+        List<BlogCard> blogs = cursor == null ? List.of() : after.find(cursor.getDate(), cursor.getId(), limit);
+        if (blogs.isEmpty()) { // Първа страница или курсор след края на списъка.
+            cursor = null;
+            blogs = after.find(FEED_START_DATE, Long.MAX_VALUE, limit);
+        }
+        boolean hasNext = blogs.size() > pageSize;
+        return toFeedPage(hasNext ? blogs.subList(0, pageSize) : blogs, cursor != null, hasNext,
+                cursor == null ? 0 : cursor.getPage(), pageSize, feed, counter);
+    }
+
+    private BlogFeedPage toFeedPage(List<BlogCard> blogs, boolean hasPrevious, boolean hasNext, int page, int pageSize,
+                                    String feed, LongSupplier counter) {
+        if (blogs.isEmpty()) {
+            return new BlogFeedPage(blogs, null, null, 0, 0);
+        }
+        long total = feedCounts.get(feed, counter);
+        // Кешираният брой може да изостава след промяна - броят страници е поне колкото вече видените.
+        int totalPages = (int) Math.max((total + pageSize - 1) / pageSize, page + (hasNext ? 2 : 1));
+        BlogCard first = blogs.get(0);
+        BlogCard last = blogs.get(blogs.size() - 1);
+        String previousCursor = hasPrevious ? new BlogCursor(first.getDate(), first.getId(), false, page - 1).encode() : null;
+        String nextCursor = hasNext ? new BlogCursor(last.getDate(), last.getId(), true, page + 1).encode() : null;
+        return new BlogFeedPage(blogs, previousCursor, nextCursor, page, totalPages);
+    }
+
+    /**
+     * Keyset заявка към репозиторито: публикациите след (или преди) дадена позиция (дата, ID).
+     */
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<BlogCard> find(LocalDate date, long id, Pageable limit);
+    }
+
+    /**
+     * Изтрива блог публикация заедно с коментарите ѝ и я премахва от индекса за търсене.
      * @param blog Обектът {@link Blog}, който да бъде изтрит.
      */
+    @Transactional
     public void delete(Blog blog) {
+        taxonomyService.release(blog);
+        blogRepository.detachCommentReplies(blog.getId());
         blogRepository.delete(blog);
+        sidebarCache.refresh();
+        searchIndex.delete(blog.getId());
+        feedCounts.invalidate();
+        pageCache.invalidate();
     }
 
     /**
-     * Извлича имената на топ 5 най-използвани категории.
+     * Извлича имената на най-използваните категории (до 6) - чете се индексът по брояча на използване.
      * @return {@link List} от {@link String} с имената на категориите.
      */
     public List<String> getTop5Categories() {
-        List<Object[]> result = blogRepository.findTop5Categories();
-        List<String> categories = new ArrayList<>();
-        for (Object[] row : result) {
-            String categoryName = (String) row[0];
-            categories.add(categoryName);
-        }
-        return categories;
+        return taxonomyService.getMostUsedCategories(TOP_CATEGORIES);
     }
 
     /**
-     * Извлича имената на топ 5 най-използвани тагове.
+     * Извлича имената на най-използваните тагове (до 10) - чете се индексът по брояча на използване.
      * @return {@link List} от {@link String} с имената на таговете.
      */
     public List<String> getTop5Tags() {
-        List<Object[]> result = blogRepository.findTop5Tags();
-        List<String> tags = new ArrayList<>();
-        for (Object[] row : result) {
-            String tagName = (String) row[0]; // Променливата е преименувана за яснота.
-            tags.add(tagName);
+        return taxonomyService.getMostUsedTags(TOP_TAGS);
+    }
+
+    /**
+     * Генерира HTML при стартиране на приложението за публикациите, които го нямат
+     * (създадени преди въвеждането на Markdown или записани направо през репозиторито).
+     * HTML-ът се записва с UPDATE заявка, без публикациите да се зареждат като ентитети.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void renderMissingHtml() {
+        int rendered = 0;
+        long afterId = 0;
+        List<Object[]> rows;
+        while (!(rows = blogRepository.findWithoutHtmlAfter(afterId, PageRequest.of(0, HTML_BACKFILL_PAGE_SIZE))).isEmpty()) {
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                rendered += blogRepository.updateHtml(afterId, markdownRenderer.render((String) row[1]));
+            }
+        }
+        if (rendered > 0) {
+            pageCache.invalidate();
+            LOGGER.info("Генериран е HTML за {} блог публикации.", rendered);
         }
-        return tags;
     }
-}
\ No newline at end of file
+}
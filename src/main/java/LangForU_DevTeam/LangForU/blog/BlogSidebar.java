@@ -0,0 +1,35 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Неизменима моментна снимка на данните в страничната лента на блога
+ * (най-използвани тагове и категории, последни публикации).
+ * Съхранява се в {@link BlogSidebarCache} и се споделя между всички заявки.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+public class BlogSidebar {
+
+    /**
+     * Най-използваните тагове.
+     */
+    private final List<String> tags;
+
+    /**
+     * Най-използваните категории.
+     */
+    private final List<String> categories;
+
+    /**
+     * Последните публикации.
+     */
+    private final List<BlogPostSummary> recentPosts;
+
+    public BlogSidebar(List<String> tags, List<String> categories, List<BlogPostSummary> recentPosts) {
+        this.tags = List.copyOf(tags);
+        this.categories = List.copyOf(categories);
+        this.recentPosts = List.copyOf(recentPosts);
+    }
+}
@@ -0,0 +1,120 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import LangForU_DevTeam.LangForU.customSettings.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кеш в паметта за страничната лента на блога ({@link BlogSidebar}).
+ * <p>
+ * Данните за лентата (най-използваните тагове и категории и последните публикации) се изчисляват веднъж и се споделят
+ * между всички заявки. {@link BlogService} обновява кеша изрично при създаване, редакция и изтриване
+ * на публикация, а времето на живот (TTL) е само предпазна мрежа за промени, направени по друг път.
+ * Когато снимката е изтекла, само една нишка я изчислява наново; останалите междувременно получават
+ * старата снимка, вместо да чакат.
+ */
+@Component
+public class BlogSidebarCache {
+
+    private static final int RECENT_POSTS = 5;
+
+    //<editor-fold desc="Dependencies">
+    private final BlogService blogService;
+    //</editor-fold>
+
+    private final long ttlNanos;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Counter hits; // Метрика: заявки, обслужени от кеша.
+    private final Counter misses; // Метрика: заявки, при които снимката е изчислена наново.
+
+    private volatile BlogSidebar snapshot;
+    private volatile long expiresAt;
+
+    /**
+     * Конструктор за инжектиране на зависимости и регистриране на метриките.
+     * @param blogService Сервиз за блог публикации. Използва @Lazy, защото {@link BlogService} също зависи от кеша.
+     * @param ttl Време на живот на снимката.
+     */
+    public BlogSidebarCache(@Lazy BlogService blogService, @Value("${blog.sidebar.ttl:5m}") Duration ttl, MeterRegistry meterRegistry) {
+        this.blogService = blogService;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("blog.sidebar.cache.requests")
+                .tag("result", "hit")
+                .description("Заявки за страничната лента на блога, обслужени от кеша")
+                .register(meterRegistry);
+        this.misses = Counter.builder("blog.sidebar.cache.requests")
+                .tag("result", "miss")
+                .description("Заявки за страничната лента на блога, при които данните са изчислени наново")
+                .register(meterRegistry);
+        Gauge.builder("blog.sidebar.cache.hit.ratio", this, BlogSidebarCache::hitRatio)
+                .description("Дял на заявките за страничната лента, обслужени от кеша")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Връща текущата снимка на страничната лента, като я изчислява наново, ако липсва или е изтекла.
+     * @return {@link BlogSidebar}.
+     */
+    public BlogSidebar get() {
+        BlogSidebar current = snapshot;
+        if (current != null && System.nanoTime() - expiresAt < 0) {
+            hits.increment();
+            return current;
+        }
+        // Изтекла снимка: ако друга нишка вече я изчислява, връщаме старата.
+        if (current != null && !rebuildLock.tryLock()) {
+            hits.increment();
+            return current;
+        }
+        if (current == null) {
+            rebuildLock.lock();
+        }
+        try {
+            current = snapshot;
+            if (current != null && System.nanoTime() - expiresAt < 0) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            return rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Изчислява снимката наново след потвърждаване на текущата трансакция (вж. {@link AfterCommit}).
+     */
+    public void refresh() {
+        AfterCommit.run(this::refreshNow);
+    }
+
+    private void refreshNow() {
+        rebuildLock.lock();
+        try {
+            rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private BlogSidebar rebuild() {
+        BlogSidebar fresh = new BlogSidebar(blogService.getTop5Tags(), blogService.getTop5Categories(),
+                blogService.getRecentPostSummaries(RECENT_POSTS));
+        snapshot = fresh;
+        expiresAt = System.nanoTime() + ttlNanos;
+        return fresh;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
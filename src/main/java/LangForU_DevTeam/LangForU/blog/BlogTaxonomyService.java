@@ -0,0 +1,219 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Сервиз, който поддържа таговете и категориите на блог публикациите ({@link Tag}, {@link Category}).
+ * <p>
+ * При запис на публикация въведените имена се превръщат в ентитети (липсващите се създават), а броячите
+ * на използване се променят само за добавените и премахнатите тагове и категории - с атомарен UPDATE,
+ * без преброяване на свързващите таблици. Така най-използваните тагове и категории се четат направо от
+ * индекса по брояча. При стартиране броячите се преизчисляват, за да се коригират евентуални разминавания.
+ */
+@Service
+public class BlogTaxonomyService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlogTaxonomyService.class);
+
+    /**
+     * Таблиците, в които таговете и категориите се пазеха като низове (преди въвеждането на ентитетите).
+     */
+    private static final String LEGACY_TAG_TABLE = "blog_tags";
+    private static final String LEGACY_CATEGORY_TABLE = "blog_categories";
+
+    //<editor-fold desc="Dependencies">
+    private final TagRepository tagRepository;
+    private final CategoryRepository categoryRepository;
+    private final BlogRepository blogRepository;
+    private final TaxonomyAutocomplete autocomplete;
+    //</editor-fold>
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param tagRepository Репозитори за таговете.
+     * @param categoryRepository Репозитори за категориите.
+     * @param blogRepository Репозитори за блог публикациите.
+     * @param autocomplete Дърветата за автоматично допълване, които се обновяват след всяка промяна.
+     */
+    public BlogTaxonomyService(TagRepository tagRepository, CategoryRepository categoryRepository, BlogRepository blogRepository,
+                               TaxonomyAutocomplete autocomplete) {
+        this.tagRepository = tagRepository;
+        this.categoryRepository = categoryRepository;
+        this.blogRepository = blogRepository;
+        this.autocomplete = autocomplete;
+    }
+
+    /**
+     * Свързва публикацията с таговете и категориите от въведените имена ({@link Blog#getTags()},
+     * {@link Blog#getCategories()}) и обновява броячите. Извиква се преди записа на публикацията.
+     * @param blog Публикацията (нова или редактирана).
+     */
+    @Transactional
+    public void assign(Blog blog) {
+        List<String> tagNames = normalize(blog.getTags());
+        List<String> categoryNames = normalize(blog.getCategories());
+        List<Tag> tags = resolve(tagNames, tagRepository::findByNameIn, Tag::getName, name -> tagRepository.save(new Tag(name)));
+        List<Category> categories = resolve(categoryNames, categoryRepository::findByNameIn, Category::getName,
+                name -> categoryRepository.save(new Category(name)));
+
+        List<Tag> previousTags = blog.getId() == null ? List.of() : tagRepository.findByBlogId(blog.getId());
+        List<Category> previousCategories = blog.getId() == null ? List.of() : categoryRepository.findByBlogId(blog.getId());
+        adjust(ids(previousTags, Tag::getId), ids(tags, Tag::getId), tagRepository::adjustUsageCounts);
+        adjust(ids(previousCategories, Category::getId), ids(categories, Category::getId), categoryRepository::adjustUsageCounts);
+
+        blog.setAssignedTags(new LinkedHashSet<>(tags));
+        blog.setAssignedCategories(new LinkedHashSet<>(categories));
+        blog.setTags(tagNames);
+        blog.setCategories(categoryNames);
+        autocomplete.refresh();
+    }
+
+    /**
+     * Намалява броячите на таговете и категориите на публикация, която ще бъде изтрита.
+     * Връзките се премахват от Hibernate заедно с публикацията.
+     * @param blog Публикацията за изтриване.
+     */
+    @Transactional
+    public void release(Blog blog) {
+        adjust(ids(tagRepository.findByBlogId(blog.getId()), Tag::getId), Set.of(), tagRepository::adjustUsageCounts);
+        adjust(ids(categoryRepository.findByBlogId(blog.getId()), Category::getId), Set.of(), categoryRepository::adjustUsageCounts);
+        autocomplete.refresh();
+    }
+
+    /**
+     * @param limit Максимален брой тагове.
+     * @return Имената на най-използваните тагове, подредени по брой публикации.
+     */
+    public List<String> getMostUsedTags(int limit) {
+        return tagRepository.findMostUsedNames(PageRequest.of(0, limit));
+    }
+
+    /**
+     * @param limit Максимален брой категории.
+     * @return Имената на най-използваните категории, подредени по брой публикации.
+     */
+    public List<String> getMostUsedCategories(int limit) {
+        return categoryRepository.findMostUsedNames(PageRequest.of(0, limit));
+    }
+
+    /**
+     * При стартиране на приложението пренася таговете и категориите от старите таблици с низове
+     * (еднократно - само ако свързващите таблици са празни) и преизчислява броячите на използване.
+     * Старите таблици не се изтриват.
+     */
+    @Transactional
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Преди изграждането на индекса за търсене, който чете таговете.
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAndResyncCounts() {
+        if (tagRepository.countLinks() == 0 && blogRepository.countTablesNamed(LEGACY_TAG_TABLE) > 0) {
+            int migrated = migrate(tagRepository.findLegacyAssignments(), Blog::getAssignedTags,
+                    names -> resolve(names, tagRepository::findByNameIn, Tag::getName, name -> tagRepository.save(new Tag(name))));
+            LOGGER.info("Таговете на {} публикации са пренесени от таблицата {}.", migrated, LEGACY_TAG_TABLE);
+        }
+        if (categoryRepository.countLinks() == 0 && blogRepository.countTablesNamed(LEGACY_CATEGORY_TABLE) > 0) {
+            int migrated = migrate(categoryRepository.findLegacyAssignments(), Blog::getAssignedCategories,
+                    names -> resolve(names, categoryRepository::findByNameIn, Category::getName,
+                            name -> categoryRepository.save(new Category(name))));
+            LOGGER.info("Категориите на {} публикации са пренесени от таблицата {}.", migrated, LEGACY_CATEGORY_TABLE);
+        }
+        blogRepository.flush();
+
+        int tags = tagRepository.resyncUsageCounts();
+        int categories = categoryRepository.resyncUsageCounts();
+        LOGGER.info("Броячите на използване са преизчислени за {} тага и {} категории.", tags, categories);
+        autocomplete.refresh();
+    }
+
+    /**
+     * Добавя към публикациите таговете (или категориите) от редовете [ID на публикация, име] на стара таблица.
+     * @return Броят на обработените публикации.
+     */
+    private <T> int migrate(List<Object[]> rows, Function<Blog, Set<T>> target, Function<List<String>, List<T>> resolver) {
+        Map<Long, List<String>> namesByBlog = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            namesByBlog.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>()).add((String) row[1]);
+        }
+        for (Blog blog : blogRepository.findAllById(namesByBlog.keySet())) {
+            target.apply(blog).addAll(resolver.apply(normalize(namesByBlog.get(blog.getId()))));
+        }
+        return namesByBlog.size();
+    }
+
+    /**
+     * Премахва празните имена, интервалите в краищата и повторенията, като запазва реда.
+     */
+    static List<String> normalize(Collection<String> names) {
+        if (names == null) {
+            return new ArrayList<>();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                normalized.add(name.trim());
+            }
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    /**
+     * Намира ентитетите с дадените имена с една заявка и създава липсващите. Резултатът е в реда на имената.
+     */
+    private static <T> List<T> resolve(List<String> names, Function<Collection<String>, List<T>> finder,
+                                       Function<T, String> nameOf, Function<String, T> creator) {
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, T> byName = new LinkedHashMap<>();
+        for (T existing : finder.apply(names)) {
+            byName.put(nameOf.apply(existing), existing);
+        }
+        List<T> resolved = new ArrayList<>(names.size());
+        for (String name : names) {
+            resolved.add(byName.computeIfAbsent(name, creator));
+        }
+        return resolved;
+    }
+
+    private static <T> Set<Long> ids(Collection<T> entities, Function<T, Long> idOf) {
+        Set<Long> ids = new HashSet<>();
+        for (T entity : entities) {
+            ids.add(idOf.apply(entity));
+        }
+        return ids;
+    }
+
+    /**
+     * Увеличава броячите на добавените и намалява тези на премахнатите ентитети.
+     */
+    private static void adjust(Set<Long> before, Set<Long> after, BiFunction<Collection<Long>, Long, Integer> adjuster) {
+        Set<Long> added = new HashSet<>(after);
+        added.removeAll(before);
+        Set<Long> removed = new HashSet<>(before);
+        removed.removeAll(after);
+        if (!added.isEmpty()) {
+            adjuster.apply(added, 1L);
+        }
+        if (!removed.isEmpty()) {
+            adjuster.apply(removed, -1L);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Клас-ентитет (Entity), който представлява категория на блог публикации.
+ * <p>
+ * Устроена е като {@link Tag}: името се пази веднъж, публикациите се свързват с нея през индексираната
+ * таблица {@code blog_category}, а броят им се поддържа в {@link #usageCount}.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@Setter // Lombok: Автоматично генерира set-методи.
+@NoArgsConstructor // Lombok: Генерира конструктор без аргументи, изискван от JPA.
+@Entity // JPA: Посочва, че този клас е ентитет.
+@Table(name = "category", indexes = @Index(name = "idx_category_usage", columnList = "usageCount DESC, name"))
+public class Category {
+
+    /**
+     * Уникален идентификатор (ID) на категорията.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Името на категорията (уникално).
+     */
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    /**
+     * Брой публикации в тази категория (денормализиран брояч).
+     * Променя се само атомарно в базата данни, затова JPA никога не го записва.
+     */
+    @ColumnDefault("0") // Hibernate: стойност по подразбиране в DDL.
+    @Column(name = "usage_count", nullable = false, insertable = false, updatable = false)
+    private long usageCount;
+
+    /**
+     * Конструктор за създаване на нова категория.
+     * @param name Името на категорията.
+     */
+    public Category(String name) {
+        this.name = name;
+    }
+}
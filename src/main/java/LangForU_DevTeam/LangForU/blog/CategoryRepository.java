@@ -0,0 +1,81 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозитори за категориите на блог публикациите ({@link Category}).
+ */
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    /**
+     * Намира категориите с дадените имена (по уникалния индекс на името).
+     * @param names Имената на категориите.
+     * @return Списък с намерените категории.
+     */
+    List<Category> findByNameIn(Collection<String> names);
+
+    /**
+     * Намира категориите на дадена публикация.
+     * @param blogId ID на публикацията.
+     * @return Списък с категориите.
+     */
+    @Query("SELECT c FROM Blog b JOIN b.assignedCategories c WHERE b.id = :blogId")
+    List<Category> findByBlogId(@Param("blogId") Long blogId);
+
+    /**
+     * Връща имената на най-използваните категории - чете се началото на индекса по брояча, без групиране.
+     * @param pageable Колко категории да се върнат.
+     * @return Имената, подредени по брой публикации в низходящ ред.
+     */
+    @Query("SELECT c.name FROM Category c WHERE c.usageCount > 0 ORDER BY c.usageCount DESC, c.name")
+    List<String> findMostUsedNames(Pageable pageable);
+
+    /**
+     * Връща имената и броячите на всички използвани категории (за изграждане на дървото за автоматично допълване).
+     * @return Списък от масиви [име, брой публикации].
+     */
+    @Query("SELECT c.name, c.usageCount FROM Category c WHERE c.usageCount > 0")
+    List<Object[]> findUsedNamesWithCounts();
+
+    /**
+     * Атомарно променя броячите на дадените категории.
+     * @param ids ID-тата на категориите.
+     * @param delta С колко да се промени броячът (+1 или -1).
+     * @return Броят на обновените категории.
+     */
+    @Modifying
+    @Query("UPDATE Category c SET c.usageCount = c.usageCount + :delta WHERE c.id IN :ids")
+    int adjustUsageCounts(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+    /**
+     * Преизчислява броячите на всички категории от свързващата таблица.
+     * @return Броят на обновените категории.
+     */
+    @Modifying
+    @Query("UPDATE Category c SET c.usageCount = (SELECT COUNT(b) FROM Blog b JOIN b.assignedCategories bc WHERE bc = c)")
+    int resyncUsageCounts();
+
+    /**
+     * Преброява връзките публикация-категория.
+     * @return Броят на връзките.
+     */
+    @Query("SELECT COUNT(c) FROM Blog b JOIN b.assignedCategories c")
+    long countLinks();
+
+    /**
+     * Чете категориите от старата таблица blog_categories, в която се пазеха като низове.
+     * Използва се еднократно при пренасянето им в свързващата таблица.
+     * @return Списък от масиви [ID на публикация, име].
+     */
+    @Query(value = "SELECT blog_id, categories FROM blog_categories ORDER BY blog_id", nativeQuery = true)
+    List<Object[]> findLegacyAssignments();
+}
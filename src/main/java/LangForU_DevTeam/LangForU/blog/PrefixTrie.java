@@ -0,0 +1,117 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Неизменимо префиксно дърво (trie) от имена с тегла, което връща най-тежките допълвания на даден префикс.
+ * <p>
+ * Ключовете се сравняват без значение от регистъра (кирилица и латиница, {@link #fold}), а показваните имена
+ * остават както са записани. При изграждането всеки възел запазва готов списък с до {@code k} най-тежки
+ * имена в своето поддърво, така че търсенето е само обхождане на префикса - O(дължина на префикса) - без
+ * сортиране по време на заявка. Наследниците на възела се пазят в сортирани масиви (без Map за всеки възел).
+ */
+final class PrefixTrie {
+
+    private static final PrefixTrie EMPTY = new PrefixTrie(new Node(new char[0], new Node[0], new String[0]));
+
+    private final Node root;
+
+    private PrefixTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Изгражда дърво от имената и теглата им (напр. брой публикации).
+     * @param weights Имената с теглата им.
+     * @param k Колко допълвания да се пазят във всеки възел.
+     * @return Новото дърво.
+     */
+    static PrefixTrie build(Map<String, Long> weights, int k) {
+        if (weights.isEmpty()) {
+            return EMPTY;
+        }
+        Builder root = new Builder();
+        weights.forEach((name, weight) -> {
+            Builder node = root;
+            String key = fold(name);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+            }
+            node.entries.add(new Entry(name, weight));
+        });
+        return new PrefixTrie(root.freeze(k));
+    }
+
+    /**
+     * Връща най-тежките имена, които започват с дадения префикс (без значение от регистъра).
+     * @param prefix Въведеният префикс.
+     * @param limit Максимален брой резултати (не повече от k при изграждането).
+     * @return Имената, подредени по тегло в низходящ ред, а при равенство - по азбучен ред.
+     */
+    List<String> complete(String prefix, int limit) {
+        Node node = root;
+        String key = fold(prefix);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null || limit <= 0) {
+            return List.of();
+        }
+        return List.of(node.top.length <= limit ? node.top : Arrays.copyOf(node.top, limit));
+    }
+
+    /**
+     * Привежда текста в ключ за търсене: без интервали в краищата и с малки букви (Locale.ROOT,
+     * така че и кирилицата, и латиницата се сравняват без значение от регистъра).
+     */
+    static String fold(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String name, long weight) {
+        static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::weight).reversed().thenComparing(Entry::name);
+    }
+
+    /**
+     * Изменим възел, използван само докато дървото се изгражда.
+     */
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private final List<Entry> entries = new ArrayList<>(1);
+        private List<Entry> top = List.of(); // Най-тежките имена в поддървото - попълва се от freeze().
+
+        /**
+         * Превръща поддървото в неизменими възли; най-тежките имена на всеки възел се избират
+         * от собствените му имена и от най-тежките имена на наследниците му.
+         */
+        Node freeze(int k) {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            List<Entry> candidates = new ArrayList<>(entries);
+            int i = 0;
+            for (Map.Entry<Character, Builder> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                nodes[i] = child.getValue().freeze(k);
+                candidates.addAll(child.getValue().top);
+                i++;
+            }
+            candidates.sort(Entry.ORDER);
+            top = List.copyOf(candidates.subList(0, Math.min(k, candidates.size())));
+            return new Node(keys, nodes, top.stream().map(Entry::name).toArray(String[]::new));
+        }
+    }
+
+    private record Node(char[] keys, Node[] children, String[] top) {
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
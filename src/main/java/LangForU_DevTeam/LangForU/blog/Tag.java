@@ -0,0 +1,51 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Клас-ентитет (Entity), който представлява таг на блог публикации.
+ * <p>
+ * Всяко име се пази веднъж, а публикациите се свързват с него през индексираната таблица {@code blog_tag}.
+ * Броят на публикациите с тага се поддържа в {@link #usageCount} от {@link BlogTaxonomyService},
+ * така че най-използваните тагове се четат направо от индекса, без групиране.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@Setter // Lombok: Автоматично генерира set-методи.
+@NoArgsConstructor // Lombok: Генерира конструктор без аргументи, изискван от JPA.
+@Entity // JPA: Посочва, че този клас е ентитет.
+@Table(name = "tag", indexes = @Index(name = "idx_tag_usage", columnList = "usageCount DESC, name"))
+public class Tag {
+
+    /**
+     * Уникален идентификатор (ID) на тага.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Името на тага (уникално).
+     */
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    /**
+     * Брой публикации с този таг (денормализиран брояч).
+     * Променя се само атомарно в базата данни, затова JPA никога не го записва.
+     */
+    @ColumnDefault("0") // Hibernate: стойност по подразбиране в DDL.
+    @Column(name = "usage_count", nullable = false, insertable = false, updatable = false)
+    private long usageCount;
+
+    /**
+     * Конструктор за създаване на нов таг.
+     * @param name Името на тага.
+     */
+    public Tag(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,81 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозитори за таговете на блог публикациите ({@link Tag}).
+ */
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    /**
+     * Намира таговете с дадените имена (по уникалния индекс на името).
+     * @param names Имената на таговете.
+     * @return Списък с намерените тагове.
+     */
+    List<Tag> findByNameIn(Collection<String> names);
+
+    /**
+     * Намира таговете на дадена публикация.
+     * @param blogId ID на публикацията.
+     * @return Списък с таговете.
+     */
+    @Query("SELECT t FROM Blog b JOIN b.assignedTags t WHERE b.id = :blogId")
+    List<Tag> findByBlogId(@Param("blogId") Long blogId);
+
+    /**
+     * Връща имената на най-използваните тагове - чете се началото на индекса по брояча, без групиране.
+     * @param pageable Колко тага да се върнат.
+     * @return Имената, подредени по брой публикации в низходящ ред.
+     */
+    @Query("SELECT t.name FROM Tag t WHERE t.usageCount > 0 ORDER BY t.usageCount DESC, t.name")
+    List<String> findMostUsedNames(Pageable pageable);
+
+    /**
+     * Връща имената и броячите на всички използвани тагове (за изграждане на дървото за автоматично допълване).
+     * @return Списък от масиви [име, брой публикации].
+     */
+    @Query("SELECT t.name, t.usageCount FROM Tag t WHERE t.usageCount > 0")
+    List<Object[]> findUsedNamesWithCounts();
+
+    /**
+     * Атомарно променя броячите на дадените тагове.
+     * @param ids ID-тата на таговете.
+     * @param delta С колко да се промени броячът (+1 или -1).
+     * @return Броят на обновените тагове.
+     */
+    @Modifying
+    @Query("UPDATE Tag t SET t.usageCount = t.usageCount + :delta WHERE t.id IN :ids")
+    int adjustUsageCounts(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+    /**
+     * Преизчислява броячите на всички тагове от свързващата таблица.
+     * @return Броят на обновените тагове.
+     */
+    @Modifying
+    @Query("UPDATE Tag t SET t.usageCount = (SELECT COUNT(b) FROM Blog b JOIN b.assignedTags bt WHERE bt = t)")
+    int resyncUsageCounts();
+
+    /**
+     * Преброява връзките публикация-таг.
+     * @return Броят на връзките.
+     */
+    @Query("SELECT COUNT(t) FROM Blog b JOIN b.assignedTags t")
+    long countLinks();
+
+    /**
+     * Чете таговете от старата таблица blog_tags, в която се пазеха като низове.
+     * Използва се еднократно при пренасянето им в свързващата таблица.
+     * @return Списък от масиви [ID на публикация, име].
+     */
+    @Query(value = "SELECT blog_id, tags FROM blog_tags ORDER BY blog_id", nativeQuery = true)
+    List<Object[]> findLegacyAssignments();
+}
@@ -0,0 +1,93 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import LangForU_DevTeam.LangForU.customSettings.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Автоматично допълване на таговете и категориите във формите за публикации.
+ * <p>
+ * Пази в паметта по едно префиксно дърво ({@link PrefixTrie}) за таговете и за категориите, с тегло броя на
+ * публикациите, така че всяко натискане на клавиш е само обхождане на въведения префикс, без заявка към базата.
+ * Дърветата се изграждат наново след всеки потвърден запис или изтриване на публикация
+ * (вж. {@link BlogTaxonomyService}) и се подменят атомарно - четенето не се заключва.
+ */
+@Component
+public class TaxonomyAutocomplete {
+
+    /**
+     * Максимален брой предложения (и брой, пазен във всеки възел на дърветата).
+     */
+    static final int MAX_SUGGESTIONS = 10;
+
+    //<editor-fold desc="Dependencies">
+    private final TagRepository tagRepository;
+    private final CategoryRepository categoryRepository;
+    //</editor-fold>
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param tagRepository Репозитори за таговете.
+     * @param categoryRepository Репозитори за категориите.
+     */
+    public TaxonomyAutocomplete(TagRepository tagRepository, CategoryRepository categoryRepository) {
+        this.tagRepository = tagRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * @param prefix Въведеното начало на тага (без значение от регистъра; празно - най-използваните).
+     * @param limit Максимален брой предложения.
+     * @return Съществуващите тагове с този префикс, подредени по брой публикации.
+     */
+    public List<String> suggestTags(String prefix, int limit) {
+        return current().tags().complete(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * @param prefix Въведеното начало на категорията (без значение от регистъра; празно - най-използваните).
+     * @param limit Максимален брой предложения.
+     * @return Съществуващите категории с този префикс, подредени по брой публикации.
+     */
+    public List<String> suggestCategories(String prefix, int limit) {
+        return current().categories().complete(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Изгражда дърветата наново, щом записът на публикацията бъде потвърден (вж. {@link AfterCommit}).
+     */
+    public void refresh() {
+        AfterCommit.run(this::rebuild);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    private synchronized Snapshot rebuild() {
+        Snapshot fresh = new Snapshot(trie(tagRepository.findUsedNamesWithCounts()),
+                trie(categoryRepository.findUsedNamesWithCounts()));
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private static PrefixTrie trie(List<Object[]> rows) {
+        Map<String, Long> weights = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            weights.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return PrefixTrie.build(weights, MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Неизменима снимка на двете дървета - подменя се цялата наведнъж.
+     */
+    private record Snapshot(PrefixTrie tags, PrefixTrie categories) {
+    }
+}
@@ -0,0 +1,25 @@
+package LangForU_DevTeam.LangForU.coment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Страница от нишките с коментари към блог публикация (от най-новата към най-старата).
+ * Всяка нишка е коментар от първо ниво, следван от първите си преки отговори.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета.
+public class BlogCommentPage {
+
+    /**
+     * Коментарите от страницата в реда на показване.
+     */
+    private final List<BlogCommentView> comments;
+
+    /**
+     * Курсор за следващата страница (ID на последната нишка) или null, ако няма повече нишки.
+     */
+    private final Long nextCursor;
+}
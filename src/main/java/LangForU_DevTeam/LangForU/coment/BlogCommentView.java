@@ -0,0 +1,76 @@
+package LangForU_DevTeam.LangForU.coment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Проекция (DTO) на коментар за показване в нишката под блог публикация.
+ * Попълва се от една JPQL заявка заедно с името и аватара на автора, без да се зарежда {@code AppUser}.
+ * Мястото в дървото на отговорите се описва от {@link #parentId}, {@link #depth} и {@link #path}.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета (използва се от JPQL "SELECT new").
+public class BlogCommentView {
+
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy 'в' HH:mm");
+
+    /**
+     * ID на коментара (ID на нишка служи и като курсор за следващата страница).
+     */
+    private final Long id;
+
+    /**
+     * Текстът на коментара.
+     */
+    private final String commentText;
+
+    /**
+     * Кога е публикуван коментарът.
+     */
+    private final LocalDateTime commentedAt;
+
+    /**
+     * Име на автора.
+     */
+    private final String authorName;
+
+    /**
+     * Път до аватара на автора (може да бъде null).
+     */
+    private final String authorAvatar;
+
+    /**
+     * ID на коментара, на който този е отговор (null за коментар от първо ниво).
+     */
+    private final Long parentId;
+
+    /**
+     * Нивото в дървото (0 за коментар от първо ниво).
+     */
+    private final int depth;
+
+    /**
+     * Броят на преките отговори.
+     */
+    private final int replyCount;
+
+    /**
+     * Броят на всички отговори в поддървото.
+     */
+    private final int descendantCount;
+
+    /**
+     * Материализираният път на коментара (позволява на клиента да намери вече показаните отговори от поддървото).
+     */
+    private final String path;
+
+    /**
+     * @return Датата и часът на коментара във формата, показван на страницата (празен низ, ако липсват).
+     */
+    public String getCommentedAtText() {
+        return commentedAt == null ? "" : commentedAt.format(DISPLAY_FORMAT);
+    }
+}
@@ -4,12 +4,17 @@ import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.blog.Blog;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 /**
  * Клас-ентитет (Entity), който представлява коментар към блог публикация.
  * Свързва потребител (автор) с блог публикация и съдържа текста на коментара.
+ * <p>
+ * Коментарите образуват дърво (отговори на отговори), записано като материализиран път: {@link #path}
+ * съдържа ID-тата на всички предшественици и на самия коментар. Подредбата по пътя дава нишките в реда
+ * на показване, а цяло поддърво е непрекъснат интервал от индекса {@code (blog_id, path)}.
  */
 @Getter // Lombok: Автоматично генерира get-методи за всички полета.
 @Setter // Lombok: Автоматично генерира set-методи за всички полета.
@@ -17,6 +22,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor // Lombok: Автоматично генерира конструктор с всички полета.
 @EqualsAndHashCode // Lombok: Автоматично генерира equals() и hashCode() методи.
 @Entity // JPA: Посочва, че този клас е ентитет и се мапва към таблица в базата данни.
+@Table(indexes = {
+        // Индекс за четенето на нишките и поддърветата; водещата колона обслужва и броенето на коментарите по публикация.
+        @Index(name = "idx_blog_comment_path", columnList = "blog_id, path")
+})
 public class Blog_Comment {
 
     /**
@@ -57,4 +66,47 @@ public class Blog_Comment {
      */
     private LocalDateTime commentedAt;
 
+    /**
+     * Коментарът, на който този е отговор (null за коментар от първо ниво).
+     */
+    @EqualsAndHashCode.Exclude // Сравнението не трябва да зарежда веригата от предшественици.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Blog_Comment parent;
+
+    /**
+     * Материализиран път: сегменти от по {@value CommentPath#SEGMENT_LENGTH} цифри, по един за всяко ниво.
+     * Попълва се от {@link Blog_Comment_Service} веднага след записа, когато ID-то вече е известно.
+     */
+    @Column(length = CommentPath.MAX_LENGTH)
+    private String path;
+
+    /**
+     * Нивото в дървото (0 за коментар от първо ниво).
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int depth;
+
+    /**
+     * Поредният номер сред отговорите на родителя (1 за първия отговор, 0 за коментар от първо ниво).
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int position;
+
+    /**
+     * Броят на преките отговори към коментара.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int replyCount;
+
+    /**
+     * Броят на всички отговори в поддървото на коментара (на всички нива).
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int descendantCount;
+
 }
\ No newline at end of file
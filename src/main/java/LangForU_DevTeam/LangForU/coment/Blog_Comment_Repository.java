@@ -1,10 +1,18 @@
 package LangForU_DevTeam.LangForU.coment;
 
 import LangForU_DevTeam.LangForU.blog.Blog;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозитори интерфейс за управление на {@link Blog_Comment} ентитети.
@@ -23,4 +31,117 @@ public interface Blog_Comment_Repository extends JpaRepository<Blog_Comment, Lon
      * @return Списък ({@link List}) от {@link Blog_Comment}, принадлежащи на дадения блог.
      */
     List<Blog_Comment> findByBlog(Blog blog);
+
+    /**
+     * Начало на заявките, които връщат {@link BlogCommentView}: авторът се присъединява в същата заявка,
+     * така че не се зареждат нито {@code AppUser}, нито курсовете му.
+     */
+    String VIEW_SELECT = "SELECT new LangForU_DevTeam.LangForU.coment.BlogCommentView(c.id, c.commentText, c.commentedAt, " +
+            "u.name, u.profilePicture, c.parent.id, c.depth, c.replyCount, c.descendantCount, c.path) " +
+            "FROM Blog_Comment c JOIN c.user u ";
+
+    /**
+     * Чете нишки с коментари от даден път нататък: коментарите от първо ниво и първите им преки отговори.
+     * Заявката е един интервал от индекса {@code (blog_id, path)}, подреден по пътя - всяка нишка е следвана
+     * от отговорите си.
+     *
+     * @param blogId   ID на публикацията.
+     * @param fromPath Начало на интервала (празен низ за първата страница).
+     * @param replies  Колко преки отговора да се върнат за всяка нишка.
+     * @param limit    Максимален брой редове.
+     * @return Списък от {@link BlogCommentView} в реда на показване.
+     */
+    @Query(VIEW_SELECT + "WHERE c.blog.id = :blogId AND c.path >= :fromPath " +
+            "AND (c.depth = 0 OR (c.depth = 1 AND c.position <= :replies)) ORDER BY c.path")
+    List<BlogCommentView> findThreadRows(@Param("blogId") Long blogId, @Param("fromPath") String fromPath,
+                                         @Param("replies") int replies, Pageable limit);
+
+    /**
+     * Чете цялото поддърво под даден коментар (без самия коментар) с един интервал от индекса.
+     *
+     * @param blogId ID на публикацията.
+     * @param path   Пътят на коментара.
+     * @param end    Краят (изключен) на интервала на поддървото.
+     * @return Списък от {@link BlogCommentView} в реда на показване.
+     */
+    @Query(VIEW_SELECT + "WHERE c.blog.id = :blogId AND c.path > :path AND c.path < :end ORDER BY c.path")
+    List<BlogCommentView> findSubtree(@Param("blogId") Long blogId, @Param("path") String path, @Param("end") String end);
+
+    /**
+     * Намира пътя на коментар към дадена публикация.
+     *
+     * @param id     ID на коментара.
+     * @param blogId ID на публикацията.
+     * @return {@link Optional} с пътя.
+     */
+    @Query("SELECT c.path FROM Blog_Comment c WHERE c.id = :id AND c.blog.id = :blogId")
+    Optional<String> findPath(@Param("id") Long id, @Param("blogId") Long blogId);
+
+    /**
+     * Намира коментар по ID и заключва реда му до края на трансакцията.
+     * Използва се, за да се номерират последователно паралелните отговори към един коментар.
+     *
+     * @param id ID на коментара.
+     * @return {@link Optional} със заключения коментар.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Blog_Comment c WHERE c.id = :id")
+    Optional<Blog_Comment> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Чете броя на преките отговори на коментар директно от базата
+     * (стойността в заредения обект може да е остаряла след {@link #incrementReplyCount}).
+     *
+     * @param id ID на коментара.
+     * @return Броят на преките отговори.
+     */
+    @Query("SELECT c.replyCount FROM Blog_Comment c WHERE c.id = :id")
+    int findReplyCount(@Param("id") Long id);
+
+    /**
+     * Атомарно увеличава броя на преките отговори на коментар.
+     *
+     * @param id ID на коментара.
+     * @return Броят на обновените редове.
+     */
+    @Modifying
+    @Query("UPDATE Blog_Comment c SET c.replyCount = c.replyCount + 1 WHERE c.id = :id")
+    int incrementReplyCount(@Param("id") Long id);
+
+    /**
+     * Атомарно увеличава броя на отговорите в поддървото на дадените коментари (предшествениците на нов отговор).
+     *
+     * @param ids ID-тата на коментарите.
+     * @return Броят на обновените редове.
+     */
+    @Modifying
+    @Query("UPDATE Blog_Comment c SET c.descendantCount = c.descendantCount + 1 WHERE c.id IN :ids")
+    int incrementDescendantCount(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Записва пътя на коментар.
+     *
+     * @param id   ID на коментара.
+     * @param path Пътят.
+     * @return Броят на обновените редове.
+     */
+    @Modifying
+    @Query("UPDATE Blog_Comment c SET c.path = :path WHERE c.id = :id")
+    int updatePath(@Param("id") Long id, @Param("path") String path);
+
+    /**
+     * Намира коментарите, създадени преди въвеждането на пътищата.
+     *
+     * @return ID-тата на коментарите без път.
+     */
+    @Query("SELECT c.id FROM Blog_Comment c WHERE c.path IS NULL")
+    List<Long> findIdsWithoutPath();
+
+    /**
+     * Преброява коментарите към публикация.
+     *
+     * @param blogId ID на публикацията.
+     * @return Броят на коментарите.
+     */
+    long countByBlogId(Long blogId);
 }
\ No newline at end of file
@@ -1,15 +1,28 @@
 package LangForU_DevTeam.LangForU.coment;
 
+import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Сервизен клас, който капсулира бизнес логиката, свързана с коментарите към блог публикации.
- * В момента предоставя основна функционалност за запис на коментари.
+ * Предоставя запис на коментари и отговори и четене на нишките с коментари на страници.
  */
 @Service
 public class Blog_Comment_Service {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(Blog_Comment_Service.class);
+
     /**
      * Репозитори за достъп до данните на коментарите.
      * Инжектира се автоматично от Spring чрез field injection (@Autowired).
@@ -18,12 +31,142 @@ public class Blog_Comment_Service {
     private Blog_Comment_Repository commentRepository;
 
     /**
-     * Запазва (създава или обновява) коментар в базата данни.
-     * Делегира извикването към save метода на JpaRepository.
+     * Репозитори за публикациите (за отбелязване на промяна в страницата на публикацията).
+     */
+    @Autowired
+    private BlogRepository blogRepository;
+
+    /**
+     * Кеш за генерираните страници на анонимните посетители (изчиства се след всеки запис).
+     */
+    @Autowired
+    private RenderedPageCache pageCache;
+
+    /**
+     * Запазва нов коментар от първо ниво.
      *
      * @param comment Обектът {@link Blog_Comment}, който трябва да бъде запазен.
      */
+    @Transactional
     public void save(Blog_Comment comment) {
-        commentRepository.save(comment);
+        save(comment, null);
+    }
+
+    /**
+     * Запазва нов коментар или отговор и го поставя в дървото.
+     * <p>
+     * Редът на родителя се заключва, така че паралелните отговори получават последователни поредни номера.
+     * Броячите на родителя и на всички предшественици се увеличават атомарно в същата трансакция.
+     * Отговор под последното позволено ниво се закача към родителя на коментара, на който отговаря.
+     * Страницата на публикацията се отбелязва като променена (за условните GET заявки).
+     *
+     * @param comment  Обектът {@link Blog_Comment}, който трябва да бъде запазен.
+     * @param parentId ID на коментара, на който се отговаря, или null за коментар от първо ниво.
+     * @throws IllegalArgumentException ако коментарът, на който се отговаря, не е към същата публикация.
+     */
+    @Transactional
+    public void save(Blog_Comment comment, Long parentId) {
+        blogRepository.markModified(comment.getBlog().getId(), LocalDateTime.now());
+        pageCache.invalidate();
+
+        Blog_Comment parent = parentId == null ? null : lockParent(parentId, comment.getBlog().getId());
+        while (parent != null && parent.getDepth() >= CommentPath.MAX_DEPTH - 1) {
+            parent = lockParent(parent.getParent().getId(), comment.getBlog().getId());
+        }
+
+        comment.setParent(parent);
+        comment.setDepth(parent == null ? 0 : parent.getDepth() + 1);
+        comment.setPosition(parent == null ? 0 : commentRepository.findReplyCount(parent.getId()) + 1);
+        commentRepository.save(comment); // IDENTITY: ID-то е известно веднага след записа.
+
+        if (parent == null) {
+            comment.setPath(CommentPath.root(comment.getId()));
+            return;
+        }
+        comment.setPath(CommentPath.child(parent.getPath(), comment.getId()));
+        commentRepository.incrementReplyCount(parent.getId());
+        commentRepository.incrementDescendantCount(CommentPath.ids(parent.getPath()));
+    }
+
+    private Blog_Comment lockParent(Long parentId, Long blogId) {
+        return commentRepository.findByIdForUpdate(parentId)
+                .filter(parent -> parent.getBlog().getId().equals(blogId) && parent.getPath() != null)
+                .orElseThrow(() -> new IllegalArgumentException("Коментар с ID " + parentId + " не е намерен."));
+    }
+
+    /**
+     * Връща страница от нишките с коментари към публикация, от най-новата към най-старата.
+     * <p>
+     * Нишките и първите им отговори се четат с една заявка - един интервал от индекса по пътя.
+     * Редовете са ограничени до {@code threads * (replies + 1) + 1}: толкова стигат за всички нишки от страницата
+     * и поне един ред от следващата, ако има такава.
+     *
+     * @param blogId   ID на публикацията.
+     * @param beforeId Курсор от предишна страница ({@link BlogCommentPage#getNextCursor()}) или null за първата страница.
+     * @param threads  Брой нишки на страница.
+     * @param replies  Брой преки отговори, показвани във всяка нишка.
+     * @return {@link BlogCommentPage} с коментарите и курсора за следващата страница.
+     */
+    public BlogCommentPage findThreadPage(Long blogId, Long beforeId, int threads, int replies) {
+        List<BlogCommentView> rows = commentRepository.findThreadRows(blogId, CommentPath.threadsFrom(beforeId), replies,
+                PageRequest.of(0, threads * (replies + 1) + 1));
+
+        int roots = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            BlogCommentView row = rows.get(i);
+            if (row.getDepth() == 0 && ++roots > threads) {
+                List<BlogCommentView> page = rows.subList(0, i);
+                return new BlogCommentPage(page, lastThreadId(page));
+            }
+        }
+        return new BlogCommentPage(rows, null);
+    }
+
+    private static Long lastThreadId(List<BlogCommentView> page) {
+        for (int i = page.size() - 1; i >= 0; i--) {
+            if (page.get(i).getDepth() == 0) {
+                return page.get(i).getId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Връща всички отговори под даден коментар (на всички нива), в реда на показване.
+     *
+     * @param blogId    ID на публикацията.
+     * @param commentId ID на коментара.
+     * @return Списък от {@link BlogCommentView}; празен, ако коментарът не е намерен.
+     */
+    public List<BlogCommentView> findReplies(Long blogId, Long commentId) {
+        return commentRepository.findPath(commentId, blogId)
+                .map(path -> commentRepository.findSubtree(blogId, path, CommentPath.subtreeEnd(path)))
+                .orElse(List.of());
+    }
+
+    /**
+     * Преброява коментарите към публикация, без да ги зарежда.
+     *
+     * @param blogId ID на публикацията.
+     * @return Броят на коментарите.
+     */
+    public long countByBlogId(Long blogId) {
+        return commentRepository.countByBlogId(blogId);
+    }
+
+    /**
+     * Попълва пътищата на коментарите, създадени преди въвеждането на отговорите.
+     * Всички те са коментари от първо ниво.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPaths() {
+        List<Long> ids = commentRepository.findIdsWithoutPath();
+        for (Long id : ids) {
+            commentRepository.updatePath(id, CommentPath.root(id));
+        }
+        if (!ids.isEmpty()) {
+            LOGGER.info("Попълнени са пътищата на {} коментара.", ids.size());
+        }
     }
-}
\ No newline at end of file
+}
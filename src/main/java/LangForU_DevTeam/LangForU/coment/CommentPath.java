@@ -0,0 +1,96 @@
+package LangForU_DevTeam.LangForU.coment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Помощни методи за материализирания път на коментарите ({@link Blog_Comment#getPath()}).
+ * <p>
+ * Пътят е конкатенация на сегменти с фиксирана дължина, съставени само от цифри, по един за всяко ниво.
+ * Затова лексикографската подредба съвпада с числовата при всяка колация на базата, а поддървото на
+ * коментар е интервалът {@code [path, subtreeEnd(path))}.
+ * <ul>
+ *     <li>Сегментът на коментар от първо ниво е {@code ROOT_BASE - id}, така че нишките се подреждат от най-новата.</li>
+ *     <li>Сегментите на отговорите са самите ID-та - отговорите в нишката са хронологично.</li>
+ * </ul>
+ */
+final class CommentPath {
+
+    /**
+     * Брой цифри в един сегмент.
+     */
+    static final int SEGMENT_LENGTH = 12;
+
+    /**
+     * Максимален брой нива; отговор на по-дълбоко ниво се закача към последното позволено.
+     */
+    static final int MAX_DEPTH = 8;
+
+    /**
+     * Максимална дължина на пътя.
+     */
+    static final int MAX_LENGTH = SEGMENT_LENGTH * MAX_DEPTH;
+
+    private static final long ROOT_BASE = 999_999_999_999L;
+
+    private CommentPath() {
+    }
+
+    /**
+     * @param id ID на коментар от първо ниво.
+     * @return Пътят му.
+     */
+    static String root(long id) {
+        return segment(ROOT_BASE - id);
+    }
+
+    /**
+     * @param parentPath Пътят на родителя.
+     * @param id         ID на отговора.
+     * @return Пътят на отговора.
+     */
+    static String child(String parentPath, long id) {
+        return parentPath + segment(id);
+    }
+
+    /**
+     * Началото на интервала за страница от нишки.
+     *
+     * @param beforeId Курсор: ID на последната показана нишка или null за първата страница.
+     * @return Най-малкият път на нишка с ID, по-малко от курсора.
+     */
+    static String threadsFrom(Long beforeId) {
+        return beforeId == null ? "" : root(beforeId - 1);
+    }
+
+    /**
+     * Краят (изключен) на интервала на поддървото: пътят със следващата стойност на последния сегмент.
+     *
+     * @param path Пътят на коментара.
+     * @return Най-малкият път, който не е в поддървото.
+     */
+    static String subtreeEnd(String path) {
+        int last = path.length() - SEGMENT_LENGTH;
+        return path.substring(0, last) + segment(Long.parseLong(path.substring(last)) + 1);
+    }
+
+    /**
+     * Извлича ID-тата на всички коментари по пътя, от корена до самия коментар.
+     *
+     * @param path Пътят на коментара.
+     * @return Списък с ID-тата.
+     */
+    static List<Long> ids(String path) {
+        List<Long> ids = new ArrayList<>(path.length() / SEGMENT_LENGTH);
+        for (int start = 0; start < path.length(); start += SEGMENT_LENGTH) {
+            long value = Long.parseLong(path.substring(start, start + SEGMENT_LENGTH));
+            ids.add(start == 0 ? ROOT_BASE - value : value);
+        }
+        return ids;
+    }
+
+    private static String segment(long value) {
+        String digits = Long.toString(value);
+        return "0".repeat(SEGMENT_LENGTH - digits.length()) + digits;
+    }
+}
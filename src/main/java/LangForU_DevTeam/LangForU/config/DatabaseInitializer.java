@@ -6,6 +6,7 @@ import LangForU_DevTeam.LangForU.appuser.AppUserRole;
 import LangForU_DevTeam.LangForU.appuser.AppUserService;
 import LangForU_DevTeam.LangForU.blog.Blog;
 import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.blog.BlogTaxonomyService;
 import LangForU_DevTeam.LangForU.courses.Course;
 import LangForU_DevTeam.LangForU.courses.CourseRepository;
 import LangForU_DevTeam.LangForU.courses.Level;
@@ -39,6 +40,9 @@ public class DatabaseInitializer {
     @Autowired
     private AppUserService appUserService;
 
+    @Autowired
+    private BlogTaxonomyService blogTaxonomyService;
+
     @Bean
     public CommandLineRunner initDatabase(AppUserRepository appUserRepository,
                                           CourseRepository courseRepository,
@@ -180,6 +184,7 @@ public class DatabaseInitializer {
         );
 
         try {
+            blogs.forEach(blogTaxonomyService::assign);
             blogRepository.saveAll(blogs);
             logger.info("Блоговете са инициализирани успешно.");
         } catch (Exception e) {
@@ -0,0 +1,61 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Неизменима проекция (DTO) с данните, показвани в картата на курс (на началната страница и в резултатите от търсене).
+ * Съдържа само началото на описанието и нито студентите, нито лекциите, така че снимките
+ * в {@link ActiveCourseCatalog} и {@link CourseSearchIndex} заемат малко памет.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета (използва се от JPQL "SELECT new").
+public class ActiveCourseCard {
+
+    /**
+     * ID на курса.
+     */
+    private final Long id;
+
+    /**
+     * Езикът на курса.
+     */
+    private final String language;
+
+    /**
+     * Нивото на курса.
+     */
+    private final Level level;
+
+    /**
+     * Цената на курса.
+     */
+    private final Float price;
+
+    /**
+     * Начална дата на курса.
+     */
+    private final LocalDate startDate;
+
+    /**
+     * Крайна дата на курса.
+     */
+    private final LocalDate endDate;
+
+    /**
+     * Началото на описанието (до {@link CourseRepository#DESCRIPTION_PREVIEW_LENGTH} символа) - картата показва само първите думи.
+     */
+    private final String description;
+
+    /**
+     * Рейтингът на курса.
+     */
+    private final Integer rating;
+
+    /**
+     * Път до изображението на курса.
+     */
+    private final String pictureUrl;
+}
@@ -0,0 +1,116 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import LangForU_DevTeam.LangForU.customSettings.AfterCommit;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+/**
+ * Каталог на активните курсове за началната страница и страницата "За нас".
+ * <p>
+ * Пази в паметта неизменима снимка с картите ({@link ActiveCourseCard}) на активните курсове, така че
+ * двете най-посещавани публични страници не правят заявка към базата. Снимката се подменя атомарно
+ * (volatile препратка) и се изгражда наново след всеки потвърден запис или изтриване на курс,
+ * както и при смяна на датата, когато прозорецът от ±2 седмици около курсовете се измества.
+ */
+@Component
+public class ActiveCourseCatalog {
+
+    /**
+     * Колко преди началото и след края си курсът се смята за активен.
+     */
+    static final Period WINDOW = Period.ofWeeks(2);
+
+    //<editor-fold desc="Dependencies">
+    private final CourseRepository courseRepository;
+    private final RenderedPageCache pageCache;
+    //</editor-fold>
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param courseRepository Репозитори за курсовете.
+     * @param pageCache Кеш за генерираните страници (изчиства се, когато смяната на датата промени каталога).
+     */
+    public ActiveCourseCatalog(CourseRepository courseRepository, RenderedPageCache pageCache) {
+        this.courseRepository = courseRepository;
+        this.pageCache = pageCache;
+    }
+
+    /**
+     * @return Картите на активните към днешна дата курсове, подредени по начална дата.
+     */
+    public List<ActiveCourseCard> getCards() {
+        return getCards(LocalDate.now());
+    }
+
+    List<ActiveCourseCard> getCards(LocalDate today) {
+        Snapshot current = snapshot;
+        if (current == null || !current.day().equals(today)) {
+            current = rebuildIfStale(today);
+        }
+        return current.cards();
+    }
+
+    /**
+     * Изгражда снимката за днешна дата наново след потвърждаване на записа или изтриването (вж. {@link AfterCommit}).
+     */
+    public void refresh() {
+        AfterCommit.run(() -> rebuild(LocalDate.now()));
+    }
+
+    /**
+     * Зарежда снимката при стартиране на приложението, за да не я чака първият посетител.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild(LocalDate.now());
+    }
+
+    /**
+     * Изгражда снимката наново в полунощ, когато прозорецът на активните курсове се измества.
+     * Кешираните страници се изчистват само ако картите са се променили.
+     */
+    @Scheduled(cron = "0 0 0 * * ?")  // изпълнява се ежедневно в 00:00 ч.
+    public void rollOver() {
+        rollOver(LocalDate.now());
+    }
+
+    void rollOver(LocalDate today) {
+        Snapshot previous = snapshot;
+        Snapshot fresh = rebuild(today);
+        if (previous == null || !sameCourses(previous.cards(), fresh.cards())) {
+            pageCache.invalidate();
+        }
+    }
+
+    private synchronized Snapshot rebuildIfStale(LocalDate today) {
+        Snapshot current = snapshot;
+        return current != null && current.day().equals(today) ? current : rebuild(today);
+    }
+
+    private synchronized Snapshot rebuild(LocalDate today) {
+        List<ActiveCourseCard> cards = courseRepository.findActiveCourseCards(today.minus(WINDOW), today.plus(WINDOW));
+        Snapshot fresh = new Snapshot(today, List.copyOf(cards));
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private static boolean sameCourses(List<ActiveCourseCard> a, List<ActiveCourseCard> b) {
+        return a.stream().map(ActiveCourseCard::getId).toList()
+                .equals(b.stream().map(ActiveCourseCard::getId).toList());
+    }
+
+    /**
+     * Неизменима снимка на каталога за дадена дата - подменя се цялата наведнъж.
+     */
+    private record Snapshot(LocalDate day, List<ActiveCourseCard> cards) {
+    }
+}
@@ -7,8 +7,11 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -145,6 +148,29 @@ public class Course {
     @JoinColumn(name = "final_exam_id", unique = true)
     private FinalExam finalExam;
 
+    /**
+     * Момент на последната промяна на страницата на курса (редакция на курса или на някоя от лекциите му).
+     * Използва се за условните GET заявки (ETag / Last-Modified) към страницата на курса.
+     */
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP") // За вече съществуващите редове.
+    private LocalDateTime lastModified;
+
+    /**
+     * Максимален брой места в курса. Стойност null означава курс без ограничение.
+     */
+    @PositiveOrZero(message = "Броят места трябва да бъде нула или положително число.")
+    private Integer seatLimit;
+
+    /**
+     * Брой заети места (подадени заявки за записване).
+     * Променя се само с условни UPDATE заявки ({@link CourseRepository#reserveSeat(Long)}), а не при запис
+     * на ентитета, така че едновременните записвания не могат да надхвърлят {@link #seatLimit}.
+     */
+    @ColumnDefault("0")
+    @Column(name = "seats_taken", nullable = false, insertable = false, updatable = false)
+    private int seatsTaken;
+
     /**
      * Персонализиран конструктор за създаване на обект Course.
      */
@@ -187,6 +213,22 @@ public class Course {
         return ChronoUnit.WEEKS.between(startDate, endDate);
     }
 
+    /**
+     * Изчислява свободните места в курса.
+     * @return Броят свободни места или null, ако курсът е без ограничение.
+     */
+    public Integer getSeatsLeft() {
+        return seatLimit == null ? null : Math.max(0, seatLimit - seatsTaken);
+    }
+
+    /**
+     * Проверява дали всички места в курса са заети.
+     * @return true, ако курсът има ограничение и няма свободни места.
+     */
+    public boolean isFull() {
+        return seatLimit != null && seatsTaken >= seatLimit;
+    }
+
     /**
      * Форматира цената като текст с валутен символ.
      * @return Форматирана цена (напр. "100.00 лв.").
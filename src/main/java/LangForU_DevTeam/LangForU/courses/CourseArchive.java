@@ -0,0 +1,104 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Архив с курсове за импортиране от JSON (DTO).
+ * Всеки курс съдържа лекциите си с техните упражнения и по желание финален изпит.
+ * Датите са във формат yyyy-MM-dd.
+ * <pre>
+ * {"courses": [{"language": "Английски", "level": "A1", "price": 120, "startDate": "2031-03-01", ...,
+ *               "lections": [{"name": "...", "questions": [{"question": "...", "possibleAnswers": [...], "correctAnswer": "..."}]}],
+ *               "finalExam": {"essayTopic": "...", "questions": [...]}}]}
+ * </pre>
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@Setter // Lombok: Автоматично генерира set-методи.
+@NoArgsConstructor // Lombok: Генерира конструктор без аргументи, изискван от Jackson.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета.
+public class CourseArchive {
+
+    /**
+     * Курсовете в архива.
+     */
+    private List<CourseEntry> courses = new ArrayList<>();
+
+    /**
+     * Данните за един курс от архива.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseEntry {
+        private String language;
+        private Level level;
+        private Float price;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private String description;
+        private String mainInstructorName;
+        private String assistantInstructorName;
+        private String technicianName;
+        private String pictureUrl;
+        private Integer rating;
+        private Integer seatLimit;
+        private List<LectionEntry> lections = new ArrayList<>();
+        private FinalExamEntry finalExam;
+    }
+
+    /**
+     * Данните за една лекция от архива.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LectionEntry {
+        private String name;
+        private String theme;
+        private String videoUrl;
+        private String difficultyLevel;
+        private LocalDate releaseDate;
+        private String instructor;
+        private String additionalResources;
+        private String summary;
+        private List<QuestionEntry> questions = new ArrayList<>();
+    }
+
+    /**
+     * Данните за едно упражнение (към лекция или към финален изпит) от архива.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuestionEntry {
+        private String question;
+        private List<String> possibleAnswers = new ArrayList<>();
+        private String correctAnswer;
+    }
+
+    /**
+     * Данните за финалния изпит на курс от архива.
+     * Липсващите име, дата и продължителност се попълват както при създаване на изпит от администратор.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FinalExamEntry {
+        private String name;
+        private LocalDate examDate;
+        private Integer duration;
+        private String essayTopic;
+        private List<QuestionEntry> questions = new ArrayList<>();
+    }
+}
@@ -3,23 +3,33 @@ package LangForU_DevTeam.LangForU.courses;
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.appuser.AppUserRepository;
 import LangForU_DevTeam.LangForU.appuser.AppUserService;
+import LangForU_DevTeam.LangForU.customSettings.ConditionalGet;
+import LangForU_DevTeam.LangForU.exceptions.CourseFullException;
 import LangForU_DevTeam.LangForU.lections.Lection;
 import LangForU_DevTeam.LangForU.lections.LectionService;
 import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequest;
 import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequestService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.security.Principal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Контролер, който управлява всички HTTP заявки, свързани с курсовете.
@@ -51,28 +61,43 @@ public class CourseController {
     }
 
     /**
-     * Показва страница със списък на всички курсове.
-     * Позволява филтриране по език или по съдържание в описанието.
+     * Показва страница със списък на курсовете с търсене по текст и филтри.
+     * Текстът се търси в езика, описанието и имената на преподавателите; параметрите searchLanguage и
+     * searchDescription (от връзките на началната страница) се приемат като текст за търсене.
+     * @param q Текст за търсене (незадължителен).
      * @param searchLanguage Низ за търсене по език (незадължителен).
      * @param searchDescription Низ за търсене по описание (незадължителен).
+     * @param levels Избраните нива (незадължителни).
+     * @param priceBands Избраните ценови диапазони (незадължителни).
+     * @param startMonths Избраните месеци на започване във формат yyyy-MM (незадължителни).
+     * @param hasFinalExam Дали курсът да има финален изпит (незадължителен).
      * @param model Модел за подаване на данни към изгледа.
      * @return Името на шаблона 'courses'.
      */
     @GetMapping
     public String getAllCourses(
+            @RequestParam(value = "q", required = false) String q,
             @RequestParam(value = "searchLanguage", required = false) String searchLanguage,
             @RequestParam(value = "searchDescription", required = false) String searchDescription,
+            @RequestParam(value = "level", required = false) Set<Level> levels,
+            @RequestParam(value = "price", required = false) Set<PriceBand> priceBands,
+            @RequestParam(value = "month", required = false) @DateTimeFormat(pattern = "yyyy-MM") Set<YearMonth> startMonths,
+            @RequestParam(value = "finalExam", required = false) Boolean hasFinalExam,
             Model model) {
-        List<Course> courses;
-        if (searchLanguage != null && !searchLanguage.isEmpty()) {
-            courses = courseService.getCoursesByLanguage(searchLanguage);
-        } else if (searchDescription != null && !searchDescription.isEmpty()) {
-            courses = courseService.getCoursesByDescription(searchDescription);
-        } else {
-            courses = courseService.getAllCourses();
-        }
+        String text = Stream.of(q, searchLanguage, searchDescription)
+                .filter(value -> value != null && !value.isBlank())
+                .findFirst()
+                .orElse("");
+        CourseSearchQuery query = new CourseSearchQuery(text,
+                levels == null ? Set.of() : levels,
+                priceBands == null ? Set.of() : priceBands,
+                startMonths == null ? Set.of() : startMonths,
+                hasFinalExam);
+        CourseSearchResult result = courseService.searchCourses(query);
 
-        model.addAttribute("courses", courses);
+        model.addAttribute("courses", result.getCourses());
+        model.addAttribute("search", result);
+        model.addAttribute("query", query);
         return "courses";
     }
 
@@ -122,12 +147,22 @@ public class CourseController {
      * Показва детайлна информация за избран курс, включително списък с лекциите към него.
      * @param id ID на курса.
      * @param model Модел за подаване на данни.
-     * @return Името на шаблона 'course/viewCourse' или страница за грешка.
+     * @param principal Текущият потребител (null за анонимен).
+     * @param webRequest Текущата заявка (за условния GET).
+     * @return Името на шаблона 'course/viewCourse', страница за грешка със статус 404 или null при отговор 304 Not Modified.
      */
     @GetMapping("/view/{id}")
-    public String viewCourseDetails(@PathVariable("id") Long id, Model model) {
+    public String viewCourseDetails(@PathVariable("id") Long id, Model model, Principal principal, NativeWebRequest webRequest) {
+        // Ако браузърът има актуалната версия, се отговаря с 304, без да се зареждат курсът и лекциите.
+        Optional<LocalDateTime> lastModified = courseService.findLastModified(id);
+        if (lastModified.isPresent() && ConditionalGet.checkNotModified(webRequest, principal, lastModified.get())) {
+            return null;
+        }
+
         Course course = courseService.findCourseById(id);
         if (course == null) {
+            // 404, за да не се кешира страницата за грешка и да не се отчита разглеждане на несъществуващ курс.
+            webRequest.getNativeResponse(HttpServletResponse.class).setStatus(HttpServletResponse.SC_NOT_FOUND);
             return "notifications/error";
         }
         List<Lection> lections = lectionService.getLectionsByCourseId(course.getId());
@@ -194,6 +229,10 @@ public class CourseController {
             UserCourseRequest request = userCourseRequestService.createRequest(loggedInUser.getId(), id, pin, citizenship);
             return "redirect:/courses/signedup/successfully?userId=" + loggedInUser.getId() +
                     "&courseId=" + id + "&requestId=" + request.getId();
+        } catch (CourseFullException e) {
+            // Всички места са заети (и заявката не е записана) - потребителят вижда съобщението във формата.
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/courses/signup/" + id;
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Неуспешно записване за курса: " + e.getMessage());
             return "redirect:/courses/signup/" + id;
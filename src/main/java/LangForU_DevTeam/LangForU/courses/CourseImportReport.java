@@ -0,0 +1,44 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Отчет за едно импортиране на архив с курсове: колко реда са записани във всяка таблица
+ * и за колко време.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета.
+public class CourseImportReport {
+
+    private final int courses;
+    private final int lections;
+    private final int questions;
+    private final int possibleAnswers;
+    private final int finalExams;
+
+    /**
+     * Времето за запис в милисекунди (без четенето на JSON).
+     */
+    private final long elapsedMillis;
+
+    /**
+     * @return Общият брой записани редове във всички таблици.
+     */
+    public int getRows() {
+        return courses + lections + questions + possibleAnswers + finalExams;
+    }
+
+    /**
+     * @return Записаните редове за секунда.
+     */
+    public long getRowsPerSecond() {
+        return getRows() * 1000L / Math.max(1, elapsedMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d курса, %d лекции, %d упражнения, %d възможни отговора, %d финални изпита: %d реда за %d ms (%d реда/с)",
+                courses, lections, questions, possibleAnswers, finalExams, getRows(), elapsedMillis, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,62 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Режим за импортиране на курсове от командния ред:
+ * <pre>
+ * java -jar LangForU.jar --import-courses=courses.json --spring.main.web-application-type=none
+ * </pre>
+ * Импортира архива с {@link CourseImportService}, отпечатва отчета и спира приложението
+ * с код 0 при успех или 1 при грешка.
+ */
+@Component
+@ConditionalOnProperty(name = CourseImportRunner.PROPERTY)
+public class CourseImportRunner implements ApplicationRunner {
+
+    static final String PROPERTY = "import-courses";
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseImportRunner.class);
+
+    //<editor-fold desc="Dependencies">
+    private final CourseImportService courseImportService;
+    private final ConfigurableApplicationContext context;
+    //</editor-fold>
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param courseImportService Услугата за импортиране.
+     * @param context Контекстът на приложението, който се затваря след импортирането.
+     */
+    public CourseImportRunner(CourseImportService courseImportService, ConfigurableApplicationContext context) {
+        this.courseImportService = courseImportService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Path archive = Path.of(context.getEnvironment().getRequiredProperty(PROPERTY));
+        int exitCode;
+        try (InputStream in = Files.newInputStream(archive)) {
+            CourseImportReport report = courseImportService.importArchive(in);
+            logger.info("Импортиран {}: {}", archive, report);
+            exitCode = 0;
+        } catch (Exception e) {
+            logger.error("Неуспешно импортиране на {}: {}", archive, e.getMessage());
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
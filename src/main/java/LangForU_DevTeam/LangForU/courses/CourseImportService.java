@@ -0,0 +1,366 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import LangForU_DevTeam.LangForU.exceptions.InvalidCourseArchiveException;
+import LangForU_DevTeam.LangForU.finalexam.FinalExam;
+import LangForU_DevTeam.LangForU.lections.Lection;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import LangForU_DevTeam.LangForU.question.Question;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Услуга за масово импортиране на курсове (курс, лекции, упражнения и финален изпит) от JSON архив.
+ * <p>
+ * Вместо да записва ентитетите едно по едно през JPA (по една заявка и едно генериране на ID за всеки ред),
+ * услугата записва всяка таблица с JDBC партиди от {@link #BATCH_SIZE} реда. ID-тата на лекциите, упражненията
+ * и изпитите (IDENTITY колони) и на курсовете (от course_sequence) се връщат наведнъж за цялата партида
+ * като генерирани ключове, така че връзките между таблиците се попълват без допълнителни заявки.
+ * Целият архив се валидира с правилата на ентитетите, преди да се запише първият ред, и се записва в една трансакция.
+ */
+@Service
+public class CourseImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseImportService.class);
+
+    /**
+     * Брой редове в една JDBC партида.
+     */
+    static final int BATCH_SIZE = 500;
+
+    private static final String COURSE_SEQUENCE = "course_sequence";
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    //<editor-fold desc="Dependencies">
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ActiveCourseCatalog activeCourseCatalog;
+    private final CourseSearchIndex courseSearchIndex;
+    private final RenderedPageCache pageCache;
+    //</editor-fold>
+
+    /**
+     * Израз, който връща следващата стойност на course_sequence за използваната база данни.
+     */
+    private final String nextCourseId;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param dataSource Източникът на връзки към базата (участва в текущата трансакция).
+     * @param validator Валидатор за правилата, описани с анотации в ентитетите.
+     * @param entityManagerFactory Използва се, за да се вземе синтаксисът за поредици на диалекта.
+     * @param activeCourseCatalog Каталог на активните курсове (изгражда се наново след импортиране).
+     * @param courseSearchIndex Индекс за търсене на курсове (изгражда се наново след импортиране).
+     * @param pageCache Кеш за генерираните страници (изчиства се след импортиране).
+     */
+    public CourseImportService(DataSource dataSource, Validator validator, EntityManagerFactory entityManagerFactory,
+                               ActiveCourseCatalog activeCourseCatalog, CourseSearchIndex courseSearchIndex,
+                               RenderedPageCache pageCache) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.validator = validator;
+        this.activeCourseCatalog = activeCourseCatalog;
+        this.courseSearchIndex = courseSearchIndex;
+        this.pageCache = pageCache;
+        this.nextCourseId = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSelectSequenceNextValString(COURSE_SEQUENCE);
+    }
+
+    /**
+     * Прочита JSON архив и импортира курсовете от него.
+     * @param archive Потокът с JSON архива.
+     * @return Отчет за записаните редове и скоростта на запис.
+     * @throws InvalidCourseArchiveException ако архивът не е валиден JSON или съдържа невалидни данни.
+     */
+    @Transactional
+    public CourseImportReport importArchive(InputStream archive) {
+        try {
+            return importArchive(MAPPER.readValue(archive, CourseArchive.class));
+        } catch (IOException e) {
+            throw new InvalidCourseArchiveException("Архивът не е валиден JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Валидира и импортира курсовете от архива в една трансакция.
+     * @param archive Прочетеният архив.
+     * @return Отчет за записаните редове и скоростта на запис.
+     * @throws InvalidCourseArchiveException ако някой курс, лекция, упражнение или изпит не е валиден; тогава не се записва нищо.
+     */
+    @Transactional
+    public CourseImportReport importArchive(CourseArchive archive) {
+        List<Course> courses = toCourses(archive);
+
+        long begin = System.nanoTime();
+        List<FinalExam> finalExams = courses.stream().map(Course::getFinalExam).filter(Objects::nonNull).toList();
+        List<Lection> lections = courses.stream().flatMap(course -> course.getLections().stream()).toList();
+        List<Question> questions = new ArrayList<>();
+        lections.forEach(lection -> questions.addAll(lection.getQuestions()));
+        finalExams.forEach(exam -> questions.addAll(exam.getExamQuestions()));
+
+        insertFinalExams(finalExams);
+        insertCourses(courses);
+        insertLections(lections);
+        insertQuestions(questions);
+        int possibleAnswers = insertPossibleAnswers(questions);
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        CourseImportReport report = new CourseImportReport(courses.size(), lections.size(), questions.size(),
+                possibleAnswers, finalExams.size(), elapsedMillis);
+        logger.info("Импортирани курсове: {}", report);
+
+        activeCourseCatalog.refresh();
+        courseSearchIndex.refresh();
+        pageCache.invalidate();
+        return report;
+    }
+
+    //<editor-fold desc="Validation">
+
+    /**
+     * Превръща записите от архива в ентитети и ги валидира. Събира всички грешки, за да могат да се поправят наведнъж.
+     */
+    private List<Course> toCourses(CourseArchive archive) {
+        if (archive == null || archive.getCourses() == null || archive.getCourses().isEmpty()) {
+            throw new InvalidCourseArchiveException("Архивът не съдържа курсове.");
+        }
+        List<String> errors = new ArrayList<>();
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < archive.getCourses().size(); i++) {
+            CourseArchive.CourseEntry entry = archive.getCourses().get(i);
+            String where = "Курс " + (i + 1);
+            if (entry == null) {
+                errors.add(where + ": липсват данни.");
+                continue;
+            }
+            courses.add(toCourse(entry, where, errors));
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidCourseArchiveException(String.join("\n", errors));
+        }
+        return courses;
+    }
+
+    private Course toCourse(CourseArchive.CourseEntry entry, String where, List<String> errors) {
+        Course course = new Course(null, entry.getLanguage(), entry.getLevel(), entry.getPrice(),
+                entry.getStartDate(), entry.getEndDate(), entry.getDescription(), entry.getMainInstructorName(),
+                entry.getAssistantInstructorName(), entry.getTechnicianName(), entry.getPictureUrl(),
+                Objects.requireNonNullElse(entry.getRating(), 0), null, null);
+        course.setSeatLimit(entry.getSeatLimit());
+        validate(course, where, errors);
+        if (course.getStartDate() != null && course.getEndDate() != null && course.getEndDate().isBefore(course.getStartDate())) {
+            errors.add(where + ": Крайната дата не може да бъде преди началната.");
+        }
+
+        List<CourseArchive.LectionEntry> lectionEntries = Objects.requireNonNullElse(entry.getLections(), List.of());
+        for (int i = 0; i < lectionEntries.size(); i++) {
+            CourseArchive.LectionEntry lectionEntry = lectionEntries.get(i);
+            String lectionWhere = where + ", лекция " + (i + 1);
+            if (lectionEntry == null) {
+                errors.add(lectionWhere + ": липсват данни.");
+                continue;
+            }
+            course.getLections().add(toLection(lectionEntry, course, lectionWhere, errors));
+        }
+
+        if (entry.getFinalExam() != null) {
+            course.setFinalExam(toFinalExam(entry.getFinalExam(), course, where + ", финален изпит", errors));
+        }
+        return course;
+    }
+
+    private Lection toLection(CourseArchive.LectionEntry entry, Course course, String where, List<String> errors) {
+        Lection lection = new Lection(null, entry.getName(), entry.getTheme(), entry.getVideoUrl(),
+                entry.getDifficultyLevel(), entry.getReleaseDate(), entry.getInstructor(), new ArrayList<>(),
+                entry.getAdditionalResources(), entry.getSummary(), course);
+        validate(lection, where, errors);
+        if (lection.getAdditionalResources() == null) {
+            errors.add(where + ": Допълнителните ресурси не могат да бъдат празни.");
+        }
+        if (lection.getReleaseDate() != null && course.getStartDate() != null && course.getEndDate() != null
+                && (lection.getReleaseDate().isBefore(course.getStartDate()) || lection.getReleaseDate().isAfter(course.getEndDate()))) {
+            errors.add(where + ": Датата на излъчване на лекцията трябва да е в рамките на началната и крайната дата на курса.");
+        }
+        for (Question question : toQuestions(entry.getQuestions(), where, errors)) {
+            question.setLection(lection);
+            lection.getQuestions().add(question);
+        }
+        return lection;
+    }
+
+    private FinalExam toFinalExam(CourseArchive.FinalExamEntry entry, Course course, String where, List<String> errors) {
+        // Конструкторът попълва име, дата и продължителност по подразбиране и свързва упражненията с изпита.
+        FinalExam finalExam = new FinalExam(course, toQuestions(entry.getQuestions(), where, errors), entry.getEssayTopic());
+        if (entry.getName() != null) {
+            finalExam.setName(entry.getName());
+        }
+        if (entry.getExamDate() != null) {
+            finalExam.setExamDate(entry.getExamDate());
+        }
+        if (entry.getDuration() != null) {
+            finalExam.setDuration(entry.getDuration());
+        }
+        validate(finalExam, where, errors);
+        return finalExam;
+    }
+
+    private List<Question> toQuestions(List<CourseArchive.QuestionEntry> entries, String where, List<String> errors) {
+        List<Question> questions = new ArrayList<>();
+        entries = Objects.requireNonNullElse(entries, List.of());
+        for (int i = 0; i < entries.size(); i++) {
+            CourseArchive.QuestionEntry entry = entries.get(i);
+            String questionWhere = where + ", упражнение " + (i + 1);
+            if (entry == null) {
+                errors.add(questionWhere + ": липсват данни.");
+                continue;
+            }
+            try {
+                // Конструкторът проверява, че правилният отговор е сред възможните.
+                Question question = new Question(entry.getQuestion(),
+                        new ArrayList<>(Objects.requireNonNullElse(entry.getPossibleAnswers(), List.of())), entry.getCorrectAnswer());
+                validate(question, questionWhere, errors);
+                questions.add(question);
+            } catch (IllegalArgumentException e) {
+                errors.add(questionWhere + ": " + e.getMessage());
+            }
+        }
+        return questions;
+    }
+
+    private void validate(Object entity, String where, List<String> errors) {
+        for (ConstraintViolation<Object> violation : validator.validate(entity)) {
+            errors.add(where + ": " + violation.getMessage());
+        }
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Batched inserts">
+
+    private void insertFinalExams(List<FinalExam> finalExams) {
+        List<Object[]> rows = finalExams.stream()
+                .map(exam -> new Object[]{exam.getName(), exam.getExamDate(), exam.getDuration(), exam.getEssayTopic()})
+                .toList();
+        List<Long> ids = insertReturningIds("INSERT INTO final_exams (name, exam_date, duration_in_minutes, theme_for_essay) " +
+                "VALUES (?, ?, ?, ?)", rows);
+        for (int i = 0; i < finalExams.size(); i++) {
+            finalExams.get(i).setId(ids.get(i));
+        }
+    }
+
+    private void insertCourses(List<Course> courses) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = courses.stream()
+                .map(course -> new Object[]{course.getLanguage(), course.getLevel().name(), course.getPrice(),
+                        course.getStartDate(), course.getEndDate(), course.getDescription(), course.getMainInstructorName(),
+                        course.getAssistantInstructorName(), course.getTechnicianName(), course.getPictureUrl(),
+                        course.getRating(), course.getSeatLimit(),
+                        course.getFinalExam() != null ? course.getFinalExam().getId() : null, now})
+                .toList();
+        List<Long> ids = insertReturningIds("INSERT INTO course (id, language, level, price, start_date, end_date, description, " +
+                "main_instructor_name, assistant_instructor_name, technician_name, picture_url, rating, seat_limit, final_exam_id, " +
+                "last_modified) VALUES (" + nextCourseId + ", ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        for (int i = 0; i < courses.size(); i++) {
+            courses.get(i).setId(ids.get(i));
+        }
+    }
+
+    private void insertLections(List<Lection> lections) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = lections.stream()
+                .map(lection -> new Object[]{lection.getName(), lection.getTheme(), lection.getVideoUrl(),
+                        lection.getDifficultyLevel(), lection.getReleaseDate(), lection.getInstructor(),
+                        lection.getAdditionalResources(), lection.getSummary(), lection.getCourse().getId(), now})
+                .toList();
+        List<Long> ids = insertReturningIds("INSERT INTO lections (name, theme, video_url, difficulty_level, release_date, " +
+                "instructor, additional_resource, lection_summary, course_id, last_modified) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        for (int i = 0; i < lections.size(); i++) {
+            lections.get(i).setId(ids.get(i));
+        }
+    }
+
+    private void insertQuestions(List<Question> questions) {
+        List<Object[]> rows = questions.stream()
+                .map(question -> new Object[]{question.getQuestion(), question.getCorrectAnswer(),
+                        question.getLection() != null ? question.getLection().getId() : null,
+                        question.getFinalExam() != null ? question.getFinalExam().getId() : null})
+                .toList();
+        List<Long> ids = insertReturningIds("INSERT INTO questions (question, correct_answer, lection_id, final_exam_id) " +
+                "VALUES (?, ?, ?, ?)", rows);
+        for (int i = 0; i < questions.size(); i++) {
+            questions.get(i).setId(ids.get(i));
+        }
+    }
+
+    private int insertPossibleAnswers(List<Question> questions) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Question question : questions) {
+            for (String answer : question.getPossibleAnswers()) {
+                rows.add(new Object[]{question.getId(), answer});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO question_possible_answers (question_id, possible_answer) VALUES (?, ?)",
+                rows, BATCH_SIZE, (statement, row) -> {
+                    statement.setLong(1, (Long) row[0]);
+                    statement.setString(2, (String) row[1]);
+                });
+        return rows.size();
+    }
+
+    /**
+     * Записва редовете на партиди от {@link #BATCH_SIZE} и връща техните ID-та в същия ред.
+     * ID-тата на цялата партида се получават наведнъж като генерирани ключове.
+     */
+    private List<Long> insertReturningIds(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> ids = new ArrayList<>(rows.size());
+            try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+                for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                    for (Object[] row : rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE))) {
+                        for (int i = 0; i < row.length; i++) {
+                            StatementCreatorUtils.setParameterValue(statement, i + 1, SqlTypeValue.TYPE_UNKNOWN, row[i]);
+                        }
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            if (ids.size() != rows.size()) {
+                throw new IllegalStateException("Базата върна " + ids.size() + " ID-та за " + rows.size() + " записани реда.");
+            }
+            return ids;
+        });
+    }
+
+    //</editor-fold>
+}
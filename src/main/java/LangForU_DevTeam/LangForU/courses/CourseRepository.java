@@ -1,12 +1,16 @@
 package LangForU_DevTeam.LangForU.courses;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозитори интерфейс за управление на {@link Course} ентитети.
@@ -16,6 +20,11 @@ import java.util.List;
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
+    /**
+     * Колко символа от описанието се четат за картите на активните курсове (показват се само първите думи).
+     */
+    int DESCRIPTION_PREVIEW_LENGTH = 500;
+
     /**
      * Намира всички курсове, чието име на език съдържа подадения низ, без значение от регистъра (case-insensitive).
      * Това е "derived query method", чиято имплементация се генерира автоматично от Spring Data JPA.
@@ -53,6 +62,67 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
             nativeQuery = true)
     List<Course> findActiveCourses(@Param("now") LocalDate now);
 
+    /**
+     * Намира активните курсове като карти за началната страница, без да зарежда студентите, лекциите и цялото описание.
+     * Условието е същото като при {@link #findActiveCourses(LocalDate)} (датата попада между 2 седмици преди началото
+     * и 2 седмици след края на курса), но е записано като сравнение на датите с границите на прозореца,
+     * така че заявката е преносима JPQL.
+     *
+     * @param windowStart Текущата дата минус 2 седмици.
+     * @param windowEnd Текущата дата плюс 2 седмици.
+     * @return Списък от {@link ActiveCourseCard}, подредени по начална дата.
+     */
+    @Query("SELECT new LangForU_DevTeam.LangForU.courses.ActiveCourseCard(c.id, c.language, c.level, c.price, c.startDate, c.endDate, " +
+            "SUBSTRING(c.description, 1, " + DESCRIPTION_PREVIEW_LENGTH + "), c.rating, c.pictureUrl) " +
+            "FROM Course c WHERE c.startDate <= :windowEnd AND c.endDate >= :windowStart ORDER BY c.startDate, c.id")
+    List<ActiveCourseCard> findActiveCourseCards(@Param("windowStart") LocalDate windowStart, @Param("windowEnd") LocalDate windowEnd);
+
+    /**
+     * Зарежда данните на всички курсове, нужни за индекса за търсене ({@link CourseSearchIndex}), като проекции
+     * без студентите, лекциите и финалния изпит.
+     *
+     * @return Редове [id, език, ниво, цена, начална дата, крайна дата, описание, рейтинг, изображение,
+     *         главен преподавател, асистент, има ли финален изпит], подредени по начална дата.
+     */
+    @Query("SELECT c.id, c.language, c.level, c.price, c.startDate, c.endDate, c.description, c.rating, c.pictureUrl, " +
+            "c.mainInstructorName, c.assistantInstructorName, CASE WHEN c.finalExam IS NULL THEN false ELSE true END " +
+            "FROM Course c ORDER BY c.startDate, c.id")
+    List<Object[]> findSearchDocuments();
+
+    /**
+     * Заема едно място в курса с една условна UPDATE заявка, без предварително четене на броя.
+     * Базата данни заключва реда на курса, така че едновременните заявки се изпълняват една след друга и
+     * всяка проверява условието спрямо вече увеличения брой - местата не могат да бъдат надхвърлени.
+     *
+     * @param courseId ID на курса.
+     * @return 1, ако мястото е заето, или 0, ако курсът е пълен (или не съществува).
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.seatsTaken = c.seatsTaken + 1 " +
+            "WHERE c.id = :courseId AND (c.seatLimit IS NULL OR c.seatsTaken < c.seatLimit)")
+    int reserveSeat(@Param("courseId") Long courseId);
+
+    /**
+     * Освобождава местата, заети от заявките на даден потребител (преди изтриването им).
+     *
+     * @param userId ID на потребителя.
+     * @return Броят на курсовете, в които е освободено място.
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.seatsTaken = c.seatsTaken - 1 WHERE c.seatsTaken > 0 AND c.id IN " +
+            "(SELECT r.course.id FROM UserCourseRequest r WHERE r.user.id = :userId)")
+    int releaseSeatsOfUser(@Param("userId") Long userId);
+
+    /**
+     * Преизчислява заетите места на всички курсове от заявките за записване.
+     * Използва се при стартиране, за да се попълнят местата и за заявките отпреди въвеждането на брояча.
+     *
+     * @return Броят на обновените курсове.
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.seatsTaken = (SELECT COUNT(r) FROM UserCourseRequest r WHERE r.course = c)")
+    int resyncSeatsTaken();
+
     /**
      * Намира курсове, чието описание съдържа подадения низ, без значение от регистъра.
      * Използва JPQL заявка с функциите LOWER и CONCAT за гъвкаво търсене.
@@ -62,4 +132,34 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
      */
     @Query("SELECT c FROM Course c WHERE LOWER(c.description) LIKE LOWER(CONCAT('%', :description, '%'))")
     List<Course> findByDescriptionContaining(@Param("description") String description);
-}
\ No newline at end of file
+
+    /**
+     * Чете момента на последната промяна на курс, без да го зарежда.
+     *
+     * @param id ID на курса.
+     * @return {@link Optional} с момента (празен, ако курсът не съществува).
+     */
+    @Query("SELECT c.lastModified FROM Course c WHERE c.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Long id);
+
+    /**
+     * Намира курсовете с дадените ID-та като проекции (в произволен ред), без да зарежда описанието,
+     * студентите и лекциите. Използва се за класацията "Популярни сега", подредена в паметта.
+     *
+     * @param ids ID-тата на курсовете.
+     * @return Списък от {@link CourseSummary}.
+     */
+    @Query("SELECT new LangForU_DevTeam.LangForU.courses.CourseSummary(c.id, c.language, c.level, c.pictureUrl) FROM Course c WHERE c.id IN :ids")
+    List<CourseSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Отбелязва, че страницата на курса е променена (добавена, редактирана или изтрита лекция).
+     *
+     * @param id  ID на курса.
+     * @param now Моментът на промяната.
+     * @return Броят на обновените редове.
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.lastModified = :now WHERE c.id = :id")
+    int markModified(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,310 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import LangForU_DevTeam.LangForU.customSettings.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Индекс в паметта за търсене на курсове по текст с филтри (фасети).
+ * <p>
+ * Текстовото търсене използва триграми (поредици от 3 символа) на езика, описанието и имената на
+ * преподавателите, така че съвпадат и части от думи, и думи с правописна грешка. Курс съвпада, ако в някое
+ * от полетата му се срещат поне {@link #MIN_SIMILARITY} от триграмите на заявката; съвпадение в езика
+ * тежи повече от съвпадение в описанието.
+ * <p>
+ * За всяка стойност на филтрите (ниво, ценови диапазон, месец на започване, финален изпит) се пази
+ * {@link BitSet} с курсовете, които я имат. Резултатът е сечението на текстовото съвпадение с избраните
+ * филтри, а броят за всяка стойност се получава от сечение на битовите множества, без обхождане на курсовете.
+ * Индексът е неизменима снимка, която се изгражда наново при стартиране и след всеки потвърден запис на курс.
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CourseSearchIndex.class);
+
+    /**
+     * Минималният дял от триграмите на заявката, които трябва да се срещат в едно поле.
+     */
+    static final float MIN_SIMILARITY = 0.5f;
+
+    private static final float LANGUAGE_WEIGHT = 3f;
+    private static final float INSTRUCTOR_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    //<editor-fold desc="Dependencies">
+    private final CourseRepository courseRepository;
+    //</editor-fold>
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param courseRepository Репозитори за курсовете (за изграждането на индекса).
+     */
+    public CourseSearchIndex(CourseRepository courseRepository) {
+        this.courseRepository = courseRepository;
+    }
+
+    /**
+     * Търси курсове по текст и филтри и изчислява броя курсове за всяка стойност на филтрите.
+     * @param query Критериите за търсене.
+     * @return {@link CourseSearchResult} с намерените курсове и броя по филтри.
+     */
+    public CourseSearchResult search(CourseSearchQuery query) {
+        Snapshot index = current();
+        int size = index.cards().length;
+
+        BitSet text = index.all();
+        float[] scores = null;
+        Set<String> grams = trigrams(query.getText());
+        if (!grams.isEmpty()) {
+            scores = new float[size];
+            text = new BitSet(size);
+            int[] hits = new int[size];
+            for (Field field : index.fields()) {
+                Arrays.fill(hits, 0);
+                for (String gram : grams) {
+                    int[] ordinals = field.postings().get(gram);
+                    if (ordinals != null) {
+                        for (int ordinal : ordinals) {
+                            hits[ordinal]++;
+                        }
+                    }
+                }
+                for (int ordinal = 0; ordinal < size; ordinal++) {
+                    float similarity = (float) hits[ordinal] / grams.size();
+                    if (similarity >= MIN_SIMILARITY) {
+                        text.set(ordinal);
+                        scores[ordinal] += field.weight() * similarity;
+                    }
+                }
+            }
+        }
+
+        BitSet levels = union(index.levels(), query.getLevels());
+        BitSet priceBands = union(index.priceBands(), query.getPriceBands());
+        BitSet startMonths = union(index.startMonths(), query.getStartMonths());
+        BitSet finalExam = query.getHasFinalExam() == null ? null : union(index.finalExams(), Set.of(query.getHasFinalExam()));
+
+        BitSet matches = intersect(text, levels, priceBands, startMonths, finalExam);
+        return new CourseSearchResult(
+                ranked(index, matches, scores),
+                counts(index.levels(), intersect(text, priceBands, startMonths, finalExam)),
+                counts(index.priceBands(), intersect(text, levels, startMonths, finalExam)),
+                counts(index.startMonths(), intersect(text, levels, priceBands, finalExam)),
+                counts(index.finalExams(), intersect(text, levels, priceBands, startMonths)));
+    }
+
+    /**
+     * Изгражда индекса наново след потвърждаване на промяната по курсовете (вж. {@link AfterCommit}).
+     */
+    public void refresh() {
+        AfterCommit.run(this::rebuild);
+    }
+
+    /**
+     * Изгражда индекса от всички курсове в базата данни (при стартиране на приложението).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    private synchronized Snapshot rebuild() {
+        List<Object[]> rows = courseRepository.findSearchDocuments();
+        int size = rows.size();
+        ActiveCourseCard[] cards = new ActiveCourseCard[size];
+        Map<String, List<Integer>> language = new HashMap<>();
+        Map<String, List<Integer>> instructors = new HashMap<>();
+        Map<String, List<Integer>> description = new HashMap<>();
+        Map<Level, BitSet> levels = new EnumMap<>(Level.class);
+        Map<PriceBand, BitSet> priceBands = new EnumMap<>(PriceBand.class);
+        Map<YearMonth, BitSet> startMonths = new TreeMap<>();
+        BitSet withFinalExam = new BitSet(size);
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Object[] row = rows.get(ordinal);
+            Level level = (Level) row[2];
+            Float price = (Float) row[3];
+            LocalDate startDate = (LocalDate) row[4];
+            String text = (String) row[6];
+            cards[ordinal] = new ActiveCourseCard((Long) row[0], (String) row[1], level, price, startDate,
+                    (LocalDate) row[5], preview(text), (Integer) row[7], (String) row[8]);
+
+            addPostings(language, (String) row[1], ordinal);
+            addPostings(instructors, Objects.toString(row[9], "") + " " + Objects.toString(row[10], ""), ordinal);
+            addPostings(description, text, ordinal);
+            if (level != null) {
+                levels.computeIfAbsent(level, l -> new BitSet(size)).set(ordinal);
+            }
+            priceBands.computeIfAbsent(PriceBand.of(price), b -> new BitSet(size)).set(ordinal);
+            if (startDate != null) {
+                startMonths.computeIfAbsent(YearMonth.from(startDate), m -> new BitSet(size)).set(ordinal);
+            }
+            if (Boolean.TRUE.equals(row[11])) {
+                withFinalExam.set(ordinal);
+            }
+        }
+
+        BitSet all = new BitSet(size);
+        all.set(0, size);
+        BitSet withoutFinalExam = (BitSet) all.clone();
+        withoutFinalExam.andNot(withFinalExam);
+        Map<Boolean, BitSet> finalExams = new LinkedHashMap<>();
+        finalExams.put(true, withFinalExam);
+        finalExams.put(false, withoutFinalExam);
+        Snapshot fresh = new Snapshot(cards, all,
+                List.of(new Field(LANGUAGE_WEIGHT, freeze(language)),
+                        new Field(INSTRUCTOR_WEIGHT, freeze(instructors)),
+                        new Field(DESCRIPTION_WEIGHT, freeze(description))),
+                levels, priceBands, startMonths, finalExams);
+        snapshot = fresh;
+        LOGGER.info("Индексът за търсене на курсове е изграден: {} курса.", size);
+        return fresh;
+    }
+
+    /**
+     * Разделя текста на триграми: всяка дума се привежда към малки букви, допълва се с интервал
+     * от двете страни (за да тежат началото и краят ѝ) и се нарязва на поредици от 3 символа.
+     * @param text Текстът (може да бъде null).
+     * @return Различните триграми в реда, в който се срещат.
+     */
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (text == null) {
+            return grams;
+        }
+        String folded = text.toLowerCase(Locale.ROOT);
+        int length = folded.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String padded = " " + folded.substring(start, i) + " ";
+                for (int j = 0; j + 3 <= padded.length(); j++) {
+                    grams.add(padded.substring(j, j + 3));
+                }
+                start = -1;
+            }
+        }
+        return grams;
+    }
+
+    private static void addPostings(Map<String, List<Integer>> postings, String text, int ordinal) {
+        for (String gram : trigrams(text)) {
+            postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(ordinal);
+        }
+    }
+
+    private static Map<String, int[]> freeze(Map<String, List<Integer>> postings) {
+        Map<String, int[]> frozen = new HashMap<>(postings.size() * 2);
+        postings.forEach((gram, ordinals) -> frozen.put(gram, ordinals.stream().mapToInt(Integer::intValue).toArray()));
+        return frozen;
+    }
+
+    private static String preview(String description) {
+        return description == null || description.length() <= CourseRepository.DESCRIPTION_PREVIEW_LENGTH
+                ? description : description.substring(0, CourseRepository.DESCRIPTION_PREVIEW_LENGTH);
+    }
+
+    /**
+     * Обединява битовите множества на избраните стойности на един филтър.
+     * @return Обединението или null, ако не е избрана стойност (филтърът не ограничава).
+     */
+    private static <K> BitSet union(Map<K, BitSet> facet, Collection<K> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        for (K value : selected) {
+            BitSet bits = facet.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Сечение на текстовото съвпадение с филтрите (null филтрите се пропускат).
+     */
+    private static BitSet intersect(BitSet text, BitSet... filters) {
+        BitSet result = (BitSet) text.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<K, Integer> counts(Map<K, BitSet> facet, BitSet base) {
+        Map<K, Integer> counts = new LinkedHashMap<>();
+        facet.forEach((value, bits) -> {
+            BitSet matching = (BitSet) bits.clone();
+            matching.and(base);
+            counts.put(value, matching.cardinality());
+        });
+        return counts;
+    }
+
+    /**
+     * Подрежда съвпаденията по резултат (при търсене с текст), а при равенство - по реда в индекса (начална дата).
+     */
+    private static List<ActiveCourseCard> ranked(Snapshot index, BitSet matches, float[] scores) {
+        int[] ordinals = matches.stream().toArray();
+        if (scores != null) {
+            ordinals = Arrays.stream(ordinals).boxed()
+                    .sorted(Comparator.comparingDouble((Integer ordinal) -> scores[ordinal]).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        List<ActiveCourseCard> cards = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            cards.add(index.cards()[ordinal]);
+        }
+        return cards;
+    }
+
+    /**
+     * Триграмите на едно поле (триграма -> поредните номера на курсовете) и теглото на полето.
+     */
+    private record Field(float weight, Map<String, int[]> postings) {
+    }
+
+    /**
+     * Неизменима снимка на индекса - подменя се цялата наведнъж. Поредният номер на курса е позицията му в {@code cards}.
+     */
+    private record Snapshot(ActiveCourseCard[] cards, BitSet all, List<Field> fields,
+                            Map<Level, BitSet> levels, Map<PriceBand, BitSet> priceBands,
+                            Map<YearMonth, BitSet> startMonths, Map<Boolean, BitSet> finalExams) {
+    }
+}
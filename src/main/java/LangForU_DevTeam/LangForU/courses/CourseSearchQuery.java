@@ -0,0 +1,56 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Критерии за търсене на курсове: свободен текст и избраните стойности на филтрите.
+ * Празен набор означава, че по съответния филтър не се ограничава; в рамките на един филтър
+ * стойностите се комбинират с "или", а различните филтри - с "и".
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета.
+public class CourseSearchQuery {
+
+    /**
+     * Текстът за търсене в езика, описанието и имената на преподавателите (може да бъде празен).
+     */
+    private final String text;
+
+    /**
+     * Избраните нива.
+     */
+    private final Set<Level> levels;
+
+    /**
+     * Избраните ценови диапазони.
+     */
+    private final Set<PriceBand> priceBands;
+
+    /**
+     * Избраните месеци на започване.
+     */
+    private final Set<YearMonth> startMonths;
+
+    /**
+     * Дали курсът трябва да има финален изпит (null - без значение).
+     */
+    private final Boolean hasFinalExam;
+
+    /**
+     * @return Заявка без текст и без филтри (всички курсове).
+     */
+    public static CourseSearchQuery all() {
+        return new CourseSearchQuery("", Set.of(), Set.of(), Set.of(), null);
+    }
+
+    /**
+     * @return true, ако е избран поне един филтър.
+     */
+    public boolean hasFilters() {
+        return !levels.isEmpty() || !priceBands.isEmpty() || !startMonths.isEmpty() || hasFinalExam != null;
+    }
+}
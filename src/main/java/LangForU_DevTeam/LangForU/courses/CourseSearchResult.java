@@ -0,0 +1,43 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Резултат от търсене на курсове: намерените курсове и броят курсове за всяка стойност на филтрите.
+ * Броят за дадена стойност отчита текста и всички останали избрани филтри, но не и избора в собствения
+ * ѝ филтър, така че показва колко курса ще има, ако стойността бъде добавена.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета.
+public class CourseSearchResult {
+
+    /**
+     * Намерените курсове, подредени по релевантност (при търсене с текст) или по начална дата.
+     */
+    private final List<ActiveCourseCard> courses;
+
+    /**
+     * Брой курсове по ниво (само нивата, които имат курсове).
+     */
+    private final Map<Level, Integer> levelCounts;
+
+    /**
+     * Брой курсове по ценови диапазон.
+     */
+    private final Map<PriceBand, Integer> priceBandCounts;
+
+    /**
+     * Брой курсове по месец на започване, подредени хронологично.
+     */
+    private final Map<YearMonth, Integer> startMonthCounts;
+
+    /**
+     * Брой курсове с (true) и без (false) финален изпит.
+     */
+    private final Map<Boolean, Integer> finalExamCounts;
+}
@@ -1,12 +1,15 @@
 package LangForU_DevTeam.LangForU.courses;
 
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 /**
  * Сервизен клас, който капсулира бизнес логиката за управление на курсове.
@@ -22,6 +25,24 @@ public class CourseService {
     @Autowired
     private CourseRepository courseRepository;
 
+    /**
+     * Кеш за генерираните страници на анонимните посетители (изчиства се след всеки запис).
+     */
+    @Autowired
+    private RenderedPageCache pageCache;
+
+    /**
+     * Каталог на активните курсове в паметта (изгражда се наново след всеки запис).
+     */
+    @Autowired
+    private ActiveCourseCatalog activeCourseCatalog;
+
+    /**
+     * Индекс в паметта за търсене на курсове с филтри (изгражда се наново след всеки запис).
+     */
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+
     /**
      * Намира курс по неговия уникален идентификатор (ID).
      * Операцията се изпълнява в трансакция само за четене.
@@ -36,6 +57,16 @@ public class CourseService {
                 .orElseThrow(() -> new NoSuchElementException("Курсът не е намерен"));
     }
 
+    /**
+     * Чете момента на последната промяна на курс, без да го зарежда (за условните GET заявки).
+     *
+     * @param id ID на курса.
+     * @return {@link Optional} с момента (празен, ако курсът не съществува или моментът е неизвестен).
+     */
+    public Optional<LocalDateTime> findLastModified(Long id) {
+        return courseRepository.findLastModifiedById(id);
+    }
+
     /**
      * Запазва (създава или обновява) курс в базата данни.
      * Операцията се изпълнява в рамките на трансакция.
@@ -45,6 +76,9 @@ public class CourseService {
     @Transactional
     public void saveCourse(Course course) {
         courseRepository.save(course);
+        activeCourseCatalog.refresh();
+        courseSearchIndex.refresh();
+        pageCache.invalidate();
     }
 
     /**
@@ -56,6 +90,9 @@ public class CourseService {
     @Transactional
     public void deleteCourseById(Long id) {
         courseRepository.deleteById(id);
+        activeCourseCatalog.refresh();
+        courseSearchIndex.refresh();
+        pageCache.invalidate();
     }
 
     /**
@@ -77,6 +114,26 @@ public class CourseService {
         return courseRepository.findActiveCourses(LocalDate.now());
     }
 
+    /**
+     * Връща картите на активните курсове за публичните страници от каталога в паметта, без заявка към базата.
+     *
+     * @return Списък ({@link List}) от {@link ActiveCourseCard}, подредени по начална дата.
+     */
+    public List<ActiveCourseCard> getActiveCourseCards() {
+        return activeCourseCatalog.getCards();
+    }
+
+    /**
+     * Търси курсове по текст (в езика, описанието и имената на преподавателите) и филтри
+     * с индекса в паметта ({@link CourseSearchIndex}), без заявка към базата.
+     *
+     * @param query Критериите за търсене.
+     * @return {@link CourseSearchResult} с намерените курсове и броя курсове за всяка стойност на филтрите.
+     */
+    public CourseSearchResult searchCourses(CourseSearchQuery query) {
+        return courseSearchIndex.search(query);
+    }
+
     /**
      * Търси и връща курсове по име на език. Търсенето не е чувствително към регистъра.
      *
@@ -0,0 +1,33 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Проекция (DTO) с основните данни за курс, показвани в класацията "Популярни сега".
+ * Попълва се директно от JPQL заявка, без да се зареждат описанието, студентите и лекциите.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета (използва се от JPQL "SELECT new").
+public class CourseSummary {
+
+    /**
+     * ID на курса.
+     */
+    private final Long id;
+
+    /**
+     * Езикът на курса.
+     */
+    private final String language;
+
+    /**
+     * Нивото на курса.
+     */
+    private final Level level;
+
+    /**
+     * Път до изображението на курса.
+     */
+    private final String pictureUrl;
+}
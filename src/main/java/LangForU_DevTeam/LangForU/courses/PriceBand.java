@@ -0,0 +1,44 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import lombok.Getter;
+
+/**
+ * Ценови диапазони, по които може да се филтрира при търсене на курсове.
+ */
+@Getter // Lombok: Генерира get-метод за етикета.
+public enum PriceBand {
+    FREE("Безплатни", 0f),
+    UP_TO_100("До 100 лв.", 100f),
+    UP_TO_300("100 - 300 лв.", 300f),
+    OVER_300("Над 300 лв.", Float.MAX_VALUE);
+
+    /**
+     * Текстът, показван във филтъра.
+     */
+    private final String label;
+
+    /**
+     * Горната граница на диапазона (включително).
+     */
+    private final float upperBound;
+
+    PriceBand(String label, float upperBound) {
+        this.label = label;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * Определя диапазона на дадена цена.
+     * @param price Цената на курса (null или 0 означава безплатен курс).
+     * @return Диапазонът, в който попада цената.
+     */
+    public static PriceBand of(Float price) {
+        float value = price == null ? 0f : price;
+        for (PriceBand band : values()) {
+            if (value <= band.upperBound) {
+                return band;
+            }
+        }
+        return OVER_300;
+    }
+}
@@ -0,0 +1,34 @@
+package LangForU_DevTeam.LangForU.customSettings;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Помощен (utility) клас за действия, които трябва да видят потвърдените промени в базата данни:
+ * изграждане наново на снимките и индексите в паметта и изчистване на кешовете.
+ * <p>
+ * Ако има активна трансакция, действието се изпълнява след нейното потвърждаване (а при отхвърляне - изобщо не),
+ * така че не се кешират стари или отхвърлени данни. Без трансакция действието се изпълнява веднага.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Изпълнява действието след потвърждаване на текущата трансакция или веднага, ако няма такава.
+     * @param action Действието.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
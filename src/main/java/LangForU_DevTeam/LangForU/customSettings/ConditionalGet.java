@@ -0,0 +1,82 @@
+package LangForU_DevTeam.LangForU.customSettings;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Помощен (utility) клас за условни GET заявки (ETag / Last-Modified) към страници, генерирани от шаблони.
+ * <p>
+ * Контролерът първо чете само момента на последната промяна на съдържанието и извиква
+ * {@link #checkNotModified}; ако браузърът вече има актуалната версия, връща {@code null} и
+ * Spring отговаря с {@code 304 Not Modified}, без да се изпълняват останалите заявки и шаблонът.
+ * <p>
+ * Страниците съдържат и данни за текущия потребител (навигация, CSRF токен на сесията), затова ETag-ът
+ * включва отпечатък от потребителя и сесията, а кеширането е само в браузъра ({@code private}).
+ */
+public final class ConditionalGet {
+
+    /**
+     * Колко дълго браузърът на анонимен потребител може да показва страницата, без да я проверява.
+     * Логнатите потребители проверяват при всяко зареждане, за да виждат веднага своите коментари и харесвания.
+     */
+    static final Duration ANONYMOUS_MAX_AGE = Duration.ofMinutes(1);
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Задава Cache-Control и проверява заглавките If-None-Match / If-Modified-Since на заявката.
+     * При съвпадение задава статус 304; иначе добавя ETag и Last-Modified към отговора.
+     * Ако има flash съобщения от пренасочване, страницата винаги се генерира, за да се покажат.
+     *
+     * @param request      Текущата заявка.
+     * @param principal    Текущият потребител или null за анонимен.
+     * @param lastModified Моментът на последната промяна на съдържанието на страницата.
+     * @return true, ако браузърът има актуалната версия и контролерът трябва да върне null.
+     */
+    public static boolean checkNotModified(NativeWebRequest request, Principal principal, LocalDateTime lastModified) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (servletRequest == null || response == null) {
+            return false;
+        }
+
+        CacheControl cacheControl = principal == null
+                ? CacheControl.maxAge(ANONYMOUS_MAX_AGE).cachePrivate().mustRevalidate()
+                : CacheControl.noCache().cachePrivate();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(servletRequest);
+        if (flash != null && !flash.isEmpty()) {
+            return false;
+        }
+
+        long lastModifiedMillis = lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return request.checkNotModified(etag(servletRequest, principal, lastModifiedMillis), lastModifiedMillis);
+    }
+
+    /**
+     * Слаб ETag (CSRF токенът в страницата се маскира различно при всяко генериране):
+     * момент на промяната + отпечатък от потребителя и сесията.
+     */
+    private static String etag(HttpServletRequest request, Principal principal, long lastModifiedMillis) {
+        HttpSession session = request.getSession(false);
+        String variant = (principal != null ? principal.getName() : "") + '|' + (session != null ? session.getId() : "");
+        String fingerprint = DigestUtils.md5DigestAsHex(variant.getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+        return "W/\"" + Long.toHexString(lastModifiedMillis) + '-' + fingerprint + '"';
+    }
+}
@@ -0,0 +1,28 @@
+package LangForU_DevTeam.LangForU.digest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационен клас с настройките на обобщените имейли.
+ * Стойностите се зареждат от application.yml с префикс "notifications.digest".
+ */
+@Configuration
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notifications.digest")
+public class DigestProperties {
+
+    /**
+     * Cron израз, който определя прозореца за събиране на събития: при всяко изпълнение
+     * всички натрупани събития се изпращат като по един имейл на потребител.
+     */
+    private String cron = "0 0 18 * * ?";
+
+    /**
+     * Брой потребители, чиито обобщения се генерират в една трансакция.
+     */
+    private int pageSize = 200;
+}
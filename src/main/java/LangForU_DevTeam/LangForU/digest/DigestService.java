@@ -0,0 +1,107 @@
+package LangForU_DevTeam.LangForU.digest;
+
+import LangForU_DevTeam.LangForU.email.EmailOutboxService;
+import LangForU_DevTeam.LangForU.email.EmailTemplateService;
+import LangForU_DevTeam.LangForU.email.OutgoingEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервизен клас за обобщените имейли (digest).
+ * <p>
+ * Потребителите, избрали обобщен имейл, не получават отделно писмо за всяка нова лекция или блог публикация.
+ * Вместо това задачите за известия записват {@link NotificationEvent} чрез {@link #recordAll(List)},
+ * а {@link DigestWorker} периодично (вж. {@link DigestProperties#getCron()}) изпраща по един имейл
+ * на потребител с всички натрупани събития. Имейлите се добавят в изходящата опашка в същата трансакция,
+ * в която се изтриват събитията, така че събитие не се губи и не се изпраща два пъти.
+ */
+@Service
+public class DigestService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DigestService.class);
+
+    //<editor-fold desc="Dependencies">
+    private final NotificationEventRepository eventRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplateService emailTemplateService;
+    private final DigestProperties properties;
+    //</editor-fold>
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     */
+    public DigestService(NotificationEventRepository eventRepository, EmailOutboxService emailOutboxService,
+                         EmailTemplateService emailTemplateService, DigestProperties properties) {
+        this.eventRepository = eventRepository;
+        this.emailOutboxService = emailOutboxService;
+        this.emailTemplateService = emailTemplateService;
+        this.properties = properties;
+    }
+
+    /**
+     * Записва събития за включване в следващото обобщение.
+     * Участва в текущата трансакция, ако има такава.
+     *
+     * @param events Събитията за записване.
+     */
+    @Transactional
+    public void recordAll(List<NotificationEvent> events) {
+        if (!events.isEmpty()) {
+            eventRepository.saveAll(events);
+        }
+    }
+
+    /**
+     * Генерира обобщенията за следващата страница потребители с чакащи събития.
+     *
+     * @param afterUserId ID на последния обработен потребител (0 за начало).
+     * @param before      Включват се само събития, създадени преди този момент (началото на текущия прозорец).
+     * @return ID на последния обработен потребител или -1, ако няма повече потребители с чакащи събития.
+     */
+    @Transactional
+    public long processNextPage(long afterUserId, LocalDateTime before) {
+        List<Long> userIds = eventRepository.findPendingUserIdsAfter(afterUserId, before, PageRequest.of(0, properties.getPageSize()));
+        if (userIds.isEmpty()) {
+            return -1;
+        }
+
+        // Групира събитията по потребител, като запазва реда на създаване.
+        List<NotificationEvent> events = eventRepository.findPendingForUpdate(userIds, before);
+        Map<Long, List<NotificationEvent>> byUser = new LinkedHashMap<>();
+        for (NotificationEvent event : events) {
+            byUser.computeIfAbsent(event.getUserId(), id -> new ArrayList<>()).add(event);
+        }
+
+        List<OutgoingEmail> emails = new ArrayList<>(byUser.size());
+        for (List<NotificationEvent> userEvents : byUser.values()) {
+            emails.add(buildDigest(userEvents));
+        }
+        emailOutboxService.enqueueAll(emails);
+        eventRepository.deleteAllInBatch(events);
+
+        LOGGER.info("Обобщени имейли: {} получатели, {} събития.", emails.size(), events.size());
+        return userIds.get(userIds.size() - 1);
+    }
+
+    /**
+     * Създава обобщения имейл за един потребител.
+     */
+    private OutgoingEmail buildDigest(List<NotificationEvent> events) {
+        StringBuilder items = new StringBuilder();
+        for (NotificationEvent event : events) {
+            items.append(emailTemplateService.buildEmail_DigestItem(event.getType().getLabel(), event.getTitle(), event.getLink()));
+        }
+        NotificationEvent first = events.get(0);
+        String content = emailTemplateService.buildEmail_Digest(first.getName(), events.size(), items.toString());
+        return new OutgoingEmail(first.getEmail(), content);
+    }
+}
@@ -0,0 +1,44 @@
+package LangForU_DevTeam.LangForU.digest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фонов работник, който в края на всеки прозорец изпраща обобщените имейли.
+ * Всяка страница потребители се обработва в отделна трансакция.
+ */
+@Component
+public class DigestWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DigestWorker.class);
+
+    private final DigestService digestService;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     */
+    public DigestWorker(DigestService digestService) {
+        this.digestService = digestService;
+    }
+
+    /**
+     * Обработва страници, докато не останат потребители с чакащи събития.
+     * Събитията, записани след началото на изпълнението, остават за следващия прозорец.
+     */
+    @Scheduled(cron = "${notifications.digest.cron:0 0 18 * * ?}")
+    public void run() {
+        LocalDateTime windowEnd = LocalDateTime.now();
+        try {
+            long lastUserId = 0;
+            while ((lastUserId = digestService.processNextPage(lastUserId, windowEnd)) >= 0) {
+                // Всяка итерация е отделна трансакция.
+            }
+        } catch (Exception e) {
+            LOGGER.error("Грешка при изпращане на обобщени имейли. Останалите събития ще бъдат изпратени при следващото изпълнение.", e);
+        }
+    }
+}
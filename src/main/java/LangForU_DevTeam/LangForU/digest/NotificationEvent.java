@@ -0,0 +1,85 @@
+package LangForU_DevTeam.LangForU.digest;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Клас-ентитет (Entity), който представлява едно отложено известие за потребител,
+ * избрал да получава обобщен имейл (вж. {@link DigestService}).
+ * <p>
+ * Съдържа всичко, нужно за генериране на имейла (получател, заглавие, линк), така че при изпращане
+ * на обобщението не се зареждат лекции, блогове или потребители.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@Setter // Lombok: Автоматично генерира set-методи.
+@NoArgsConstructor // Lombok: Генерира конструктор без аргументи, изискван от JPA.
+@Entity // JPA: Посочва, че този клас е ентитет.
+@Table(name = "notification_event", indexes = @Index(name = "idx_notification_event_user", columnList = "userId"))
+public class NotificationEvent {
+
+    /**
+     * Уникален идентификатор (ID) на събитието.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID на потребителя, за когото е събитието. По него се групират събитията в обобщението.
+     */
+    @Column(nullable = false)
+    private Long userId;
+
+    /**
+     * Имейл адресът на потребителя.
+     */
+    @Column(nullable = false)
+    private String email;
+
+    /**
+     * Името на потребителя (за поздрава).
+     */
+    private String name;
+
+    /**
+     * Видът на събитието.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationEventType type;
+
+    /**
+     * Заглавието, което се показва в имейла (напр. "Урок 5 (Английски)").
+     */
+    @Column(nullable = false)
+    private String title;
+
+    /**
+     * Линк към новото съдържание.
+     */
+    @Column(nullable = false)
+    private String link;
+
+    /**
+     * Времеви маркер за създаване на събитието.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Конструктор за създаване на ново събитие.
+     */
+    public NotificationEvent(Long userId, String email, String name, NotificationEventType type, String title, String link, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.email = email;
+        this.name = name;
+        this.type = type;
+        this.title = title;
+        this.link = link;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,47 @@
+package LangForU_DevTeam.LangForU.digest;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозитори интерфейс за управление на {@link NotificationEvent} ентитети.
+ */
+@Repository
+public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Long> {
+
+    /**
+     * Връща следващата страница потребители с чакащи събития (keyset пагинация по ID на потребителя).
+     *
+     * @param afterUserId ID на последния обработен потребител (0 за начало).
+     * @param before      Вземат се само събития, създадени преди този момент.
+     * @param pageable    Размерът на страницата (номерът на страницата трябва да бъде 0).
+     * @return Списък с ID-та на потребители във възходящ ред.
+     */
+    @Query("SELECT DISTINCT e.userId FROM NotificationEvent e WHERE e.userId > :afterUserId AND e.createdAt < :before ORDER BY e.userId")
+    List<Long> findPendingUserIdsAfter(@Param("afterUserId") Long afterUserId, @Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * Заключва и връща чакащите събития на дадените потребители.
+     * Използва се {@code SKIP LOCKED} (таймаут -2), така че няколко инстанции на приложението
+     * не изпращат едно и също обобщение.
+     *
+     * @param userIds ID-та на потребителите.
+     * @param before  Вземат се само събития, създадени преди този момент.
+     * @return Списък от {@link NotificationEvent}, подредени по потребител и по реда на създаване.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM NotificationEvent e WHERE e.userId IN :userIds AND e.createdAt < :before ORDER BY e.userId, e.id")
+    List<NotificationEvent> findPendingForUpdate(@Param("userIds") Collection<Long> userIds, @Param("before") LocalDateTime before);
+}
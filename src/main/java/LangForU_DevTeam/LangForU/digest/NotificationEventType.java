@@ -0,0 +1,26 @@
+package LangForU_DevTeam.LangForU.digest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Енумерация (enum), която дефинира видовете събития, събирани в обобщения имейл.
+ */
+@Getter
+@AllArgsConstructor
+public enum NotificationEventType {
+    /**
+     * Нова лекция в курс, в който потребителят е записан.
+     */
+    LECTION("Нова лекция"),
+
+    /**
+     * Нова блог публикация (за абонатите на бюлетина).
+     */
+    BLOG("Нов блог пост");
+
+    /**
+     * Текстът, с който събитието се показва в имейла.
+     */
+    private final String label;
+}
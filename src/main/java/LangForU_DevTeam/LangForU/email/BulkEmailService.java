@@ -0,0 +1,172 @@
+package LangForU_DevTeam.LangForU.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Сервизен клас за масово изпращане на имейли (бюлетини, известия за нови лекции и др.).
+ * <p>
+ * Вместо по една SMTP връзка (и STARTTLS договаряне) за всеки получател, имейлите се разделят
+ * на порции и всяка порция се изпраща през една връзка чрез {@link JavaMailSender#send(MimeMessage...)}
+ * (вж. {@link EmailService#sendBatch(MimeMessage...)}).
+ * Ако връзката прекъсне по средата, Spring се свързва отново автоматично, а неуспешните
+ * съобщения се изпращат повторно веднъж през нова връзка.
+ * Порциите се изпълняват паралелно в пула {@link MailDispatchConfig#MAIL_EXECUTOR}.
+ */
+@Service
+public class BulkEmailService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkEmailService.class);
+
+    //<editor-fold desc="Dependencies">
+    private final EmailService emailService;
+    private final MailDispatchProperties properties;
+    private final Executor mailExecutor;
+    private final Timer chunkLatency;
+    private final Counter sentCounter;
+    private final Counter failureCounter;
+    //</editor-fold>
+
+    /**
+     * Конструктор за инжектиране на зависимости и регистриране на метриките за масово изпращане.
+     */
+    public BulkEmailService(EmailService emailService, MailDispatchProperties properties,
+                            @Qualifier(MailDispatchConfig.MAIL_EXECUTOR) Executor mailExecutor, MeterRegistry meterRegistry) {
+        this.emailService = emailService;
+        this.properties = properties;
+        this.mailExecutor = mailExecutor;
+        this.chunkLatency = Timer.builder("mail.bulk.chunk.latency")
+                .description("Време за изпращане на една порция имейли през една SMTP връзка")
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("mail.bulk.sent");
+        this.failureCounter = meterRegistry.counter("mail.bulk.failures");
+    }
+
+    /**
+     * Изпраща всички имейли и изчаква края на изпращането.
+     * Грешка при отделен имейл не спира останалите - тя се записва в резултата.
+     *
+     * @param emails Имейлите за изпращане.
+     * @return {@link BulkSendResult} с броя на изпратените и грешките за неуспешните.
+     */
+    public BulkSendResult sendAll(List<OutgoingEmail> emails) {
+        BulkSendResult result = new BulkSendResult();
+        if (emails == null || emails.isEmpty()) {
+            return result;
+        }
+
+        int chunkSize = Math.max(1, properties.getBulkChunkSize());
+        Semaphore permits = new Semaphore(Math.max(1, properties.getBulkConcurrency()));
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int from = 0; from < emails.size(); from += chunkSize) {
+            List<OutgoingEmail> chunk = emails.subList(from, Math.min(from + chunkSize, emails.size()));
+            permits.acquireUninterruptibly(); // Ограничава броя на едновременно отворените SMTP връзки.
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            Runnable task = () -> {
+                try {
+                    sendChunk(chunk, result);
+                } finally {
+                    permits.release();
+                    future.complete(null);
+                }
+            };
+            try {
+                mailExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Пулът е спрян (напр. при изключване на приложението) - изпращаме в текущата нишка.
+                task.run();
+            }
+            futures.add(future);
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return result;
+    }
+
+    /**
+     * Изпраща една порция през една SMTP връзка. Съобщенията, които не са минали,
+     * се опитват още веднъж през нова връзка.
+     */
+    private void sendChunk(List<OutgoingEmail> chunk, BulkSendResult result) {
+        // MimeMessage не предефинира equals/hashCode, така че ключовете се сравняват по референция.
+        Map<MimeMessage, OutgoingEmail> messages = new LinkedHashMap<>();
+        for (OutgoingEmail email : chunk) {
+            try {
+                messages.put(emailService.createMessage(email.getTo(), email.getBody()), email);
+            } catch (MessagingException | RuntimeException e) {
+                fail(result, email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            Map<Object, Exception> failed = trySend(new ArrayList<>(messages.keySet()));
+            if (!failed.isEmpty()) {
+                List<MimeMessage> retry = new ArrayList<>();
+                for (Object message : failed.keySet()) {
+                    retry.add((MimeMessage) message);
+                }
+                LOGGER.info("Повторен опит за {} от {} имейла през нова SMTP връзка.", retry.size(), messages.size());
+                failed = trySend(retry);
+            }
+
+            for (Map.Entry<Object, Exception> entry : failed.entrySet()) {
+                fail(result, messages.get((MimeMessage) entry.getKey()), entry.getValue());
+            }
+            int sent = messages.size() - failed.size();
+            result.addSent(sent);
+            sentCounter.increment(sent);
+        } finally {
+            sample.stop(chunkLatency);
+        }
+    }
+
+    /**
+     * Изпраща съобщенията през една връзка и връща неуспешните заедно с грешката.
+     */
+    private Map<Object, Exception> trySend(List<MimeMessage> messages) {
+        try {
+            emailService.sendBatch(messages.toArray(new MimeMessage[0]));
+            return Map.of();
+        } catch (MailSendException e) {
+            // Празен списък означава, че всички са изпратени и се е провалило само затварянето на връзката.
+            return e.getFailedMessages();
+        } catch (MailException e) {
+            // Напр. грешна автентикация - нито едно съобщение не е изпратено.
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (MimeMessage message : messages) {
+                failed.put(message, e);
+            }
+            return failed;
+        }
+    }
+
+    private void fail(BulkSendResult result, OutgoingEmail email, Exception error) {
+        failureCounter.increment();
+        result.addFailure(email, error);
+        LOGGER.warn("Неуспешно изпращане на имейл към {}: {}", email.getTo(), error.getMessage());
+    }
+}
@@ -0,0 +1,47 @@
+package LangForU_DevTeam.LangForU.email;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Резултат от масово изпращане чрез {@link BulkEmailService}.
+ * Съдържа броя на успешно изпратените имейли и грешката за всеки неуспешен.
+ * Порциите се изпращат паралелно, затова класът е безопасен за използване от няколко нишки.
+ */
+public class BulkSendResult {
+
+    private final AtomicInteger sentCount = new AtomicInteger();
+    private final Map<OutgoingEmail, Exception> failures = new ConcurrentHashMap<>();
+
+    void addSent(int count) {
+        sentCount.addAndGet(count);
+    }
+
+    void addFailure(OutgoingEmail email, Exception error) {
+        failures.put(email, error);
+    }
+
+    /**
+     * @return Броят на успешно изпратените имейли.
+     */
+    public int getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * @return Неуспешните имейли и съответната грешка (само за четене).
+     */
+    public Map<OutgoingEmail, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @param email Имейлът, за който се проверява.
+     * @return Грешката при изпращането му или {@code null}, ако е изпратен успешно.
+     */
+    public Exception getFailure(OutgoingEmail email) {
+        return failures.get(email);
+    }
+}
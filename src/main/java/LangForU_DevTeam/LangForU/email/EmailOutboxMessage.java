@@ -0,0 +1,91 @@
+package LangForU_DevTeam.LangForU.email;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Клас-ентитет (Entity), който представлява имейл, чакащ изпращане в изходящата опашка (transactional outbox).
+ * Записът се създава в същата трансакция като промяната в домейна (напр. изтриване на потребител),
+ * а самото изпращане се извършва по-късно от {@link EmailOutboxWorker}.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@Setter // Lombok: Автоматично генерира set-методи.
+@NoArgsConstructor // Lombok: Генерира конструктор без аргументи, изискван от JPA.
+@Entity // JPA: Посочва, че този клас е ентитет.
+@Table(name = "email_outbox", indexes = {
+        // Индекс за бързо намиране на следващите имейли за изпращане.
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class EmailOutboxMessage {
+
+    /**
+     * Уникален идентификатор (ID) на съобщението.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Имейл адресът на получателя.
+     */
+    @Column(nullable = false)
+    private String recipient;
+
+    /**
+     * HTML съдържанието на имейла.
+     */
+    @Column(nullable = false, length = 100000)
+    private String body;
+
+    /**
+     * Текущото състояние на съобщението.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    /**
+     * Брой направени опити за изпращане.
+     */
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    /**
+     * Кога съобщението може да бъде взето за (повторно) изпращане.
+     * Докато е в състояние SENDING, полето служи като краен срок на заемането (lease):
+     * ако работникът "умре", след този момент съобщението отново става достъпно.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Последната грешка при изпращане (ако има такава).
+     */
+    @Column(length = 1000)
+    private String lastError;
+
+    /**
+     * Времеви маркер за създаване на съобщението.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Времеви маркер за успешно изпращане.
+     */
+    private LocalDateTime sentAt;
+
+    /**
+     * Персонализиран конструктор за създаване на ново съобщение, готово за изпращане.
+     */
+    public EmailOutboxMessage(String recipient, String body, LocalDateTime now) {
+        this.recipient = recipient;
+        this.body = body;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+}
@@ -0,0 +1,58 @@
+package LangForU_DevTeam.LangForU.email;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационен клас с настройките на изходящата опашка за имейли (outbox).
+ * Стойностите се зареждат от application.yml с префикс "mail.outbox".
+ */
+@Configuration
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mail.outbox")
+public class EmailOutboxProperties {
+
+    /**
+     * Интервал (в милисекунди) между две проверки на опашката.
+     */
+    private long pollIntervalMs = 5000;
+
+    /**
+     * Максимален брой съобщения, които се взимат наведнъж.
+     */
+    private int batchSize = 50;
+
+    /**
+     * Максимален брой партиди, изпращани при една проверка. Останалите съобщения изчакват следващата проверка,
+     * за да не заема голяма опашка нишката за планирани задачи за дълго.
+     */
+    private int maxBatchesPerPoll = 20;
+
+    /**
+     * Максимален брой опити, след които съобщението се маркира като DEAD.
+     */
+    private int maxAttempts = 6;
+
+    /**
+     * Забавяне (в секунди) преди първия повторен опит. Всеки следващ опит удвоява забавянето.
+     */
+    private long initialBackoffSeconds = 30;
+
+    /**
+     * Горна граница (в секунди) на забавянето между два опита.
+     */
+    private long maxBackoffSeconds = 3600;
+
+    /**
+     * Колко секунди съобщението остава "заето" от работника, преди да може да бъде взето отново.
+     */
+    private long leaseSeconds = 300;
+
+    /**
+     * След колко дни успешно изпратените съобщения се изтриват от таблицата.
+     */
+    private int retentionDays = 7;
+}
@@ -0,0 +1,56 @@
+package LangForU_DevTeam.LangForU.email;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозитори интерфейс за управление на {@link EmailOutboxMessage} ентитети.
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Заключва и връща следващите съобщения, готови за изпращане.
+     * Таймаутът -2 е {@code LockOptions.SKIP_LOCKED} на Hibernate: в PostgreSQL заявката става
+     * {@code SELECT ... FOR UPDATE SKIP LOCKED}, така че няколко инстанции на приложението
+     * взимат различни редове, без да се чакат. Диалекти без поддръжка (напр. H2 в тестовете)
+     * използват обикновено {@code FOR UPDATE}.
+     *
+     * @param statuses Състоянията, от които могат да се взимат съобщения.
+     * @param now      Текущият момент.
+     * @param pageable Ограничение за размера на партидата.
+     * @return Списък със заключените съобщения.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.status IN :statuses AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt, m.id")
+    List<EmailOutboxMessage> findDueForUpdate(@Param("statuses") Collection<EmailOutboxStatus> statuses,
+                                              @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+
+    /**
+     * Преброява съобщенията в дадено състояние.
+     *
+     * @param status Търсеното състояние.
+     * @return Броят на съобщенията.
+     */
+    long countByStatus(EmailOutboxStatus status);
+
+    /**
+     * Изтрива успешно изпратените съобщения, по-стари от дадения момент.
+     *
+     * @param before Граничният момент.
+     * @return Броят на изтритите записи.
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = LangForU_DevTeam.LangForU.email.EmailOutboxStatus.SENT AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,160 @@
+package LangForU_DevTeam.LangForU.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Сервизен клас за изходящата опашка за имейли (transactional outbox).
+ * Бизнес операциите извикват {@link #enqueue(String, String)} в своята трансакция, вместо да
+ * изпращат имейла директно. Така бавен или недостъпен SMTP сървър нито забавя заявката,
+ * нито връща назад (rollback) промяната в домейна.
+ */
+@Service
+public class EmailOutboxService {
+
+    //<editor-fold desc="Dependencies">
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutboxProperties properties;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter deadCounter;
+    //</editor-fold>
+
+    /**
+     * Конструктор за инжектиране на зависимости и регистриране на метриките на опашката.
+     */
+    public EmailOutboxService(EmailOutboxRepository outboxRepository, EmailOutboxProperties properties, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.properties = properties;
+        this.sentCounter = meterRegistry.counter("mail.outbox.sent");
+        this.retryCounter = meterRegistry.counter("mail.outbox.retried");
+        this.deadCounter = meterRegistry.counter("mail.outbox.dead");
+        Gauge.builder("mail.outbox.pending", outboxRepository, r -> r.countByStatus(EmailOutboxStatus.PENDING))
+                .description("Брой имейли, чакащи изпращане в опашката")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Добавя имейл в опашката. Участва в текущата трансакция (ако има такава),
+     * така че имейлът ще бъде изпратен само ако промяната в домейна бъде записана успешно.
+     *
+     * @param to   Имейл адресът на получателя.
+     * @param body HTML съдържанието на имейла.
+     */
+    @Transactional
+    public void enqueue(String to, String body) {
+        if (to == null || to.isEmpty()) {
+            throw new IllegalArgumentException("Имейлът на получателя не може да бъде празен.");
+        }
+        outboxRepository.save(new EmailOutboxMessage(to, body, LocalDateTime.now()));
+    }
+
+    /**
+     * Добавя няколко имейла в опашката наведнъж. Участва в текущата трансакция.
+     *
+     * @param emails Имейлите за добавяне.
+     */
+    @Transactional
+    public void enqueueAll(List<OutgoingEmail> emails) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> messages = new ArrayList<>(emails.size());
+        for (OutgoingEmail email : emails) {
+            if (email.getTo() == null || email.getTo().isEmpty()) {
+                throw new IllegalArgumentException("Имейлът на получателя не може да бъде празен.");
+            }
+            messages.add(new EmailOutboxMessage(email.getTo(), email.getBody(), now));
+        }
+        outboxRepository.saveAll(messages);
+    }
+
+    /**
+     * Взима следващата партида съобщения за изпращане и ги маркира като SENDING.
+     * Редовете се заключват със {@code SKIP LOCKED}, така че паралелни работници не взимат едни и същи съобщения.
+     * Съобщение в състояние SENDING, чийто lease е изтекъл, се взима отново.
+     *
+     * @return Списък със заетите съобщения.
+     */
+    @Transactional
+    public List<EmailOutboxMessage> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> batch = outboxRepository.findDueForUpdate(
+                EnumSet.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING), now,
+                PageRequest.of(0, properties.getBatchSize()));
+
+        for (EmailOutboxMessage message : batch) {
+            message.setStatus(EmailOutboxStatus.SENDING);
+            message.setNextAttemptAt(now.plusSeconds(properties.getLeaseSeconds()));
+        }
+        return batch;
+    }
+
+    /**
+     * Маркира съобщение като успешно изпратено.
+     *
+     * @param id ID на съобщението.
+     */
+    @Transactional
+    public void markSent(Long id) {
+        outboxRepository.findById(id).ifPresent(message -> {
+            message.setStatus(EmailOutboxStatus.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+            sentCounter.increment();
+        });
+    }
+
+    /**
+     * Отбелязва неуспешен опит за изпращане. Съобщението се насрочва отново с експоненциално
+     * нарастващо забавяне, а след изчерпване на опитите се маркира като DEAD.
+     *
+     * @param id    ID на съобщението.
+     * @param error Описание на грешката.
+     */
+    @Transactional
+    public void markFailed(Long id, String error) {
+        outboxRepository.findById(id).ifPresent(message -> {
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+
+            if (attempts >= properties.getMaxAttempts()) {
+                message.setStatus(EmailOutboxStatus.DEAD);
+                deadCounter.increment();
+            } else {
+                message.setStatus(EmailOutboxStatus.PENDING);
+                message.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+                retryCounter.increment();
+            }
+        });
+    }
+
+    /**
+     * Изтрива успешно изпратените съобщения, по-стари от настроения период на съхранение.
+     *
+     * @return Броят на изтритите записи.
+     */
+    @Transactional
+    public int purgeSent() {
+        return outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(properties.getRetentionDays()));
+    }
+
+    /**
+     * Изчислява забавянето преди следващия опит: initial * 2^(attempts-1), но не повече от max.
+     *
+     * @param attempts Брой направени опити (поне 1).
+     * @return Забавянето в секунди.
+     */
+    long backoffSeconds(int attempts) {
+        long delay = properties.getInitialBackoffSeconds() << Math.min(attempts - 1, 30);
+        return Math.min(delay, properties.getMaxBackoffSeconds());
+    }
+}
@@ -0,0 +1,23 @@
+package LangForU_DevTeam.LangForU.email;
+
+/**
+ * Енумерация (Enum), която описва жизнения цикъл на имейл в изходящата опашка (outbox).
+ */
+public enum EmailOutboxStatus {
+    /**
+     * Имейлът чака изпращане (за първи път или след неуспешен опит).
+     */
+    PENDING,
+    /**
+     * Имейлът е взет от работник и се изпраща в момента.
+     */
+    SENDING,
+    /**
+     * Имейлът е изпратен успешно.
+     */
+    SENT,
+    /**
+     * Изчерпани са всички опити за изпращане (dead-letter). Изисква ръчна намеса.
+     */
+    DEAD
+}
@@ -0,0 +1,87 @@
+package LangForU_DevTeam.LangForU.email;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Фонов работник, който периодично изпраща имейлите от изходящата опашка (outbox).
+ * Всяка партида се изпраща масово чрез {@link BulkEmailService} (една SMTP връзка на порция),
+ * извън трансакция, а резултатът се записва отделно, така че заключванията в базата данни
+ * се държат само за кратко.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    private final EmailOutboxService outboxService;
+    private final BulkEmailService bulkEmailService;
+    private final EmailOutboxProperties properties;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     */
+    public EmailOutboxWorker(EmailOutboxService outboxService, BulkEmailService bulkEmailService, EmailOutboxProperties properties) {
+        this.outboxService = outboxService;
+        this.bulkEmailService = bulkEmailService;
+        this.properties = properties;
+    }
+
+    /**
+     * Обработва опашката, докато не остане съобщение, готово за изпращане,
+     * но най-много {@code mail.outbox.max-batches-per-poll} партиди наведнъж.
+     * Голям бюлетин се разпраща за няколко проверки, а между тях останалите планирани задачи не чакат.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        for (int i = 0; i < properties.getMaxBatchesPerPoll(); i++) {
+            List<EmailOutboxMessage> batch = outboxService.claimBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            deliver(batch);
+        }
+    }
+
+    /**
+     * Изтрива старите изпратени съобщения веднъж на ден (в 03:00 ч.).
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    public void purge() {
+        int deleted = outboxService.purgeSent();
+        LOGGER.info("Изтрити {} изпратени имейла от опашката.", deleted);
+    }
+
+    /**
+     * Изпраща партидата масово и записва резултата за всяко съобщение.
+     */
+    private void deliver(List<EmailOutboxMessage> batch) {
+        Map<OutgoingEmail, EmailOutboxMessage> messages = new IdentityHashMap<>();
+        List<OutgoingEmail> emails = new ArrayList<>(batch.size());
+        for (EmailOutboxMessage message : batch) {
+            OutgoingEmail email = new OutgoingEmail(message.getRecipient(), message.getBody());
+            messages.put(email, message);
+            emails.add(email);
+        }
+
+        BulkSendResult result = bulkEmailService.sendAll(emails);
+
+        for (OutgoingEmail email : emails) {
+            EmailOutboxMessage message = messages.get(email);
+            Exception error = result.getFailure(email);
+            if (error == null) {
+                outboxService.markSent(message.getId());
+            } else {
+                LOGGER.warn("Неуспешно изпращане на имейл #{} към {}: {}", message.getId(), message.getRecipient(), error.getMessage());
+                outboxService.markFailed(message.getId(), error.getMessage());
+            }
+        }
+    }
+}
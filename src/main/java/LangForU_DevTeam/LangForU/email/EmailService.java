@@ -1,8 +1,10 @@
 package LangForU_DevTeam.LangForU.email;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -16,59 +18,94 @@ import org.springframework.stereotype.Service;
  * за същинското изпращане.
  */
 @Service
-@AllArgsConstructor // Lombok: Генерира конструктор с всички полета за dependency injection.
 public class EmailService implements EmailSender {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EmailService.class);
     private final JavaMailSender emailSender; // Компонент на Spring за изпращане на имейли.
-    private final EmailTemplateService emailTemplateService; // Персонализиран сервиз за генериране на HTML съдържание за имейли.
+    private final Timer sendLatency; // Метрика: времетраене на SMTP изпращането.
+    private final Counter sendFailures; // Метрика: брой неуспешни изпращания.
+
+    /**
+     * Конструктор за инжектиране на зависимости и регистриране на метриките за изпращане.
+     */
+    public EmailService(JavaMailSender emailSender, MeterRegistry meterRegistry) {
+        this.emailSender = emailSender;
+        this.sendLatency = Timer.builder("mail.send.latency")
+                .description("Време за изпращане на един имейл през SMTP")
+                .register(meterRegistry);
+        this.sendFailures = Counter.builder("mail.send.failures")
+                .description("Брой имейли, чието изпращане се е провалило")
+                .register(meterRegistry);
+    }
 
     /**
      * Основен метод за изпращане на имейл.
-     * Операцията се изпълнява асинхронно (@Async), за да не блокира основната нишка на приложението.
+     * Операцията се изпълнява асинхронно в отделния пул {@link MailDispatchConfig#MAIL_EXECUTOR},
+     * за да не блокира нишката на HTTP заявката.
      *
      * @param to    Имейл адресът на получателя.
      * @param email Съдържанието на имейла (очаква се да бъде HTML).
      */
     @Override
-    @Async // Указва на Spring да изпълни този метод в отделна нишка.
+    @Async(MailDispatchConfig.MAIL_EXECUTOR) // Указва на Spring да изпълни този метод в пула за имейли.
     public void send(String to, String email) {
+        deliver(to, email);
+    }
+
+    /**
+     * Изпраща имейл синхронно, в текущата нишка.
+     * Използва се от фонови работници (напр. {@link EmailOutboxWorker}), които трябва
+     * да знаят дали изпращането е успешно, за да запишат резултата.
+     *
+     * @param to    Имейл адресът на получателя.
+     * @param email Съдържанието на имейла (очаква се да бъде HTML).
+     */
+    public void deliver(String to, String email) {
+        Timer.Sample sample = Timer.start();
         try {
-            // Създаване на MimeMessage, който поддържа HTML съдържание, прикачени файлове и др.
-            MimeMessage mimeMessage = emailSender.createMimeMessage();
-            // Помощен клас за лесно попълване на MimeMessage.
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-            helper.setText(email, true); // Вторият параметър 'true' указва, че съдържанието е HTML.
-            helper.setTo(to);
-            helper.setSubject("LangForU"); // Тема на имейла.
-            helper.setFrom("langforu.softdev@gmail.com"); // Имейл на изпращача.
-            emailSender.send(mimeMessage);
+            emailSender.send(createMessage(to, email));
         } catch (MessagingException e) {
             // При грешка, записваме в логовете и хвърляме изключение, за да сигнализираме за проблема.
+            sendFailures.increment();
             LOGGER.error("Неуспешно изпращане на имейл към {}", to, e);
             throw new IllegalStateException("Изпращането на имейла се провали.", e);
+        } catch (RuntimeException e) {
+            sendFailures.increment();
+            throw e;
+        } finally {
+            sample.stop(sendLatency);
         }
     }
 
     /**
-     * Специфичен метод за изпращане на отговор на заявка за контакт.
-     * Той използва {@link EmailTemplateService} за да генерира тялото на имейла,
-     * след което вика основния 'send' метод за изпращане.
+     * Създава готово за изпращане HTML съобщение с темата и подателя на приложението.
+     * Използва се и от {@link BulkEmailService}, за да изглеждат масовите имейли по същия начин.
      *
-     * @param to            Имейл адресът на получателя (потребителя, изпратил заявката).
-     * @param middleContent Основното съдържание на отговора, написано от администратора.
-     * @param adminName     Името на администратора, който отговаря.
-     * @param userName      Името на потребителя, на когото се отговаря.
+     * @param to    Имейл адресът на получателя.
+     * @param email Съдържанието на имейла (очаква се да бъде HTML).
+     * @return Попълнен {@link MimeMessage}.
+     * @throws MessagingException ако адресът или съдържанието са невалидни.
      */
-    public void sendEmail(String to, String middleContent, String adminName, String userName) {
-        try {
-            // Генериране на HTML тялото на имейла чрез шаблонен сервиз.
-            String body = emailTemplateService.buildEmail_contactAnswer(middleContent, adminName, userName);
-            // Извикване на основния метод за изпращане.
-            send(to, body);
-        } catch (Exception e) {
-            LOGGER.error("Грешка при подготовка или изпращане на имейл към {}", to, e);
-            throw new IllegalStateException("Възникна грешка при изпращането на имейла.", e);
-        }
+    MimeMessage createMessage(String to, String email) throws MessagingException {
+        // Създаване на MimeMessage, който поддържа HTML съдържание, прикачени файлове и др.
+        MimeMessage mimeMessage = emailSender.createMimeMessage();
+        // Помощен клас за лесно попълване на MimeMessage.
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setText(email, true); // Вторият параметър 'true' указва, че съдържанието е HTML.
+        helper.setTo(to);
+        helper.setSubject("LangForU"); // Тема на имейла.
+        helper.setFrom("langforu.softdev@gmail.com"); // Имейл на изпращача.
+        return mimeMessage;
+    }
+
+    /**
+     * Изпраща няколко съобщения през една SMTP връзка.
+     * Ако връзката прекъсне по средата, {@link JavaMailSender} се свързва отново автоматично,
+     * а неуспешните съобщения се връщат в {@link org.springframework.mail.MailSendException#getFailedMessages()}.
+     *
+     * @param messages Съобщенията, създадени чрез {@link #createMessage(String, String)}.
+     */
+    void sendBatch(MimeMessage... messages) {
+        emailSender.send(messages);
     }
-}
\ No newline at end of file
+}
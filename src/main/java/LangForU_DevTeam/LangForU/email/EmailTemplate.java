@@ -0,0 +1,136 @@
+package LangForU_DevTeam.LangForU.email;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Предварително компилиран HTML шаблон за имейл.
+ * <p>
+ * Изходният текст се разделя веднъж (при стартиране) на статични сегменти и слотове от вида
+ * {@code {{name}}}. При генериране статичните сегменти се използват наготово, а в слотовете се записват
+ * само персонализираните стойности, екранирани за HTML. Крайният низ се сглобява с едно копиране
+ * в масив с точен размер ({@link String#join}), без междинен буфер.
+ * <p>
+ * Слот от вида {@code {{{name}}}} се записва без екраниране. Използва се само за вмъкване на HTML,
+ * който вече е генериран от друг шаблон (напр. елементите на обобщен имейл).
+ */
+public final class EmailTemplate {
+
+    private final String name;
+    private final String[] segments; // segments[i] се записва преди слот i; последният сегмент е след последния слот.
+    private final int[] slots; // Индекс на параметъра за всеки слот.
+    private final boolean[] raw; // Дали слот i се записва без екраниране.
+
+    private EmailTemplate(String name, String[] segments, int[] slots, boolean[] raw) {
+        this.name = name;
+        this.segments = segments;
+        this.slots = slots;
+        this.raw = raw;
+    }
+
+    /**
+     * Компилира шаблон.
+     *
+     * @param name       Име на шаблона (за съобщенията за грешка).
+     * @param source     HTML текстът със слотове {@code {{параметър}}} или {@code {{{параметър}}}} (без екраниране).
+     * @param parameters Имената на параметрите в реда, в който ще се подават на {@link #render(String...)}.
+     * @return Компилираният шаблон.
+     * @throws IllegalArgumentException ако шаблонът съдържа незатворен или непознат слот.
+     */
+    public static EmailTemplate compile(String name, String source, String... parameters) {
+        List<String> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        List<String> parameterNames = Arrays.asList(parameters);
+
+        int position = 0;
+        int open;
+        while ((open = source.indexOf("{{", position)) >= 0) {
+            boolean unescaped = source.startsWith("{{{", open);
+            String closing = unescaped ? "}}}" : "}}";
+            int close = source.indexOf(closing, open + closing.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Незатворен слот в шаблона '" + name + "' на позиция " + open);
+            }
+            String parameter = source.substring(open + closing.length(), close).trim();
+            int index = parameterNames.indexOf(parameter);
+            if (index < 0) {
+                throw new IllegalArgumentException("Непознат параметър '" + parameter + "' в шаблона '" + name + "'");
+            }
+            segments.add(source.substring(position, open));
+            slots.add(index);
+            raw.add(unescaped);
+            position = close + closing.length();
+        }
+        segments.add(source.substring(position));
+
+        boolean[] rawSlots = new boolean[raw.size()];
+        for (int i = 0; i < rawSlots.length; i++) {
+            rawSlots[i] = raw.get(i);
+        }
+        return new EmailTemplate(name, segments.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray(), rawSlots);
+    }
+
+    /**
+     * Генерира HTML съдържанието на имейла.
+     *
+     * @param values Стойностите на параметрите, в реда, подаден на {@link #compile}. {@code null} се записва като празен низ.
+     * @return Готовият HTML.
+     */
+    public String render(String... values) {
+        String[] parts = new String[segments.length + slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            parts[2 * i] = segments[i];
+            String value = values[slots[i]];
+            parts[2 * i + 1] = raw[i] ? (value == null ? "" : value) : escape(value);
+        }
+        parts[parts.length - 1] = segments[slots.length];
+        return String.join("", parts);
+    }
+
+    /**
+     * @return Името на шаблона.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Екранира символите със специално значение в HTML.
+     * Ако стойността не съдържа такива символи, се връща същият обект, без заделяне на памет.
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        int first = firstSpecial(value);
+        if (first < 0) {
+            return value;
+        }
+
+        StringBuilder escaped = new StringBuilder(value.length() + 16).append(value, 0, first);
+        for (int i = first; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static int firstSpecial(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&' || c == '<' || c == '>' || c == '"' || c == '\'') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,86 @@
+package LangForU_DevTeam.LangForU.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+
+/**
+ * Конфигурационен клас, който създава отделен, ограничен пул от нишки за изпращане на имейли.
+ * Така SMTP комуникацията не блокира нишките на Tomcat, а при претоварване
+ * опашката е ограничена и не расте безкрайно.
+ */
+@Configuration
+public class MailDispatchConfig {
+
+    /**
+     * Име на бийна на изпълнителя. Използва се в {@code @Async(MailDispatchConfig.MAIL_EXECUTOR)}.
+     */
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailDispatchConfig.class);
+
+    /**
+     * Създава пула от нишки за изпращане на имейли и регистрира метрики за него.
+     * <ul>
+     *     <li>{@code mail.dispatch.queue.depth} - брой имейли, чакащи в опашката;</li>
+     *     <li>{@code mail.dispatch.active} - брой нишки, които в момента изпращат;</li>
+     *     <li>{@code mail.dispatch.backpressure} - колко пъти опашката е била пълна
+     *     и имейлът е изпратен в нишката на извикващия.</li>
+     * </ul>
+     * При спиране на приложението пулът изчаква приетите имейли да бъдат изпратени.
+     *
+     * @param properties    Настройките на пула.
+     * @param meterRegistry Регистър за метрики (Micrometer).
+     * @return Конфигуриран {@link ThreadPoolTaskExecutor}.
+     */
+    @Bean(name = MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor mailExecutor(MailDispatchProperties properties, MeterRegistry meterRegistry) {
+        Counter backpressure = Counter.builder("mail.dispatch.backpressure")
+                .description("Имейли, изпратени в нишката на извикващия поради пълна опашка")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mail-");
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setRejectedExecutionHandler(callerRunsWithMetric(backpressure));
+        executor.setWaitForTasksToCompleteOnShutdown(true); // Изчаква опашката да се изпразни при спиране.
+        executor.setAwaitTerminationSeconds(properties.getAwaitTerminationSeconds());
+        executor.initialize();
+
+        Gauge.builder("mail.dispatch.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Брой имейли, чакащи изпращане")
+                .register(meterRegistry);
+        Gauge.builder("mail.dispatch.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Брой нишки, които изпращат имейл в момента")
+                .register(meterRegistry);
+
+        return executor;
+    }
+
+    /**
+     * Политика при пълна опашка: задачата се изпълнява в нишката на извикващия.
+     * Това естествено забавя производителя (backpressure), без да губи имейли.
+     * Ако пулът вече е спрян, задачата се отхвърля с {@link RejectedExecutionException},
+     * за да може извикващият да разбере, че имейлът не е изпратен.
+     */
+    private RejectedExecutionHandler callerRunsWithMetric(Counter backpressure) {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                LOGGER.warn("Пулът за имейли е спрян. Имейлът не беше изпратен.");
+                throw new RejectedExecutionException("Пулът за имейли е спрян.");
+            }
+            backpressure.increment();
+            task.run();
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package LangForU_DevTeam.LangForU.email;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационен клас с настройките на пула от нишки, който изпраща имейлите асинхронно.
+ * Стойностите се зареждат от application.yml с префикс "mail.dispatch".
+ */
+@Configuration // Указва на Spring, че този клас е източник на дефиниции на бийнове.
+@Getter // Lombok: Автоматично генерира get-методи за всички полета.
+@Setter // Lombok: Автоматично генерира set-методи за всички полета.
+@ConfigurationProperties(prefix = "mail.dispatch")
+public class MailDispatchProperties {
+
+    /**
+     * Брой нишки, които се поддържат постоянно активни за изпращане на имейли.
+     */
+    private int corePoolSize = 2;
+
+    /**
+     * Максимален брой нишки, до който пулът може да нарасне, когато опашката е пълна.
+     */
+    private int maxPoolSize = 4;
+
+    /**
+     * Капацитет на опашката с чакащи имейли. Когато е пълна, изпращането се
+     * изпълнява в нишката на извикващия (backpressure), вместо да се губят съобщения.
+     */
+    private int queueCapacity = 500;
+
+    /**
+     * Максимално време (в секунди), за което при спиране на приложението
+     * се изчаква изпращането на вече приетите в опашката имейли.
+     */
+    private int awaitTerminationSeconds = 30;
+
+    /**
+     * Брой съобщения, които се изпращат през една SMTP връзка при масово изпращане.
+     * Връзката (и STARTTLS договарянето) се прави веднъж за цялата порция.
+     */
+    private int bulkChunkSize = 50;
+
+    /**
+     * Максимален брой порции, които се изпращат паралелно (т.е. едновременно отворени SMTP връзки).
+     */
+    private int bulkConcurrency = 2;
+}
@@ -0,0 +1,24 @@
+package LangForU_DevTeam.LangForU.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Един имейл, подготвен за масово изпращане чрез {@link BulkEmailService}.
+ * Сравнява се по референция, така че извикващият може да съпостави резултата
+ * от изпращането със своя запис (напр. ред от изходящата опашка).
+ */
+@Getter // Lombok: Автоматично генерира get-методи за всички полета.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета.
+public class OutgoingEmail {
+
+    /**
+     * Имейл адресът на получателя.
+     */
+    private final String to;
+
+    /**
+     * HTML съдържанието на имейла.
+     */
+    private final String body;
+}
@@ -0,0 +1,16 @@
+package LangForU_DevTeam.LangForU.exceptions;
+
+/**
+ * Изключение, което се хвърля при опит за записване в курс, в който всички места са заети.
+ * Контролерът за записване го обработва отделно и показва съобщението във формата за записване.
+ */
+public class CourseFullException extends RuntimeException {
+
+    /**
+     * Конструктор, който приема съобщение за грешка.
+     * @param message Съобщение, което описва по-детайлно грешката.
+     */
+    public CourseFullException(String message) {
+        super(message);
+    }
+}
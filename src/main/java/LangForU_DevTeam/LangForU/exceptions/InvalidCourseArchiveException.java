@@ -0,0 +1,23 @@
+package LangForU_DevTeam.LangForU.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Изключение, което се хвърля, когато архивът с курсове за импортиране не може да бъде прочетен
+ * или съдържа невалидни данни. В този случай не се записва нито един ред.
+ *
+ * Анотацията {@link ResponseStatus} указва на Spring MVC да върне
+ * HTTP статус 400 (Bad Request), когато изключението не е обработено другаде.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidCourseArchiveException extends RuntimeException {
+
+    /**
+     * Конструктор, който приема съобщение за грешка.
+     * @param message Съобщение, което описва по-детайлно грешката.
+     */
+    public InvalidCourseArchiveException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package LangForU_DevTeam.LangForU.finalexam;
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.courses.Course;
 import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.courses.CourseSearchIndex;
 import LangForU_DevTeam.LangForU.question.Question;
 import LangForU_DevTeam.LangForU.question.QuestionAnswer;
 import LangForU_DevTeam.LangForU.question.QuestionRepository;
@@ -24,6 +25,7 @@ public class FinalExamService {
     private final CourseRepository courseRepository;
     private final QuestionRepository questionRepository;
     private final QuestionAnswerRepository questionAnswerRepository; // Inject QuestionAnswerRepository
+    private final CourseSearchIndex courseSearchIndex; // Филтърът "финален изпит" при търсене на курсове
 
     public FinalExam createFinalExam(FinalExam finalExam) {
         return finalExamRepository.save(finalExam);
@@ -48,6 +50,7 @@ public class FinalExamService {
             course.setFinalExam(null);
             finalExam.setCourse(null);
             courseRepository.save(course);
+            courseSearchIndex.refresh();
             System.out.println("DEBUG: Course updated.");
         }
 
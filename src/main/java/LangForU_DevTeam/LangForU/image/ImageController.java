@@ -0,0 +1,78 @@
+package LangForU_DevTeam.LangForU.image;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Контролер за качване на изображения за блог публикациите и курсовете (само за администратори).
+ * <p>
+ * Отговорът е асинхронен: нишката на заявката се освобождава, докато изображението се обработва
+ * в пула на {@link ImageService}, и отговорът се изпраща, когато вариантите са готови.
+ */
+@Controller
+@RequestMapping("/admin/images")
+public class ImageController {
+
+    //<editor-fold desc="Dependencies">
+    private final ImageService imageService;
+    //</editor-fold>
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param imageService Сервиз за обработка на изображения.
+     */
+    public ImageController(ImageService imageService) {
+        this.imageService = imageService;
+    }
+
+    /**
+     * Приема изображение и връща адресите на генерираните варианти.
+     *
+     * @param file Каченият файл.
+     * @return JSON с {@code url} (адресът за записване в публикацията или курса) и {@code variants};
+     * 400 с {@code error}, ако файлът не е изображение, или 503, ако опашката за обработка е пълна.
+     * @throws IOException при грешка в четенето на качения файл.
+     */
+    @PostMapping
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST, "Не е избран файл."));
+        }
+
+        CompletableFuture<StoredImage> stored;
+        try {
+            stored = imageService.store(file.getBytes());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(
+                    error(HttpStatus.SERVICE_UNAVAILABLE, "Твърде много изображения се обработват в момента. Опитайте отново."));
+        }
+        return stored
+                .thenApply(image -> ResponseEntity.ok(Map.<String, Object>of("url", image.getUrl(), "variants", image.getVariants())))
+                .exceptionally(ImageController::failure);
+    }
+
+    private static ResponseEntity<Map<String, Object>> failure(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        if (cause instanceof IllegalArgumentException) {
+            return error(HttpStatus.BAD_REQUEST, cause.getMessage());
+        }
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Изображението не може да бъде обработено.");
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+}
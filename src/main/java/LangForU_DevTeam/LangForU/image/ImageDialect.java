@@ -0,0 +1,45 @@
+package LangForU_DevTeam.LangForU.image;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.dialect.AbstractDialect;
+import org.thymeleaf.dialect.IExpressionObjectDialect;
+import org.thymeleaf.expression.IExpressionObjectFactory;
+
+import java.util.Set;
+
+/**
+ * Thymeleaf диалект, който добавя обекта {@code #images} ({@link ImageUrls}) в шаблоните, напр.
+ * {@code th:src="${#images.url(blog.image, 'card')}"}.
+ */
+@Component
+public class ImageDialect extends AbstractDialect implements IExpressionObjectDialect {
+
+    private static final String EXPRESSION_OBJECT = "images";
+
+    private static final ImageUrls IMAGE_URLS = new ImageUrls();
+
+    public ImageDialect() {
+        super("LangForU Images");
+    }
+
+    @Override
+    public IExpressionObjectFactory getExpressionObjectFactory() {
+        return new IExpressionObjectFactory() {
+            @Override
+            public Set<String> getAllExpressionObjectNames() {
+                return Set.of(EXPRESSION_OBJECT);
+            }
+
+            @Override
+            public Object buildObject(IExpressionContext context, String expressionObjectName) {
+                return EXPRESSION_OBJECT.equals(expressionObjectName) ? IMAGE_URLS : null;
+            }
+
+            @Override
+            public boolean isCacheable(String expressionObjectName) {
+                return true;
+            }
+        };
+    }
+}
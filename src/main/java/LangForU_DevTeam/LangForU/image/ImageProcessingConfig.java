@@ -0,0 +1,49 @@
+package LangForU_DevTeam.LangForU.image;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Конфигурационен клас, който създава отделен, ограничен пул от нишки за обработка на изображения.
+ * Декодирането и преоразмеряването натоварват процесора и паметта, затова се изпълняват извън нишките на Tomcat
+ * и паралелно се обработват най-много {@link ImageProperties#getPoolSize()} изображения.
+ */
+@Configuration
+public class ImageProcessingConfig {
+
+    /**
+     * Име на бийна на изпълнителя.
+     */
+    public static final String IMAGE_EXECUTOR = "imageExecutor";
+
+    /**
+     * Създава пула от нишки и регистрира метриката {@code images.processing.queue.depth}.
+     * При пълна опашка задачата се отхвърля: каченото изображение може да се опита отново,
+     * а изпълнението в нишката на заявката би блокирало сървъра точно при натоварване.
+     *
+     * @param properties    Настройките за обработка на изображения.
+     * @param meterRegistry Регистър за метрики (Micrometer).
+     * @return Конфигуриран {@link ThreadPoolTaskExecutor}.
+     */
+    @Bean(name = IMAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor imageExecutor(ImageProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("image-");
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        Gauge.builder("images.processing.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Брой изображения, чакащи обработка")
+                .register(meterRegistry);
+
+        return executor;
+    }
+}
@@ -0,0 +1,43 @@
+package LangForU_DevTeam.LangForU.image;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационен клас с настройките за обработка на качените изображения.
+ * Стойностите се зареждат от application.yml с префикс "images".
+ */
+@Configuration
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "images")
+public class ImageProperties {
+
+    /**
+     * Директория, в която се записват генерираните варианти.
+     */
+    private String storageDir = "uploads/images";
+
+    /**
+     * Качество на JPEG компресията (от 0 до 1).
+     */
+    private float jpegQuality = 0.82f;
+
+    /**
+     * Максимален брой пиксели на каченото изображение. Проверява се преди декодирането,
+     * за да не може малък файл с огромни размери да изчерпи паметта.
+     */
+    private long maxPixels = 40_000_000L;
+
+    /**
+     * Брой нишки, които обработват изображения.
+     */
+    private int poolSize = 2;
+
+    /**
+     * Капацитет на опашката с чакащи изображения. Когато е пълна, каченото изображение се отхвърля.
+     */
+    private int queueCapacity = 20;
+}
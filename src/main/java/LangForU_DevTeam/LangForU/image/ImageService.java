@@ -0,0 +1,213 @@
+package LangForU_DevTeam.LangForU.image;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сервизен клас, който обработва качените изображения за блог публикациите и курсовете.
+ * <p>
+ * Изображението се декодира веднъж и от него се генерират вариантите от {@link ImageVariant} като JPEG файлове
+ * с имена по хеша на оригинала. Едно и също изображение, качено повторно, дава същите имена и файловете не се
+ * записват наново; затова съдържанието на даден адрес никога не се променя и може да се кешира завинаги.
+ * Обработката се изпълнява в ограничения пул {@link ImageProcessingConfig#IMAGE_EXECUTOR}.
+ */
+@Service
+public class ImageService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageService.class);
+
+    /**
+     * Версия на обработката. Участва в хеша, така че промяна в размерите или качеството дава нови имена,
+     * вместо да подмени съдържанието на вече кеширани адреси.
+     */
+    private static final String PIPELINE_VERSION = "v1";
+
+    private static final int HASH_LENGTH = 24;
+
+    //<editor-fold desc="Dependencies">
+    private final ImageProperties properties;
+    private final TaskExecutor executor;
+    //</editor-fold>
+
+    private final Path storageDir;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param properties Настройки за обработка на изображения.
+     * @param executor Ограниченият пул от нишки за обработка.
+     */
+    public ImageService(ImageProperties properties, @Qualifier(ImageProcessingConfig.IMAGE_EXECUTOR) TaskExecutor executor) {
+        this.properties = properties;
+        this.executor = executor;
+        this.storageDir = Paths.get(properties.getStorageDir()).toAbsolutePath();
+    }
+
+    /**
+     * Поставя изображението в опашката за обработка.
+     *
+     * @param content Съдържанието на качения файл.
+     * @return {@link CompletableFuture} с резултата; завършва с {@link IllegalArgumentException}, ако файлът не е
+     * поддържано изображение.
+     * @throws java.util.concurrent.RejectedExecutionException ако опашката е пълна.
+     */
+    public CompletableFuture<StoredImage> store(byte[] content) {
+        return CompletableFuture.supplyAsync(() -> process(content), executor);
+    }
+
+    /**
+     * Декодира изображението и записва вариантите му.
+     * Вариантите се генерират от най-големия към най-малкия, като всеки се смалява от предходния.
+     *
+     * @param content Съдържанието на качения файл.
+     * @return {@link StoredImage} с адресите на вариантите.
+     * @throws IllegalArgumentException ако файлът не е поддържано изображение или е твърде голям.
+     */
+    StoredImage process(byte[] content) {
+        BufferedImage image = decode(content);
+        String hash = hash(content);
+        ImageVariant[] variants = ImageVariant.values();
+        Map<String, String> urls = new LinkedHashMap<>();
+        try {
+            Files.createDirectories(storageDir);
+            for (int i = variants.length - 1; i >= 0; i--) {
+                ImageVariant variant = variants[i];
+                image = scaleToWidth(image, variant.getWidth());
+                Path target = storageDir.resolve(ImageUrls.fileName(hash, variant));
+                if (Files.notExists(target)) {
+                    write(target, encodeJpeg(image));
+                }
+                urls.put(variant.getSuffix(), ImageUrls.of(hash, variant));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Изображението не може да бъде записано.", e);
+        }
+        LOGGER.info("Изображение {} е обработено ({} варианта).", hash, urls.size());
+        return new StoredImage(hash, urls);
+    }
+
+    private BufferedImage decode(byte[] content) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Файлът не е поддържано изображение (JPEG, PNG, GIF или BMP).");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Размерите се четат от заглавната част, преди да се задели памет за пикселите.
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > properties.getMaxPixels()) {
+                    throw new IllegalArgumentException("Изображението е твърде голямо.");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Изображението не може да бъде прочетено.", e);
+        }
+    }
+
+    /**
+     * Смалява изображението до дадената ширина, като запазва пропорциите; по-тесните не се увеличават.
+     * Смаляването става на стъпки наполовина, което дава почти качеството на бикубично смаляване на цената на билинейно.
+     * Резултатът е винаги RGB без прозрачност (прозрачните области стават бели), както изисква JPEG.
+     */
+    static BufferedImage scaleToWidth(BufferedImage source, int maxWidth) {
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int targetWidth = Math.min(maxWidth, width);
+        do {
+            width = Math.max(targetWidth, width / 2);
+            int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+            current = draw(current, width, height);
+        } while (width > targetWidth);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT); // Прогресивният JPEG обикновено е по-малък.
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Записва файла атомарно: първо във временен файл в същата директория, после с преименуване,
+     * така че паралелна заявка никога не вижда наполовина записан файл.
+     */
+    private void write(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(storageDir, "upload-", ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Същото изображение е обработено паралелно - файлът вече е наличен.
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(PIPELINE_VERSION.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest(content)).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-256 е задължителен за всяка JVM.
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package LangForU_DevTeam.LangForU.image;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Адреси на генерираните варианти на изображенията.
+ * <p>
+ * Името на всеки файл е {@code <хеш>-<вариант>.jpg}, където хешът е от съдържанието на оригинала.
+ * Затова в ентитетите се пази само един адрес (на варианта {@link ImageVariant#HERO}), а останалите
+ * се извеждат от него. Адреси, които не са от обработката (външни връзки, {@code /img/...}), се връщат непроменени.
+ * Достъпен е в шаблоните като {@code #images} (вж. {@link ImageDialect}).
+ */
+public final class ImageUrls {
+
+    /**
+     * Публичният път, под който се обслужват вариантите.
+     */
+    public static final String PUBLIC_PATH = "/media/images/";
+
+    private static final Pattern GENERATED = Pattern.compile(
+            "^" + Pattern.quote(PUBLIC_PATH) + "([0-9a-f]{24})-(thumb|card|hero)\\.jpg$");
+
+    /**
+     * @param hash    Хешът на оригинала.
+     * @param variant Вариантът.
+     * @return Името на файла на варианта.
+     */
+    public static String fileName(String hash, ImageVariant variant) {
+        return hash + "-" + variant.getSuffix() + ".jpg";
+    }
+
+    /**
+     * @param hash    Хешът на оригинала.
+     * @param variant Вариантът.
+     * @return Публичният адрес на варианта.
+     */
+    public static String of(String hash, ImageVariant variant) {
+        return PUBLIC_PATH + fileName(hash, variant);
+    }
+
+    /**
+     * Връща адреса на даден вариант на изображението.
+     *
+     * @param image   Запазеният адрес на изображението.
+     * @param variant Име на варианта ({@code thumbnail}, {@code card} или {@code hero}).
+     * @return Адресът на варианта или {@code image} непроменен, ако не е генерирано изображение.
+     */
+    public String url(String image, String variant) {
+        Matcher matcher = match(image);
+        return matcher == null ? image : of(matcher.group(1), ImageVariant.valueOf(variant.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Съставя стойността на атрибута {@code srcset} с всички варианти и ширините им.
+     *
+     * @param image Запазеният адрес на изображението.
+     * @return Стойността на {@code srcset} или null, ако не е генерирано изображение (тогава атрибутът се пропуска).
+     */
+    public String srcset(String image) {
+        Matcher matcher = match(image);
+        if (matcher == null) {
+            return null;
+        }
+        return Arrays.stream(ImageVariant.values())
+                .map(variant -> of(matcher.group(1), variant) + " " + variant.getWidth() + "w")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Matcher match(String image) {
+        if (image == null) {
+            return null;
+        }
+        Matcher matcher = GENERATED.matcher(image);
+        return matcher.matches() ? matcher : null;
+    }
+}
@@ -0,0 +1,34 @@
+package LangForU_DevTeam.LangForU.image;
+
+import lombok.Getter;
+
+/**
+ * Вариантите, които се генерират за всяко качено изображение.
+ * Ширината е максимална - по-малките изображения не се увеличават.
+ */
+@Getter
+public enum ImageVariant {
+
+    /**
+     * Малка снимка (напр. последните публикации в страничната лента).
+     */
+    THUMBNAIL("thumb", 160),
+
+    /**
+     * Снимка за карта в списък (блог, курсове).
+     */
+    CARD("card", 480),
+
+    /**
+     * Голяма снимка в началото на детайлна страница.
+     */
+    HERO("hero", 1200);
+
+    private final String suffix;
+    private final int width;
+
+    ImageVariant(String suffix, int width) {
+        this.suffix = suffix;
+        this.width = width;
+    }
+}
@@ -0,0 +1,37 @@
+package LangForU_DevTeam.LangForU.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обслужва генерираните варианти на изображенията от {@link ImageProperties#getStorageDir()}.
+ * <p>
+ * Имената на файловете съдържат хеша на оригинала и съдържанието им никога не се променя, затова се връщат
+ * с {@code Cache-Control: public, max-age=31536000, immutable} - браузърите не ги проверяват повторно.
+ * Директорията се чете с {@code @Value}, за да работи конфигурацията и в тестовете на уеб слоя.
+ */
+@Configuration
+public class ImageWebConfig implements WebMvcConfigurer {
+
+    private final String storageDir;
+
+    /**
+     * @param storageDir Директорията с вариантите (същата като {@code images.storage-dir}).
+     */
+    public ImageWebConfig(@Value("${images.storage-dir:uploads/images}") String storageDir) {
+        this.storageDir = storageDir;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(ImageUrls.PUBLIC_PATH + "**")
+                .addResourceLocations(Paths.get(storageDir).toAbsolutePath().toUri().toString())
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+    }
+}
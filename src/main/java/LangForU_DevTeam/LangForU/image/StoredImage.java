@@ -0,0 +1,31 @@
+package LangForU_DevTeam.LangForU.image;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Резултат от обработката на качено изображение: хешът на оригинала и адресите на вариантите.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredImage {
+
+    /**
+     * Хешът на съдържанието на оригинала, който е част от имената на файловете.
+     */
+    private final String hash;
+
+    /**
+     * Адресите на вариантите по име ({@code thumb}, {@code card}, {@code hero}).
+     */
+    private final Map<String, String> variants;
+
+    /**
+     * @return Адресът, който се записва в ентитета - на най-големия вариант; останалите се извеждат от него.
+     */
+    public String getUrl() {
+        return variants.get(ImageVariant.HERO.getSuffix());
+    }
+}
@@ -10,9 +10,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -106,6 +109,23 @@ public class Lection {
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
+    /**
+     * Момент на последната промяна на лекцията (включително на въпросите към нея).
+     * Използва се за условните GET заявки (ETag / Last-Modified) към страницата на лекцията.
+     */
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP") // За вече съществуващите редове.
+    private LocalDateTime lastModified;
+
+    /**
+     * Конструктор с всички полета без момента на последната промяна (запазва досегашната сигнатура).
+     * Моментът се попълва от Hibernate при записа.
+     */
+    public Lection(Long id, String name, String theme, String videoUrl, String difficultyLevel, LocalDate releaseDate,
+                   String instructor, List<Question> questions, String additionalResources, String summary, Course course) {
+        this(id, name, theme, videoUrl, difficultyLevel, releaseDate, instructor, questions, additionalResources, summary, course, null);
+    }
+
     /**
      * Метод за валидация, който се изпълнява автоматично от JPA преди запис или обновяване.
      * Проверява дали датата на лекцията е в рамките на периода на курса.
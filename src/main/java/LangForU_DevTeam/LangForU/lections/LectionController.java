@@ -4,6 +4,7 @@ import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.appuser.AppUserService;
 import LangForU_DevTeam.LangForU.courses.Course;
 import LangForU_DevTeam.LangForU.courses.CourseService;
+import LangForU_DevTeam.LangForU.customSettings.ConditionalGet;
 import LangForU_DevTeam.LangForU.email.EmailSender;
 import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import LangForU_DevTeam.LangForU.question.Question;
@@ -15,13 +16,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -105,10 +109,19 @@ public class LectionController {
      * @param id ID на лекцията.
      * @param model Модел за подаване на данни.
      * @param redirectAttributes Атрибути за съобщения след пренасочване.
-     * @return Името на шаблона 'lections/lection' или пренасочване при грешка.
+     * @param principal Текущият потребител.
+     * @param webRequest Текущата заявка (за условния GET).
+     * @return Името на шаблона 'lections/lection', пренасочване при грешка или null при отговор 304 Not Modified.
      */
     @GetMapping("/view/{id}")
-    public String viewLectionUser(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
+    public String viewLectionUser(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes,
+                                  Principal principal, NativeWebRequest webRequest) {
+        // Ако браузърът има актуалната версия, се отговаря с 304, без да се зареждат лекцията и въпросите.
+        Optional<LocalDateTime> lastModified = lectionService.findLastModified(id);
+        if (lastModified.isPresent() && ConditionalGet.checkNotModified(webRequest, principal, lastModified.get())) {
+            return null;
+        }
+
         try {
             Lection lection = lectionService.findById(id);
             model.addAttribute("lection", lection);
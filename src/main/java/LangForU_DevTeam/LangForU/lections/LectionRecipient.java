@@ -0,0 +1,49 @@
+package LangForU_DevTeam.LangForU.lections;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Проекция (DTO) с данните за едно известие за нова лекция: кой потребител, за коя лекция от кой курс.
+ * Попълва се директно от JPQL заявка, без да се зареждат ентитетите {@code AppUser}, {@code Course} и {@link Lection}.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета (използва се от JPQL "SELECT new").
+public class LectionRecipient {
+
+    /**
+     * ID на лекцията. Получателите се зареждат с отделна заявка за всяка лекция.
+     */
+    private final Long lectionId;
+
+    /**
+     * Заглавието на лекцията.
+     */
+    private final String lectionTitle;
+
+    /**
+     * Езикът (името) на курса.
+     */
+    private final String courseName;
+
+    /**
+     * ID на потребителя. Порциите за една лекция се обхождат по него: следващата порция започва след
+     * последното върнато ID (вж. {@link LectionRepository#findNotificationRecipients}).
+     */
+    private final Long userId;
+
+    /**
+     * Имейл адресът на потребителя.
+     */
+    private final String email;
+
+    /**
+     * Името на потребителя.
+     */
+    private final String name;
+
+    /**
+     * Дали потребителят е избрал обобщен имейл вместо отделни известия.
+     */
+    private final boolean digestOptIn;
+}
@@ -1,12 +1,15 @@
 package LangForU_DevTeam.LangForU.lections;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозитори интерфейс за управление на {@link Lection} ентитети.
@@ -37,4 +40,41 @@ public interface LectionRepository extends JpaRepository<Lection, Long> {
      */
     @Query("SELECT l FROM Lection l JOIN FETCH l.course WHERE l.releaseDate = :releaseDate")
     List<Lection> findAllByReleaseDate(@Param("releaseDate") LocalDate releaseDate);
-}
\ No newline at end of file
+
+    /**
+     * Връща следващата порция получатели на известието за дадена лекция.
+     * Една заявка свързва лекция, курс и записаните в курса потребители и връща само нужните колони.
+     * Порциите се обхождат по ID на потребителя, така че всяка следваща заявка продължава
+     * след последния върнат ред, без OFFSET.
+     *
+     * @param lectionId   ID на лекцията.
+     * @param afterUserId ID на потребителя от последния обработен ред (0 за начало).
+     * @param pageable    Размерът на порцията (номерът на страницата трябва да бъде 0).
+     * @return Списък от {@link LectionRecipient}, подредени по ID на потребителя.
+     */
+    @Query("SELECT new LangForU_DevTeam.LangForU.lections.LectionRecipient(l.id, l.name, c.language, u.id, u.email, u.name, COALESCE(u.digestOptIn, false)) " +
+            "FROM Lection l JOIN l.course c JOIN c.students u " +
+            "WHERE l.id = :lectionId AND u.id > :afterUserId " +
+            "ORDER BY u.id")
+    List<LectionRecipient> findNotificationRecipients(@Param("lectionId") Long lectionId,
+                                                      @Param("afterUserId") Long afterUserId,
+                                                      Pageable pageable);
+
+    /**
+     * Чете момента на последната промяна на лекция, без да я зарежда.
+     *
+     * @param id ID на лекцията.
+     * @return {@link Optional} с момента (празен, ако лекцията не съществува).
+     */
+    @Query("SELECT l.lastModified FROM Lection l WHERE l.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Long id);
+
+    /**
+     * Намира ID на курса, към който принадлежи лекция.
+     *
+     * @param id ID на лекцията.
+     * @return {@link Optional} с ID на курса.
+     */
+    @Query("SELECT l.course.id FROM Lection l WHERE l.id = :id")
+    Optional<Long> findCourseIdById(@Param("id") Long id);
+}
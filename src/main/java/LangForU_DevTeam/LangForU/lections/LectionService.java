@@ -1,10 +1,16 @@
 package LangForU_DevTeam.LangForU.lections;
 
+import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Сервизен клас, който капсулира бизнес логиката за управление на лекции.
@@ -20,6 +26,18 @@ public class LectionService {
     @Autowired
     private LectionRepository lectionRepository;
 
+    /**
+     * Репозитори за курсовете (за отбелязване на промяна в страницата на курса).
+     */
+    @Autowired
+    private CourseRepository courseRepository;
+
+    /**
+     * Кеш за генерираните страници на анонимните посетители (изчиства се след всеки запис).
+     */
+    @Autowired
+    private RenderedPageCache pageCache;
+
     /**
      * Намира лекция по нейния уникален идентификатор (ID).
      *
@@ -42,13 +60,40 @@ public class LectionService {
         return lectionRepository.findAllByReleaseDate(releaseDate);
     }
 
+    /**
+     * Връща следващата порция получатели на известието за дадена лекция.
+     *
+     * @param lectionId   ID на лекцията.
+     * @param afterUserId ID на потребителя от последния обработен ред (0 за начало).
+     * @param limit       Максимален брой редове в порцията.
+     * @return Списък ({@link List}) от {@link LectionRecipient}.
+     */
+    public List<LectionRecipient> findNotificationRecipients(Long lectionId, long afterUserId, int limit) {
+        return lectionRepository.findNotificationRecipients(lectionId, afterUserId, PageRequest.of(0, limit));
+    }
+
     /**
      * Запазва (създава или обновява) лекция в базата данни.
+     * Отбелязва промяна в лекцията и в страницата на курса ѝ (и на предишния курс, ако лекцията е преместена).
      *
      * @param lection Обектът {@link Lection}, който трябва да бъде запазен.
      */
+    @Transactional
     public void save(Lection lection) {
+        LocalDateTime now = LocalDateTime.now();
+        Long courseId = lection.getCourse() != null ? lection.getCourse().getId() : null;
+        if (lection.getId() != null) {
+            lectionRepository.findCourseIdById(lection.getId())
+                    .filter(previousCourseId -> !previousCourseId.equals(courseId))
+                    .ifPresent(previousCourseId -> courseRepository.markModified(previousCourseId, now));
+        }
+
+        lection.setLastModified(now); // Промяна само във въпросите също трябва да смени момента на лекцията.
         lectionRepository.save(lection);
+        if (courseId != null) {
+            courseRepository.markModified(courseId, now);
+        }
+        pageCache.invalidate();
     }
 
     /**
@@ -66,8 +111,22 @@ public class LectionService {
      *
      * @param id ID на лекцията, която трябва да бъде изтрита.
      */
+    @Transactional
     public void deleteLectionById(Long id) {
+        Optional<Long> courseId = lectionRepository.findCourseIdById(id);
         lectionRepository.deleteById(id);
+        courseId.ifPresent(course -> courseRepository.markModified(course, LocalDateTime.now()));
+        pageCache.invalidate();
+    }
+
+    /**
+     * Чете момента на последната промяна на лекция, без да я зарежда (за условните GET заявки).
+     *
+     * @param id ID на лекцията.
+     * @return {@link Optional} с момента (празен, ако лекцията не съществува или моментът е неизвестен).
+     */
+    public Optional<LocalDateTime> findLastModified(Long id) {
+        return lectionRepository.findLastModifiedById(id);
     }
 
     /**
@@ -3,10 +3,12 @@ package LangForU_DevTeam.LangForU.like;
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.blog.Blog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -39,4 +41,37 @@ public interface Blog_Like_Repository extends JpaRepository<Blog_Like, Long> {
     @Query("SELECT COUNT(bl) FROM Blog_Like bl WHERE bl.blog.id = :blogId")
     long countByBlogId(@Param("blogId") Long blogId);
 
-}
\ No newline at end of file
+    /**
+     * Проверява дали потребителят е харесал публикацията, без да зарежда ентитети.
+     *
+     * @param blogId ID на блог публикацията.
+     * @param userId ID на потребителя.
+     * @return true, ако харесването съществува.
+     */
+    boolean existsByBlogIdAndUserId(Long blogId, Long userId);
+
+    /**
+     * Добавя харесване само ако то още не съществува (семантика на INSERT ... ON CONFLICT DO NOTHING,
+     * изразена преносимо чрез INSERT ... SELECT ... WHERE NOT EXISTS).
+     *
+     * @param blogId  ID на блог публикацията.
+     * @param userId  ID на потребителя.
+     * @param likedAt Времеви маркер на харесването.
+     * @return 1, ако харесването е добавено, 0 ако вече е съществувало.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO blog_like (blog_id, user_id, liked_at) SELECT :blogId, :userId, :likedAt " +
+            "WHERE NOT EXISTS (SELECT 1 FROM blog_like WHERE blog_id = :blogId AND user_id = :userId)", nativeQuery = true)
+    int insertIfAbsent(@Param("blogId") Long blogId, @Param("userId") Long userId, @Param("likedAt") LocalDateTime likedAt);
+
+    /**
+     * Изтрива харесването на потребителя за дадена публикация.
+     *
+     * @param blogId ID на блог публикацията.
+     * @param userId ID на потребителя.
+     * @return Броят на изтритите записи (0 или 1).
+     */
+    @Modifying
+    @Query("DELETE FROM Blog_Like bl WHERE bl.blog.id = :blogId AND bl.user.id = :userId")
+    int deleteByBlogIdAndUserId(@Param("blogId") Long blogId, @Param("userId") Long userId);
+}
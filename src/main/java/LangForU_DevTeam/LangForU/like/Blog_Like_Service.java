@@ -2,59 +2,101 @@ package LangForU_DevTeam.LangForU.like;
 
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.blog.Blog;
-import LangForU_DevTeam.LangForU.blog.BlogService;
-import org.springframework.context.annotation.Lazy;
+import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import LangForU_DevTeam.LangForU.trending.TrendingKind;
+import LangForU_DevTeam.LangForU.trending.TrendingTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
  * Сервизен клас, който капсулира бизнес логиката за управление на харесванията на блог публикации.
+ * <p>
+ * Броят на харесванията се пази в колоната {@code like_count} на публикацията и се променя атомарно
+ * в същата трансакция, в която се добавя или изтрива харесването. Така показването на броя
+ * струва четене на един ред, без да се зареждат всички харесвания.
  */
 @Service
 public class Blog_Like_Service {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(Blog_Like_Service.class);
+
+    //<editor-fold desc="Dependencies">
     private final Blog_Like_Repository blogLikeRepository;
-    private final BlogService blogService;
+    private final BlogRepository blogRepository;
+    private final RenderedPageCache pageCache;
+    private final TrendingTracker trendingTracker;
+    //</editor-fold>
 
     /**
      * Конструктор за инжектиране на зависимости.
      * @param blogLikeRepository Репозитори за харесвания.
-     * @param blogService Сервиз за управление на блогове.
-     * Анотацията {@link Lazy} се използва, за да се разреши циклична зависимост
-     * (circular dependency) между Blog_Like_Service и BlogService.
-     * Това означава, че инстанцията на BlogService ще бъде създадена едва когато
-     * бъде извикана за първи път, а не при стартиране на приложението.
+     * @param blogRepository Репозитори за блог публикации (за брояча на харесванията).
+     * @param pageCache Кеш за генерираните страници на анонимните посетители.
+     * @param trendingTracker Броячи за класацията "Популярни сега".
      */
-    public Blog_Like_Service(Blog_Like_Repository blogLikeRepository, @Lazy BlogService blogService) {
+    public Blog_Like_Service(Blog_Like_Repository blogLikeRepository, BlogRepository blogRepository, RenderedPageCache pageCache,
+                             TrendingTracker trendingTracker) {
         this.blogLikeRepository = blogLikeRepository;
-        this.blogService = blogService;
+        this.blogRepository = blogRepository;
+        this.pageCache = pageCache;
+        this.trendingTracker = trendingTracker;
     }
 
     /**
-     * Запазва ново харесване (like) в базата данни.
-     * След като запише харесването, презаписва и самия блог. Това може да е необходимо
-     * задействане на други процеси, като например обновяване на кеш или индекси.
+     * Харесва публикацията или премахва харесването, ако вече съществува (toggle).
+     * <p>
+     * Редът на публикацията се заключва, така че паралелни харесвания на една публикация се изпълняват
+     * последователно. Харесването се добавя само ако липсва, а броячът се променя с толкова, колкото реда
+     * реално са добавени или изтрити - повторна заявка не може да го раздвои. При промяна страницата на
+     * публикацията се отбелязва като променена (за условните GET заявки).
      *
-     * @param like Обектът {@link Blog_Like}, който да бъде запазен.
+     * @param blogId ID на публикацията.
+     * @param userId ID на потребителя.
+     * @return true, ако след операцията публикацията е харесана, false ако харесването е премахнато.
+     * @throws IllegalArgumentException ако публикацията не съществува.
      */
-    public void save(Blog_Like like) {
-        blogLikeRepository.save(like);
+    @Transactional
+    public boolean toggle(Long blogId, Long userId) {
+        if (blogRepository.findByIdForUpdate(blogId).isEmpty()) {
+            throw new IllegalArgumentException("Блог с ID " + blogId + " не е намерен.");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int removed = blogLikeRepository.deleteByBlogIdAndUserId(blogId, userId);
+        if (removed > 0) {
+            blogRepository.adjustLikeCount(blogId, -removed);
+            blogRepository.markModified(blogId, now);
+            pageCache.invalidate();
+            return false;
+        }
 
-        Blog blog = like.getBlog();
-        blogService.save(blog);
+        int added = blogLikeRepository.insertIfAbsent(blogId, userId, now);
+        if (added > 0) {
+            blogRepository.adjustLikeCount(blogId, added);
+            blogRepository.markModified(blogId, now);
+            pageCache.invalidate();
+            trendingTracker.recordLike(TrendingKind.BLOG, blogId);
+        }
+        return true;
     }
 
     /**
-     * Изтрива харесване (like) от базата данни.
-     * Подобно на 'save', след изтриването презаписва и самия блог.
+     * Проверява дали потребителят е харесал публикацията.
      *
-     * @param like Обектът {@link Blog_Like}, който да бъде изтрит.
+     * @param blogId ID на публикацията.
+     * @param userId ID на потребителя.
+     * @return true, ако харесването съществува.
      */
-    public void delete(Blog_Like like) {
-        blogLikeRepository.delete(like);
-        Blog blog = like.getBlog();
-        blogService.save(blog);
+    public boolean isLikedBy(Long blogId, Long userId) {
+        return blogLikeRepository.existsByBlogIdAndUserId(blogId, userId);
     }
 
     /**
@@ -70,8 +112,8 @@ public class Blog_Like_Service {
     }
 
     /**
-     * Преброява харесванията за дадена блог публикация.
-     * Делегира извикването към репозиторито.
+     * Преброява харесванията за дадена блог публикация директно от таблицата с харесвания.
+     * За показване се използва броячът {@link Blog#getLikesCount()}.
      *
      * @param blogId ID на блог публикацията.
      * @return Броят на харесванията.
@@ -79,4 +121,18 @@ public class Blog_Like_Service {
     public long countLikesByBlogId(Long blogId) {
         return blogLikeRepository.countByBlogId(blogId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверява броячите на харесванията при стартиране на приложението.
+     * Попълва колоната за публикации, създадени преди въвеждането ѝ, и коригира евентуални разминавания;
+     * публикациите с верен брояч остават непроменени.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void resyncLikeCounts() {
+        int updated = blogRepository.resyncLikeCounts();
+        if (updated > 0) {
+            LOGGER.info("Броячите на харесванията са коригирани за {} публикации.", updated);
+        }
+    }
+}
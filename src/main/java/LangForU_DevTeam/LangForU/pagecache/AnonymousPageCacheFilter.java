@@ -0,0 +1,201 @@
+package LangForU_DevTeam.LangForU.pagecache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Филтър, който обслужва анонимните GET заявки към публичните страници от {@link RenderedPageCache}.
+ * <p>
+ * Регистрира се след веригата на Spring Security, така че вече е известно дали има влязъл потребител.
+ * Кешират се само заявки без потребител и без HTTP сесия. Генерираната страница се запазва, само ако
+ * отговорът е 200 с HTML, не задава бисквитки и не е създал сесия - например при генериране на CSRF токен
+ * или съобщение за грешка, които зависят от конкретния посетител. Страниците за несъществуващи публикации
+ * и курсове се връщат с 404 и също не се кешират.
+ * <p>
+ * В ключа влизат само параметрите от {@link PageCacheProperties#getQueryParameters()}; заявките с други
+ * параметри минават покрай кеша, за да не могат варианти като {@code ?x=1}, {@code ?x=2} да изтласкат честите страници.
+ * <p>
+ * При попадение страницата се изпраща компресирана, ако клиентът приема gzip, а при съвпадащ
+ * If-None-Match се връща 304 без тяло.
+ */
+public class AnonymousPageCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * Хедър с резултата от кеша (HIT или MISS) - за диагностика.
+     */
+    static final String CACHE_HEADER = "X-Page-Cache";
+
+    /**
+     * Хедърите на генерираната страница, които се запазват и връщат при попадение.
+     */
+    private static final List<String> STORED_HEADERS = List.of(HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY);
+
+    //<editor-fold desc="Dependencies">
+    private final RenderedPageCache cache;
+    private final PageCacheProperties properties;
+    //</editor-fold>
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param cache Кешът за генерирани страници.
+     * @param properties Настройки на кеша (пътища и лимити).
+     */
+    public AnonymousPageCacheFilter(RenderedPageCache cache, PageCacheProperties properties) {
+        this.cache = cache;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return properties.getPaths().stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getUserPrincipal() != null || request.getSession(false) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(request);
+        if (key == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CachedPage page = cache.get(key);
+        if (page != null) {
+            writeCached(page, request, response);
+            return;
+        }
+
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(CACHE_HEADER, "MISS");
+        try {
+            chain.doFilter(request, wrapper);
+            if (isCacheable(request, wrapper)) {
+                cache.put(key, CachedPage.of(wrapper.getContentType(), storedHeaders(wrapper), wrapper.getContentAsByteArray()),
+                        generation);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Ключът на кеша: пътят в приложението и разрешените за него параметри, подредени по име и стойност и без повторения,
+     * така че различният ред или повтарянето на параметрите не създава нови записи.
+     *
+     * @return Ключът или null, ако заявката има параметър, който не е разрешен за пътя.
+     */
+    String cacheKey(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Set<String> allowed = new HashSet<>();
+        properties.getQueryParameters().forEach((pattern, names) -> {
+            if (pathMatcher.match(pattern, path)) {
+                allowed.addAll(names);
+            }
+        });
+
+        StringBuilder key = new StringBuilder(path);
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            if (!allowed.contains(parameter.getKey())) {
+                return null;
+            }
+            for (String value : new TreeSet<>(Arrays.asList(parameter.getValue()))) {
+                key.append(separator)
+                        .append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+                        .append('=')
+                        .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private boolean isCacheable(HttpServletRequest request, ContentCachingResponseWrapper response) {
+        String contentType = response.getContentType();
+        return response.getStatus() == HttpServletResponse.SC_OK
+                && contentType != null
+                && MediaType.TEXT_HTML.isCompatibleWith(MediaType.parseMediaType(contentType))
+                && response.getHeaders(HttpHeaders.SET_COOKIE).isEmpty()
+                && request.getSession(false) == null
+                && response.getContentSize() <= properties.getMaxEntrySize().toBytes();
+    }
+
+    private static Map<String, List<String>> storedHeaders(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : STORED_HEADERS) {
+            Collection<String> values = response.getHeaders(name);
+            if (!values.isEmpty()) {
+                headers.put(name, List.copyOf(values));
+            }
+        }
+        return headers;
+    }
+
+    private static void writeCached(CachedPage page, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        page.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(CACHE_HEADER, "HIT");
+
+        String eTag = page.getETag();
+        if (eTag != null && eTag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(page.getContentType());
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(page.getCompressedLength());
+            page.writeCompressed(response.getOutputStream());
+        } else {
+            response.setContentLength(page.getLength());
+            page.writeDecompressed(response.getOutputStream());
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        for (String header : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String encoding : header.split(",")) {
+                String[] parts = encoding.trim().split(";\\s*q=");
+                if (parts[0].equalsIgnoreCase("gzip")) {
+                    return parts.length == 1 || !parts[1].matches("0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+}
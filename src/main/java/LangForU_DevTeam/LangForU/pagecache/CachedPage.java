@@ -0,0 +1,152 @@
+package LangForU_DevTeam.LangForU.pagecache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Генерирана страница, запазена в {@link RenderedPageCache}.
+ * <p>
+ * Тялото се пази компресирано с gzip в директен (извън heap паметта) {@link ByteBuffer}, така че кешът
+ * не натоварва garbage collector-а с големи масиви. Буферът не се променя след създаването си и всяко
+ * четене работи със собствено копие на позицията му, затова една страница може да се изпраща
+ * едновременно от много нишки.
+ */
+public final class CachedPage {
+
+    private final String contentType;
+    private final Map<String, List<String>> headers;
+    private final ByteBuffer body;
+    private final int length;
+    private final long storedAt;
+
+    private CachedPage(String contentType, Map<String, List<String>> headers, ByteBuffer body, int length) {
+        this.contentType = contentType;
+        this.headers = headers;
+        this.body = body;
+        this.length = length;
+        this.storedAt = System.nanoTime();
+    }
+
+    /**
+     * Компресира тялото на отговора и го копира извън heap паметта.
+     *
+     * @param contentType Content-Type на отговора.
+     * @param headers     Хедърите, които се връщат заедно със страницата.
+     * @param content     Некомпресираното тяло.
+     * @return Новата {@link CachedPage}.
+     */
+    public static CachedPage of(String contentType, Map<String, List<String>> headers, byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Не се случва при запис в паметта.
+        }
+
+        ByteBuffer body = ByteBuffer.allocateDirect(compressed.size());
+        body.put(compressed.toByteArray()).flip();
+        return new CachedPage(contentType, Map.copyOf(headers), body.asReadOnlyBuffer(), content.length);
+    }
+
+    /**
+     * @return Content-Type на страницата.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return Запазените хедъри на отговора (без Content-Type).
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return Стойността на ETag хедъра или null, ако страницата няма такъв.
+     */
+    public String getETag() {
+        List<String> values = headers.get("ETag");
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * @return Размерът на некомпресираното тяло в байтове.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return Размерът на компресираното тяло в байтове - заеманата памет извън heap-а.
+     */
+    public int getCompressedLength() {
+        return body.capacity();
+    }
+
+    /**
+     * @param ttlNanos Време на живот в наносекунди.
+     * @return true, ако страницата е по-стара от времето на живот.
+     */
+    boolean isExpired(long ttlNanos) {
+        return System.nanoTime() - storedAt > ttlNanos;
+    }
+
+    /**
+     * Записва компресираното тяло както е - за клиенти, които приемат {@code Content-Encoding: gzip}.
+     *
+     * @param out Потокът на отговора.
+     * @throws IOException при грешка в записа.
+     */
+    public void writeCompressed(OutputStream out) throws IOException {
+        Channels.newChannel(out).write(body.duplicate());
+    }
+
+    /**
+     * Разкомпресира тялото направо в потока на отговора - за клиенти без поддръжка на gzip.
+     *
+     * @param out Потокът на отговора.
+     * @throws IOException при грешка в записа.
+     */
+    public void writeDecompressed(OutputStream out) throws IOException {
+        try (InputStream in = new GZIPInputStream(new BufferInputStream(body.duplicate()))) {
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * Поток за четене от буфер, без тялото да се копира в heap паметта наведнъж.
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
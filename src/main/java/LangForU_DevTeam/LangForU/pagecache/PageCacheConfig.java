@@ -0,0 +1,31 @@
+package LangForU_DevTeam.LangForU.pagecache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационен клас, който регистрира {@link AnonymousPageCacheFilter}.
+ * Филтърът се регистрира изрично, а не като компонент, за да се подреди веднага след веригата
+ * на Spring Security и да не попада в тестовете на уеб слоя.
+ */
+@Configuration
+public class PageCacheConfig {
+
+    /**
+     * @param cache Кешът за генерирани страници.
+     * @param properties Настройки на кеша.
+     * @return Регистрацията на филтъра.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "page-cache", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<AnonymousPageCacheFilter> anonymousPageCacheFilter(RenderedPageCache cache,
+                                                                                    PageCacheProperties properties) {
+        FilterRegistrationBean<AnonymousPageCacheFilter> registration =
+                new FilterRegistrationBean<>(new AnonymousPageCacheFilter(cache, properties));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
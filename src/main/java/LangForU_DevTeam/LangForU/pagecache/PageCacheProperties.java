@@ -0,0 +1,57 @@
+package LangForU_DevTeam.LangForU.pagecache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Конфигурационен клас с настройките на кеша за генерирани страници.
+ * Стойностите се зареждат от application.yml с префикс "page-cache".
+ */
+@Configuration
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "page-cache")
+public class PageCacheProperties {
+
+    /**
+     * Дали кешът е включен.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Общ размер на компресираните страници, след който се изхвърлят най-отдавна използваните.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+
+    /**
+     * Максимален размер на една некомпресирана страница; по-големите не се кешират.
+     */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    /**
+     * Време на живот на страница - предпазна мрежа за промени, които не минават през сервизите
+     * (напр. лекция, която става достъпна с настъпването на датата ѝ).
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Пътища (Ant шаблони), чиито страници се кешират за анонимни посетители.
+     */
+    private List<String> paths = new ArrayList<>(List.of("/index", "/blog", "/blog/detail/*", "/courses"));
+
+    /**
+     * Параметрите на заявката, които влизат в ключа на кеша, по път (Ant шаблон). Заявка с друг параметър
+     * не се обслужва от кеша, за да не може произволен текст в URL адреса да изтласка честите страници.
+     * Затова тук са само параметрите с краен брой стойности (филтрите на каталога с курсове).
+     */
+    private Map<String, List<String>> queryParameters = new LinkedHashMap<>(Map.of("/courses", List.of("level", "price", "finalExam")));
+}
@@ -0,0 +1,173 @@
+package LangForU_DevTeam.LangForU.pagecache;
+
+import LangForU_DevTeam.LangForU.customSettings.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кеш за генерираните HTML страници, които анонимните посетители получават еднакви
+ * (списъкът и детайлите на блога, началната страница и каталогът с курсове).
+ * <p>
+ * Страниците се пазят компресирани извън heap паметта ({@link CachedPage}), а общият им размер е ограничен:
+ * при превишаване се изхвърлят най-отдавна използваните (LRU). Сервизите за блог публикации, коментари,
+ * харесвания, курсове и лекции изчистват целия кеш след потвърждаване на всеки запис.
+ * <p>
+ * Всяко изчистване увеличава поколението на кеша. Филтърът го запомня преди генерирането на страницата
+ * и тя се запазва само ако междувременно не е имало запис - иначе може да съдържа вече остарели данни.
+ */
+@Component
+public class RenderedPageCache {
+
+    //<editor-fold desc="Dependencies">
+    private final PageCacheProperties properties;
+    //</editor-fold>
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedPage> pages = new LinkedHashMap<>(64, 0.75f, true); // Подредба по достъп.
+    private long usedBytes;
+    private volatile long generation;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param properties Настройки на кеша.
+     */
+    public RenderedPageCache(PageCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Връща запазената страница за даден ключ и я отбелязва като последно използвана.
+     *
+     * @param key Пътят в приложението и разрешените параметри на заявката.
+     * @return {@link CachedPage} или null, ако липсва или е изтекла.
+     */
+    public CachedPage get(String key) {
+        lock.lock();
+        try {
+            CachedPage page = pages.get(key);
+            if (page != null && page.isExpired(properties.getTtl().toNanos())) {
+                pages.remove(key);
+                usedBytes -= page.getCompressedLength();
+                return null;
+            }
+            return page;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Текущото поколение на кеша; трябва да се прочете преди генерирането на страницата.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Запазва страница, като при нужда изхвърля най-отдавна използваните, докато общият размер се побере в лимита.
+     *
+     * @param key        Пътят в приложението и разрешените параметри на заявката.
+     * @param page       Генерираната страница.
+     * @param generation Поколението, прочетено преди генерирането.
+     * @return true, ако страницата е запазена; false, ако междувременно кешът е изчистен или страницата е твърде голяма.
+     */
+    public boolean put(String key, CachedPage page, long generation) {
+        long maxBytes = properties.getMaxSize().toBytes();
+        if (page.getCompressedLength() > maxBytes) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            if (generation != this.generation) {
+                return false;
+            }
+            CachedPage previous = pages.put(key, page);
+            if (previous != null) {
+                usedBytes -= previous.getCompressedLength();
+            }
+            usedBytes += page.getCompressedLength();
+
+            Iterator<CachedPage> eldest = pages.values().iterator();
+            while (usedBytes > maxBytes) {
+                usedBytes -= eldest.next().getCompressedLength();
+                eldest.remove();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Изчиства всички страници, след като записът бъде потвърден - иначе страница със старите данни
+     * може да се запази отново, преди промяната да е видима (вж. {@link AfterCommit}).
+     */
+    public void invalidate() {
+        AfterCommit.run(this::clear);
+    }
+
+    /**
+     * Премахва само страниците за дадените пътища (с всички варианти на параметрите им), например когато се промени
+     * блок, който се показва само на тях. Увеличава поколението, за да не се запази страница, генерирана преди това.
+     *
+     * @param paths Пътищата в приложението (без параметри).
+     */
+    public void invalidate(Collection<String> paths) {
+        lock.lock();
+        try {
+            Iterator<Map.Entry<String, CachedPage>> entries = pages.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, CachedPage> entry = entries.next();
+                int query = entry.getKey().indexOf('?');
+                if (paths.contains(query < 0 ? entry.getKey() : entry.getKey().substring(0, query))) {
+                    usedBytes -= entry.getValue().getCompressedLength();
+                    entries.remove();
+                }
+            }
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Броят на запазените страници.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pages.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Общият размер на компресираните страници в байтове.
+     */
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void clear() {
+        lock.lock();
+        try {
+            pages.clear();
+            usedBytes = 0;
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -3,7 +3,7 @@ package LangForU_DevTeam.LangForU.registration;
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.appuser.AppUserRole;
 import LangForU_DevTeam.LangForU.appuser.AppUserService;
-import LangForU_DevTeam.LangForU.email.EmailSender;
+import LangForU_DevTeam.LangForU.email.EmailOutboxService;
 import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import LangForU_DevTeam.LangForU.registration.token.ConfirmationToken;
 import LangForU_DevTeam.LangForU.registration.token.ConfirmationTokenService;
@@ -26,17 +26,20 @@ public class RegistrationService {
     private final AppUserService appUserService;
     private final EmailValidator emailValidator;
     private final ConfirmationTokenService confirmationTokenService;
-    private final EmailSender emailSender;
+    private final EmailOutboxService emailOutboxService;
     private final EmailTemplateService emailTemplateService;
     //</editor-fold>
 
     /**
      * Основен метод, който обработва заявка за регистрация.
+     * Потребителят, токенът и имейлът за потвърждение се записват в една трансакция,
+     * а самото изпращане се извършва от фоновия работник на изходящата опашка.
      *
      * @param request Обект {@link RegistrationRequest}, съдържащ данните от формата за регистрация.
      * @return Генерираният токен за потвърждение.
      * @throws IllegalStateException ако имейлът не е валиден.
      */
+    @Transactional
     public String register(RegistrationRequest request) {
         // 1. Валидира синтаксиса на имейла.
         boolean isValidEmail = emailValidator.test(request.getEmail());
@@ -56,9 +59,9 @@ public class RegistrationService {
                 )
         );
 
-        // 3. Генерира линк за потвърждение и изпраща имейл.
+        // 3. Генерира линк за потвърждение и добавя имейла в изходящата опашка.
         String link = "http://localhost:8080/registration/confirm?token=" + token;
-        emailSender.send(
+        emailOutboxService.enqueue(
                 request.getEmail(),
                 emailTemplateService.buildEmail_Registration(request.getName(), link)
         );
@@ -0,0 +1,124 @@
+package LangForU_DevTeam.LangForU.search;
+
+/**
+ * Лек стемер за български език (премахва членуване, множествено число и окончания за род).
+ * <p>
+ * Реализацията следва алгоритъма на Ж. Савой ("Searching strategies for the Bulgarian language"),
+ * който се използва и в Lucene, с две разлики: "-ци"/"-зи" се заменят и при петбуквени думи ("уроци", "езици"),
+ * а правилото за ятова гласна ("-е-и" -> "-я-") е премахнато, защото разделя "учител" от "учители".
+ * Работи върху вече преобразувани към малки букви думи и не разчита на речник, затова е бърз,
+ * но понякога обединява думи с различен корен.
+ */
+public final class BulgarianStemmer {
+
+    private BulgarianStemmer() {
+    }
+
+    /**
+     * Намира основата на дума.
+     * @param word Дума с малки букви на кирилица.
+     * @return Основата на думата (или самата дума, ако е твърде къса).
+     */
+    public static String stem(String word) {
+        char[] s = word.toCharArray();
+        int len = s.length;
+        if (len < 4) {
+            return word;
+        }
+        if (len > 5 && endsWith(s, len, "ища")) {
+            return new String(s, 0, len - 3);
+        }
+
+        len = removeArticle(s, len);
+        len = removePlural(s, len);
+
+        if (len > 3) {
+            if (endsWith(s, len, "я")) {
+                len--;
+            }
+            if (endsWith(s, len, "а") || endsWith(s, len, "о") || endsWith(s, len, "е")) {
+                len--;
+            }
+        }
+
+        // Подвижно "е": "червен" -> "червн".
+        if (len > 4 && endsWith(s, len, "ен")) {
+            s[len - 2] = 'н';
+            len--;
+        }
+        // Подвижно "ъ": "вятър" -> "вятр".
+        if (len > 5 && s[len - 2] == 'ъ') {
+            s[len - 2] = s[len - 1];
+            len--;
+        }
+        return new String(s, 0, len);
+    }
+
+    private static int removeArticle(char[] s, int len) {
+        if (len > 6 && endsWith(s, len, "ият")) {
+            return len - 3;
+        }
+        if (len > 5 && (endsWith(s, len, "ът") || endsWith(s, len, "то") || endsWith(s, len, "те")
+                || endsWith(s, len, "та") || endsWith(s, len, "ия"))) {
+            return len - 2;
+        }
+        if (len > 4 && endsWith(s, len, "ят")) {
+            return len - 2;
+        }
+        return len;
+    }
+
+    private static int removePlural(char[] s, int len) {
+        if (len > 6) {
+            if (endsWith(s, len, "овци")) {
+                return len - 3; // "-овци" -> "-о"
+            }
+            if (endsWith(s, len, "ове")) {
+                return len - 3;
+            }
+            if (endsWith(s, len, "еве")) {
+                s[len - 3] = 'й';
+                return len - 2;
+            }
+        }
+        if (len > 5) {
+            if (endsWith(s, len, "ища")) {
+                return len - 3;
+            }
+            if (endsWith(s, len, "та")) {
+                return len - 2;
+            }
+        }
+        if (len > 4) {
+            if (endsWith(s, len, "ци")) {
+                s[len - 2] = 'к'; // "уроци" -> "урок"
+                return len - 1;
+            }
+            if (endsWith(s, len, "зи")) {
+                s[len - 2] = 'г'; // "подлози" -> "подлог"
+                return len - 1;
+            }
+            if (endsWith(s, len, "си")) {
+                s[len - 2] = 'х';
+                return len - 1;
+            }
+            if (endsWith(s, len, "и")) {
+                return len - 1;
+            }
+        }
+        return len;
+    }
+
+    private static boolean endsWith(char[] s, int len, String suffix) {
+        int offset = len - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (s[offset + i] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package LangForU_DevTeam.LangForU.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Разделя текст на термини за пълнотекстово търсене.
+ * <p>
+ * Текстът се разделя на думи по всички символи, които не са букви или цифри, и се преобразува към малки
+ * букви (кирилица и латиница). Честите служебни думи се пропускат, а думите на кирилица се свеждат до
+ * основата си с {@link BulgarianStemmer}, така че "уроци", "урокът" и "урок" съвпадат.
+ * Един и същ анализ се прилага и към документите, и към заявките.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "а", "в", "във", "да", "до", "е", "за", "и", "из", "или", "как", "към", "на", "над", "не", "но",
+            "от", "по", "под", "при", "са", "се", "си", "с", "със", "та", "те", "то", "у", "че", "ще",
+            "the", "and", "or", "of", "to", "in", "a", "an", "is", "for", "on");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Анализира текст.
+     * @param text Текстът (може да бъде null).
+     * @return Списък с термините в реда, в който се срещат (с повторения).
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, text.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String word) {
+        String folded = word.toLowerCase(Locale.ROOT);
+        if (STOP_WORDS.contains(folded)) {
+            return;
+        }
+        terms.add(isCyrillic(folded) ? BulgarianStemmer.stem(folded) : folded);
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.UnicodeBlock.of(word.charAt(i)) != Character.UnicodeBlock.CYRILLIC) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
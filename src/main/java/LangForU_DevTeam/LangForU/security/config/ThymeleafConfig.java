@@ -1,5 +1,6 @@
 package LangForU_DevTeam.LangForU.security.config;
 
+import LangForU_DevTeam.LangForU.image.ImageDialect;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.thymeleaf.extras.springsecurity6.dialect.SpringSecurityDialect;
@@ -30,17 +31,19 @@ public class ThymeleafConfig {
      * Този бийн не е стриктно необходим в по-новите версии на Spring Boot,
      * тъй като интеграцията често се случва автоматично.
      * Въпреки това, той изрично конфигурира Template Engine на Thymeleaf
-     * да използва добавения {@link SpringSecurityDialect}.
+     * да използва добавения {@link SpringSecurityDialect} и {@link ImageDialect} (обекта {@code #images}).
      *
      * @param templateResolver Стандартният template resolver, инжектиран от Spring.
+     * @param imageDialect Диалектът с адресите на вариантите на изображенията.
      * @return Конфигурирана инстанция на {@link SpringTemplateEngine}.
      */
     @Bean
-    public SpringTemplateEngine templateEngine(SpringResourceTemplateResolver templateResolver) {
+    public SpringTemplateEngine templateEngine(SpringResourceTemplateResolver templateResolver, ImageDialect imageDialect) {
         SpringTemplateEngine templateEngine = new SpringTemplateEngine();
         templateEngine.setTemplateResolver(templateResolver);
         // Добавяме диалекта за сигурност към енджина на Thymeleaf.
         templateEngine.addDialect(springSecurityDialect());
+        templateEngine.addDialect(imageDialect);
         return templateEngine;
     }
 }
\ No newline at end of file
@@ -56,6 +56,9 @@ public class WebSecurityConfig {
                         // --- Изисква потребителят да има роля 'ADMIN' за достъп до всички пътища, които започват с /admin/. ---
                         .requestMatchers("/admin/**").hasRole("ADMIN")
 
+                        // --- Метриките на приложението (Actuator) са достъпни само за администратори. ---
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Добавени специфични правила за изтриване/модифициране на курсове и лекции,
                         // които трябва да бъдат достъпни само за администратори и да използват POST заявки.
                         .requestMatchers(HttpMethod.POST, "/courses/delete/**").hasRole("ADMIN")
@@ -72,7 +75,7 @@ public class WebSecurityConfig {
                         ).authenticated()
 
                         // Позволява публичен достъп до статични ресурси (CSS, JS, изображения и др.).
-                        .requestMatchers("/css/**", "/js/**", "/img/**", "/fonts/**", "/scss/**").permitAll()
+                        .requestMatchers("/css/**", "/js/**", "/img/**", "/fonts/**", "/scss/**", "/media/**").permitAll()
                         // Всички останали заявки, които не са описани по-горе, изискват автентикация.
                         .anyRequest().authenticated()
                 )
@@ -5,8 +5,10 @@ import LangForU_DevTeam.LangForU.courses.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -81,4 +83,16 @@ public interface UserCourseRequestRepository extends JpaRepository<UserCourseReq
      * @return Списък ({@link List}) от всички заявки на потребителя.
      */
     List<UserCourseRequest> findAllByUserId(Long userId);
+
+    /**
+     * Потвърждава заявка с една условна UPDATE заявка - само ако все още не е потвърдена,
+     * така че двойното потвърждаване (напр. при двоен клик) не записва потребителя два пъти.
+     * @param id ID на заявката.
+     * @param confirmedAt Моментът на потвърждаване.
+     * @return 1, ако заявката е потвърдена сега, или 0, ако вече е била потвърдена.
+     */
+    @Modifying
+    @Query("UPDATE UserCourseRequest r SET r.confirmed = true, r.confirmedRequest = :confirmedAt " +
+            "WHERE r.id = :id AND r.confirmed = false")
+    int confirm(@Param("id") Long id, @Param("confirmedAt") LocalDateTime confirmedAt);
 }
\ No newline at end of file
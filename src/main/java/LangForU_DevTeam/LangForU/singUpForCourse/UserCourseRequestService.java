@@ -4,9 +4,15 @@ import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.appuser.AppUserRepository;
 import LangForU_DevTeam.LangForU.courses.Course;
 import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.exceptions.CourseFullException;
 import LangForU_DevTeam.LangForU.security.encryption.EncryptionService;
+import LangForU_DevTeam.LangForU.trending.TrendingKind;
+import LangForU_DevTeam.LangForU.trending.TrendingTracker;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,20 +36,29 @@ public class UserCourseRequestService {
     private AppUserRepository appUserRepository;
     @Autowired
     private CourseRepository courseRepository;
+    @Autowired
+    private TrendingTracker trendingTracker;
     //</editor-fold>
 
     private static final Pattern PIN_PATTERN = Pattern.compile("\\d{10}");
+    private static final String COURSE_FULL_MESSAGE = "Няма свободни места за този курс.";
 
     /**
-     * Създава нова заявка за записване в курс.
+     * Създава нова заявка за записване в курс и заема място в него.
+     * <p>
+     * Заявката се записва първо, а мястото се заема накрая с една условна UPDATE заявка
+     * ({@link CourseRepository#reserveSeat(Long)}), така че редът на курса е заключен възможно най-кратко.
+     * Ако няма свободно място, трансакцията се връща назад заедно със заявката. Повторна заявка на същия
+     * потребител се отхвърля от уникалното ограничение, преди да заеме място.
      *
      * @param userId      ID на потребителя, който прави заявката.
      * @param courseId    ID на курса, за който се кандидатства.
      * @param pin         ЕГН на потребителя.
      * @param citizenship Гражданство на потребителя.
      * @return Запазеният обект {@link UserCourseRequest}.
+     * @throws CourseFullException ако всички места в курса са заети.
      */
-
+    @Transactional
     public UserCourseRequest createRequest(Long userId, Long courseId, String pin, String citizenship) {
         if (pin == null || !PIN_PATTERN.matcher(pin).matches()) {
             throw new IllegalArgumentException("ЕГН трябва да бъде точно 10 цифри.");
@@ -53,6 +68,9 @@ public class UserCourseRequestService {
                 .orElseThrow(() -> new RuntimeException("Потребител с ID: " + userId + " не е намерен."));
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Курс с ID: " + courseId + " не е намерен."));
+        if (course.isFull()) { // Бърз отказ без заключване; окончателната проверка е в reserveSeat.
+            throw new CourseFullException(COURSE_FULL_MESSAGE);
+        }
 
         UserCourseRequest request = new UserCourseRequest();
         request.setUser(user);
@@ -66,7 +84,12 @@ public class UserCourseRequestService {
         request.setCodeIBAN(generateUniqueCodeIBAN());
         request.setCitizenship(citizenship);
 
-        return userCourseRequestRepository.save(request);
+        UserCourseRequest saved = userCourseRequestRepository.saveAndFlush(request);
+        if (courseRepository.reserveSeat(courseId) == 0) {
+            throw new CourseFullException(COURSE_FULL_MESSAGE);
+        }
+        trendingTracker.recordLike(TrendingKind.COURSE, courseId); // Записването тежи колкото харесване.
+        return saved;
     }
 
     /**
@@ -101,39 +124,45 @@ public class UserCourseRequestService {
 
     /**
      * Потвърждава заявка за записване в курс.
-     * Тази операция маркира заявката като потвърдена и добавя курса
-     * към списъка с курсове на потребителя.
+     * Заявката се маркира като потвърдена с условна UPDATE заявка (само ако още не е потвърдена),
+     * а потребителят се записва в курса с един ред в междинната таблица, без да се записва целият потребител.
      *
      * @param requestId ID на заявката за потвърждаване.
      */
+    @Transactional
     public void confirmUserCourseRequest(Long requestId) {
         UserCourseRequest request = userCourseRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Заявка с ID: " + requestId + " не е намерена."));
 
-        if (!request.getConfirmed()) {
-            request.setConfirmed(true);
-            request.setConfirmedRequest(LocalDateTime.now());
-
-            // Добавя курса към списъка с курсове на потребителя.
-            AppUser user = request.getUser();
-            user.getCourses().add(request.getCourse());
-
-            appUserRepository.save(user); // Запазва обновения потребител.
-            userCourseRequestRepository.save(request); // Запазва обновената заявка.
-        } else {
+        if (userCourseRequestRepository.confirm(requestId, LocalDateTime.now()) == 0) {
             throw new RuntimeException("Заявката вече е потвърдена.");
         }
+        appUserRepository.addCourse(request.getUser().getId(), request.getCourse().getId());
     }
 
     /**
      * Изтрива всички заявки за курсове, направени от конкретен потребител.
      *
+     * Местата, заети от заявките, се освобождават.
+     *
      * @param userId ID на потребителя, чиито заявки ще бъдат изтрити.
      */
+    @Transactional
     public void deleteRequestsByUserId(Long userId) {
+        courseRepository.releaseSeatsOfUser(userId);
         userCourseRequestRepository.deleteByUserId(userId);
     }
 
+    /**
+     * Преизчислява заетите места на курсовете от заявките при стартиране на приложението
+     * (попълва брояча и за заявките, подадени преди въвеждането му).
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void resyncSeatsTaken() {
+        courseRepository.resyncSeatsTaken();
+    }
+
     /**
      * Проверява дали съществува заявка за даден потребител и курс.
      *
@@ -0,0 +1,105 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Клас-ентитет (Entity), който представлява задача за разпращане на бюлетин за нова блог публикация.
+ * <p>
+ * Задачата обхожда абонатите по страници, подредени по ID. След всяка страница в същата трансакция
+ * се записват имейлите в изходящата опашка и се премества позицията {@link #lastSubscriberId}.
+ * Така при рестарт на приложението задачата продължава точно оттам, докъдето е стигнала,
+ * без да пропуска или дублира имейли.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@Setter // Lombok: Автоматично генерира set-методи.
+@NoArgsConstructor // Lombok: Генерира конструктор без аргументи, изискван от JPA.
+@Entity // JPA: Посочва, че този клас е ентитет.
+@Table(name = "newsletter_job")
+public class NewsletterJob {
+
+    /**
+     * Уникален идентификатор (ID) на задачата.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID на блог публикацията, за която се изпраща бюлетинът.
+     */
+    @Column(nullable = false)
+    private Long blogId;
+
+    /**
+     * Заглавието на публикацията към момента на създаване на задачата.
+     */
+    @Column(nullable = false)
+    private String blogTitle;
+
+    /**
+     * Текущото състояние на задачата.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NewsletterJobStatus status = NewsletterJobStatus.PENDING;
+
+    /**
+     * ID на последния обработен абонат (keyset позиция). Следващата страница започва след него.
+     */
+    @Column(nullable = false)
+    private Long lastSubscriberId = 0L;
+
+    /**
+     * Брой получатели към момента на създаване на задачата (за изчисляване на прогреса).
+     */
+    private long totalRecipients;
+
+    /**
+     * Брой обработени получатели (добавени в изходящата опашка).
+     */
+    private long processedRecipients;
+
+    /**
+     * Времеви маркер за създаване на задачата.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Времеви маркер за последната обработена страница.
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * Времеви маркер за приключване на задачата.
+     */
+    private LocalDateTime completedAt;
+
+    /**
+     * Персонализиран конструктор за създаване на нова задача.
+     */
+    public NewsletterJob(Long blogId, String blogTitle, long totalRecipients, LocalDateTime now) {
+        this.blogId = blogId;
+        this.blogTitle = blogTitle;
+        this.totalRecipients = totalRecipients;
+        this.createdAt = now;
+    }
+
+    /**
+     * @return Прогресът на задачата в проценти (0-100).
+     */
+    public int getProgressPercent() {
+        if (status == NewsletterJobStatus.COMPLETED) {
+            return 100;
+        }
+        if (totalRecipients == 0) {
+            return 0;
+        }
+        return (int) Math.min(100, processedRecipients * 100 / totalRecipients);
+    }
+}
@@ -0,0 +1,71 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO с прогреса на задача за разпращане на бюлетин, връщан на администратора като JSON.
+ * Съдържа само полетата за наблюдение, така че промени в ентитета {@link NewsletterJob}
+ * не се отразяват автоматично в отговора.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета.
+public class NewsletterJobProgress {
+
+    /**
+     * ID на задачата.
+     */
+    private final Long id;
+
+    /**
+     * ID на блог публикацията, за която се изпраща бюлетинът.
+     */
+    private final Long blogId;
+
+    /**
+     * Заглавието на публикацията.
+     */
+    private final String blogTitle;
+
+    /**
+     * Текущото състояние на задачата.
+     */
+    private final NewsletterJobStatus status;
+
+    /**
+     * ID на последния обработен абонат (позицията, от която задачата продължава).
+     */
+    private final Long lastSubscriberId;
+
+    /**
+     * Брой получатели към момента на създаване на задачата.
+     */
+    private final long totalRecipients;
+
+    /**
+     * Брой получатели, добавени в изходящата опашка досега.
+     */
+    private final long processedRecipients;
+
+    /**
+     * Прогресът в проценти (0-100).
+     */
+    private final int progressPercent;
+
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final LocalDateTime completedAt;
+
+    /**
+     * Създава DTO от ентитета на задачата.
+     * @param job Задачата.
+     * @return {@link NewsletterJobProgress} с текущото ѝ състояние.
+     */
+    public static NewsletterJobProgress of(NewsletterJob job) {
+        return new NewsletterJobProgress(job.getId(), job.getBlogId(), job.getBlogTitle(), job.getStatus(),
+                job.getLastSubscriberId(), job.getTotalRecipients(), job.getProcessedRecipients(), job.getProgressPercent(),
+                job.getCreatedAt(), job.getUpdatedAt(), job.getCompletedAt());
+    }
+}
@@ -0,0 +1,39 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозитори интерфейс за управление на {@link NewsletterJob} ентитети.
+ */
+@Repository
+public interface NewsletterJobRepository extends JpaRepository<NewsletterJob, Long> {
+
+    /**
+     * Заключва и връща следващата незавършена задача.
+     * Както при изходящата опашка за имейли, се използва {@code SKIP LOCKED} (таймаут -2),
+     * така че няколко инстанции на приложението не обработват една и съща задача едновременно.
+     *
+     * @param pageable Ограничение за броя на резултатите (обикновено 1).
+     * @return Списък със заключените задачи.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM NewsletterJob j WHERE j.status <> LangForU_DevTeam.LangForU.subscriber.NewsletterJobStatus.COMPLETED ORDER BY j.id")
+    List<NewsletterJob> findUnfinishedForUpdate(Pageable pageable);
+
+    /**
+     * Връща последните 20 задачи (за наблюдение на прогреса).
+     *
+     * @return Списък от {@link NewsletterJob}, подредени от най-новата.
+     */
+    List<NewsletterJob> findTop20ByOrderByIdDesc();
+}
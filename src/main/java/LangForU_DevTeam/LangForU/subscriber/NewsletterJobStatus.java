@@ -0,0 +1,19 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+/**
+ * Състояния на задача за разпращане на бюлетин ({@link NewsletterJob}).
+ */
+public enum NewsletterJobStatus {
+    /**
+     * Задачата е създадена, но нито една страница с абонати още не е обработена.
+     */
+    PENDING,
+    /**
+     * Част от абонатите са обработени; задачата продължава от запазената позиция.
+     */
+    IN_PROGRESS,
+    /**
+     * Всички абонати са обработени.
+     */
+    COMPLETED
+}
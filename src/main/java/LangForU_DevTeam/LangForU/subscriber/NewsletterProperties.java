@@ -0,0 +1,27 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационен клас с настройките за разпращане на бюлетини за нови блог публикации.
+ * Стойностите се зареждат от application.yml с префикс "newsletter".
+ */
+@Configuration
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "newsletter")
+public class NewsletterProperties {
+
+    /**
+     * Брой абонати, които се обработват в една трансакция (една страница).
+     */
+    private int pageSize = 500;
+
+    /**
+     * Интервал (в милисекунди) между две проверки за незавършени задачи.
+     */
+    private long pollIntervalMs = 5000;
+}
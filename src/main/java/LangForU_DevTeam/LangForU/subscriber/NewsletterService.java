@@ -0,0 +1,132 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+import LangForU_DevTeam.LangForU.blog.Blog;
+import LangForU_DevTeam.LangForU.digest.DigestService;
+import LangForU_DevTeam.LangForU.digest.NotificationEvent;
+import LangForU_DevTeam.LangForU.digest.NotificationEventType;
+import LangForU_DevTeam.LangForU.email.EmailOutboxService;
+import LangForU_DevTeam.LangForU.email.EmailTemplateService;
+import LangForU_DevTeam.LangForU.email.OutgoingEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервизен клас за разпращане на бюлетини до абонатите при нова блог публикация.
+ * <p>
+ * Публикуването само създава {@link NewsletterJob}, така че заявката на администратора не чака
+ * обхождането на абонатите. Самото разпращане се извършва на страници от {@link NewsletterWorker}:
+ * за всяка страница се изпълнява една заявка (абонат + потребител), а имейлите се добавят
+ * в изходящата опашка в същата трансакция, в която се премества позицията на задачата.
+ * За абонатите, избрали обобщен имейл, вместо писмо се записва събитие за {@link DigestService}.
+ */
+@Service
+public class NewsletterService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NewsletterService.class);
+
+    //<editor-fold desc="Dependencies">
+    private final NewsletterJobRepository jobRepository;
+    private final SubscriberRepository subscriberRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplateService emailTemplateService;
+    private final NewsletterProperties properties;
+    private final DigestService digestService;
+    //</editor-fold>
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     */
+    public NewsletterService(NewsletterJobRepository jobRepository, SubscriberRepository subscriberRepository,
+                             EmailOutboxService emailOutboxService, EmailTemplateService emailTemplateService,
+                             NewsletterProperties properties, DigestService digestService) {
+        this.jobRepository = jobRepository;
+        this.subscriberRepository = subscriberRepository;
+        this.emailOutboxService = emailOutboxService;
+        this.emailTemplateService = emailTemplateService;
+        this.properties = properties;
+        this.digestService = digestService;
+    }
+
+    /**
+     * Създава задача за разпращане на бюлетин за дадена публикация.
+     * Участва в текущата трансакция, така че задачата се записва само ако публикацията е записана.
+     *
+     * @param blog Вече записаната публикация.
+     * @return Създадената {@link NewsletterJob}.
+     */
+    @Transactional
+    public NewsletterJob startFanout(Blog blog) {
+        NewsletterJob job = new NewsletterJob(blog.getId(), blog.getName(), subscriberRepository.countRecipients(), LocalDateTime.now());
+        return jobRepository.save(job);
+    }
+
+    /**
+     * Обработва следващата страница абонати на първата незавършена задача.
+     *
+     * @return {@code true} ако е имало задача за обработка, {@code false} ако всички задачи са завършени.
+     */
+    @Transactional
+    public boolean processNextPage() {
+        List<NewsletterJob> jobs = jobRepository.findUnfinishedForUpdate(PageRequest.of(0, 1));
+        if (jobs.isEmpty()) {
+            return false;
+        }
+        NewsletterJob job = jobs.get(0);
+        int pageSize = properties.getPageSize();
+
+        List<SubscriberRecipient> recipients = subscriberRepository.findRecipientsAfter(job.getLastSubscriberId(), PageRequest.of(0, pageSize));
+
+        // Генерира линк към новата публикация и съдържанието на имейлите чрез шаблон.
+        // Абонатите с обобщен имейл получават събитие вместо отделно писмо.
+        LocalDateTime now = LocalDateTime.now();
+        String link = "http://localhost:8080/blog/detail/" + job.getBlogId();
+        List<OutgoingEmail> emails = new ArrayList<>(recipients.size());
+        List<NotificationEvent> digestEvents = new ArrayList<>();
+        for (SubscriberRecipient recipient : recipients) {
+            if (recipient.isDigestOptIn()) {
+                digestEvents.add(new NotificationEvent(recipient.getUserId(), recipient.getEmail(), recipient.getName(),
+                        NotificationEventType.BLOG, job.getBlogTitle(), link, now));
+                continue;
+            }
+            String content = emailTemplateService.buildEmail_NewBlogNotification(recipient.getName(), job.getBlogTitle(), link);
+            emails.add(new OutgoingEmail(recipient.getEmail(), content));
+        }
+        emailOutboxService.enqueueAll(emails);
+        digestService.recordAll(digestEvents);
+
+        // Премества позицията в същата трансакция, в която са записани имейлите.
+        if (!recipients.isEmpty()) {
+            job.setLastSubscriberId(recipients.get(recipients.size() - 1).getSubscriberId());
+        }
+        job.setProcessedRecipients(job.getProcessedRecipients() + recipients.size());
+        job.setUpdatedAt(now);
+        if (recipients.size() < pageSize) {
+            job.setStatus(NewsletterJobStatus.COMPLETED);
+            job.setCompletedAt(now);
+        } else {
+            job.setStatus(NewsletterJobStatus.IN_PROGRESS);
+        }
+
+        LOGGER.info("Бюлетин #{} ('{}'): обработени {} от {} получатели ({}%).", job.getId(), job.getBlogTitle(),
+                job.getProcessedRecipients(), job.getTotalRecipients(), job.getProgressPercent());
+        return true;
+    }
+
+    /**
+     * Връща последните задачи за разпращане, за да може администраторът да следи прогреса.
+     *
+     * @return Списък от {@link NewsletterJobProgress}, подредени от най-новата задача.
+     */
+    public List<NewsletterJobProgress> findRecentJobs() {
+        return jobRepository.findTop20ByOrderByIdDesc().stream()
+                .map(NewsletterJobProgress::of)
+                .toList();
+    }
+}
@@ -0,0 +1,40 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фонов работник, който периодично продължава незавършените задачи за разпращане на бюлетини.
+ * Всяка страница абонати се обработва в отделна трансакция, така че при рестарт
+ * работата продължава от последната записана позиция.
+ */
+@Component
+public class NewsletterWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NewsletterWorker.class);
+
+    private final NewsletterService newsletterService;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     */
+    public NewsletterWorker(NewsletterService newsletterService) {
+        this.newsletterService = newsletterService;
+    }
+
+    /**
+     * Обработва страници, докато не останат незавършени задачи.
+     */
+    @Scheduled(fixedDelayString = "${newsletter.poll-interval-ms:5000}")
+    public void run() {
+        try {
+            while (newsletterService.processNextPage()) {
+                // Всяка итерация е отделна трансакция.
+            }
+        } catch (Exception e) {
+            LOGGER.error("Грешка при разпращане на бюлетин. Задачата ще продължи при следващата проверка.", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Проекция (DTO) с данните, нужни за изпращане на бюлетин до един абонат.
+ * Попълва се директно от JPQL заявка, която свързва абоната с регистрирания потребител.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@AllArgsConstructor // Lombok: Генерира конструктор с всички полета (използва се от JPQL "SELECT new").
+public class SubscriberRecipient {
+
+    /**
+     * ID на абоната. Използва се като позиция (keyset) при обхождането.
+     */
+    private final Long subscriberId;
+
+    /**
+     * Имейл адресът на абоната.
+     */
+    private final String email;
+
+    /**
+     * Името на регистрирания потребител с този имейл.
+     */
+    private final String name;
+
+    /**
+     * ID на регистрирания потребител (за групиране в обобщения имейл).
+     */
+    private final Long userId;
+
+    /**
+     * Дали потребителят е избрал обобщен имейл вместо отделни известия.
+     */
+    private final boolean digestOptIn;
+}
@@ -1,6 +1,9 @@
 package LangForU_DevTeam.LangForU.subscriber;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,4 +33,26 @@ public interface SubscriberRepository extends JpaRepository<Subscriber, Long> {
      */
     @Override
     List<Subscriber> findAll();
-}
\ No newline at end of file
+
+    /**
+     * Връща следващата страница получатели на бюлетин след даден абонат (keyset пагинация).
+     * Абонатът се свързва с регистрирания потребител по имейл в една заявка, така че името
+     * за поздрава идва заедно с имейла. Абонати без регистриран потребител се пропускат.
+     *
+     * @param afterId  ID на последния обработен абонат (0 за начало).
+     * @param pageable Размерът на страницата (номерът на страницата трябва да бъде 0).
+     * @return Списък от {@link SubscriberRecipient}, подредени по ID на абоната.
+     */
+    @Query("SELECT new LangForU_DevTeam.LangForU.subscriber.SubscriberRecipient(s.id, s.email, u.name, u.id, COALESCE(u.digestOptIn, false)) " +
+            "FROM Subscriber s JOIN AppUser u ON u.email = s.email " +
+            "WHERE s.id > :afterId ORDER BY s.id")
+    List<SubscriberRecipient> findRecipientsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Преброява абонатите, които имат регистриран потребител (т.е. ще получат бюлетин).
+     *
+     * @return Броят на получателите.
+     */
+    @Query("SELECT COUNT(s) FROM Subscriber s JOIN AppUser u ON u.email = s.email")
+    long countRecipients();
+}
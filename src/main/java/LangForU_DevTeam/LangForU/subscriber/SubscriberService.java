@@ -1,10 +1,5 @@
 package LangForU_DevTeam.LangForU.subscriber;
 
-import LangForU_DevTeam.LangForU.appuser.AppUser;
-import LangForU_DevTeam.LangForU.appuser.AppUserService;
-import LangForU_DevTeam.LangForU.blog.Blog;
-import LangForU_DevTeam.LangForU.email.EmailService;
-import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -12,8 +7,8 @@ import java.util.Optional;
 
 /**
  * Сервизен клас, който капсулира бизнес логиката за управление на абонати.
- * Отговаря за абонирането на нови потребители и за изпращането на известия
- * до тях (напр. за нови блог публикации).
+ * Отговаря за абонирането на нови потребители. Разпращането на известия
+ * за нови блог публикации се извършва от {@link NewsletterService}.
  */
 @Service
 public class SubscriberService {
@@ -21,19 +16,13 @@ public class SubscriberService {
     //<editor-fold desc="Dependencies">
     @Autowired
     private final SubscriberRepository subscriberRepository;
-    private final AppUserService appUserService;
-    private final EmailService emailService;
-    private final EmailTemplateService emailTemplateService;
     //</editor-fold>
 
     /**
      * Конструктор за инжектиране на зависимости.
      */
-    public SubscriberService(SubscriberRepository subscriberRepository, AppUserService appUserService, EmailService emailService, EmailTemplateService emailTemplateService) {
+    public SubscriberService(SubscriberRepository subscriberRepository) {
         this.subscriberRepository = subscriberRepository;
-        this.appUserService = appUserService;
-        this.emailService = emailService;
-        this.emailTemplateService = emailTemplateService;
     }
 
     /**
@@ -59,36 +48,4 @@ public class SubscriberService {
         // Ако абонатът вече съществува, не правим нищо.
         return false;
     }
-
-    /**
-     * Изпраща имейл известие до конкретен абонат за нова блог публикация.
-     *
-     * @param subscriber Обектът {@link Subscriber}, който да бъде уведомен.
-     * @param blog       Обектът {@link Blog}, за който се изпраща известие.
-     */
-    public void notifySubscriber(Subscriber subscriber, Blog blog) {
-        // Проверява дали абонатът все още съществува в базата данни.
-        Optional<Subscriber> existingSubscriber = subscriberRepository.findByEmail(subscriber.getEmail());
-        if (existingSubscriber.isEmpty()) {
-            // Ако не съществува (може да е отписан междувременно), го изтриваме за всеки случай.
-            subscriberRepository.delete(subscriber);
-            return;
-        }
-
-        // Опитва да намери регистриран потребител с имейла на абоната.
-        AppUser appUser = appUserService.findByEmail(subscriber.getEmail());
-        if (appUser == null) {
-            // Ако няма такъв потребител, изтриваме абонамента (ако логиката го изисква).
-            subscriberRepository.delete(subscriber);
-            return;
-        }
-
-        // Генерира линк към новата публикация и създава съдържанието на имейла чрез шаблон.
-        String link = "http://localhost:8080/blog/detail/" + blog.getId();
-        String emailContent = emailTemplateService.buildEmail_NewBlogNotification(appUser.getName(), blog.getName(), link);
-
-        // Изпраща имейла.
-        emailService.send(subscriber.getEmail(), emailContent);
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package LangForU_DevTeam.LangForU.taskService;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационен клас с настройките на ежедневната задача за известия за нови лекции.
+ * Стойностите се зареждат от application.yml с префикс "notifications.lections".
+ */
+@Configuration
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notifications.lections")
+public class LectionNotificationProperties {
+
+    /**
+     * Брой получатели, които се зареждат, генерират и изпращат наведнъж.
+     */
+    private int chunkSize = 1000;
+}
@@ -1,16 +1,25 @@
 package LangForU_DevTeam.LangForU.taskService;
 
-import LangForU_DevTeam.LangForU.appuser.AppUserService;
-import LangForU_DevTeam.LangForU.email.EmailService;
+import LangForU_DevTeam.LangForU.digest.DigestService;
+import LangForU_DevTeam.LangForU.digest.NotificationEvent;
+import LangForU_DevTeam.LangForU.digest.NotificationEventType;
+import LangForU_DevTeam.LangForU.email.BulkEmailService;
+import LangForU_DevTeam.LangForU.email.BulkSendResult;
 import LangForU_DevTeam.LangForU.email.EmailTemplateService;
+import LangForU_DevTeam.LangForU.email.OutgoingEmail;
 import LangForU_DevTeam.LangForU.lections.Lection;
+import LangForU_DevTeam.LangForU.lections.LectionRecipient;
 import LangForU_DevTeam.LangForU.lections.LectionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Сервизен клас, който съдържа планирани задачи (cron jobs), изпълнявани автоматично.
@@ -19,59 +28,112 @@ import java.util.List;
 @Service
 public class ScheduledTaskService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScheduledTaskService.class);
+
     private final LectionService lectionService;
-    private final EmailService emailService;
-    private final AppUserService appUserService;
+    private final BulkEmailService bulkEmailService;
     private final EmailTemplateService emailTemplateService;
+    private final LectionNotificationProperties properties;
+    private final DigestService digestService;
 
     /**
      * Конструктор за внедряване на зависимостите чрез DI.
      *
      * @param lectionService         сервиз за лекции
-     * @param emailService           сервиз за изпращане на имейли
-     * @param appUserService         сервиз за потребителски данни
+     * @param bulkEmailService       сервиз за масово изпращане на имейли
      * @param emailTemplateService   сервиз за изграждане на шаблони за имейли
+     * @param properties             настройки на задачата (размер на порцията)
+     * @param digestService          сервиз за обобщени имейли
      */
-    public ScheduledTaskService(LectionService lectionService, EmailService emailService,
-                                AppUserService appUserService, EmailTemplateService emailTemplateService) {
+    public ScheduledTaskService(LectionService lectionService, BulkEmailService bulkEmailService,
+                                EmailTemplateService emailTemplateService, LectionNotificationProperties properties,
+                                DigestService digestService) {
         this.lectionService = lectionService;
-        this.emailService = emailService;
-        this.appUserService = appUserService;
+        this.bulkEmailService = bulkEmailService;
         this.emailTemplateService = emailTemplateService;
+        this.properties = properties;
+        this.digestService = digestService;
     }
 
     /**
      * Планирана задача, която се изпълнява всяка сутрин в 08:00.
      * Изпраща имейл известие на потребителите, когато нова лекция за техния курс е налична за деня.
+     * <p>
+     * Получателите на всяка лекция се зареждат на порции с една заявка на порция (лекция + курс + потребител),
+     * вместо по една заявка за всеки имейл. Имейлите от порцията се генерират паралелно
+     * и се изпращат масово, след което се зарежда следващата порция.
+     * За потребителите, избрали обобщен имейл, вместо писмо се записва събитие за {@link DigestService}.
      */
     @Scheduled(cron = "0 0 8 * * ?")  // изпълнява се ежедневно в 08:00 ч.
-    @Transactional
     public void notifyAvailableLections() {
-        LocalDate today = LocalDate.now();
-
-        // Извличане на лекции, които стават достъпни днес
-        List<Lection> availableLections = lectionService.findByReleaseDate(today);
+        int chunkSize = properties.getChunkSize();
+        int sent = 0;
+        int failed = 0;
+        int deferred = 0;
 
-        for (Lection lection : availableLections) {
-            // Получаване на имейл адресите на всички потребители, записани в курса
-            List<String> userEmails = appUserService.getUserEmailsByCourse(lection.getCourse());
+        // Извличане на всички лекции, които стават достъпни днес
+        for (Lection lection : lectionService.findByReleaseDate(LocalDate.now())) {
+            long lastUserId = 0;
+            List<LectionRecipient> chunk;
+            do {
+                // Извличане на следващата порция записани в курса потребители
+                chunk = lectionService.findNotificationRecipients(lection.getId(), lastUserId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
 
-            for (String email : userEmails) {
-                // Извличане на името на потребителя
-                String userName = appUserService.getUserNameByEmail(email);
-                String courseName = lection.getCourse().getLanguage();
-                String lectionTitle = lection.getName();
+                // Потребителите с обобщен имейл получават събитие вместо отделно писмо
+                Map<Boolean, List<LectionRecipient>> byMode = chunk.stream()
+                        .collect(Collectors.partitioningBy(LectionRecipient::isDigestOptIn));
+                LocalDateTime now = LocalDateTime.now();
+                List<NotificationEvent> events = byMode.get(true).stream()
+                        .map(recipient -> toDigestEvent(recipient, now))
+                        .toList();
+                digestService.recordAll(events);
+                deferred += events.size();
 
-                // Генериране на линк към новата лекция
-                String link = "http://localhost:8080/lections/view/" + lection.getId();
+                // Паралелно генериране на съдържанието на имейлите за порцията
+                List<OutgoingEmail> emails = byMode.get(false).parallelStream()
+                        .map(this::buildNotification)
+                        .toList();
 
-                // Създаване на съдържание за имейл чрез шаблон
-                String emailContent = emailTemplateService.buildEmail_NewLectionNotification(
-                        userName, courseName, lectionTitle, link);
+                // Масово изпращане на порцията
+                if (!emails.isEmpty()) {
+                    BulkSendResult result = bulkEmailService.sendAll(emails);
+                    sent += result.getSentCount();
+                    failed += result.getFailures().size();
+                }
 
-                // Изпращане на имейла
-                emailService.send(email, emailContent);
-            }
+                lastUserId = chunk.get(chunk.size() - 1).getUserId();
+            } while (chunk.size() == chunkSize);
         }
+
+        LOGGER.info("Известия за нови лекции: изпратени {}, неуспешни {}, отложени за обобщен имейл {}.", sent, failed, deferred);
+    }
+
+    /**
+     * Създава имейла с известие за един получател.
+     */
+    private OutgoingEmail buildNotification(LectionRecipient recipient) {
+        // Създаване на съдържание за имейл чрез шаблон
+        String emailContent = emailTemplateService.buildEmail_NewLectionNotification(
+                recipient.getName(), recipient.getCourseName(), recipient.getLectionTitle(), lectionLink(recipient));
+        return new OutgoingEmail(recipient.getEmail(), emailContent);
+    }
+
+    /**
+     * Създава събитие за обобщения имейл на един получател.
+     */
+    private NotificationEvent toDigestEvent(LectionRecipient recipient, LocalDateTime now) {
+        String title = recipient.getLectionTitle() + " (" + recipient.getCourseName() + ")";
+        return new NotificationEvent(recipient.getUserId(), recipient.getEmail(), recipient.getName(),
+                NotificationEventType.LECTION, title, lectionLink(recipient), now);
+    }
+
+    /**
+     * Генериране на линк към новата лекция.
+     */
+    private static String lectionLink(LectionRecipient recipient) {
+        return "http://localhost:8080/lections/view/" + recipient.getLectionId();
     }
 }
@@ -0,0 +1,25 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационен клас, който регистрира {@link TrendingViewFilter}.
+ * Филтърът се подрежда преди веригата на Spring Security и кеша на страниците, за да вижда всички отговори.
+ */
+@Configuration
+public class TrendingConfig {
+
+    /**
+     * @param tracker Броячите на разглежданията.
+     * @return Регистрацията на филтъра.
+     */
+    @Bean
+    public FilterRegistrationBean<TrendingViewFilter> trendingViewFilter(TrendingTracker tracker) {
+        FilterRegistrationBean<TrendingViewFilter> registration = new FilterRegistrationBean<>(new TrendingViewFilter(tracker));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,9 @@
+package LangForU_DevTeam.LangForU.trending;
+
+/**
+ * Вид на съдържанието, за което се изчислява популярност.
+ */
+public enum TrendingKind {
+    BLOG,
+    COURSE
+}
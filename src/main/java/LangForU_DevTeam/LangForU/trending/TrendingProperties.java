@@ -0,0 +1,60 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Конфигурационен клас с настройките на класацията "Популярни сега".
+ * Стойностите се зареждат от application.yml с префикс "trending".
+ */
+@Configuration
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "trending")
+public class TrendingProperties {
+
+    /**
+     * Време на полуразпад на резултата: събитие отпреди толкова време тежи наполовина.
+     */
+    private Duration halfLife = Duration.ofHours(24);
+
+    /**
+     * Интервал (в милисекунди) между преизчисляванията на класацията.
+     */
+    private long refreshIntervalMs = 60_000;
+
+    /**
+     * Тежест на едно разглеждане на страницата.
+     */
+    private double viewWeight = 1.0;
+
+    /**
+     * Тежест на едно харесване на публикация или записване за курс.
+     */
+    private double likeWeight = 5.0;
+
+    /**
+     * Брой елементи от всеки вид в класацията.
+     */
+    private int topSize = 5;
+
+    /**
+     * Брой резултати, които се запазват в базата данни при спиране на приложението.
+     */
+    private int persistSize = 1000;
+
+    /**
+     * Резултат, под който елемент без нови събития се премахва от паметта.
+     */
+    private double minScore = 0.05;
+
+    /**
+     * Максимален брой следени елементи. Събития за нов елемент над лимита се пропускат,
+     * докато затихналите елементи не освободят място.
+     */
+    private int maxTrackedItems = 10_000;
+}
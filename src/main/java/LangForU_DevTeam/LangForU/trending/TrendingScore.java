@@ -0,0 +1,64 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Клас-ентитет (Entity) със запазения резултат за популярност на публикация или курс.
+ * <p>
+ * Резултатите се пазят в паметта ({@link TrendingTracker}) и се записват тук само при спиране на приложението,
+ * за да не започва класацията от нулата след рестарт. Таблицата не се чете при заявки.
+ */
+@Getter // Lombok: Автоматично генерира get-методи.
+@Setter // Lombok: Автоматично генерира set-методи.
+@NoArgsConstructor // Lombok: Генерира конструктор без аргументи, изискван от JPA.
+@Entity // JPA: Посочва, че този клас е ентитет.
+@Table(name = "trending_score", uniqueConstraints = @UniqueConstraint(columnNames = {"kind", "itemId"}))
+public class TrendingScore {
+
+    /**
+     * Уникален идентификатор (ID) на записа.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Видът на елемента.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TrendingKind kind;
+
+    /**
+     * ID на публикацията или курса.
+     */
+    @Column(nullable = false)
+    private Long itemId;
+
+    /**
+     * Затихващият резултат към момента на записа.
+     */
+    @Column(nullable = false)
+    private double score;
+
+    /**
+     * Кога е записан резултатът (спрямо него се изчислява затихването при зареждане).
+     */
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Конструктор за създаване на нов запис.
+     */
+    public TrendingScore(TrendingKind kind, Long itemId, double score, LocalDateTime updatedAt) {
+        this.kind = kind;
+        this.itemId = itemId;
+        this.score = score;
+        this.updatedAt = updatedAt;
+    }
+}
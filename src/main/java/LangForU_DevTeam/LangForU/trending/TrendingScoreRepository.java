@@ -0,0 +1,11 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозитори за запазените резултати за популярност ({@link TrendingScore}).
+ */
+@Repository
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, Long> {
+}
@@ -0,0 +1,161 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import LangForU_DevTeam.LangForU.blog.BlogPostSummary;
+import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.courses.CourseSummary;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервизен клас за класацията "Популярни сега" (публикации и курсове).
+ * <p>
+ * Класацията се преизчислява периодично от {@link TrendingTracker} в паметта, след което данните за показване
+ * се зареждат с една заявка по ID за всеки вид и се пазят като готова снимка. Заявките само четат снимката -
+ * няма ORDER BY върху таблиците с разглеждания и харесвания. Резултатите се записват в базата данни при спиране
+ * на приложението и се зареждат при стартиране.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrendingService.class);
+
+    /**
+     * Кешираните страници, които показват класацията.
+     */
+    static final List<String> TRENDING_PAGES = List.of("/index", "/blog");
+
+    //<editor-fold desc="Dependencies">
+    private final TrendingTracker tracker;
+    private final TrendingProperties properties;
+    private final TrendingScoreRepository trendingScoreRepository;
+    private final BlogRepository blogRepository;
+    private final CourseRepository courseRepository;
+    private final RenderedPageCache pageCache;
+    //</editor-fold>
+
+    private volatile List<BlogPostSummary> trendingBlogs = List.of();
+    private volatile List<CourseSummary> trendingCourses = List.of();
+
+    /**
+     * Конструктор за инжектиране на зависимости и регистриране на метриката {@code trending.tracked.items}.
+     * @param tracker Броячите и класацията в паметта.
+     * @param properties Настройки на класацията.
+     * @param trendingScoreRepository Репозитори за запазените резултати.
+     * @param blogRepository Репозитори за блог публикации.
+     * @param courseRepository Репозитори за курсове.
+     * @param pageCache Кеш за генерираните страници, които показват класацията.
+     */
+    public TrendingService(TrendingTracker tracker, TrendingProperties properties, TrendingScoreRepository trendingScoreRepository,
+                           BlogRepository blogRepository, CourseRepository courseRepository, RenderedPageCache pageCache,
+                           MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        this.properties = properties;
+        this.trendingScoreRepository = trendingScoreRepository;
+        this.blogRepository = blogRepository;
+        this.courseRepository = courseRepository;
+        this.pageCache = pageCache;
+        Gauge.builder("trending.tracked.items", tracker, TrendingTracker::size)
+                .description("Брой публикации и курсове, за които се пази резултат за популярност")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Най-популярните публикации в момента, подредени по низходящ резултат.
+     */
+    public List<BlogPostSummary> getTrendingBlogs() {
+        return trendingBlogs;
+    }
+
+    /**
+     * @return Най-популярните курсове в момента, подредени по низходящ резултат.
+     */
+    public List<CourseSummary> getTrendingCourses() {
+        return trendingCourses;
+    }
+
+    /**
+     * Преизчислява класацията и обновява снимката за показване.
+     * Ако подредбата се е променила, от кеша се премахват само страниците, които показват класацията.
+     */
+    @Scheduled(fixedDelayString = "${trending.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            boolean changed = tracker.refresh(System.currentTimeMillis());
+            trendingBlogs = ordered(TrendingKind.BLOG, blogRepository::findPostSummariesByIds, BlogPostSummary::getId);
+            trendingCourses = ordered(TrendingKind.COURSE, courseRepository::findSummariesByIds, CourseSummary::getId);
+            if (changed) {
+                pageCache.invalidate(TRENDING_PAGES);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Грешка при обновяване на класацията на популярните публикации и курсове.", e);
+        }
+    }
+
+    /**
+     * Зарежда запазените резултати при стартиране на приложението, като ги намалява с времето,
+     * през което приложението не е работило.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreScores() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TrendingScore> scores = trendingScoreRepository.findAll();
+        scores.forEach(score -> tracker.restore(score.getKind(), score.getItemId(), score.getScore(),
+                Duration.between(score.getUpdatedAt(), now).toMillis()));
+        if (!scores.isEmpty()) {
+            LOGGER.info("Заредени са {} резултата за популярност.", scores.size());
+        }
+        refresh();
+    }
+
+    /**
+     * Записва резултатите с най-висока стойност при спиране на приложението (заменя предишните).
+     */
+    @Transactional
+    @EventListener(ContextClosedEvent.class)
+    public void persistScores() {
+        try {
+            tracker.refresh(System.currentTimeMillis()); // Включва събитията след последното преизчисляване.
+            LocalDateTime now = LocalDateTime.now();
+            List<TrendingScore> scores = tracker.snapshot(properties.getPersistSize()).stream()
+                    .map(scored -> new TrendingScore(scored.getKind(), scored.getId(), scored.getScore(), now))
+                    .toList();
+            trendingScoreRepository.deleteAllInBatch();
+            trendingScoreRepository.saveAll(scores);
+        } catch (Exception e) {
+            LOGGER.warn("Резултатите за популярност не бяха запазени.", e);
+        }
+    }
+
+    /**
+     * Зарежда данните за показване и ги подрежда като класацията.
+     * Изтритите елементи се пропускат и се премахват от тракера, за да освободят мястото си в класацията.
+     */
+    private <T> List<T> ordered(TrendingKind kind, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        List<Long> ids = tracker.top(kind);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> byId = loader.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+        ids.stream().filter(id -> !byId.containsKey(id)).forEach(id -> tracker.forget(kind, id));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,218 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Броячи на разглежданията и харесванията в паметта и изчисляване на класацията "Популярни сега".
+ * <p>
+ * Записването на събитие е само увеличаване на {@link LongAdder}, който разпределя броенето по няколко клетки,
+ * така че паралелните заявки не се конкурират за един брояч и не заключват. Веднъж на
+ * {@link TrendingProperties#getRefreshIntervalMs()} {@link #refresh(long)} прибавя натрупаните събития към
+ * експоненциално затихващ резултат ({@code резултат * 2^(-изминало време / полуразпад) + нови събития}) и
+ * избира първите {@link TrendingProperties#getTopSize()} елемента от всеки вид с малка min-купчина.
+ * Класацията се публикува като неизменима снимка, която заявките само четат.
+ */
+@Component
+public class TrendingTracker {
+
+    //<editor-fold desc="Dependencies">
+    private final TrendingProperties properties;
+    //</editor-fold>
+
+    private final Map<Key, Counters> counters = new ConcurrentHashMap<>();
+
+    private volatile Map<TrendingKind, List<Long>> top = emptyTop();
+
+    /**
+     * Времето на последното преизчисляване (в милисекунди); променя се само под заключването на {@link #refresh(long)}.
+     */
+    private long lastRefresh = -1;
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param properties Настройки на класацията.
+     */
+    public TrendingTracker(TrendingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Отчита разглеждане на публикация или курс.
+     */
+    public void recordView(TrendingKind kind, long id) {
+        Counters counters = counters(kind, id);
+        if (counters != null) {
+            counters.views.increment();
+        }
+    }
+
+    /**
+     * Отчита харесване на публикация или записване за курс.
+     */
+    public void recordLike(TrendingKind kind, long id) {
+        Counters counters = counters(kind, id);
+        if (counters != null) {
+            counters.likes.increment();
+        }
+    }
+
+    /**
+     * @return ID-тата на най-популярните елементи от дадения вид, подредени по низходящ резултат.
+     */
+    public List<Long> top(TrendingKind kind) {
+        return top.get(kind);
+    }
+
+    /**
+     * Добавя натрупаните събития към затихващите резултати и преизчислява класацията.
+     * <p>
+     * Елементите без нови събития, чийто резултат е паднал под {@link TrendingProperties#getMinScore()}, се премахват.
+     * Разглеждане, записано точно докато броячът му се премахва, може да се изгуби - за класация това е допустимо.
+     *
+     * @param now Текущото време в милисекунди.
+     * @return true, ако класацията се е променила.
+     */
+    public synchronized boolean refresh(long now) {
+        double decay = decayFactor(lastRefresh < 0 ? 0 : now - lastRefresh);
+        lastRefresh = now;
+
+        Map<TrendingKind, PriorityQueue<Scored>> heaps = new EnumMap<>(TrendingKind.class);
+        for (TrendingKind kind : TrendingKind.values()) {
+            heaps.put(kind, new PriorityQueue<>(Comparator.comparingDouble(Scored::getScore)));
+        }
+        int topSize = properties.getTopSize();
+        counters.forEach((key, value) -> {
+            double added = value.views.sumThenReset() * properties.getViewWeight()
+                    + value.likes.sumThenReset() * properties.getLikeWeight();
+            value.score = value.score * decay + added;
+            if (added == 0 && value.score < properties.getMinScore()) {
+                counters.remove(key, value);
+                return;
+            }
+            PriorityQueue<Scored> heap = heaps.get(key.kind);
+            if (heap.size() < topSize) {
+                heap.add(new Scored(key.kind, key.id, value.score));
+            } else if (topSize > 0 && heap.peek().score < value.score) {
+                heap.poll();
+                heap.add(new Scored(key.kind, key.id, value.score));
+            }
+        });
+
+        Map<TrendingKind, List<Long>> fresh = new EnumMap<>(TrendingKind.class);
+        heaps.forEach((kind, heap) -> fresh.put(kind, heap.stream()
+                .sorted(Comparator.comparingDouble(Scored::getScore).reversed().thenComparing(Scored::getId))
+                .map(Scored::getId)
+                .toList()));
+        boolean changed = !fresh.equals(top);
+        top = fresh;
+        return changed;
+    }
+
+    /**
+     * Връща елементите с най-висок резултат (за запазване в базата данни).
+     * Резултатите са към момента на последното преизчисляване.
+     *
+     * @param limit Максимален брой елементи.
+     */
+    public synchronized List<Scored> snapshot(int limit) {
+        return counters.entrySet().stream()
+                .map(entry -> new Scored(entry.getKey().kind, entry.getKey().id, entry.getValue().score))
+                .sorted(Comparator.comparingDouble(Scored::getScore).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Възстановява запазен резултат (при стартиране на приложението), затихнал с изминалото време.
+     *
+     * @param score Запазеният резултат.
+     * @param ageMillis Колко време е минало от запазването.
+     */
+    public synchronized void restore(TrendingKind kind, long id, double score, long ageMillis) {
+        Counters counters = counters(kind, id);
+        if (counters != null) {
+            counters.score += score * decayFactor(Math.max(0, ageMillis));
+        }
+    }
+
+    /**
+     * Премахва елемент (напр. изтрита публикация). Ще бъде премахнат от класацията при следващото преизчисляване.
+     */
+    public void forget(TrendingKind kind, long id) {
+        counters.remove(new Key(kind, id));
+    }
+
+    /**
+     * @return Броят на следените елементи (за метриките).
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    private double decayFactor(long elapsedMillis) {
+        return Math.pow(0.5, (double) elapsedMillis / properties.getHalfLife().toMillis());
+    }
+
+    /**
+     * @return Броячите на елемента или null, ако той не се следи и вече се следят
+     * {@link TrendingProperties#getMaxTrackedItems()} елемента. Лимитът може да се надвиши леко от паралелни заявки.
+     */
+    private Counters counters(TrendingKind kind, long id) {
+        Key key = new Key(kind, id);
+        Counters existing = counters.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (counters.size() >= properties.getMaxTrackedItems()) {
+            return null;
+        }
+        return counters.computeIfAbsent(key, k -> new Counters());
+    }
+
+    private static Map<TrendingKind, List<Long>> emptyTop() {
+        Map<TrendingKind, List<Long>> empty = new EnumMap<>(TrendingKind.class);
+        for (TrendingKind kind : TrendingKind.values()) {
+            empty.put(kind, List.of());
+        }
+        return empty;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Key {
+        private final TrendingKind kind;
+        private final long id;
+    }
+
+    private static final class Counters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder likes = new LongAdder();
+        /**
+         * Затихващият резултат; чете се и се променя само под заключването на тракера.
+         */
+        private double score;
+    }
+
+    /**
+     * Елемент с резултата му.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Scored {
+        private final TrendingKind kind;
+        private final long id;
+        private final double score;
+    }
+}
@@ -0,0 +1,62 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Филтър, който отчита разглежданията на публикациите и курсовете в {@link TrendingTracker}.
+ * <p>
+ * Регистрира се преди кеша на страниците, така че се отчитат и страниците, върнати от кеша или с 304 Not Modified,
+ * които не стигат до контролерите. Отчитат се само успешните отговори, за да не се пазят броячи за несъществуващи ID-та
+ * (за тях контролерите връщат 404).
+ */
+public class TrendingViewFilter extends OncePerRequestFilter {
+
+    private static final Pattern BLOG_DETAIL = Pattern.compile("^/blog/detail/(\\d{1,18})$");
+    private static final Pattern COURSE_VIEW = Pattern.compile("^/courses/view/(\\d{1,18})$");
+
+    //<editor-fold desc="Dependencies">
+    private final TrendingTracker tracker;
+    //</editor-fold>
+
+    /**
+     * Конструктор за инжектиране на зависимости.
+     * @param tracker Броячите на разглежданията.
+     */
+    public TrendingViewFilter(TrendingTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+
+        int status = response.getStatus();
+        if (status != HttpServletResponse.SC_OK && status != HttpServletResponse.SC_NOT_MODIFIED) {
+            return;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher blog = BLOG_DETAIL.matcher(path);
+        if (blog.matches()) {
+            tracker.recordView(TrendingKind.BLOG, Long.parseLong(blog.group(1)));
+            return;
+        }
+        Matcher course = COURSE_VIEW.matcher(path);
+        if (course.matches()) {
+            tracker.recordView(TrendingKind.COURSE, Long.parseLong(course.group(1)));
+        }
+    }
+}
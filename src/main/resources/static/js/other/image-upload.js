@@ -0,0 +1,39 @@
+document.addEventListener("DOMContentLoaded", function () {
+    const csrfInput = document.querySelector('input[name="_csrf"]');
+    const csrfMeta = document.querySelector('meta[name="_csrf"]');
+    const csrfToken = csrfInput ? csrfInput.value : (csrfMeta ? csrfMeta.content : null);
+
+    document.querySelectorAll("input[type=file][data-image-target]").forEach(fileInput => {
+        const target = document.getElementById(fileInput.dataset.imageTarget);
+        const status = document.getElementById(fileInput.id + "Status");
+
+        fileInput.addEventListener("change", () => {
+            const file = fileInput.files[0];
+            if (!file) {
+                return;
+            }
+            const data = new FormData();
+            data.append("file", file);
+            status.textContent = "Снимката се обработва...";
+
+            fetch("/admin/images", {
+                method: "POST",
+                headers: csrfToken ? { "X-CSRF-TOKEN": csrfToken } : {},
+                body: data
+            })
+                .then(response => response.json().then(body => ({ ok: response.ok, body })))
+                .then(({ ok, body }) => {
+                    if (!ok) {
+                        throw new Error(body.error || "Снимката не може да бъде качена.");
+                    }
+                    target.value = body.url;
+                    target.dispatchEvent(new Event("change", { bubbles: true }));
+                    status.textContent = "Снимката е качена.";
+                })
+                .catch(error => {
+                    status.textContent = error.message;
+                    console.error("Error uploading image:", error);
+                });
+        });
+    });
+});
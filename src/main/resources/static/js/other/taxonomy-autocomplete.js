@@ -0,0 +1,100 @@
+document.addEventListener("DOMContentLoaded", function () {
+    document.querySelectorAll("input[data-suggest]").forEach(input => {
+        const menu = document.createElement("div");
+        menu.className = "dropdown-menu";
+        input.parentElement.style.position = "relative";
+        input.after(menu);
+
+        let active = -1;
+        let timer = null;
+        let lastQuery = null;
+
+        // Въведените стойности са разделени със запетая - допълва се само последната.
+        const currentToken = () => {
+            const parts = input.value.split(",");
+            return parts[parts.length - 1].trim();
+        };
+
+        const hide = () => {
+            menu.classList.remove("show");
+            active = -1;
+        };
+
+        const choose = name => {
+            const parts = input.value.split(",").map(part => part.trim());
+            parts[parts.length - 1] = name;
+            input.value = parts.filter(part => part.length > 0).join(", ") + ", ";
+            hide();
+            input.focus();
+        };
+
+        const highlight = index => {
+            const items = menu.querySelectorAll(".dropdown-item");
+            items.forEach((item, i) => item.classList.toggle("active", i === index));
+            active = index;
+        };
+
+        const render = names => {
+            menu.replaceChildren();
+            names.forEach(name => {
+                const item = document.createElement("button");
+                item.type = "button";
+                item.className = "dropdown-item";
+                item.textContent = name;
+                // mousedown, за да се избере преди полето да загуби фокус.
+                item.addEventListener("mousedown", event => {
+                    event.preventDefault();
+                    choose(name);
+                });
+                menu.appendChild(item);
+            });
+            active = -1;
+            menu.classList.toggle("show", names.length > 0);
+        };
+
+        const suggest = () => {
+            const query = currentToken();
+            if (query === lastQuery) {
+                return;
+            }
+            lastQuery = query;
+            fetch(input.dataset.suggest + "?q=" + encodeURIComponent(query))
+                .then(response => response.ok ? response.json() : [])
+                .then(names => {
+                    if (query === currentToken()) {
+                        render(names);
+                    }
+                })
+                .catch(error => console.error("Error loading suggestions:", error));
+        };
+
+        input.setAttribute("autocomplete", "off");
+        input.addEventListener("input", () => {
+            clearTimeout(timer);
+            timer = setTimeout(suggest, 80);
+        });
+        input.addEventListener("focus", () => {
+            lastQuery = null;
+            suggest();
+        });
+        input.addEventListener("blur", hide);
+        input.addEventListener("keydown", event => {
+            const items = menu.querySelectorAll(".dropdown-item");
+            if (!menu.classList.contains("show") || items.length === 0) {
+                return;
+            }
+            if (event.key === "ArrowDown") {
+                event.preventDefault();
+                highlight((active + 1) % items.length);
+            } else if (event.key === "ArrowUp") {
+                event.preventDefault();
+                highlight((active - 1 + items.length) % items.length);
+            } else if (event.key === "Enter" && active >= 0) {
+                event.preventDefault();
+                choose(items[active].textContent);
+            } else if (event.key === "Escape") {
+                hide();
+            }
+        });
+    });
+});
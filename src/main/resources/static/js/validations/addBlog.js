@@ -20,7 +20,7 @@ $(document).ready(function() {
                     maxlength: 10000
                 },
                 image: {
-                    url: true
+                    imageUrl: true
                 },
                 categories: {
                     required: true,
@@ -47,7 +47,7 @@ $(document).ready(function() {
                     maxlength: "Текстът на блога не може да бъде по-дълъг от 10000 символа."
                 },
                 image: {
-                    url: "Моля, въведете валиден URL адрес за снимката."
+                    imageUrl: "Моля, въведете валиден URL адрес за снимката."
                 },
                 categories: {
                     required: "Моля, въведете поне една категория, разделена със запетая.",
@@ -64,6 +64,11 @@ $(document).ready(function() {
         });
 
 
+        $.validator.addMethod("imageUrl", function (value, element) {
+            return this.optional(element) || /^\/media\/images\/[0-9a-f]+-[a-z]+\.jpg$/.test(value)
+                || $.validator.methods.url.call(this, value, element);
+        }, "Моля, въведете валиден URL адрес или качете снимка.");
+
         $.validator.addMethod("lettersCyrillicSymbols", function(value, element) {
             return this.optional(element) || /^[А-Яа-яёЁ\s\-\.,!@#\$%\^&\*\(\)\[\]\{\}]+$/.test(value);
         }, "Моля, използвайте само кирилица и разрешени символи.");
@@ -39,7 +39,7 @@ $(document).ready(function () {
                 },
                 pictureUrl: {
                     required: true,
-                    url: true
+                    imageUrl: true
                 },
                 description: {
                     required: true,
@@ -87,7 +87,7 @@ $(document).ready(function () {
                 },
                 pictureUrl: {
                     required: "Моля, въведете URL за снимка.",
-                    url: "Моля, въведете валиден URL адрес."
+                    imageUrl: "Моля, въведете валиден URL адрес или качете снимка."
                 },
                 description: {
                     required: "Моля, въведете описание.",
@@ -109,6 +109,11 @@ $(document).ready(function () {
         });
 
 
+        $.validator.addMethod("imageUrl", function (value, element) {
+            return this.optional(element) || /^\/media\/images\/[0-9a-f]+-[a-z]+\.jpg$/.test(value)
+                || $.validator.methods.url.call(this, value, element);
+        }, "Моля, въведете валиден URL адрес или качете снимка.");
+
         flatpickr("#startDate", {
             dateFormat: "d/m/Y",
             allowInput: true
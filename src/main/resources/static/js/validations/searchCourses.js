@@ -4,17 +4,21 @@ $(document).ready(function () {
 
 
         $("#coursesSearchForm").on('submit', function (e) {
-            var searchField = $("input[name='searchLanguage']");
+            var searchField = $("input[name='q']");
             var searchValue = searchField.val().trim();
-            var errorMessage = searchField.next(".validation-message");
+            var errorMessage = searchField.closest(".form-group").find(".validation-message");
+            // Търсене само по филтри (без текст) е позволено.
+            var hasFilters = $(this).find(".course-facets input:checked").filter(function () {
+                return this.value !== "";
+            }).length > 0;
 
             errorMessage.hide();
 
-            if (!searchValue) {
+            if (!searchValue && !hasFilters) {
                 e.preventDefault();
                 errorMessage.text("Трява да въведете дума за да потърсите").show();
                 searchField.focus();
             }
         });
     })(jQuery);
-});
\ No newline at end of file
+});
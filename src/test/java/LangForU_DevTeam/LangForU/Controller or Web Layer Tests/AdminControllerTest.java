@@ -1,26 +1,42 @@
 package LangForU_DevTeam.LangForU.appuser;
 
+import LangForU_DevTeam.LangForU.blog.BlogFeedPage;
 import LangForU_DevTeam.LangForU.blog.BlogService;
+import LangForU_DevTeam.LangForU.contactRequest.ContactRequest;
 import LangForU_DevTeam.LangForU.contactRequest.ContactRequestService;
+import LangForU_DevTeam.LangForU.courses.CourseImportReport;
+import LangForU_DevTeam.LangForU.courses.CourseImportService;
 import LangForU_DevTeam.LangForU.courses.CourseService;
-import LangForU_DevTeam.LangForU.email.EmailService;
+import LangForU_DevTeam.LangForU.email.EmailSender;
+import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import LangForU_DevTeam.LangForU.finalexam.FinalExamService;
 import LangForU_DevTeam.LangForU.lections.LectionService;
 import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequestService;
+import LangForU_DevTeam.LangForU.subscriber.NewsletterJob;
+import LangForU_DevTeam.LangForU.subscriber.NewsletterJobProgress;
+import LangForU_DevTeam.LangForU.subscriber.NewsletterService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +49,9 @@ class AdminControllerTest {
     @Mock
     private ContactRequestService contactRequestService;
     @Mock
-    private EmailService emailService;
+    private EmailSender emailSender;
+    @Mock
+    private EmailTemplateService emailTemplateService;
     @Mock
     private BlogService blogService;
     @Mock
@@ -42,6 +60,10 @@ class AdminControllerTest {
     private CourseService courseService;
     @Mock
     private FinalExamService finalExamService;
+    @Mock
+    private NewsletterService newsletterService;
+    @Mock
+    private CourseImportService courseImportService;
 
     @InjectMocks
     private AdminController adminController;
@@ -107,9 +129,27 @@ class AdminControllerTest {
                 .andExpect(model().attributeExists("message"));
     }
 
+    @Test
+    void sendEmail_ShouldRenderAnswerAndSendItThroughEmailSender() throws Exception {
+        ContactRequest request = new ContactRequest(5L, "Иван", "ivan@example.com", "Въпрос", "Текст", LocalDateTime.now());
+        when(contactRequestService.getRequestById(5L)).thenReturn(Optional.of(request));
+        when(emailTemplateService.buildEmail_contactAnswer("Отговор", "Админ", "Иван")).thenReturn("<html>");
+
+        mockMvc.perform(post("/admin/sendEmail")
+                        .param("id", "5")
+                        .param("middleContent", "Отговор")
+                        .param("adminName", "Админ"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/contactRequests"))
+                .andExpect(flash().attributeExists("successMessage"));
+
+        verify(emailSender).send("ivan@example.com", "<html>");
+        verify(contactRequestService).deleteRequestById(5L);
+    }
+
     @Test
     void listBlogs_ShouldReturnBlogListView() throws Exception {
-        when(blogService.findAllBlogs()).thenReturn(Collections.emptyList());
+        when(blogService.findBlogsFeed(null, 20)).thenReturn(new BlogFeedPage(Collections.emptyList(), null, null, 0, 0));
 
         mockMvc.perform(get("/admin/blogs"))
                 .andExpect(status().isOk())
@@ -146,4 +186,32 @@ class AdminControllerTest {
                 .andExpect(view().name("final-exams/finalExamsList"))
                 .andExpect(model().attributeExists("message"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void listNewsletterJobs_ShouldReturnJobsWithProgress() throws Exception {
+        NewsletterJob job = new NewsletterJob(5L, "Нова статия", 1000, LocalDateTime.now());
+        job.setProcessedRecipients(250);
+        job.setLastSubscriberId(250L);
+        when(newsletterService.findRecentJobs()).thenReturn(Collections.singletonList(NewsletterJobProgress.of(job)));
+
+        mockMvc.perform(get("/admin/newsletter-jobs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].blogId").value(5))
+                .andExpect(jsonPath("$[0].status").value("PENDING"))
+                .andExpect(jsonPath("$[0].lastSubscriberId").value(250))
+                .andExpect(jsonPath("$[0].progressPercent").value(25));
+    }
+
+    @Test
+    void importCourses_ShouldReturnImportReport() throws Exception {
+        MockMultipartFile archive = new MockMultipartFile("archive", "courses.json", "application/json", "{\"courses\": []}".getBytes());
+        when(courseImportService.importArchive(any(InputStream.class)))
+                .thenReturn(new CourseImportReport(1, 10, 50, 150, 1, 20));
+
+        mockMvc.perform(multipart("/admin/courses/import").file(archive))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses").value(1))
+                .andExpect(jsonPath("$.rows").value(212))
+                .andExpect(jsonPath("$.rowsPerSecond").value(10600));
+    }
+}
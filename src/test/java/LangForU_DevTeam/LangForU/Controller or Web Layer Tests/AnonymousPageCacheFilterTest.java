@@ -0,0 +1,203 @@
+package LangForU_DevTeam.LangForU.pagecache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за класа AnonymousPageCacheFilter.
+ * Проверява кои заявки и отговори се кешират и как се връща запазената страница
+ * (компресирана, некомпресирана или 304).
+ */
+class AnonymousPageCacheFilterTest {
+
+    private static final String HTML = "<html><body><h1>Блог</h1></body></html>";
+
+    private RenderedPageCache cache;
+    private AnonymousPageCacheFilter filter;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        PageCacheProperties properties = new PageCacheProperties();
+        cache = new RenderedPageCache(properties);
+        filter = new AnonymousPageCacheFilter(cache, properties);
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void anonymousGet_secondRequest_shouldBeServedFromCacheWithoutRendering() throws Exception {
+        MockHttpServletResponse first = perform(get("/blog/detail/1"), this::renderHtml);
+        MockHttpServletResponse second = perform(get("/blog/detail/1"), this::renderHtml);
+
+        assertEquals(1, renders.get());
+        assertEquals("MISS", first.getHeader(AnonymousPageCacheFilter.CACHE_HEADER));
+        assertEquals(HTML, first.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("HIT", second.getHeader(AnonymousPageCacheFilter.CACHE_HEADER));
+        assertEquals(200, second.getStatus());
+        assertEquals("text/html;charset=UTF-8", second.getContentType());
+        assertEquals("W/\"1\"", second.getHeader("ETag"));
+        assertNull(second.getHeader("Content-Encoding"));
+        assertEquals(HTML, second.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void hit_whenClientAcceptsGzip_shouldSendCompressedBody() throws Exception {
+        perform(get("/blog"), this::renderHtml);
+        MockHttpServletRequest request = get("/blog");
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+
+        MockHttpServletResponse response = perform(request, this::renderHtml);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertTrue(response.getHeaders("Vary").contains("Accept-Encoding"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(HTML, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void hit_whenETagMatches_shouldReturnNotModified() throws Exception {
+        perform(get("/blog/detail/1"), this::renderHtml);
+        MockHttpServletRequest request = get("/blog/detail/1");
+        request.addHeader("If-None-Match", "W/\"1\"");
+
+        MockHttpServletResponse response = perform(request, this::renderHtml);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void allowedQueryParameters_shouldBeNormalisedIntoTheKey() throws Exception {
+        perform(get("/courses", "level", "B1", "level", "A1", "price", "FREE"), this::renderHtml);
+        perform(get("/courses", "price", "FREE", "level", "A1", "level", "B1", "level", "A1"), this::renderHtml);
+        perform(get("/courses", "level", "A1"), this::renderHtml);
+
+        assertEquals(2, renders.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void otherQueryParameters_shouldBypassCache() throws Exception {
+        perform(get("/blog", "junk", "1"), this::renderHtml);
+        perform(get("/blog", "junk", "1"), this::renderHtml);
+        perform(get("/courses", "level", "A1", "q", "английски"), this::renderHtml);
+
+        assertEquals(3, renders.get());
+        assertEquals(0, cache.size());
+        assertNull(cache.get("/blog"));
+    }
+
+    @Test
+    void requestWithSessionOrUser_shouldBypassCache() throws Exception {
+        perform(get("/courses"), this::renderHtml);
+        MockHttpServletRequest withSession = get("/courses");
+        withSession.setSession(new MockHttpSession());
+        MockHttpServletRequest withUser = get("/courses");
+        withUser.setUserPrincipal(() -> "user@test.com");
+
+        MockHttpServletResponse sessionResponse = perform(withSession, this::renderHtml);
+        perform(withUser, this::renderHtml);
+
+        assertEquals(3, renders.get());
+        assertNull(sessionResponse.getHeader(AnonymousPageCacheFilter.CACHE_HEADER));
+    }
+
+    @Test
+    void responseThatCreatesSessionOrSetsCookie_shouldNotBeStored() throws Exception {
+        perform(get("/index"), (request, response) -> {
+            request.getSession(true); // Напр. генериране на CSRF токен.
+            renderHtml(request, response);
+        });
+        perform(get("/index"), this::renderHtml);
+        assertEquals(2, renders.get());
+
+        cache.invalidate();
+        perform(get("/courses"), (request, response) -> {
+            response.addCookie(new Cookie("tracking", "1"));
+            renderHtml(request, response);
+        });
+        perform(get("/courses"), this::renderHtml);
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    void nonHtmlOrErrorResponse_shouldNotBeStored() throws Exception {
+        perform(get("/blog/detail/2"), (request, response) -> {
+            renders.incrementAndGet();
+            response.setStatus(404);
+            response.setContentType("text/html;charset=UTF-8");
+        });
+        perform(get("/blog/detail/3"), (request, response) -> {
+            renders.incrementAndGet();
+            response.setContentType("application/json");
+            response.getWriter().write("{}");
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotFilter_otherPathsAndMethods() {
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/blog/detail/1");
+
+        assertTrue(filter.shouldNotFilter(post));
+        assertTrue(filter.shouldNotFilter(get("/profile")));
+        assertTrue(filter.shouldNotFilter(get("/blog/1/comments")));
+        assertFalse(filter.shouldNotFilter(get("/blog/detail/1")));
+        assertFalse(filter.shouldNotFilter(get("/index")));
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, Handler handler) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> handler.handle((HttpServletRequest) req, (HttpServletResponse) res);
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void renderHtml(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        renders.incrementAndGet();
+        response.setContentType("text/html;charset=UTF-8");
+        response.setHeader("ETag", "W/\"1\"");
+        response.getWriter().write(HTML);
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    /**
+     * @param parameters Двойки име, стойност.
+     */
+    private static MockHttpServletRequest get(String uri, String... parameters) {
+        MockHttpServletRequest request = get(uri);
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < parameters.length; i += 2) {
+            request.addParameter(parameters[i], parameters[i + 1]);
+            query.append(i == 0 ? "" : "&").append(parameters[i]).append('=').append(parameters[i + 1]);
+        }
+        request.setQueryString(query.toString());
+        return request;
+    }
+}
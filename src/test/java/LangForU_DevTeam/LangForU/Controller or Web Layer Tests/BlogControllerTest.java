@@ -1,10 +1,14 @@
 package LangForU_DevTeam.LangForU.blog;
 
 import LangForU_DevTeam.LangForU.appuser.AppUserService;
+import LangForU_DevTeam.LangForU.coment.BlogCommentPage;
+import LangForU_DevTeam.LangForU.coment.BlogCommentView;
+import LangForU_DevTeam.LangForU.coment.Blog_Comment;
 import LangForU_DevTeam.LangForU.coment.Blog_Comment_Service;
 import LangForU_DevTeam.LangForU.like.Blog_Like_Service;
 import LangForU_DevTeam.LangForU.subscriber.SubscriberService;
 import LangForU_DevTeam.LangForU.security.config.WebSecurityConfig;
+import LangForU_DevTeam.LangForU.trending.TrendingService;
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 
 import org.junit.jupiter.api.Test;
@@ -12,19 +16,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,17 +57,42 @@ class BlogControllerTest {
     @MockBean
     private SubscriberService subscriberService;
     @MockBean
+    private TrendingService trendingService;
+    @MockBean
+    private TaxonomyAutocomplete taxonomyAutocomplete;
+    @MockBean
     private BCryptPasswordEncoder bCryptPasswordEncoder; // Also mock the password encoder
 
     @Test
     void viewBlog_ShouldReturnBlogViewWithBlogs() throws Exception {
-        Page<Blog> blogPage = new PageImpl<>(Collections.singletonList(new Blog()));
-        when(blogService.findBlogsPaginated(anyInt(), anyInt())).thenReturn(blogPage);
+        BlogCard card = new BlogCard(1L, "Title", "Short", LocalDate.now(), null, "Author", 2, 5);
+        String nextCursor = new BlogCursor(card.getDate(), 1L, true, 1).encode();
+        BlogFeedPage feedPage = new BlogFeedPage(Collections.singletonList(card), null, nextCursor, 0, 2);
+        when(blogService.findBlogsFeed(null, 5)).thenReturn(feedPage);
+        when(blogService.getSidebar()).thenReturn(new BlogSidebar(List.of("grammar"), List.of("English"), List.of()));
 
         mockMvc.perform(get("/blog"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("blog"))
-                .andExpect(model().attributeExists("blogs"));
+                .andExpect(model().attributeExists("blogs"))
+                .andExpect(model().attribute("tags", List.of("grammar")))
+                .andExpect(model().attribute("categories", List.of("English")))
+                .andExpect(model().attribute("nextCursor", nextCursor))
+                .andExpect(content().string(containsString("/blog?cursor=" + nextCursor)));
+    }
+
+    @Test
+    void viewBlogByCategory_ShouldPassCursorAndLinkWithinCategory() throws Exception {
+        BlogCard card = new BlogCard(3L, "Title", "Short", LocalDate.now(), null, "Author", 0, 0);
+        String previousCursor = new BlogCursor(card.getDate(), 3L, false, 0).encode();
+        when(blogService.findBlogsByCategoryFeed("English", "abc", 5))
+                .thenReturn(new BlogFeedPage(List.of(card), previousCursor, null, 1, 2));
+        when(blogService.getSidebar()).thenReturn(new BlogSidebar(List.of(), List.of(), List.of()));
+
+        mockMvc.perform(get("/blog/category/English").param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("currentPage", 1))
+                .andExpect(content().string(containsString("/blog/category/English?cursor=" + previousCursor)));
     }
 
     @Test
@@ -65,12 +100,134 @@ class BlogControllerTest {
         Blog blog = new Blog();
         blog.setId(1L);
         blog.setAuthor(new AppUser());
+        blog.setBlogText("**Present** Perfect");
+        blog.setBlogHtml("<p><strong>Present</strong> Perfect</p>");
         when(blogService.getBlogWithCommentsById(1L)).thenReturn(Optional.of(blog));
+        BlogCommentView comment = new BlogCommentView(12L, "Чудесна статия", LocalDateTime.of(2025, 1, 1, 10, 0), "Мария", null,
+                null, 0, 4, 6, "999999999987");
+        BlogCommentView reply = new BlogCommentView(13L, "Благодаря", LocalDateTime.of(2025, 1, 1, 11, 0), "Иван", null,
+                12L, 1, 0, 0, "999999999987000000000013");
+        when(blogCommentService.findThreadPage(1L, null, 10, 3)).thenReturn(new BlogCommentPage(List.of(comment, reply), 12L));
+        when(blogCommentService.countByBlogId(1L)).thenReturn(11L);
 
         mockMvc.perform(get("/blog/detail/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("blog/blogDetail"))
-                .andExpect(model().attributeExists("blog"));
+                .andExpect(model().attributeExists("blog"))
+                .andExpect(model().attribute("comments", List.of(comment, reply)))
+                .andExpect(model().attribute("commentsCursor", 12L))
+                .andExpect(model().attribute("commentsCount", 11L))
+                .andExpect(content().string(containsString("id=\"loadMoreComments\"")))
+                .andExpect(content().string(containsString("margin-left: 40px")))
+                .andExpect(content().string(containsString("Покажи всички отговори (6)")))
+                .andExpect(content().string(containsString("<p><strong>Present</strong> Perfect</p>")));
+    }
+
+    @Test
+    void blogDetails_WhenBlogDoesNotExist_ShouldReturn404() throws Exception {
+        when(blogService.getBlogWithCommentsById(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/blog/detail/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(view().name("notifications/error"));
+    }
+
+    @Test
+    void blogDetails_WhenPageIsNotModified_ShouldReturn304WithoutLoadingBlog() throws Exception {
+        Blog blog = new Blog();
+        blog.setId(1L);
+        blog.setAuthor(new AppUser());
+        when(blogService.findDetailLastModified(1L)).thenReturn(Optional.of(LocalDateTime.of(2025, 3, 1, 12, 0)));
+        when(blogService.getBlogWithCommentsById(1L)).thenReturn(Optional.of(blog));
+        when(blogCommentService.findThreadPage(1L, null, 10, 3)).thenReturn(new BlogCommentPage(List.of(), null));
+
+        String etag = mockMvc.perform(get("/blog/detail/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=60, must-revalidate, private"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/blog/detail/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Публикацията и коментарите се зареждат само при първата заявка.
+        verify(blogService, times(1)).getBlogWithCommentsById(1L);
+
+        when(blogService.findDetailLastModified(1L)).thenReturn(Optional.of(LocalDateTime.of(2025, 3, 1, 12, 5)));
+        mockMvc.perform(get("/blog/detail/1").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void blogDetails_ForLoggedInUser_ShouldNotReuseAnonymousEtag() throws Exception {
+        Blog blog = new Blog();
+        blog.setId(1L);
+        blog.setAuthor(new AppUser());
+        AppUser reader = new AppUser();
+        reader.setId(3L);
+        when(blogService.findDetailLastModified(1L)).thenReturn(Optional.of(LocalDateTime.of(2025, 3, 1, 12, 0)));
+        when(blogService.getBlogWithCommentsById(1L)).thenReturn(Optional.of(blog));
+        when(blogCommentService.findThreadPage(1L, null, 10, 3)).thenReturn(new BlogCommentPage(List.of(), null));
+        when(appUserService.findByEmail("reader@user.com")).thenReturn(reader);
+
+        String anonymousEtag = mockMvc.perform(get("/blog/detail/1"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Страницата съдържа данни за потребителя, затова версията на анонимния посетител не важи след вход.
+        mockMvc.perform(get("/blog/detail/1").header("If-None-Match", anonymousEtag).with(user("reader@user.com")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @Test
+    void getComments_ShouldReturnNextPageAsJson() throws Exception {
+        BlogCommentView comment = new BlogCommentView(5L, "<b>Здравей</b>", LocalDateTime.of(2025, 1, 1, 9, 30), "Иван", "/img/avatars/ivan.png",
+                null, 0, 0, 0, "999999999994");
+        when(blogCommentService.findThreadPage(1L, 12L, 10, 3)).thenReturn(new BlogCommentPage(List.of(comment), null));
+
+        mockMvc.perform(get("/blog/1/comments").param("before", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id").value(5))
+                .andExpect(jsonPath("$.comments[0].commentText").value("<b>Здравей</b>"))
+                .andExpect(jsonPath("$.comments[0].authorName").value("Иван"))
+                .andExpect(jsonPath("$.comments[0].authorAvatar").value("/img/avatars/ivan.png"))
+                .andExpect(jsonPath("$.comments[0].commentedAtText").value("01-01-2025 в 09:30"))
+                .andExpect(jsonPath("$.comments[0].depth").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getReplies_ShouldReturnSubtreeAsJson() throws Exception {
+        BlogCommentView reply = new BlogCommentView(13L, "Благодаря", LocalDateTime.of(2025, 1, 1, 11, 0), "Иван", null,
+                12L, 1, 1, 1, "999999999987000000000013");
+        BlogCommentView nested = new BlogCommentView(20L, "И аз", LocalDateTime.of(2025, 1, 1, 12, 0), "Мария", null,
+                13L, 2, 0, 0, "999999999987000000000013000000000020");
+        when(blogCommentService.findReplies(1L, 12L)).thenReturn(List.of(reply, nested));
+
+        mockMvc.perform(get("/blog/1/comments/12/replies"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(13))
+                .andExpect(jsonPath("$[1].parentId").value(13))
+                .andExpect(jsonPath("$[1].depth").value(2));
+    }
+
+    @Test
+    @WithMockUser(username = "test@user.com")
+    void postComment_WithParentId_ShouldSaveReply() throws Exception {
+        Blog blog = new Blog();
+        blog.setId(1L);
+        when(blogService.findBlogById(1L)).thenReturn(blog);
+        when(appUserService.findByEmail("test@user.com")).thenReturn(new AppUser());
+
+        mockMvc.perform(post("/blog/1/comment")
+                        .param("commentText", "Съгласен съм")
+                        .param("parentId", "12")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/blog/detail/1"))
+                .andExpect(flash().attribute("success", "Коментарът е публикуван успешно."));
+
+        verify(blogCommentService).save(any(Blog_Comment.class), eq(12L));
     }
 
     @Test
@@ -94,13 +251,32 @@ class BlogControllerTest {
     void likeBlog_ShouldLikeAndRedirect() throws Exception {
         Blog blog = new Blog();
         AppUser user = new AppUser();
+        user.setId(7L);
         when(blogService.findBlogById(1L)).thenReturn(blog);
         when(appUserService.findByEmail("test@user.com")).thenReturn(user);
-        when(blogLikeService.findByBlogAndUser(any(), any())).thenReturn(Optional.empty());
+        when(blogLikeService.toggle(1L, 7L)).thenReturn(true);
 
         mockMvc.perform(post("/blog/1/like")
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
-                .andExpect(redirectedUrl("/blog/detail/1"));
+                .andExpect(redirectedUrl("/blog/detail/1"))
+                .andExpect(flash().attribute("message", "Харесахте тази публикация."));
+
+        verify(blogLikeService).toggle(1L, 7L);
+
+        // POST заявките, които само пренасочват, не изчисляват страничната лента.
+        verify(blogService, never()).getSidebar();
+    }
+
+    @Test
+    void suggestTags_ShouldReturnCompletionsAsJson() throws Exception {
+        when(taxonomyAutocomplete.suggestTags("гра", 8)).thenReturn(List.of("Граматика", "Грамофон"));
+
+        mockMvc.perform(get("/blog/suggest/tags").param("q", "гра"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Граматика"))
+                .andExpect(jsonPath("$.length()").value(2));
+
+        verify(blogService, never()).getSidebar();
     }
 }
\ No newline at end of file
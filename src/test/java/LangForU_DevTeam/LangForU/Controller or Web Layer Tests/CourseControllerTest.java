@@ -3,6 +3,7 @@ package LangForU_DevTeam.LangForU.courses;
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.appuser.AppUserRepository;
 import LangForU_DevTeam.LangForU.appuser.AppUserService;
+import LangForU_DevTeam.LangForU.exceptions.CourseFullException;
 import LangForU_DevTeam.LangForU.lections.Lection;
 import LangForU_DevTeam.LangForU.lections.LectionService;
 import LangForU_DevTeam.LangForU.security.config.WebConfig;
@@ -11,6 +12,7 @@ import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequest;
 import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequestService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -26,10 +28,17 @@ import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -98,11 +107,38 @@ class CourseControllerTest {
     @Test
     @WithMockUser
     void getAllCourses_ShouldReturnCoursesView() throws Exception {
-        when(courseService.getAllCourses()).thenReturn(new ArrayList<>());
+        when(courseService.searchCourses(any())).thenReturn(
+                new CourseSearchResult(new ArrayList<>(), Map.of(), Map.of(), Map.of(), Map.of()));
         mockMvc.perform(get("/courses"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("courses"))
-                .andExpect(model().attributeExists("courses"));
+                .andExpect(model().attributeExists("courses", "search", "query"));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithTextAndFilters_ShouldSearchOnceAndShowFacetCounts() throws Exception {
+        CourseSearchResult result = new CourseSearchResult(new ArrayList<>(),
+                Map.of(Level.B1, 2), Map.of(PriceBand.UP_TO_100, 1), Map.of(YearMonth.of(2031, 3), 2), Map.of(true, 1, false, 1));
+        when(courseService.searchCourses(any())).thenReturn(result);
+
+        mockMvc.perform(get("/courses")
+                        .param("searchLanguage", "Немски")
+                        .param("level", "B1", "B2")
+                        .param("price", "UP_TO_100")
+                        .param("month", "2031-03")
+                        .param("finalExam", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("До 100 лв. (1)")))
+                .andExpect(content().string(containsString("03.2031 (2)")));
+
+        ArgumentCaptor<CourseSearchQuery> query = ArgumentCaptor.forClass(CourseSearchQuery.class);
+        verify(courseService).searchCourses(query.capture());
+        assertEquals("Немски", query.getValue().getText());
+        assertEquals(Set.of(Level.B1, Level.B2), query.getValue().getLevels());
+        assertEquals(Set.of(PriceBand.UP_TO_100), query.getValue().getPriceBands());
+        assertEquals(Set.of(YearMonth.of(2031, 3)), query.getValue().getStartMonths());
+        assertEquals(Boolean.TRUE, query.getValue().getHasFinalExam());
     }
 
     @Test
@@ -123,6 +159,26 @@ class CourseControllerTest {
                 .andExpect(model().attributeExists("lections"));
     }
 
+    @Test
+    void getCourseDetails_WhenCourseDoesNotExist_ShouldReturn404() throws Exception {
+        when(courseService.findCourseById(99L)).thenReturn(null);
+
+        mockMvc.perform(get("/courses/view/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(view().name("notifications/error"));
+    }
+
+    @Test
+    void getCourseDetails_WhenNotModifiedSince_ShouldReturn304WithoutLoadingCourse() throws Exception {
+        when(courseService.findLastModified(1L)).thenReturn(Optional.of(LocalDateTime.of(2025, 3, 1, 12, 0)));
+
+        mockMvc.perform(get("/courses/view/1").header("If-Modified-Since", "Sat, 01 Mar 2031 00:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(courseService, never()).findCourseById(1L);
+        verify(lectionService, never()).getLectionsByCourseId(1L);
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void showAddCourseForm_ShouldReturnAddCourseFormView() throws Exception {
@@ -169,6 +225,26 @@ class CourseControllerTest {
         verify(userCourseRequestService).createRequest(eq(1L), eq(1L), eq("1234567890"), eq("Bulgarian"));
     }
 
+    @Test
+    @WithUserDetails("test@user.com")
+    void signupForCourse_WhenCourseIsFull_ShouldRedirectBackWithMessage() throws Exception {
+        Course course = new Course();
+        course.setId(1L);
+        course.setPrice(150.0f);
+
+        when(courseService.findCourseById(1L)).thenReturn(course);
+        when(userCourseRequestService.createRequest(anyLong(), anyLong(), anyString(), anyString()))
+                .thenThrow(new CourseFullException("Няма свободни места за този курс."));
+
+        mockMvc.perform(post("/courses/signup/1")
+                        .param("pin", "1234567890")
+                        .param("citizenship", "Bulgarian")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/courses/signup/1"))
+                .andExpect(flash().attribute("error", "Няма свободни места за този курс."));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void deleteCourse_ShouldDeleteAndRedirect() throws Exception {
@@ -0,0 +1,136 @@
+package LangForU_DevTeam.LangForU.image;
+
+import LangForU_DevTeam.LangForU.appuser.AppUserService;
+import LangForU_DevTeam.LangForU.security.config.WebSecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Тестове за уеб слоя на ImageController и обслужването на вариантите от ImageWebConfig
+ * (достъп без вход и заглавки за постоянно кеширане).
+ */
+@WebMvcTest(ImageController.class)
+@Import(WebSecurityConfig.class)
+class ImageControllerTest {
+
+    private static final String HERO = "/media/images/0123456789abcdef01234567-hero.jpg";
+
+    @TempDir
+    static Path storageDir;
+
+    @DynamicPropertySource
+    static void storageDir(DynamicPropertyRegistry registry) {
+        registry.add("images.storage-dir", () -> storageDir.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImageService imageService;
+    @MockBean
+    private AppUserService appUserService;
+    @MockBean
+    private BCryptPasswordEncoder bCryptPasswordEncoder;
+
+    private final MockMultipartFile file = new MockMultipartFile("file", "photo.png", "image/png", new byte[]{1, 2, 3});
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void upload_shouldReturnVariantUrlsAsynchronously() throws Exception {
+        when(imageService.store(any())).thenReturn(CompletableFuture.completedFuture(
+                new StoredImage("0123456789abcdef01234567", Map.of("hero", HERO))));
+
+        MvcResult result = mockMvc.perform(multipart("/admin/images").file(file).with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value(HERO))
+                .andExpect(jsonPath("$.variants.hero").value(HERO));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void upload_whenFileIsNotAnImage_shouldReturnBadRequest() throws Exception {
+        when(imageService.store(any())).thenReturn(CompletableFuture.failedFuture(
+                new IllegalArgumentException("Файлът не е поддържано изображение.")));
+
+        MvcResult result = mockMvc.perform(multipart("/admin/images").file(file).with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Файлът не е поддържано изображение."));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void upload_whenQueueIsFull_shouldReturnServiceUnavailable() throws Exception {
+        when(imageService.store(any())).thenThrow(new RejectedExecutionException());
+
+        MvcResult result = mockMvc.perform(multipart("/admin/images").file(file).with(csrf())).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void upload_whenFileIsEmpty_shouldNotProcess() throws Exception {
+        MockMultipartFile empty = new MockMultipartFile("file", "photo.png", "image/png", new byte[0]);
+
+        MvcResult result = mockMvc.perform(multipart("/admin/images").file(empty).with(csrf())).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+        verify(imageService, never()).store(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void upload_whenNotAdmin_shouldBeForbidden() throws Exception {
+        mockMvc.perform(multipart("/admin/images").file(file).with(csrf()))
+                .andExpect(status().isForbidden());
+        verify(imageService, never()).store(any());
+    }
+
+    @Test
+    void variant_shouldBeServedWithoutLoginAndWithImmutableCacheHeaders() throws Exception {
+        Files.write(storageDir.resolve("0123456789abcdef01234567-card.jpg"), new byte[]{1, 2, 3});
+
+        mockMvc.perform(get("/media/images/0123456789abcdef01234567-card.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+}
@@ -0,0 +1,56 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за класа TrendingViewFilter.
+ * Проверява кои заявки се отчитат като разглеждане.
+ */
+class TrendingViewFilterTest {
+
+    private TrendingTracker tracker;
+    private TrendingViewFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new TrendingTracker(new TrendingProperties());
+        filter = new TrendingViewFilter(tracker);
+    }
+
+    @Test
+    void successfulOrNotModifiedDetailPages_shouldBeCounted() throws Exception {
+        perform("GET", "/blog/detail/3", 200);
+        perform("GET", "/blog/detail/3", 304);
+        perform("GET", "/courses/view/8", 200);
+
+        tracker.refresh(0);
+
+        assertEquals(List.of(3L), tracker.top(TrendingKind.BLOG));
+        assertEquals(List.of(8L), tracker.top(TrendingKind.COURSE));
+        assertEquals(2.0, tracker.snapshot(1).get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    void otherRequests_shouldNotBeCounted() throws Exception {
+        perform("GET", "/blog/detail/3", 404);
+        perform("POST", "/blog/detail/3", 200);
+        perform("GET", "/blog/detail/abc", 200);
+        perform("GET", "/blog", 200);
+        perform("GET", "/courses/view/8/extra", 200);
+
+        assertEquals(0, tracker.size());
+    }
+
+    private void perform(String method, String uri, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> ((MockHttpServletResponse) res).setStatus(status));
+    }
+}
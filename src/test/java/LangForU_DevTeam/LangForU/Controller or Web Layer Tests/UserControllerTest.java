@@ -1,7 +1,11 @@
 package LangForU_DevTeam.LangForU.appuser;
 
+import LangForU_DevTeam.LangForU.blog.BlogPostSummary;
 import LangForU_DevTeam.LangForU.courses.CourseService;
+import LangForU_DevTeam.LangForU.courses.CourseSummary;
+import LangForU_DevTeam.LangForU.courses.Level;
 import LangForU_DevTeam.LangForU.security.config.WebSecurityConfig;
+import LangForU_DevTeam.LangForU.trending.TrendingService;
 // Добавете този импорт
 import org.springdoc.core.configuration.SpringDocConfiguration;
 import org.junit.jupiter.api.Test;
@@ -10,9 +14,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
@@ -31,6 +48,9 @@ public class UserControllerTest {
     @MockBean
     private CourseService courseService;
 
+    @MockBean
+    private TrendingService trendingService;
+
     @MockBean
     private BCryptPasswordEncoder bCryptPasswordEncoder;
 
@@ -41,4 +61,33 @@ public class UserControllerTest {
                 .andExpect(view().name("about"));
     }
 
+    @Test
+    public void testIndexShowsTrendingCoursesAndPosts() throws Exception {
+        when(courseService.getActiveCourseCards()).thenReturn(List.of());
+        when(trendingService.getTrendingCourses()).thenReturn(List.of(new CourseSummary(3L, "Немски", Level.B1, null)));
+        when(trendingService.getTrendingBlogs()).thenReturn(List.of(new BlogPostSummary(7L, "Глаголи", null, LocalDate.now())));
+
+        mockMvc.perform(get("/index"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attributeExists("trendingCourses", "trendingPosts"))
+                .andExpect(content().string(containsString("Популярни сега")))
+                .andExpect(content().string(containsString("/courses/view/3")))
+                .andExpect(content().string(containsString("/blog/detail/7")));
+    }
+
+    @Test
+    @WithMockUser(username = "user@test.com")
+    public void testUpdateDigestPreference() throws Exception {
+        AppUser user = new AppUser("user@test.com", "password123", "User", LocalDate.of(1990, 1, 1), "Female", AppUserRole.USER);
+        when(appUserService.loadUserByUsername("user@test.com")).thenReturn(user);
+
+        mockMvc.perform(post("/profile/digest").param("enabled", "true").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/profile"));
+
+        assertTrue(user.getDigestOptIn());
+        verify(appUserService).save(user);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Измерва времето за изграждане на индекса за търсене в блога и средното време за заявка при 100 000 публикации.
+ * Стартира се само при {@code mvn test -Dperf=true}.
+ */
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+class BlogSearchIndexPerfTest {
+
+    private static final int POSTS = 100_000;
+    private static final String[] WORDS = {
+            "граматика", "урок", "английски", "испански", "немски", "думи", "произношение", "изпит", "учител",
+            "упражнение", "четене", "писане", "разговор", "пътуване", "култура", "глагол", "време", "съвет",
+            "grammar", "vocabulary", "exam", "travel", "listening", "speaking"};
+
+    @Test
+    void search_latencyOn100kPosts() {
+        BlogSearchIndex searchIndex = new BlogSearchIndex(mock(BlogRepository.class));
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        for (long id = 1; id <= POSTS; id++) {
+            Blog blog = new Blog();
+            blog.setId(id);
+            blog.setName(words(random, 5) + " " + id);
+            blog.setShortExplanation(words(random, 20));
+            blog.setBlogText(words(random, 200));
+            blog.setTags(List.of(WORDS[random.nextInt(WORDS.length)]));
+            searchIndex.index(blog);
+        }
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Рядък термин (номер на публикация в заглавието) и чест термин от речника.
+        String[] queries = {"12345", "учителите 777", "произношение", "граматика испански"};
+        for (String query : queries) {
+            for (int i = 0; i < 20; i++) {
+                searchIndex.search(query, 0, 10); // Загряване.
+            }
+            int iterations = 200;
+            long queryStart = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                searchIndex.search(query, 0, 10);
+            }
+            double avgMs = (System.nanoTime() - queryStart) / 1_000_000.0 / iterations;
+            System.out.printf("Търсене в блога (%d публикации, изграждане %d ms): '%s' - %.3f ms%n", POSTS, buildMs, query, avgMs);
+        }
+        assertTrue(searchIndex.search("12345", 0, 10).getIds().contains(12345L));
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+}
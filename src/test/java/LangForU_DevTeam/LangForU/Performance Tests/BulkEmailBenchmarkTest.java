@@ -0,0 +1,79 @@
+package LangForU_DevTeam.LangForU.email;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнява изпращането по един имейл на SMTP връзка с масовото изпращане през {@link BulkEmailService}
+ * срещу локален SMTP сървър (GreenMail).
+ * Стартира се само при {@code mvn test -Dperf=true}.
+ */
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+class BulkEmailBenchmarkTest {
+
+    private static final int RECIPIENTS = 1000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication())
+            .withPerMethodLifecycle(true);
+
+    private EmailService emailService;
+    private BulkEmailService bulkEmailService;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        MailDispatchProperties properties = new MailDispatchProperties();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getBulkConcurrency());
+        executor.initialize();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        emailService = new EmailService(mailSender, meterRegistry);
+        bulkEmailService = new BulkEmailService(emailService, properties, executor, meterRegistry);
+    }
+
+    @Test
+    void bulkSend_shouldBeFasterThanOneConnectionPerMessage() {
+        List<OutgoingEmail> emails = new ArrayList<>();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            emails.add(new OutgoingEmail("user" + i + "@example.com", "<p>Нова публикация " + i + "</p>"));
+        }
+
+        long start = System.nanoTime();
+        for (OutgoingEmail email : emails) {
+            emailService.deliver(email.getTo(), email.getBody());
+        }
+        long perMessageMs = (System.nanoTime() - start) / 1_000_000;
+
+        greenMail.reset();
+
+        start = System.nanoTime();
+        BulkSendResult result = bulkEmailService.sendAll(emails);
+        long bulkMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("SMTP: %d имейла - по една връзка: %d ms, масово: %d ms%n", RECIPIENTS, perMessageMs, bulkMs);
+
+        assertEquals(RECIPIENTS, result.getSentCount());
+        assertEquals(RECIPIENTS, greenMail.getReceivedMessages().length);
+        assertTrue(bulkMs < perMessageMs);
+    }
+}
@@ -0,0 +1,115 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import LangForU_DevTeam.LangForU.lections.Lection;
+import LangForU_DevTeam.LangForU.pagecache.PageCacheProperties;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import LangForU_DevTeam.LangForU.question.Question;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Натоварващ тест за масовото импортиране на курсове: сравнява записа на архив с 20 курса
+ * (по 20 лекции с по 10 упражнения с по 4 възможни отговора) с JDBC партиди ({@link CourseImportService})
+ * и със запис на същите ентитети едно по едно през JPA (H2 в паметта). Отпечатва редовете за секунда.
+ * Стартира се само при {@code mvn test -Dperf=true}.
+ */
+@DataJpaTest
+@Import({CourseImportService.class, ActiveCourseCatalog.class, CourseSearchIndex.class, RenderedPageCache.class,
+        PageCacheProperties.class, ValidationAutoConfiguration.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+class CourseImportPerfTest {
+
+    private static final int COURSES = 20;
+    private static final int LECTIONS = 20;
+    private static final int QUESTIONS = 10;
+    private static final List<String> ANSWERS = List.of("a", "b", "c", "d");
+    private static final LocalDate START = LocalDate.now().plusMonths(1);
+    private static final LocalDate END = START.plusMonths(6);
+
+    @Autowired
+    private CourseImportService courseImportService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void importArchive_shouldWriteRowsInBatches() {
+        CourseImportReport report = courseImportService.importArchive(archive());
+
+        long begin = System.nanoTime();
+        for (Course course : entities()) {
+            courseRepository.save(course);
+        }
+        entityManager.flush();
+        long jpaMillis = Math.max(1, (System.nanoTime() - begin) / 1_000_000);
+
+        System.out.printf("Импортиране с JDBC партиди: %s%n", report);
+        System.out.printf("Запис едно по едно през JPA: %d реда за %d ms (%d реда/с)%n",
+                report.getRows(), jpaMillis, report.getRows() * 1000L / jpaMillis);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals(COURSES * LECTIONS * QUESTIONS, report.getQuestions());
+        assertEquals(2 * COURSES * LECTIONS * QUESTIONS, jdbc.queryForObject("SELECT COUNT(*) FROM questions", Integer.class));
+        assertEquals(2 * COURSES * LECTIONS * QUESTIONS * ANSWERS.size(),
+                jdbc.queryForObject("SELECT COUNT(*) FROM question_possible_answers", Integer.class));
+    }
+
+    private static CourseArchive archive() {
+        List<CourseArchive.CourseEntry> courses = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) {
+            List<CourseArchive.LectionEntry> lections = new ArrayList<>();
+            for (int l = 0; l < LECTIONS; l++) {
+                List<CourseArchive.QuestionEntry> questions = new ArrayList<>();
+                for (int q = 0; q < QUESTIONS; q++) {
+                    questions.add(new CourseArchive.QuestionEntry("Въпрос " + q, ANSWERS, "a"));
+                }
+                lections.add(new CourseArchive.LectionEntry("Лекция " + l, "Тема", null, "Лесно", START.plusDays(l),
+                        null, "", "Резюме.", questions));
+            }
+            courses.add(new CourseArchive.CourseEntry("Език " + c, Level.B1, 100f, START, END, "Описание.",
+                    "Иван Петров", "Мария Иванова", "Петър Колев", "/img/course.png", 5, null, lections, null));
+        }
+        return new CourseArchive(courses);
+    }
+
+    private static List<Course> entities() {
+        List<Course> courses = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) {
+            Course course = new Course(null, "Език " + c, Level.B1, 100f, START, END, "Описание.",
+                    "Иван Петров", "Мария Иванова", "Петър Колев", "/img/course.png", 5, null, null);
+            for (int l = 0; l < LECTIONS; l++) {
+                Lection lection = new Lection(null, "Лекция " + l, "Тема", null, "Лесно", START.plusDays(l),
+                        null, new ArrayList<>(), "", "Резюме.", course);
+                for (int q = 0; q < QUESTIONS; q++) {
+                    Question question = new Question("Въпрос " + q, new ArrayList<>(ANSWERS), "a");
+                    question.setLection(lection);
+                    lection.getQuestions().add(question);
+                }
+                course.getLections().add(lection);
+            }
+            courses.add(course);
+        }
+        return courses;
+    }
+}
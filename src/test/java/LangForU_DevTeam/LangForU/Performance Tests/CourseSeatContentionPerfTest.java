@@ -0,0 +1,128 @@
+package LangForU_DevTeam.LangForU.singUpForCourse;
+
+import LangForU_DevTeam.LangForU.courses.Course;
+import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.courses.Level;
+import LangForU_DevTeam.LangForU.exceptions.CourseFullException;
+import LangForU_DevTeam.LangForU.security.encryption.EncryptionService;
+import LangForU_DevTeam.LangForU.trending.TrendingProperties;
+import LangForU_DevTeam.LangForU.trending.TrendingTracker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Натоварващ тест за записването в курс с ограничен брой места: 500 потребители се записват едновременно
+ * за курс със 100 места (H2 в паметта). Проверява, че са приети точно 100 заявки - без надхвърляне на местата
+ * и без загубени места - и отпечатва пропускателната способност.
+ * Стартира се само при {@code mvn test -Dperf=true}.
+ */
+@DataJpaTest
+@Import({UserCourseRequestService.class, EncryptionService.class, TrendingTracker.class, TrendingProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Всяко записване е в собствена трансакция, както в приложението.
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+class CourseSeatContentionPerfTest {
+
+    private static final int SIGNUPS = 500;
+    private static final int SEATS = 100;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserCourseRequestService userCourseRequestService;
+
+    @Test
+    void createRequest_withConcurrentSignups_neverOverbooks() throws InterruptedException {
+        Long courseId = seedCourse();
+        List<Long> userIds = seedUsers();
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(SIGNUPS);
+        ExecutorService executor = Executors.newFixedThreadPool(SIGNUPS);
+        for (Long userId : userIds) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    userCourseRequestService.createRequest(userId, courseId, "1234567890", "Български гражданин");
+                    accepted.incrementAndGet();
+                } catch (CourseFullException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        assertTrue(done.await(2, TimeUnit.MINUTES), "Записванията не приключиха навреме.");
+        long elapsedMs = Math.max(1, (System.nanoTime() - begin) / 1_000_000);
+        executor.shutdown();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        int seatsTaken = jdbc.queryForObject("SELECT seats_taken FROM course WHERE id = ?", Integer.class, courseId);
+        int requests = jdbc.queryForObject("SELECT COUNT(*) FROM user_course_request WHERE course_id = ?", Integer.class, courseId);
+        System.out.printf("Записване в курс с %d места: %d едновременни заявки - %d приети, %d отказани, %d грешки за %d ms (%.0f заявки/с)%n",
+                SEATS, SIGNUPS, accepted.get(), rejected.get(), failed.get(), elapsedMs, SIGNUPS * 1000.0 / elapsedMs);
+
+        assertEquals(0, failed.get());
+        assertEquals(SEATS, accepted.get());
+        assertEquals(SIGNUPS - SEATS, rejected.get());
+        assertEquals(SEATS, seatsTaken);
+        assertEquals(SEATS, requests);
+    }
+
+    private Long seedCourse() {
+        Course course = new Course(null, "English", Level.B1, 100.0f,
+                LocalDate.now(), LocalDate.now().plusMonths(3), "English course",
+                "Main", "Assistant", "Tech", "http://example.com/en.jpg", 5, null, null);
+        course.setSeatLimit(SEATS);
+        return courseRepository.saveAndFlush(course).getId();
+    }
+
+    /**
+     * Потребителите се добавят директно през JDBC на партида, за да е бърза подготовката.
+     */
+    private List<Long> seedUsers() {
+        List<Long> ids = new ArrayList<>(SIGNUPS);
+        List<Object[]> users = new ArrayList<>(SIGNUPS);
+        for (long id = 1_000; id < 1_000 + SIGNUPS; id++) {
+            ids.add(id);
+            users.add(new Object[]{id, "user" + id + "@test.com", "password123", "User " + id,
+                    Date.valueOf(LocalDate.of(1990, 1, 1)), "Female", "USER", true});
+        }
+        new JdbcTemplate(dataSource).batchUpdate("INSERT INTO app_user (id, email, password, name, date_of_birth, gender, app_user_role, enabled) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", users);
+        return ids;
+    }
+}
@@ -0,0 +1,62 @@
+package LangForU_DevTeam.LangForU.email;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH бенчмарк: генериране на известия за нова лекция за 10 000 получатели
+ * чрез предишната имплементация (конкатенация) и чрез компилираните шаблони.
+ * Стартира се само при {@code mvn test -Dperf=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class EmailTemplateBenchmark {
+
+    private static final int RECIPIENTS = 10_000;
+
+    private final LegacyEmailTemplateService legacy = new LegacyEmailTemplateService();
+    private final EmailTemplateService compiled = new EmailTemplateService();
+    private final String[] names = new String[RECIPIENTS];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < RECIPIENTS; i++) {
+            names[i] = "Потребител " + i;
+        }
+    }
+
+    @Benchmark
+    public void legacyConcatenation(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(legacy.buildEmail_NewLectionNotification(name, "Английски", "Урок 5", "http://localhost:8080/lections/view/5"));
+        }
+    }
+
+    @Benchmark
+    public void compiledTemplate(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(compiled.buildEmail_NewLectionNotification(name, "Английски", "Урок 5", "http://localhost:8080/lections/view/5"));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "perf", matches = "true")
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+package LangForU_DevTeam.LangForU.taskService;
+
+import LangForU_DevTeam.LangForU.courses.Course;
+import LangForU_DevTeam.LangForU.courses.Level;
+import LangForU_DevTeam.LangForU.digest.DigestService;
+import LangForU_DevTeam.LangForU.email.BulkEmailService;
+import LangForU_DevTeam.LangForU.email.BulkSendResult;
+import LangForU_DevTeam.LangForU.email.EmailTemplateService;
+import LangForU_DevTeam.LangForU.email.OutgoingEmail;
+import LangForU_DevTeam.LangForU.lections.Lection;
+import LangForU_DevTeam.LangForU.lections.LectionService;
+import LangForU_DevTeam.LangForU.pagecache.PageCacheProperties;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Измерва времетраенето на ежедневната задача за известия за нови лекции при 10 000 и 100 000 записани
+ * потребители (H2 в паметта). SMTP изпращането е заменено със заместител, така че се измерват
+ * заявките към базата и генерирането на имейлите.
+ * Стартира се само при {@code mvn test -Dperf=true}.
+ */
+@DataJpaTest
+@Import({LectionService.class, RenderedPageCache.class, PageCacheProperties.class})
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+class LectionNotificationJobPerfTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private LectionService lectionService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    void notifyAvailableLections_runtime(int enrolments) {
+        seed(enrolments);
+
+        AtomicInteger dispatched = new AtomicInteger();
+        BulkEmailService bulkEmailService = mock(BulkEmailService.class);
+        when(bulkEmailService.sendAll(anyList())).thenAnswer(invocation -> {
+            List<OutgoingEmail> emails = invocation.getArgument(0);
+            dispatched.addAndGet(emails.size());
+            return new BulkSendResult();
+        });
+        ScheduledTaskService job = new ScheduledTaskService(lectionService, bulkEmailService,
+                new EmailTemplateService(), new LectionNotificationProperties(), mock(DigestService.class));
+
+        long start = System.nanoTime();
+        job.notifyAvailableLections();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Известия за нови лекции: %d записани потребители - %d ms%n", enrolments, elapsedMs);
+        assertEquals(enrolments, dispatched.get());
+    }
+
+    /**
+     * Създава един курс с лекция за днес и записва в него дадения брой потребители.
+     * Потребителите се добавят директно през JDBC на партиди, за да е бърза подготовката.
+     */
+    private void seed(int enrolments) {
+        Course course = new Course(null, "English", Level.B1, 100.0f,
+                LocalDate.now(), LocalDate.now().plusMonths(3), "English course",
+                "Main", "Assistant", "Tech", "http://example.com/en.jpg", 5, null, null);
+        entityManager.persist(course);
+
+        Lection lection = new Lection();
+        lection.setName("Present Perfect");
+        lection.setTheme("Grammar");
+        lection.setReleaseDate(LocalDate.now());
+        lection.setCourse(course);
+        lection.setDifficultyLevel("Medium");
+        lection.setSummary("Summary");
+        lection.setAdditionalResources("Resources");
+        entityManager.persist(lection);
+        entityManager.flush();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<Object[]> users = new ArrayList<>(enrolments);
+        List<Object[]> links = new ArrayList<>(enrolments);
+        for (long id = 1_000; id < 1_000 + enrolments; id++) {
+            users.add(new Object[]{id, "user" + id + "@test.com", "password123", "User " + id,
+                    Date.valueOf(LocalDate.of(1990, 1, 1)), "Female", "USER", true});
+            links.add(new Object[]{id, course.getId()});
+        }
+        jdbc.batchUpdate("INSERT INTO app_user (id, email, password, name, date_of_birth, gender, app_user_role, enabled) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", users);
+        jdbc.batchUpdate("INSERT INTO user_courses (user_id, course_id) VALUES (?, ?)", links);
+    }
+}
@@ -0,0 +1,191 @@
+package LangForU_DevTeam.LangForU.Data_Layer_Tests;
+
+import LangForU_DevTeam.LangForU.appuser.AppUser;
+import LangForU_DevTeam.LangForU.appuser.AppUserRole;
+import LangForU_DevTeam.LangForU.blog.Blog;
+import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.coment.BlogCommentPage;
+import LangForU_DevTeam.LangForU.coment.BlogCommentView;
+import LangForU_DevTeam.LangForU.coment.Blog_Comment;
+import LangForU_DevTeam.LangForU.coment.Blog_Comment_Repository;
+import LangForU_DevTeam.LangForU.coment.Blog_Comment_Service;
+import LangForU_DevTeam.LangForU.pagecache.PageCacheProperties;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({Blog_Comment_Service.class, RenderedPageCache.class, PageCacheProperties.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BlogCommentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private Blog_Comment_Repository commentRepository;
+
+    @Autowired
+    private Blog_Comment_Service commentService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    private AppUser reader;
+    private Blog blog;
+    private Blog otherBlog;
+    private int minute;
+
+    // Нишки (от най-новата): C с отговори r1..r4 (r1 -> n1 -> nn1), B без отговори, A с отговор a1.
+    private Blog_Comment a, a1, b, c, r1, r2, r3, r4, n1, nn1;
+
+    @BeforeEach
+    public void setUp() {
+        reader = new AppUser("reader@test.com", "password123", "Reader",
+                LocalDate.now().minusYears(25), "Female", AppUserRole.USER, true);
+        reader.setProfilePicture("/img/avatars/reader.png");
+        entityManager.persist(reader);
+
+        blog = persistBlog("Learning Tips");
+        otherBlog = persistBlog("Grammar");
+
+        a = comment(blog, "A", null);
+        b = comment(blog, "B", null);
+        c = comment(blog, "C", null);
+        a1 = comment(blog, "a1", a);
+        r1 = comment(blog, "r1", c);
+        r2 = comment(blog, "r2", c);
+        n1 = comment(blog, "n1", r1);
+        r3 = comment(blog, "r3", c);
+        nn1 = comment(blog, "nn1", n1);
+        r4 = comment(blog, "r4", c);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void whenFindThreadPage_thenReturnThreadsWithFirstRepliesInOneQuery() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BlogCommentPage first = commentService.findThreadPage(blog.getId(), null, 2, 3);
+
+        assertThat(first.getComments()).extracting(BlogCommentView::getCommentText)
+                .containsExactly("C", "r1", "r2", "r3", "B");
+        assertThat(first.getNextCursor()).isEqualTo(b.getId());
+        // Една заявка (един интервал от индекса по пътя) - без рекурсия и без зареждане на потребителите.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        BlogCommentView thread = first.getComments().get(0);
+        assertThat(thread.getAuthorName()).isEqualTo("Reader");
+        assertThat(thread.getParentId()).isNull();
+        assertThat(thread.getReplyCount()).isEqualTo(4);
+        assertThat(thread.getDescendantCount()).isEqualTo(6);
+        assertThat(first.getComments().get(1).getParentId()).isEqualTo(c.getId());
+        assertThat(first.getComments().get(1).getDepth()).isEqualTo(1);
+
+        BlogCommentPage last = commentService.findThreadPage(blog.getId(), first.getNextCursor(), 2, 3);
+        assertThat(last.getComments()).extracting(BlogCommentView::getCommentText).containsExactly("A", "a1");
+        assertThat(last.getNextCursor()).isNull();
+
+        assertThat(commentService.countByBlogId(blog.getId())).isEqualTo(10);
+    }
+
+    @Test
+    public void whenFindReplies_thenReturnWholeSubtreeInDisplayOrder() {
+        assertThat(commentService.findReplies(blog.getId(), c.getId()))
+                .extracting(BlogCommentView::getCommentText)
+                .containsExactly("r1", "n1", "nn1", "r2", "r3", "r4");
+        assertThat(commentService.findReplies(blog.getId(), r1.getId()))
+                .extracting(BlogCommentView::getDepth)
+                .containsExactly(2, 3);
+        assertThat(commentService.findReplies(blog.getId(), b.getId())).isEmpty();
+        assertThat(commentService.findReplies(otherBlog.getId(), c.getId())).isEmpty();
+    }
+
+    @Test
+    public void whenReplySaved_thenPositionsAndAncestorCountsAreUpdated() {
+        assertThat(commentRepository.findById(r4.getId()).orElseThrow().getPosition()).isEqualTo(4);
+        Blog_Comment reply = commentRepository.findById(r1.getId()).orElseThrow();
+        assertThat(reply.getReplyCount()).isEqualTo(1);
+        assertThat(reply.getDescendantCount()).isEqualTo(2);
+        assertThat(commentRepository.findById(n1.getId()).orElseThrow().getDescendantCount()).isEqualTo(1);
+        assertThat(commentRepository.findById(b.getId()).orElseThrow().getDescendantCount()).isZero();
+    }
+
+    @Test
+    public void whenReplyIsDeeperThanAllowed_thenAttachToLastAllowedLevel() {
+        Blog_Comment parent = commentRepository.findById(nn1.getId()).orElseThrow();
+        for (int i = 0; i < 10; i++) {
+            parent = comment(blog, "deep " + i, parent);
+        }
+
+        assertThat(parent.getDepth()).isEqualTo(7);
+        assertThat(commentRepository.findById(c.getId()).orElseThrow().getDescendantCount()).isEqualTo(16);
+    }
+
+    @Test
+    public void whenCommentSaved_thenBlogIsMarkedModified() {
+        LocalDateTime before = LocalDateTime.now().minusDays(1);
+        blogRepository.markModified(otherBlog.getId(), before);
+
+        comment(otherBlog, "First!", null);
+
+        assertThat(blogRepository.findLastModifiedById(otherBlog.getId())).get()
+                .satisfies(lastModified -> assertThat(lastModified).isAfter(before));
+    }
+
+    @Test
+    public void whenReplyTargetsCommentOfAnotherBlog_thenThrow() {
+        Blog_Comment reply = new Blog_Comment();
+        reply.setBlog(otherBlog);
+        reply.setUser(reader);
+        reply.setCommentText("Wrong thread");
+
+        assertThatThrownBy(() -> commentService.save(reply, c.getId())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void whenBlogWithRepliesDeleted_thenCommentsAreDeleted() {
+        blogRepository.detachCommentReplies(blog.getId());
+        blogRepository.delete(blogRepository.findById(blog.getId()).orElseThrow());
+        entityManager.flush();
+
+        assertThat(commentService.countByBlogId(blog.getId())).isZero();
+    }
+
+    private Blog persistBlog(String name) {
+        Blog post = new Blog();
+        post.setName(name);
+        post.setShortExplanation("A short explanation.");
+        post.setBlogText("Some text.");
+        post.setDate(LocalDate.now());
+        post.setAuthor(reader);
+        return entityManager.persist(post);
+    }
+
+    private Blog_Comment comment(Blog post, String text, Blog_Comment parent) {
+        Blog_Comment comment = new Blog_Comment();
+        comment.setBlog(post);
+        comment.setUser(reader);
+        comment.setCommentText(text);
+        comment.setCommentedAt(LocalDateTime.of(2025, 1, 1, 10, minute++));
+        commentService.save(comment, parent == null ? null : parent.getId());
+        return comment;
+    }
+}
@@ -0,0 +1,102 @@
+package LangForU_DevTeam.LangForU.Data_Layer_Tests;
+
+import LangForU_DevTeam.LangForU.appuser.AppUser;
+import LangForU_DevTeam.LangForU.appuser.AppUserRole;
+import LangForU_DevTeam.LangForU.blog.Blog;
+import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.like.Blog_Like_Repository;
+import LangForU_DevTeam.LangForU.like.Blog_Like_Service;
+import LangForU_DevTeam.LangForU.pagecache.PageCacheProperties;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import LangForU_DevTeam.LangForU.trending.TrendingProperties;
+import LangForU_DevTeam.LangForU.trending.TrendingTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({Blog_Like_Service.class, RenderedPageCache.class, PageCacheProperties.class, TrendingTracker.class, TrendingProperties.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BlogLikeRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private Blog_Like_Repository blogLikeRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private Blog_Like_Service blogLikeService;
+
+    private Blog blog;
+    private AppUser user;
+
+    @BeforeEach
+    public void setUp() {
+        user = new AppUser("reader@test.com", "password123", "Reader",
+                LocalDate.now().minusYears(25), "Female", AppUserRole.USER, true);
+        entityManager.persist(user);
+
+        blog = new Blog();
+        blog.setName("Learning Tips");
+        blog.setShortExplanation("A short explanation.");
+        blog.setBlogText("Some text.");
+        blog.setDate(LocalDate.now());
+        blog.setAuthor(user);
+        blog.setCategories(List.of("Education"));
+        blog.setTags(List.of("tips"));
+        entityManager.persist(blog);
+        entityManager.flush();
+    }
+
+    @Test
+    public void whenInsertIfAbsentTwice_thenOnlyOneLikeIsStored() {
+        int first = blogLikeRepository.insertIfAbsent(blog.getId(), user.getId(), LocalDateTime.now());
+        int second = blogLikeRepository.insertIfAbsent(blog.getId(), user.getId(), LocalDateTime.now());
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(blogLikeRepository.countByBlogId(blog.getId())).isEqualTo(1);
+    }
+
+    @Test
+    public void whenToggle_thenCounterFollowsLikeRows() {
+        boolean liked = blogLikeService.toggle(blog.getId(), user.getId());
+        assertThat(liked).isTrue();
+        assertThat(likeCount()).isEqualTo(1);
+        assertThat(blogLikeService.isLikedBy(blog.getId(), user.getId())).isTrue();
+
+        boolean likedAgain = blogLikeService.toggle(blog.getId(), user.getId());
+        assertThat(likedAgain).isFalse();
+        assertThat(likeCount()).isZero();
+        assertThat(blogLikeRepository.countByBlogId(blog.getId())).isZero();
+    }
+
+    @Test
+    public void whenResyncLikeCounts_thenCounterMatchesLikeRows() {
+        blogLikeRepository.insertIfAbsent(blog.getId(), user.getId(), LocalDateTime.now());
+
+        assertThat(blogRepository.resyncLikeCounts()).isEqualTo(1);
+        assertThat(likeCount()).isEqualTo(1);
+
+        assertThat(blogRepository.resyncLikeCounts()).isZero();
+    }
+
+    private int likeCount() {
+        entityManager.clear();
+        return blogRepository.findById(blog.getId()).orElseThrow().getLikesCount();
+    }
+}
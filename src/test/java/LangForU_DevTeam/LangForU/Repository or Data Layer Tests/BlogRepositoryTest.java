@@ -3,24 +3,32 @@ package LangForU_DevTeam.LangForU.Data_Layer_Tests;
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.appuser.AppUserRole;
 import LangForU_DevTeam.LangForU.blog.Blog;
+import LangForU_DevTeam.LangForU.blog.BlogCard;
+import LangForU_DevTeam.LangForU.blog.BlogPostSummary;
 import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.blog.BlogTaxonomyService;
+import LangForU_DevTeam.LangForU.blog.TaxonomyAutocomplete;
+import LangForU_DevTeam.LangForU.coment.Blog_Comment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import({BlogTaxonomyService.class, TaxonomyAutocomplete.class})
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class BlogRepositoryTest {
 
@@ -30,6 +38,9 @@ public class BlogRepositoryTest {
     @Autowired
     private BlogRepository blogRepository;
 
+    @Autowired
+    private BlogTaxonomyService taxonomyService;
+
     private Blog blog1, blog2;
 
     @BeforeEach
@@ -46,6 +57,7 @@ public class BlogRepositoryTest {
         blog1.setAuthor(author);
         blog1.setCategories(List.of("Education"));
         blog1.setTags(List.of("tips", "learning"));
+        taxonomyService.assign(blog1);
         entityManager.persist(blog1);
 
         blog2 = new Blog();
@@ -56,6 +68,7 @@ public class BlogRepositoryTest {
         blog2.setAuthor(author);
         blog2.setCategories(List.of("Travel"));
         blog2.setTags(List.of("guide", "travel"));
+        taxonomyService.assign(blog2);
         entityManager.persist(blog2);
 
         entityManager.flush();
@@ -68,6 +81,78 @@ public class BlogRepositoryTest {
         assertThat(page.getContent()).hasSize(1).contains(blog1);
     }
 
+    @Test
+    public void whenFindCardsAfterStart_thenReturnNewestFirstWithAuthorAndCommentCount() {
+        for (int i = 0; i < 3; i++) {
+            Blog_Comment comment = new Blog_Comment();
+            comment.setBlog(blog2);
+            comment.setUser(blog2.getAuthor());
+            comment.setCommentText("Comment " + i);
+            comment.setCommentedAt(LocalDateTime.now());
+            entityManager.persist(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BlogCard> page = blogRepository.findCardsAfter(LocalDate.of(9999, 12, 31), Long.MAX_VALUE, PageRequest.of(0, 5));
+
+        assertThat(page).extracting(BlogCard::getId).containsExactly(blog1.getId(), blog2.getId());
+        BlogCard card = page.get(1);
+        assertThat(card.getName()).isEqualTo("Travel Guide");
+        assertThat(card.getAuthorName()).isEqualTo("Author");
+        assertThat(card.getCommentsCount()).isEqualTo(3);
+        assertThat(card.getLikesCount()).isZero();
+        assertThat(page.get(0).getCommentsCount()).isZero();
+    }
+
+    @Test
+    public void whenFindCardsAfterAndBeforeCursor_thenWalkByDateAndId() {
+        Blog sameDay = new Blog();
+        sameDay.setName("Same Day");
+        sameDay.setShortExplanation("Published on the same day as blog1.");
+        sameDay.setBlogText("Text.");
+        sameDay.setDate(blog1.getDate());
+        sameDay.setAuthor(blog1.getAuthor());
+        entityManager.persist(sameDay);
+        entityManager.flush();
+
+        // Подредба: sameDay (по-голямо ID), blog1, blog2.
+        List<BlogCard> afterFirst = blogRepository.findCardsAfter(sameDay.getDate(), sameDay.getId(), PageRequest.of(0, 5));
+        assertThat(afterFirst).extracting(BlogCard::getId).containsExactly(blog1.getId(), blog2.getId());
+
+        List<BlogCard> beforeLast = blogRepository.findCardsBefore(blog2.getDate(), blog2.getId(), PageRequest.of(0, 5));
+        assertThat(beforeLast).extracting(BlogCard::getId).containsExactly(blog1.getId(), sameDay.getId());
+    }
+
+    @Test
+    public void whenFindCardsByIdsAndFilteredFeeds_thenMatchContentAndCounts() {
+        List<BlogCard> byIds = blogRepository.findCardsByIds(List.of(blog2.getId()));
+        assertThat(byIds).extracting(BlogCard::getName).containsExactly("Travel Guide");
+
+        LocalDate start = LocalDate.of(9999, 12, 31);
+        List<BlogCard> byTag = blogRepository.findCardsByTagAfter("tips", start, Long.MAX_VALUE, PageRequest.of(0, 5));
+        assertThat(byTag).extracting(BlogCard::getId).containsExactly(blog1.getId());
+        assertThat(blogRepository.countByTag("tips")).isEqualTo(1);
+        assertThat(blogRepository.findCardsByTagBefore("tips", blog1.getDate(), blog1.getId(), PageRequest.of(0, 5))).isEmpty();
+
+        List<BlogCard> byCategory = blogRepository.findCardsByCategoryAfter("Travel", start, Long.MAX_VALUE, PageRequest.of(0, 5));
+        assertThat(byCategory).extracting(BlogCard::getId).containsExactly(blog2.getId());
+        assertThat(blogRepository.countByCategory("Travel")).isEqualTo(1);
+        assertThat(blogRepository.findCardsByCategoryBefore("Travel", blog2.getDate(), blog2.getId(), PageRequest.of(0, 5))).isEmpty();
+    }
+
+    @Test
+    public void whenFindSearchDocumentsAfter_thenReturnTextFieldsAndTagsById() {
+        List<Object[]> rows = blogRepository.findSearchDocumentsAfter(blog1.getId(), PageRequest.of(0, 10));
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsExactly(blog2.getId(), "Travel Guide",
+                "A short explanation for travel guide.", "Some text about traveling.");
+
+        List<Object[]> tags = blogRepository.findTagsByBlogIds(List.of(blog1.getId(), blog2.getId()));
+        assertThat(tags).hasSize(4);
+        assertThat(tags).anySatisfy(row -> assertThat(row).containsExactly(blog2.getId(), "travel"));
+    }
+
     @Test
     public void whenFindTop5ByOrderByDateDesc_thenReturnRecentBlogs() {
         List<Blog> recent = blogRepository.findTop5ByOrderByDateDesc();
@@ -75,6 +160,14 @@ public class BlogRepositoryTest {
         assertThat(recent.get(0)).isEqualTo(blog1);
     }
 
+    @Test
+    public void whenFindRecentPostSummaries_thenReturnNewestFirstWithinLimit() {
+        List<BlogPostSummary> recent = blogRepository.findRecentPostSummaries(PageRequest.of(0, 1));
+        assertThat(recent).hasSize(1);
+        assertThat(recent.get(0).getId()).isEqualTo(blog1.getId());
+        assertThat(recent.get(0).getName()).isEqualTo("Learning Tips");
+    }
+
     @Test
     public void whenFindFirstByIdLessThanOrderByIdDesc_thenReturnPreviousBlog() {
         Optional<Blog> previous = blogRepository.findFirstByIdLessThanOrderByIdDesc(blog2.getId()); // КОРЕКЦИЯ: blog1 -> blog2
@@ -90,9 +183,8 @@ public class BlogRepositoryTest {
     }
 
     @Test
-    public void whenFindTop5Categories_thenReturnAggregatedCategories() {
-        List<Object[]> categories = blogRepository.findTop5Categories();
-        assertThat(categories).hasSize(2);
-        assertThat(categories.stream().map(o -> o[0].toString())).contains("Education", "Travel");
+    public void whenGetMostUsedCategories_thenReturnCategoriesFromCounters() {
+        List<String> categories = taxonomyService.getMostUsedCategories(6);
+        assertThat(categories).containsExactly("Education", "Travel");
     }
 }
\ No newline at end of file
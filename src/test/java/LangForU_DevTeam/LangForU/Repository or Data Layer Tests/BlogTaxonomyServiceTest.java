@@ -0,0 +1,161 @@
+package LangForU_DevTeam.LangForU.Data_Layer_Tests;
+
+import LangForU_DevTeam.LangForU.appuser.AppUser;
+import LangForU_DevTeam.LangForU.appuser.AppUserRole;
+import LangForU_DevTeam.LangForU.blog.Blog;
+import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.blog.BlogTaxonomyService;
+import LangForU_DevTeam.LangForU.blog.TaxonomyAutocomplete;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({BlogTaxonomyService.class, TaxonomyAutocomplete.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BlogTaxonomyServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogTaxonomyService taxonomyService;
+
+    @Autowired
+    private TaxonomyAutocomplete autocomplete;
+
+    private AppUser author;
+
+    @BeforeEach
+    public void setUp() {
+        author = new AppUser("author@test.com", "password123", "Author",
+                LocalDate.now().minusYears(30), "Male", AppUserRole.USER, true);
+        entityManager.persist(author);
+    }
+
+    @Test
+    public void whenAssign_thenNamesAreNormalizedAndCountersIncremented() {
+        Blog first = blog("First", List.of("Grammar"), Arrays.asList(" tips ", "tips", "", null, "verbs"));
+        Blog second = blog("Second", List.of("Grammar", "Travel"), List.of("tips"));
+
+        assertThat(first.getTags()).containsExactly("tips", "verbs");
+        assertThat(usageCount("Tag", "tips")).isEqualTo(2);
+        assertThat(usageCount("Tag", "verbs")).isEqualTo(1);
+        assertThat(taxonomyService.getMostUsedCategories(6)).containsExactly("Grammar", "Travel");
+        assertThat(blogRepository.findCardsByTagAfter("verbs", LocalDate.of(9999, 12, 31), Long.MAX_VALUE, PageRequest.of(0, 5)))
+                .extracting("id").containsExactly(first.getId());
+        assertThat(second.getAssignedCategories()).hasSize(2);
+    }
+
+    @Test
+    public void whenAssignAfterEdit_thenOnlyChangedTagsAreAdjusted() {
+        Blog blog = blog("Post", List.of("Grammar"), List.of("tips", "verbs"));
+
+        blog.setTags(List.of("verbs", "nouns"));
+        blog.setCategories(List.of());
+        taxonomyService.assign(blog);
+        entityManager.flush();
+
+        assertThat(usageCount("Tag", "tips")).isZero();
+        assertThat(usageCount("Tag", "verbs")).isEqualTo(1);
+        assertThat(usageCount("Tag", "nouns")).isEqualTo(1);
+        assertThat(usageCount("Category", "Grammar")).isZero();
+        assertThat(taxonomyService.getMostUsedTags(10)).containsExactly("nouns", "verbs");
+        assertThat(taxonomyService.getMostUsedCategories(6)).isEmpty();
+    }
+
+    @Test
+    public void whenRelease_thenCountersOfDeletedBlogAreDecremented() {
+        Blog blog = blog("Post", List.of("Grammar"), List.of("tips"));
+        blog("Other", List.of("Grammar"), List.of());
+
+        taxonomyService.release(blog);
+        blogRepository.delete(blog);
+        entityManager.flush();
+
+        assertThat(usageCount("Tag", "tips")).isZero();
+        assertThat(usageCount("Category", "Grammar")).isEqualTo(1);
+        assertThat(blogRepository.countByTag("tips")).isZero();
+    }
+
+    @Test
+    public void whenAssign_thenAutocompleteSuggestsUsedNamesIgnoringCase() {
+        blog("First", List.of("Граматика"), List.of("Глаголи", "grammar"));
+        blog("Second", List.of("Граматика", "Глаголи"), List.of("Глаголи"));
+
+        // Дърветата се изграждат наново след потвърждаване на трансакцията.
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(autocomplete.suggestTags("гл", 8)).containsExactly("Глаголи");
+        assertThat(autocomplete.suggestTags("GR", 8)).containsExactly("grammar");
+        assertThat(autocomplete.suggestCategories("г", 8)).containsExactly("Граматика", "Глаголи");
+        assertThat(autocomplete.suggestCategories("x", 8)).isEmpty();
+    }
+
+    @Test
+    public void whenLegacyTablesExist_thenTagsAndCategoriesAreMigratedAndCounted() {
+        entityManager.getEntityManager().createNativeQuery("CREATE TABLE blog_tags (blog_id BIGINT NOT NULL, tags VARCHAR(255))").executeUpdate();
+        entityManager.getEntityManager().createNativeQuery("CREATE TABLE blog_categories (blog_id BIGINT NOT NULL, categories VARCHAR(255))").executeUpdate();
+        Blog first = blog("First", List.of(), List.of());
+        Blog second = blog("Second", List.of(), List.of());
+        insertLegacy("blog_tags", first.getId(), "tips");
+        insertLegacy("blog_tags", first.getId(), "verbs");
+        insertLegacy("blog_tags", second.getId(), "tips");
+        insertLegacy("blog_categories", second.getId(), "Grammar");
+
+        taxonomyService.migrateAndResyncCounts();
+        entityManager.clear();
+
+        assertThat(usageCount("Tag", "tips")).isEqualTo(2);
+        assertThat(usageCount("Tag", "verbs")).isEqualTo(1);
+        assertThat(blogRepository.countByCategory("Grammar")).isEqualTo(1);
+        assertThat(blogRepository.findById(first.getId()).orElseThrow().getTags()).containsExactly("tips", "verbs");
+    }
+
+    private Blog blog(String name, List<String> categories, List<String> tags) {
+        Blog blog = new Blog();
+        blog.setName(name);
+        blog.setShortExplanation("A short explanation.");
+        blog.setBlogText("Some text.");
+        blog.setDate(LocalDate.now());
+        blog.setAuthor(author);
+        blog.setCategories(categories);
+        blog.setTags(tags);
+        taxonomyService.assign(blog);
+        entityManager.persist(blog);
+        entityManager.flush();
+        return blog;
+    }
+
+    private void insertLegacy(String table, Long blogId, String name) {
+        String column = table.equals("blog_tags") ? "tags" : "categories";
+        entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO " + table + " (blog_id, " + column + ") VALUES (?1, ?2)")
+                .setParameter(1, blogId)
+                .setParameter(2, name)
+                .executeUpdate();
+    }
+
+    private long usageCount(String entity, String name) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT e.usageCount FROM " + entity + " e WHERE e.name = :name", Long.class)
+                .setParameter("name", name)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,177 @@
+package LangForU_DevTeam.LangForU.Data_Layer_Tests;
+
+import LangForU_DevTeam.LangForU.courses.*;
+import LangForU_DevTeam.LangForU.exceptions.InvalidCourseArchiveException;
+import LangForU_DevTeam.LangForU.lections.Lection;
+import LangForU_DevTeam.LangForU.pagecache.PageCacheProperties;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({CourseImportService.class, ActiveCourseCatalog.class, CourseSearchIndex.class, RenderedPageCache.class,
+        PageCacheProperties.class, ValidationAutoConfiguration.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class CourseImportServiceTest {
+
+    private static final LocalDate START = LocalDate.now().plusMonths(1);
+    private static final LocalDate END = START.plusMonths(3);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CourseImportService courseImportService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void whenJsonArchiveIsImported_thenCourseLectionsQuestionsAndFinalExamAreLinked() {
+        String json = """
+                {"courses": [{
+                  "language": "Английски", "level": "A1", "price": 120, "startDate": "%s", "endDate": "%s",
+                  "description": "Курс за начинаещи.", "mainInstructorName": "Иван Петров",
+                  "assistantInstructorName": "Мария Иванова", "technicianName": "Петър Колев",
+                  "pictureUrl": "/img/en.png", "seatLimit": 20,
+                  "lections": [
+                    {"name": "Поздрави", "theme": "Запознанство", "difficultyLevel": "Лесно", "releaseDate": "%s",
+                     "additionalResources": "", "summary": "Резюме.",
+                     "questions": [{"question": "Hello = ?", "possibleAnswers": ["Здравей", "Довиждане"], "correctAnswer": "Здравей"},
+                                   {"question": "Bye = ?", "correctAnswer": "Довиждане"}]},
+                    {"name": "Числа", "theme": "Броене", "difficultyLevel": "Лесно", "releaseDate": "%s",
+                     "additionalResources": "", "summary": "Резюме.", "questions": []}
+                  ],
+                  "finalExam": {"essayTopic": "За мен", "questions": [{"question": "One = ?", "correctAnswer": "Едно"}]}
+                }]}
+                """.formatted(START, END, START, START.plusWeeks(1));
+
+        CourseImportReport report = courseImportService.importArchive(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getCourses()).isEqualTo(1);
+        assertThat(report.getLections()).isEqualTo(2);
+        assertThat(report.getQuestions()).isEqualTo(3);
+        assertThat(report.getPossibleAnswers()).isEqualTo(2);
+        assertThat(report.getFinalExams()).isEqualTo(1);
+        assertThat(report.getRows()).isEqualTo(9);
+
+        entityManager.clear();
+        Course course = courseRepository.findAll().get(0);
+        assertThat(course.getLanguage()).isEqualTo("Английски");
+        assertThat(course.getSeatLimit()).isEqualTo(20);
+        assertThat(course.getSeatsTaken()).isZero();
+        assertThat(course.getLections()).extracting(Lection::getName).containsExactlyInAnyOrder("Поздрави", "Числа");
+        Lection greetings = course.getLections().stream().filter(l -> l.getName().equals("Поздрави")).findFirst().orElseThrow();
+        assertThat(greetings.getQuestions()).hasSize(2);
+        assertThat(greetings.getQuestions().stream().filter(q -> q.getQuestion().equals("Hello = ?")).findFirst().orElseThrow()
+                .getPossibleAnswers()).containsExactlyInAnyOrder("Здравей", "Довиждане");
+        assertThat(course.getFinalExam().getName()).isEqualTo("Финален изпит: Английски");
+        assertThat(course.getFinalExam().getExamDate()).isEqualTo(END);
+        assertThat(course.getFinalExam().getExamQuestions()).extracting("correctAnswer").containsExactly("Едно");
+    }
+
+    @Test
+    public void whenCourseIsSavedAfterImport_thenSequenceDoesNotReuseImportedIds() {
+        Long importedId = importCourses(2, 0, 0).get(0);
+
+        Course saved = courseRepository.saveAndFlush(new Course(null, "Немски", Level.B1, 90f, START, END, "Описание.",
+                "Иван", "Мария", "Петър", "/img/de.png", 0, null, null));
+
+        assertThat(saved.getId()).isGreaterThan(importedId + 1);
+        assertThat(courseRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void whenRowsSpanSeveralBatches_thenEveryQuestionKeepsItsLection() {
+        int lections = 3;
+        int questionsPerLection = 250; // 750 упражнения - повече от една партида.
+
+        importCourses(1, lections, questionsPerLection);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<String> mismatches = jdbc.queryForList("SELECT q.question FROM questions q JOIN lections l ON l.id = q.lection_id " +
+                "WHERE q.question NOT LIKE CONCAT(l.name, ':%')", String.class);
+        assertThat(mismatches).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM questions", Integer.class)).isEqualTo(lections * questionsPerLection);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM question_possible_answers", Integer.class))
+                .isEqualTo(lections * questionsPerLection * 2);
+    }
+
+    @Test
+    public void whenArchiveHasInvalidEntries_thenAllErrorsAreReportedAndNothingIsWritten() {
+        CourseArchive.CourseEntry valid = course("Английски");
+        CourseArchive.CourseEntry invalid = course("Немски");
+        invalid.setEndDate(START.minusDays(1));
+        CourseArchive.LectionEntry lection = lection("Поздрави", END.plusDays(1));
+        lection.getQuestions().add(new CourseArchive.QuestionEntry("Hello = ?", List.of("Здравей"), "Чао"));
+        invalid.getLections().add(lection);
+
+        assertThatThrownBy(() -> courseImportService.importArchive(new CourseArchive(List.of(valid, invalid))))
+                .isInstanceOf(InvalidCourseArchiveException.class)
+                .hasMessageContaining("Курс 2: Крайната дата не може да бъде преди началната.")
+                .hasMessageContaining("Курс 2, лекция 1: Датата на излъчване")
+                .hasMessageContaining("Курс 2, лекция 1, упражнение 1: Правилният отговор трябва да бъде един от възможните отговори.");
+        assertThat(courseRepository.count()).isZero();
+    }
+
+    @Test
+    public void whenArchiveIsNotValidJson_thenInvalidCourseArchiveExceptionIsThrown() {
+        assertThatThrownBy(() -> courseImportService.importArchive(new ByteArrayInputStream("{\"courses\": [".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(InvalidCourseArchiveException.class)
+                .hasMessageStartingWith("Архивът не е валиден JSON");
+        assertThatThrownBy(() -> courseImportService.importArchive(new CourseArchive(List.of())))
+                .isInstanceOf(InvalidCourseArchiveException.class)
+                .hasMessage("Архивът не съдържа курсове.");
+    }
+
+    /**
+     * Импортира курсове с лекции, в които всяко упражнение започва с името на лекцията си.
+     * @return ID-тата на импортираните курсове.
+     */
+    private List<Long> importCourses(int courses, int lectionsPerCourse, int questionsPerLection) {
+        List<CourseArchive.CourseEntry> entries = new ArrayList<>();
+        for (int c = 0; c < courses; c++) {
+            CourseArchive.CourseEntry course = course("Език " + c);
+            for (int l = 0; l < lectionsPerCourse; l++) {
+                CourseArchive.LectionEntry lection = lection("Лекция " + c + "-" + l, START);
+                for (int q = 0; q < questionsPerLection; q++) {
+                    lection.getQuestions().add(new CourseArchive.QuestionEntry(lection.getName() + ": въпрос " + q,
+                            List.of("да", "не"), "да"));
+                }
+                course.getLections().add(lection);
+            }
+            entries.add(course);
+        }
+        courseImportService.importArchive(new CourseArchive(entries));
+        entityManager.clear();
+        return courseRepository.findAll().stream().map(Course::getId).sorted().toList();
+    }
+
+    private static CourseArchive.CourseEntry course(String language) {
+        return new CourseArchive.CourseEntry(language, Level.A1, 100f, START, END, "Описание.", "Иван Петров",
+                "Мария Иванова", "Петър Колев", "/img/course.png", 5, null, new ArrayList<>(), null);
+    }
+
+    private static CourseArchive.LectionEntry lection(String name, LocalDate releaseDate) {
+        return new CourseArchive.LectionEntry(name, "Тема", null, "Лесно", releaseDate, null, "", "Резюме.", new ArrayList<>());
+    }
+}
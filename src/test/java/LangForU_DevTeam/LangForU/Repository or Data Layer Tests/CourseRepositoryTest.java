@@ -2,6 +2,7 @@
 
 package LangForU_DevTeam.LangForU.Data_Layer_Tests;
 
+import LangForU_DevTeam.LangForU.courses.ActiveCourseCard;
 import LangForU_DevTeam.LangForU.courses.Course;
 import LangForU_DevTeam.LangForU.courses.CourseRepository;
 import LangForU_DevTeam.LangForU.courses.Level;
@@ -67,4 +68,39 @@ public class CourseRepositoryTest {
         List<Course> coursesWithoutExam = courseRepository.findByFinalExamIsNull();
         assertThat(coursesWithoutExam).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenFindActiveCourseCards_thenReturnCoursesOverlappingWindowOrderedByStart() {
+        LocalDate today = LocalDate.now();
+        Course upcoming = new Course(null, "German", Level.A2, 120.0f,
+                today.plusWeeks(1), today.plusMonths(2), "Starts next week",
+                "Hans", "Greta", "Tech", "http://example.com/course3.jpg", 3, null, null);
+        Course tooFar = new Course(null, "French", Level.A1, 90.0f,
+                today.plusMonths(2), today.plusMonths(5), "Starts later",
+                "Marie", "Luc", "Tech", "http://example.com/course4.jpg", 3, null, null);
+        entityManager.persist(upcoming);
+        entityManager.persist(tooFar);
+        entityManager.flush();
+
+        List<ActiveCourseCard> cards = courseRepository.findActiveCourseCards(today.minusWeeks(2), today.plusWeeks(2));
+
+        assertThat(cards).extracting(ActiveCourseCard::getLanguage).containsExactly("English", "Spanish", "German");
+        assertThat(cards.get(0).getDescription()).isEqualTo("Basic English course");
+        assertThat(cards.get(0).getPictureUrl()).isEqualTo("http://example.com/course1.jpg");
+        // Прозорец след края на първите три курса - остава само по-късният.
+        assertThat(courseRepository.findActiveCourseCards(today.plusMonths(4).plusDays(1), today.plusMonths(6)))
+                .extracting(ActiveCourseCard::getLanguage).containsExactly("French");
+    }
+
+    @Test
+    public void whenFindSearchDocuments_thenReturnIndexedFieldsAndFinalExamFlag() {
+        List<Object[]> rows = courseRepository.findSearchDocuments();
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows).extracting(row -> row[1]).containsExactlyInAnyOrder("English", "Spanish");
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row).hasSize(12);
+            assertThat(row[11]).isEqualTo(false);
+        });
+    }
+}
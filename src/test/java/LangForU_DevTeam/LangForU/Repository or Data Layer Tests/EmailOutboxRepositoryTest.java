@@ -0,0 +1,69 @@
+package LangForU_DevTeam.LangForU.Data_Layer_Tests;
+
+import LangForU_DevTeam.LangForU.email.EmailOutboxMessage;
+import LangForU_DevTeam.LangForU.email.EmailOutboxRepository;
+import LangForU_DevTeam.LangForU.email.EmailOutboxStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EmailOutboxRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Test
+    public void whenFindDueForUpdate_thenReturnOnlyDueMessagesInOrder() {
+        LocalDateTime now = LocalDateTime.now();
+
+        EmailOutboxMessage due = new EmailOutboxMessage("due@test.com", "body", now.minusMinutes(5));
+        EmailOutboxMessage expiredLease = new EmailOutboxMessage("lease@test.com", "body", now.minusMinutes(10));
+        expiredLease.setStatus(EmailOutboxStatus.SENDING);
+        EmailOutboxMessage future = new EmailOutboxMessage("future@test.com", "body", now.plusMinutes(5));
+        EmailOutboxMessage dead = new EmailOutboxMessage("dead@test.com", "body", now.minusMinutes(20));
+        dead.setStatus(EmailOutboxStatus.DEAD);
+        entityManager.persist(due);
+        entityManager.persist(expiredLease);
+        entityManager.persist(future);
+        entityManager.persist(dead);
+        entityManager.flush();
+
+        List<EmailOutboxMessage> batch = outboxRepository.findDueForUpdate(
+                EnumSet.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING), now, PageRequest.of(0, 10));
+
+        assertThat(batch).extracting(EmailOutboxMessage::getRecipient)
+                .containsExactly("lease@test.com", "due@test.com");
+    }
+
+    @Test
+    public void whenDeleteSentBefore_thenOnlyOldSentMessagesAreRemoved() {
+        LocalDateTime now = LocalDateTime.now();
+
+        EmailOutboxMessage oldSent = new EmailOutboxMessage("old@test.com", "body", now.minusDays(10));
+        oldSent.setStatus(EmailOutboxStatus.SENT);
+        oldSent.setSentAt(now.minusDays(10));
+        EmailOutboxMessage pending = new EmailOutboxMessage("pending@test.com", "body", now.minusDays(10));
+        entityManager.persist(oldSent);
+        entityManager.persist(pending);
+        entityManager.flush();
+
+        int deleted = outboxRepository.deleteSentBefore(now.minusDays(7));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(outboxRepository.countByStatus(EmailOutboxStatus.PENDING)).isEqualTo(1);
+    }
+}
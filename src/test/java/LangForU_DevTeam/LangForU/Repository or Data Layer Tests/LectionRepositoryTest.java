@@ -1,14 +1,18 @@
 package LangForU_DevTeam.LangForU.Data_Layer_Tests;
 
+import LangForU_DevTeam.LangForU.appuser.AppUser;
+import LangForU_DevTeam.LangForU.appuser.AppUserRole;
 import LangForU_DevTeam.LangForU.courses.Course;
 import LangForU_DevTeam.LangForU.courses.Level;
 import LangForU_DevTeam.LangForU.lections.Lection;
+import LangForU_DevTeam.LangForU.lections.LectionRecipient;
 import LangForU_DevTeam.LangForU.lections.LectionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.time.LocalDate;
@@ -73,4 +77,33 @@ public class LectionRepositoryTest {
         assertThat(lectionsForToday).hasSize(1).contains(lection1);
         assertThat(lectionsForTomorrow).hasSize(1).contains(lection2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenFindNotificationRecipients_thenReturnEnrolledUsersInKeysetChunks() {
+        AppUser anna = new AppUser("anna@test.com", "password123", "Anna",
+                LocalDate.of(1990, 1, 1), "Female", AppUserRole.USER, true);
+        anna.setCourses(List.of(course));
+        AppUser boris = new AppUser("boris@test.com", "password123", "Boris",
+                LocalDate.of(1991, 1, 1), "Male", AppUserRole.USER, true);
+        boris.setCourses(List.of(course));
+        AppUser notEnrolled = new AppUser("other@test.com", "password123", "Other",
+                LocalDate.of(1992, 1, 1), "Male", AppUserRole.USER, true);
+        entityManager.persist(anna);
+        entityManager.persist(boris);
+        entityManager.persist(notEnrolled);
+        entityManager.flush();
+
+        List<LectionRecipient> first = lectionRepository.findNotificationRecipients(
+                lection1.getId(), 0L, PageRequest.of(0, 1));
+        List<LectionRecipient> second = lectionRepository.findNotificationRecipients(
+                lection1.getId(), first.get(0).getUserId(), PageRequest.of(0, 1));
+        List<LectionRecipient> rest = lectionRepository.findNotificationRecipients(
+                lection1.getId(), second.get(0).getUserId(), PageRequest.of(0, 1));
+
+        assertThat(first).extracting(LectionRecipient::getEmail).containsExactly("anna@test.com");
+        assertThat(first.get(0).getLectionTitle()).isEqualTo("German Alphabet");
+        assertThat(first.get(0).getCourseName()).isEqualTo("German");
+        assertThat(second).extracting(LectionRecipient::getName).containsExactly("Boris");
+        assertThat(rest).isEmpty();
+    }
+}
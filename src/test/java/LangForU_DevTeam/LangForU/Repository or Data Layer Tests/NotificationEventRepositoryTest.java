@@ -0,0 +1,63 @@
+package LangForU_DevTeam.LangForU.Data_Layer_Tests;
+
+import LangForU_DevTeam.LangForU.digest.NotificationEvent;
+import LangForU_DevTeam.LangForU.digest.NotificationEventRepository;
+import LangForU_DevTeam.LangForU.digest.NotificationEventType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class NotificationEventRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationEventRepository eventRepository;
+
+    @Test
+    public void whenFindPendingUserIdsAfter_thenReturnDistinctUsersInKeysetOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        persist(5L, "Урок 1", now.minusHours(2));
+        persist(5L, "Урок 2", now.minusHours(1));
+        persist(3L, "Урок 1", now.minusHours(1));
+        persist(8L, "Урок 1", now.minusHours(1));
+        persist(9L, "Урок 3", now.plusMinutes(1));
+
+        List<Long> first = eventRepository.findPendingUserIdsAfter(0L, now, PageRequest.of(0, 2));
+        List<Long> second = eventRepository.findPendingUserIdsAfter(first.get(1), now, PageRequest.of(0, 2));
+
+        assertThat(first).containsExactly(3L, 5L);
+        assertThat(second).containsExactly(8L);
+    }
+
+    @Test
+    public void whenFindPendingForUpdate_thenReturnEventsOfGivenUsersInCreationOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        persist(5L, "Урок 1", now.minusHours(2));
+        persist(3L, "Урок 4", now.minusHours(1));
+        persist(5L, "Урок 2", now.minusHours(1));
+        persist(8L, "Урок 1", now.minusHours(1));
+        persist(5L, "Урок 3", now.plusMinutes(1));
+
+        List<NotificationEvent> events = eventRepository.findPendingForUpdate(List.of(3L, 5L), now);
+
+        assertThat(events).extracting(NotificationEvent::getTitle).containsExactly("Урок 4", "Урок 1", "Урок 2");
+    }
+
+    private void persist(Long userId, String title, LocalDateTime createdAt) {
+        entityManager.persist(new NotificationEvent(userId, "user" + userId + "@test.com", "User " + userId,
+                NotificationEventType.LECTION, title, "http://localhost:8080/lections/view/1", createdAt));
+        entityManager.flush();
+    }
+}
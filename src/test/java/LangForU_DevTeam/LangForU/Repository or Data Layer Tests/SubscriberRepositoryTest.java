@@ -0,0 +1,64 @@
+package LangForU_DevTeam.LangForU.Data_Layer_Tests;
+
+import LangForU_DevTeam.LangForU.appuser.AppUser;
+import LangForU_DevTeam.LangForU.appuser.AppUserRole;
+import LangForU_DevTeam.LangForU.subscriber.Subscriber;
+import LangForU_DevTeam.LangForU.subscriber.SubscriberRecipient;
+import LangForU_DevTeam.LangForU.subscriber.SubscriberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SubscriberRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SubscriberRepository subscriberRepository;
+
+    @Test
+    public void whenFindRecipientsAfter_thenReturnNextPageOfRegisteredSubscribers() {
+        // given
+        persistUser("anna@test.com", "Анна");
+        persistUser("boris@test.com", "Борис");
+        persistUser("vera@test.com", "Вера");
+        Subscriber anna = persistSubscriber("anna@test.com");
+        persistSubscriber("guest@test.com"); // Няма регистриран потребител - пропуска се.
+        Subscriber boris = persistSubscriber("boris@test.com");
+        Subscriber vera = persistSubscriber("vera@test.com");
+        entityManager.flush();
+
+        // when
+        List<SubscriberRecipient> firstPage = subscriberRepository.findRecipientsAfter(0L, PageRequest.of(0, 2));
+        List<SubscriberRecipient> secondPage = subscriberRepository.findRecipientsAfter(
+                firstPage.get(firstPage.size() - 1).getSubscriberId(), PageRequest.of(0, 2));
+
+        // then
+        assertThat(firstPage).extracting(SubscriberRecipient::getSubscriberId).containsExactly(anna.getId(), boris.getId());
+        assertThat(firstPage).extracting(SubscriberRecipient::getName).containsExactly("Анна", "Борис");
+        assertThat(secondPage).extracting(SubscriberRecipient::getEmail).containsExactly(vera.getEmail());
+        assertThat(subscriberRepository.countRecipients()).isEqualTo(3);
+    }
+
+    private void persistUser(String email, String name) {
+        entityManager.persist(new AppUser(email, "password123", name,
+                LocalDate.of(1990, 1, 1), "Female", AppUserRole.USER, true));
+    }
+
+    private Subscriber persistSubscriber(String email) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setEmail(email);
+        return entityManager.persist(subscriber);
+    }
+}
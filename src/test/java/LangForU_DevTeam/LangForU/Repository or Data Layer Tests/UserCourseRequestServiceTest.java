@@ -0,0 +1,139 @@
+package LangForU_DevTeam.LangForU.Data_Layer_Tests;
+
+import LangForU_DevTeam.LangForU.appuser.AppUser;
+import LangForU_DevTeam.LangForU.appuser.AppUserRepository;
+import LangForU_DevTeam.LangForU.appuser.AppUserRole;
+import LangForU_DevTeam.LangForU.courses.Course;
+import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.courses.Level;
+import LangForU_DevTeam.LangForU.exceptions.CourseFullException;
+import LangForU_DevTeam.LangForU.security.encryption.EncryptionService;
+import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequest;
+import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequestRepository;
+import LangForU_DevTeam.LangForU.singUpForCourse.UserCourseRequestService;
+import LangForU_DevTeam.LangForU.trending.TrendingProperties;
+import LangForU_DevTeam.LangForU.trending.TrendingTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({UserCourseRequestService.class, EncryptionService.class, TrendingTracker.class, TrendingProperties.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class UserCourseRequestServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserCourseRequestService userCourseRequestService;
+
+    @Autowired
+    private UserCourseRequestRepository userCourseRequestRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Всяка заявка в своя трансакция, за да се види връщането назад.
+    public void whenSeatsAreTaken_thenFurtherRequestsAreRejectedWithoutBeingSaved() {
+        Course course = course(2);
+        AppUser first = user("first@test.com");
+        AppUser second = user("second@test.com");
+        AppUser third = user("third@test.com");
+
+        userCourseRequestService.createRequest(first.getId(), course.getId(), "1234567890", "Български гражданин");
+        userCourseRequestService.createRequest(second.getId(), course.getId(), "1234567890", "Български гражданин");
+
+        assertThatThrownBy(() -> userCourseRequestService.createRequest(third.getId(), course.getId(), "1234567890", "Чужденец"))
+                .isInstanceOf(CourseFullException.class);
+        assertThat(seatsTaken(course)).isEqualTo(2);
+        assertThat(userCourseRequestService.existsByUserIdAndCourseId(third.getId(), course.getId())).isFalse();
+    }
+
+    @Test
+    public void whenCourseHasNoSeatLimit_thenReserveSeatAlwaysSucceeds() {
+        Course course = course(null);
+
+        assertThat(courseRepository.reserveSeat(course.getId())).isEqualTo(1);
+        assertThat(courseRepository.reserveSeat(course.getId())).isEqualTo(1);
+        assertThat(courseRepository.reserveSeat(-1L)).isZero();
+        assertThat(seatsTaken(course)).isEqualTo(2);
+    }
+
+    @Test
+    public void whenRequestIsConfirmed_thenUserIsEnrolledOnlyOnce() {
+        Course course = course(5);
+        AppUser user = user("student@test.com");
+        UserCourseRequest request = userCourseRequestService.createRequest(user.getId(), course.getId(), "1234567890", "Чужденец");
+
+        userCourseRequestService.confirmUserCourseRequest(request.getId());
+
+        assertThatThrownBy(() -> userCourseRequestService.confirmUserCourseRequest(request.getId()))
+                .hasMessage("Заявката вече е потвърдена.");
+        entityManager.clear();
+        assertThat(userCourseRequestRepository.findById(request.getId()).orElseThrow().getConfirmed()).isTrue();
+        assertThat(appUserRepository.findUserEmailsByCourseId(course.getId())).containsExactly("student@test.com");
+    }
+
+    @Test
+    public void whenRequestsOfUserAreDeleted_thenTheirSeatsAreReleased() {
+        Course course = course(1);
+        AppUser user = user("student@test.com");
+        userCourseRequestService.createRequest(user.getId(), course.getId(), "1234567890", "Чужденец");
+
+        userCourseRequestService.deleteRequestsByUserId(user.getId());
+
+        assertThat(seatsTaken(course)).isZero();
+        assertThat(userCourseRequestService.existsByUserIdAndCourseId(user.getId(), course.getId())).isFalse();
+    }
+
+    @Test
+    public void whenResyncSeatsTaken_thenCountersMatchRequests() {
+        Course course = course(10);
+        userCourseRequestService.createRequest(user("a@test.com").getId(), course.getId(), "1234567890", "Чужденец");
+        new JdbcTemplate(dataSource).update("UPDATE course SET seats_taken = 7");
+
+        userCourseRequestService.resyncSeatsTaken();
+
+        assertThat(seatsTaken(course)).isEqualTo(1);
+    }
+
+    private Course course(Integer seatLimit) {
+        Course course = new Course(null, "English", Level.B1, 100.0f,
+                LocalDate.now(), LocalDate.now().plusMonths(3), "English course",
+                "Main", "Assistant", "Tech", "http://example.com/en.jpg", 5, null, null);
+        course.setSeatLimit(seatLimit);
+        return courseRepository.saveAndFlush(course);
+    }
+
+    private AppUser user(String email) {
+        return appUserRepository.saveAndFlush(new AppUser(email, "password123", "Student",
+                LocalDate.now().minusYears(20), "Female", AppUserRole.USER, true));
+    }
+
+    /**
+     * Чете брояча директно от таблицата (UPDATE заявките не обновяват заредените ентитети).
+     */
+    private int seatsTaken(Course course) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT seats_taken FROM course WHERE id = ?", Integer.class, course.getId());
+    }
+}
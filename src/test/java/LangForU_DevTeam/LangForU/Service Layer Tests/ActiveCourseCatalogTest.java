@@ -0,0 +1,92 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа ActiveCourseCatalog.
+ * Проверява, че картите се четат от паметта и че снимката се изгражда наново при запис и при смяна на датата.
+ */
+@ExtendWith(MockitoExtension.class)
+class ActiveCourseCatalogTest {
+
+    //<editor-fold desc="Mocks and InjectMocks">
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private RenderedPageCache pageCache;
+
+    @InjectMocks
+    private ActiveCourseCatalog catalog;
+    //</editor-fold>
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void getCards_onSameDay_shouldQueryRepositoryOnlyOnce() {
+        when(courseRepository.findActiveCourseCards(TODAY.minusWeeks(2), TODAY.plusWeeks(2))).thenReturn(List.of(card(1L)));
+
+        assertEquals(List.of(1L), ids(catalog.getCards(TODAY)));
+        assertEquals(List.of(1L), ids(catalog.getCards(TODAY)));
+
+        verify(courseRepository, times(1)).findActiveCourseCards(any(), any());
+    }
+
+    @Test
+    void getCards_afterDateChange_shouldRebuildWithShiftedWindow() {
+        LocalDate tomorrow = TODAY.plusDays(1);
+        when(courseRepository.findActiveCourseCards(TODAY.minusWeeks(2), TODAY.plusWeeks(2))).thenReturn(List.of(card(1L)));
+        when(courseRepository.findActiveCourseCards(tomorrow.minusWeeks(2), tomorrow.plusWeeks(2))).thenReturn(List.of(card(1L), card(2L)));
+
+        catalog.getCards(TODAY);
+
+        assertEquals(List.of(1L, 2L), ids(catalog.getCards(tomorrow)));
+    }
+
+    @Test
+    void refresh_withoutTransaction_shouldRebuildImmediately() {
+        when(courseRepository.findActiveCourseCards(any(), any())).thenReturn(List.of(card(1L))).thenReturn(List.of(card(1L), card(3L)));
+
+        assertEquals(List.of(1L), ids(catalog.getCards()));
+        catalog.refresh();
+
+        assertEquals(List.of(1L, 3L), ids(catalog.getCards()));
+        verify(courseRepository, times(2)).findActiveCourseCards(any(), any());
+    }
+
+    @Test
+    void rollOver_shouldInvalidatePageCacheOnlyWhenCoursesChange() {
+        LocalDate tomorrow = TODAY.plusDays(1);
+        LocalDate dayAfter = TODAY.plusDays(2);
+        when(courseRepository.findActiveCourseCards(TODAY.minusWeeks(2), TODAY.plusWeeks(2))).thenReturn(List.of(card(1L)));
+        when(courseRepository.findActiveCourseCards(tomorrow.minusWeeks(2), tomorrow.plusWeeks(2))).thenReturn(List.of(card(1L)));
+        when(courseRepository.findActiveCourseCards(dayAfter.minusWeeks(2), dayAfter.plusWeeks(2))).thenReturn(List.of());
+        catalog.getCards(TODAY);
+
+        catalog.rollOver(tomorrow);
+        verifyNoInteractions(pageCache);
+
+        catalog.rollOver(dayAfter);
+        verify(pageCache).invalidate();
+        assertTrue(catalog.getCards(dayAfter).isEmpty());
+    }
+
+    private static ActiveCourseCard card(Long id) {
+        return new ActiveCourseCard(id, "English", Level.A1, 100.0f, TODAY, TODAY.plusMonths(3), "Course", 5, "/img/course.png");
+    }
+
+    private static List<Long> ids(List<ActiveCourseCard> cards) {
+        return cards.stream().map(ActiveCourseCard::getId).toList();
+    }
+}
@@ -1,5 +1,6 @@
 package LangForU_DevTeam.LangForU.appuser;
 
+import LangForU_DevTeam.LangForU.email.EmailOutboxService;
 import LangForU_DevTeam.LangForU.email.EmailService;
 import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import LangForU_DevTeam.LangForU.registration.admin.AdminConfirmationToken;
@@ -40,6 +41,8 @@ class AppUserServiceTest {
     @Mock
     private EmailTemplateService emailTemplateService;
     @Mock
+    private EmailOutboxService emailOutboxService;
+    @Mock
     private UserCourseRequestService userCourseRequestService;
 
     @InjectMocks
@@ -84,7 +87,8 @@ class AppUserServiceTest {
         verify(userCourseRequestService).deleteRequestsByUserId(1L);
         verify(confirmationTokenService).deleteTokensByUserId(1L);
         verify(appUserRepository).deleteById(1L);
-        verify(emailService).send(eq("test@example.com"), anyString());
+        verify(emailOutboxService).enqueue(eq("test@example.com"), anyString());
+        verifyNoInteractions(emailService);
     }
 
     @Test
@@ -103,7 +107,8 @@ class AppUserServiceTest {
         appUserService.disableUserById(1L);
 
         verify(appUserRepository).disableAppUser(1L);
-        verify(emailService).send(eq("test@example.com"), anyString());
+        verify(emailOutboxService).enqueue(eq("test@example.com"), anyString());
+        verifyNoInteractions(emailService);
     }
 
     @Test
@@ -0,0 +1,44 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за курсора на keyset пагинацията {@link BlogCursor}.
+ */
+class BlogCursorTest {
+
+    @Test
+    void encodeAndDecode_shouldRoundTrip() {
+        BlogCursor cursor = new BlogCursor(LocalDate.of(2025, 3, 14), 42L, false, 7);
+
+        String token = cursor.encode();
+        BlogCursor decoded = BlogCursor.decode(token).orElseThrow();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+")); // Безопасен за URL без допълнително кодиране.
+        assertEquals(LocalDate.of(2025, 3, 14), decoded.getDate());
+        assertEquals(42L, decoded.getId());
+        assertFalse(decoded.isForward());
+        assertEquals(7, decoded.getPage());
+    }
+
+    @Test
+    void decode_whenTokenIsMissingOrMalformed_shouldReturnEmpty() {
+        assertTrue(BlogCursor.decode(null).isEmpty());
+        assertTrue(BlogCursor.decode("").isEmpty());
+        assertTrue(BlogCursor.decode("%%%").isEmpty());
+        assertTrue(BlogCursor.decode(encode("2025-03-14|42|n")).isEmpty());
+        assertTrue(BlogCursor.decode(encode("2025-13-40|42|n|0")).isEmpty());
+        assertTrue(BlogCursor.decode(encode("2025-03-14|x|n|0")).isEmpty());
+        assertTrue(BlogCursor.decode(encode("2025-03-14|42|n|-1")).isEmpty());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,50 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за класа BlogMarkdownRenderer.
+ * Проверява преобразуването на Markdown в HTML и премахването на опасно съдържание.
+ */
+class BlogMarkdownRendererTest {
+
+    private final BlogMarkdownRenderer renderer = new BlogMarkdownRenderer();
+
+    @Test
+    void render_shouldConvertMarkdown() {
+        String html = renderer.render("## Present Perfect\n\n- **have** + V3\n- `has` за 3 л. ед. ч.\n\n[Курсове](/courses)");
+
+        assertTrue(html.contains("<h2>Present Perfect</h2>"));
+        assertTrue(html.contains("<li><strong>have</strong> + V3</li>"));
+        assertTrue(html.contains("<code>has</code>"));
+        assertTrue(html.contains("<a href=\"/courses\" rel=\"nofollow noopener\">Курсове</a>"));
+    }
+
+    @Test
+    void render_plainText_shouldKeepParagraphsAndLineBreaks() {
+        String html = renderer.render("Първи ред\nВтори ред\n\nНов абзац");
+
+        assertEquals("<p>Първи ред<br>\nВтори ред</p>\n<p>Нов абзац</p>\n", html);
+    }
+
+    @Test
+    void render_shouldEscapeRawHtmlAndDropUnsafeLinks() {
+        String html = renderer.render("<script>alert('x')</script>\n\n<img src=x onerror=alert(1)>\n\n"
+                + "[клик](javascript:alert(1)) ![снимка](https://example.com/a.png)");
+
+        assertFalse(html.contains("<script"));
+        assertFalse(html.contains("<img src=\"x\""));
+        assertFalse(html.contains("onerror=\""));
+        assertFalse(html.contains("javascript:"));
+        assertTrue(html.contains("&lt;script&gt;"));
+        assertTrue(html.contains("<img src=\"https://example.com/a.png\" alt=\"снимка\">"));
+    }
+
+    @Test
+    void render_whenTextIsBlank_shouldReturnEmptyString() {
+        assertEquals("", renderer.render(null));
+        assertEquals("", renderer.render("  \n"));
+    }
+}
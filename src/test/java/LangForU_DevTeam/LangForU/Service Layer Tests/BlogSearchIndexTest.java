@@ -0,0 +1,135 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Модулни тестове за пълнотекстовия индекс на блога {@link BlogSearchIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class BlogSearchIndexTest {
+
+    @Mock
+    private BlogRepository blogRepository;
+
+    private BlogSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new BlogSearchIndex(blogRepository);
+    }
+
+    @Test
+    void search_shouldMatchInflectedFormsAndIgnoreCase() {
+        searchIndex.index(blog(1L, "Граматиката на английския", "Кратко", "Текст", List.of()));
+        searchIndex.index(blog(2L, "Пътуване", "Кратко", "Текст", List.of()));
+
+        BlogSearchIndex.Hits hits = searchIndex.search("ГРАМАТИКА", 0, 10);
+
+        assertEquals(List.of(1L), hits.getIds());
+        assertEquals(1, hits.getTotal());
+    }
+
+    @Test
+    void search_shouldRankTitleMatchAboveTextMatch() {
+        searchIndex.index(blog(1L, "Съвети за пътуване", "Кратко", "Няколко думи за уроци по испански.", List.of()));
+        searchIndex.index(blog(2L, "Уроци по испански", "Кратко", "Текст", List.of()));
+        searchIndex.index(blog(3L, "Друго", "Кратко", "Текст", List.of("spanish")));
+
+        assertEquals(List.of(2L, 1L), searchIndex.search("урок", 0, 10).getIds());
+        assertEquals(List.of(3L), searchIndex.search("Spanish", 0, 10).getIds());
+    }
+
+    @Test
+    void search_shouldPageByOffsetAndReportTotal() {
+        for (long id = 1; id <= 5; id++) {
+            searchIndex.index(blog(id, "Граматика " + id, "Кратко", "Текст", List.of()));
+        }
+
+        BlogSearchIndex.Hits hits = searchIndex.search("граматика", 2, 2);
+
+        assertEquals(2, hits.getIds().size());
+        assertEquals(5, hits.getTotal());
+        assertTrue(searchIndex.search("граматика", 10, 2).getIds().isEmpty());
+    }
+
+    @Test
+    void indexAndDelete_shouldUpdateIncrementally() {
+        searchIndex.index(blog(1L, "Граматика", "Кратко", "Текст", List.of()));
+        searchIndex.index(blog(1L, "Лексика", "Кратко", "Текст", List.of()));
+
+        assertTrue(searchIndex.search("граматика", 0, 10).getIds().isEmpty());
+        assertEquals(List.of(1L), searchIndex.search("лексика", 0, 10).getIds());
+
+        searchIndex.delete(1L);
+
+        assertTrue(searchIndex.search("лексика", 0, 10).getIds().isEmpty());
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    void search_whenQueryHasOnlyStopWords_shouldReturnNothing() {
+        searchIndex.index(blog(1L, "И на за", "Кратко", "Текст", List.of()));
+
+        BlogSearchIndex.Hits hits = searchIndex.search("и на", 0, 10);
+
+        assertTrue(hits.getIds().isEmpty());
+        assertEquals(0, hits.getTotal());
+    }
+
+    @Test
+    void rebuild_shouldLoadAllPostsAndTagsFromRepository() {
+        when(blogRepository.findSearchDocumentsAfter(eq(0L), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{4L, "Испански", "Кратко", "Текст"}));
+        when(blogRepository.findTagsByBlogIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{4L, "travel"}));
+        searchIndex.index(blog(9L, "Стара публикация", "Кратко", "Текст", List.of()));
+
+        searchIndex.rebuild();
+
+        assertEquals(1, searchIndex.size());
+        assertEquals(List.of(4L), searchIndex.search("travel", 0, 10).getIds());
+        assertTrue(searchIndex.search("стара", 0, 10).getIds().isEmpty());
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesCommittedWhileReading() {
+        when(blogRepository.findSearchDocumentsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            searchIndex.index(blog(4L, "Немски за начинаещи", "Кратко", "Текст", List.of()));
+            searchIndex.index(blog(7L, "Нова публикация", "Кратко", "Текст", List.of()));
+            searchIndex.delete(5L);
+            return List.<Object[]>of(new Object[]{4L, "Испански", "Кратко", "Текст"},
+                    new Object[]{5L, "Изтрита", "Кратко", "Текст"});
+        });
+        when(blogRepository.findTagsByBlogIds(anyCollection())).thenReturn(List.of());
+
+        searchIndex.rebuild();
+
+        assertEquals(2, searchIndex.size());
+        assertEquals(List.of(4L), searchIndex.search("немски", 0, 10).getIds());
+        assertTrue(searchIndex.search("испански", 0, 10).getIds().isEmpty());
+        assertEquals(List.of(7L), searchIndex.search("нова", 0, 10).getIds());
+        assertTrue(searchIndex.search("изтрита", 0, 10).getIds().isEmpty());
+    }
+
+    private static Blog blog(Long id, String name, String shortExplanation, String text, List<String> tags) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setName(name);
+        blog.setShortExplanation(shortExplanation);
+        blog.setBlogText(text);
+        blog.setTags(tags);
+        return blog;
+    }
+}
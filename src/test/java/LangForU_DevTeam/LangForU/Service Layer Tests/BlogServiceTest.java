@@ -1,14 +1,14 @@
 package LangForU_DevTeam.LangForU.blog;
 
-import LangForU_DevTeam.LangForU.subscriber.Subscriber;
-import LangForU_DevTeam.LangForU.subscriber.SubscriberRepository;
-import LangForU_DevTeam.LangForU.subscriber.SubscriberService;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import LangForU_DevTeam.LangForU.subscriber.NewsletterService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 
@@ -18,6 +18,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,17 +34,31 @@ class BlogServiceTest {
     private BlogRepository blogRepository;
 
     @Mock
-    private SubscriberService subscriberService;
+    private NewsletterService newsletterService;
 
     @Mock
-    private SubscriberRepository subscriberRepository;
+    private BlogSidebarCache sidebarCache;
+
+    @Mock
+    private BlogSearchIndex searchIndex;
+
+    @Mock
+    private BlogFeedCountCache feedCounts;
+
+    @Mock
+    private RenderedPageCache pageCache;
+
+    @Spy
+    private BlogMarkdownRenderer markdownRenderer = new BlogMarkdownRenderer();
+
+    @Mock
+    private BlogTaxonomyService taxonomyService;
 
     @InjectMocks
     private BlogService blogService;
     //</editor-fold>
 
     private Blog testBlog;
-    private List<Subscriber> subscribers;
 
     @BeforeEach
     void setUp() {
@@ -53,19 +68,6 @@ class BlogServiceTest {
         testBlog.setName("Test Blog Title");
         testBlog.setBlogText("Some text here.");
         testBlog.setDate(LocalDate.now());
-
-        // *** КОРЕКЦИЯ ***
-        // Създаваме абонатите с конструктора по подразбиране и сетъри,
-        // за да избегнем потенциални проблеми.
-        Subscriber sub1 = new Subscriber();
-        sub1.setId(1L);
-        sub1.setEmail("test1@example.com");
-
-        Subscriber sub2 = new Subscriber();
-        sub2.setId(2L);
-        sub2.setEmail("test2@example.com");
-
-        subscribers = List.of(sub1, sub2);
     }
 
     @Test
@@ -95,11 +97,9 @@ class BlogServiceTest {
     }
 
     @Test
-    void saveAndNotifySubscribers_whenCalled_shouldSaveBlogAndNotifyAllSubscribers() {
+    void saveAndNotifySubscribers_whenCalled_shouldSaveBlogAndStartNewsletterJob() {
         // Arrange
         when(blogRepository.save(any(Blog.class))).thenReturn(testBlog);
-        when(subscriberRepository.findAll()).thenReturn(subscribers);
-        doNothing().when(subscriberService).notifySubscriber(any(Subscriber.class), any(Blog.class));
 
         // Act
         Blog savedBlog = blogService.saveAndNotifySubscribers(testBlog);
@@ -109,52 +109,150 @@ class BlogServiceTest {
         assertEquals(testBlog.getId(), savedBlog.getId());
 
         verify(blogRepository).save(testBlog);
-        verify(subscriberRepository).findAll();
-        verify(subscriberService, times(2)).notifySubscriber(any(Subscriber.class), eq(testBlog));
+        // Разпращането се извършва във фонов режим - тук само се създава задачата.
+        verify(newsletterService).startFanout(testBlog);
+        verify(markdownRenderer).render(testBlog.getBlogText());
+        assertNotNull(testBlog.getBlogHtml());
     }
 
     @Test
-    void saveAndNotifySubscribers_whenOneNotificationFails_shouldContinueWithOthers() {
-        // Arrange
-        Subscriber goodSubscriber = subscribers.get(0);
-        Subscriber badSubscriber = subscribers.get(1);
+    void update_whenTextChanged_shouldRenderHtmlAgain() {
+        testBlog.setBlogText("**Нов** текст");
+        testBlog.setBlogHtml("<p>Стар текст</p>");
+        when(blogRepository.save(testBlog)).thenReturn(testBlog);
 
-        when(blogRepository.save(any(Blog.class))).thenReturn(testBlog);
-        when(subscriberRepository.findAll()).thenReturn(subscribers);
+        blogService.update(testBlog);
 
-        doNothing().when(subscriberService).notifySubscriber(eq(goodSubscriber), any(Blog.class));
-        doThrow(new RuntimeException("Email service failed")).when(subscriberService).notifySubscriber(eq(badSubscriber), any(Blog.class));
+        assertEquals("<p><strong>Нов</strong> текст</p>\n", testBlog.getBlogHtml());
+    }
+
+    @Test
+    void renderMissingHtml_shouldRenderPagesUntilNoneAreLeft() {
+        when(blogRepository.findWithoutHtmlAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, "*a*"}, new Object[]{7L, "b"}));
+        when(blogRepository.findWithoutHtmlAfter(eq(7L), any(Pageable.class))).thenReturn(List.of());
+        when(blogRepository.updateHtml(anyLong(), anyString())).thenReturn(1);
+
+        blogService.renderMissingHtml();
+
+        verify(blogRepository).updateHtml(3L, "<p><em>a</em></p>\n");
+        verify(blogRepository).updateHtml(7L, "<p>b</p>\n");
+        verify(pageCache).invalidate();
+    }
+
+
+    @Test
+    void findBlogsFeed_withoutCursor_shouldReadFirstPageWithoutOffsetOrCount() {
+        // Arrange
+        ArgumentCaptor<Pageable> limitCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(blogRepository.findCardsAfter(any(LocalDate.class), eq(Long.MAX_VALUE), limitCaptor.capture()))
+                .thenReturn(List.of(card(5L), card(4L), card(3L)));
+        when(feedCounts.get(eq("all"), any())).thenReturn(5L);
 
         // Act
-        blogService.saveAndNotifySubscribers(testBlog);
+        BlogFeedPage page = blogService.findBlogsFeed(null, 2);
 
         // Assert
-        verify(subscriberService, times(1)).notifySubscriber(eq(goodSubscriber), any(Blog.class));
-        verify(subscriberService, times(1)).notifySubscriber(eq(badSubscriber), any(Blog.class));
+        assertEquals(List.of(5L, 4L), page.getBlogs().stream().map(BlogCard::getId).toList());
+        assertEquals(0, limitCaptor.getValue().getOffset()); // Без OFFSET.
+        assertEquals(3, limitCaptor.getValue().getPageSize()); // Един ред повече - за "има ли следваща".
+        assertNull(page.getPreviousCursor());
+        assertNotNull(page.getNextCursor());
+        assertEquals(0, page.getCurrentPage());
+        assertEquals(3, page.getTotalPages());
+        verify(blogRepository, never()).count();
+
+        BlogCursor next = BlogCursor.decode(page.getNextCursor()).orElseThrow();
+        assertEquals(4L, next.getId());
+        assertTrue(next.isForward());
+        assertEquals(1, next.getPage());
     }
 
+    @Test
+    void findBlogsFeed_withForwardCursor_shouldReadAfterCursorAndLinkBothWays() {
+        BlogCard last = card(4L);
+        String token = new BlogCursor(last.getDate(), 4L, true, 1).encode();
+        when(blogRepository.findCardsAfter(eq(last.getDate()), eq(4L), any())).thenReturn(List.of(card(3L), card(2L)));
+        when(feedCounts.get(eq("all"), any())).thenReturn(4L);
+
+        BlogFeedPage page = blogService.findBlogsFeed(token, 2);
+
+        assertEquals(List.of(3L, 2L), page.getBlogs().stream().map(BlogCard::getId).toList());
+        assertEquals(1, page.getCurrentPage());
+        assertNull(page.getNextCursor());
+        BlogCursor previous = BlogCursor.decode(page.getPreviousCursor()).orElseThrow();
+        assertEquals(3L, previous.getId());
+        assertFalse(previous.isForward());
+        assertEquals(0, previous.getPage());
+    }
 
     @Test
-    void findBlogsPaginated_whenCalled_shouldRequestCorrectPageFromRepository() {
-        // Arrange
-        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        Page<Blog> expectedPage = new PageImpl<>(List.of(testBlog));
-        when(blogRepository.findAll(pageableCaptor.capture())).thenReturn(expectedPage);
+    void findBlogsFeed_withBackwardCursor_shouldReverseRowsReadBeforeCursor() {
+        BlogCard first = card(3L);
+        String token = new BlogCursor(first.getDate(), 3L, false, 1).encode();
+        // Редовете преди курсора идват във възходящ ред; третият показва, че има и по-предишна страница.
+        when(blogRepository.findCardsBefore(eq(first.getDate()), eq(3L), any()))
+                .thenReturn(List.of(card(4L), card(5L), card(6L)));
+        when(feedCounts.get(eq("all"), any())).thenReturn(6L);
+
+        BlogFeedPage page = blogService.findBlogsFeed(token, 2);
+
+        assertEquals(List.of(5L, 4L), page.getBlogs().stream().map(BlogCard::getId).toList());
+        assertEquals(1, page.getCurrentPage());
+        assertNotNull(page.getPreviousCursor());
+        assertNotNull(page.getNextCursor());
+    }
 
-        int currentPage = 0;
-        int pageSize = 5;
+    @Test
+    void findBlogsFeed_whenCursorIsInvalid_shouldFallBackToFirstPage() {
+        when(blogRepository.findCardsAfter(any(LocalDate.class), eq(Long.MAX_VALUE), any())).thenReturn(List.of(card(1L)));
+        when(feedCounts.get(eq("all"), any())).thenReturn(1L);
+
+        BlogFeedPage page = blogService.findBlogsFeed("not-a-cursor", 2);
+
+        assertEquals(0, page.getCurrentPage());
+        assertEquals(1, page.getTotalPages());
+        assertNull(page.getPreviousCursor());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findBlogsByTagFeed_shouldUseTagQueriesAndCountKey() {
+        when(blogRepository.findCardsByTagAfter(eq("grammar"), any(LocalDate.class), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(card(1L)));
+        when(feedCounts.get(eq("tag:grammar"), any())).thenReturn(1L);
+
+        BlogFeedPage page = blogService.findBlogsByTagFeed("grammar", null, 5);
+
+        assertEquals(1, page.getBlogs().size());
+        verify(feedCounts).get(eq("tag:grammar"), any());
+    }
+
+    @Test
+    void searchBlogs_shouldReturnCardsInIndexOrderWithIndexTotal() {
+        // Arrange
+        when(searchIndex.search("граматика", 5, 5)).thenReturn(new BlogSearchIndex.Hits(List.of(3L, 1L), 7));
+        BlogCard first = new BlogCard(1L, "Първа", "Short", LocalDate.now(), null, "Author", 0, 0);
+        BlogCard third = new BlogCard(3L, "Трета", "Short", LocalDate.now(), null, "Author", 0, 0);
+        when(blogRepository.findCardsByIds(List.of(3L, 1L))).thenReturn(List.of(first, third));
 
         // Act
-        Page<Blog> resultPage = blogService.findBlogsPaginated(currentPage, pageSize);
+        Page<BlogCard> result = blogService.searchBlogs("граматика", 1, 5);
 
         // Assert
-        assertNotNull(resultPage);
-        assertEquals(1, resultPage.getTotalElements());
+        assertEquals(List.of(3L, 1L), result.getContent().stream().map(BlogCard::getId).toList());
+        assertEquals(7, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+    }
+
+    @Test
+    void searchBlogs_whenNothingMatches_shouldNotQueryRepository() {
+        when(searchIndex.search("xyz", 0, 5)).thenReturn(new BlogSearchIndex.Hits(List.of(), 0));
 
-        Pageable capturedPageable = pageableCaptor.getValue();
-        assertEquals(currentPage, capturedPageable.getPageNumber());
-        assertEquals(pageSize, capturedPageable.getPageSize());
-        assertEquals(Sort.by("date").descending(), capturedPageable.getSort());
+        Page<BlogCard> result = blogService.searchBlogs("xyz", 0, 5);
+
+        assertTrue(result.isEmpty());
+        verify(blogRepository, never()).findCardsByIds(any());
     }
 
     @Test
@@ -166,16 +264,42 @@ class BlogServiceTest {
         blogService.delete(testBlog);
 
         // Assert
+        verify(taxonomyService).release(testBlog);
+        verify(blogRepository).detachCommentReplies(1L);
         verify(blogRepository, times(1)).delete(testBlog);
+        verify(sidebarCache).refresh();
+        verify(searchIndex).delete(1L);
+        verify(feedCounts).invalidate();
+        verify(pageCache).invalidate();
+    }
+
+    @Test
+    void update_whenCalled_shouldSaveAndRefreshSidebarAndSearchIndex() {
+        when(blogRepository.save(testBlog)).thenReturn(testBlog);
+
+        blogService.update(testBlog);
+
+        verify(taxonomyService).assign(testBlog);
+        verify(blogRepository).save(testBlog);
+        verify(sidebarCache).refresh();
+        verify(searchIndex).index(testBlog);
+        verify(feedCounts).invalidate();
+        verify(pageCache).invalidate();
     }
 
     @Test
-    void getTop5Categories_whenRepositoryReturnsData_shouldTransformToListOfStrings() {
+    void save_whenCalled_shouldNotRefreshSidebar() {
+        when(blogRepository.save(testBlog)).thenReturn(testBlog);
+
+        blogService.save(testBlog);
+
+        verifyNoInteractions(sidebarCache);
+    }
+
+    @Test
+    void getTop5Categories_shouldReadMostUsedCategoriesFromTaxonomy() {
         // Arrange
-        Object[] row1 = {"Technology", 10L};
-        Object[] row2 = {"Lifestyle", 8L};
-        List<Object[]> repoResult = List.of(row1, row2);
-        when(blogRepository.findTop5Categories()).thenReturn(repoResult);
+        when(taxonomyService.getMostUsedCategories(6)).thenReturn(List.of("Technology", "Lifestyle"));
 
         // Act
         List<String> categories = blogService.getTop5Categories();
@@ -185,6 +309,13 @@ class BlogServiceTest {
         assertEquals(2, categories.size());
         assertTrue(categories.contains("Technology"));
         assertTrue(categories.contains("Lifestyle"));
-        verify(blogRepository).findTop5Categories();
+        verify(taxonomyService).getMostUsedCategories(6);
+    }
+
+    /**
+     * Карта на публикация, чиято дата расте с ID-то (по-голямо ID - по-нова публикация).
+     */
+    private static BlogCard card(Long id) {
+        return new BlogCard(id, "Blog " + id, "Short", LocalDate.of(2025, 1, 1).plusDays(id), null, "Author", 0, 0);
     }
-}
\ No newline at end of file
+}
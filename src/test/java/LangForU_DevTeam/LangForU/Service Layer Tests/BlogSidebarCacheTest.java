@@ -0,0 +1,76 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа BlogSidebarCache.
+ * Проверява, че данните за страничната лента се изчисляват веднъж, обновяват се изрично и при изтичане на TTL,
+ * и че съотношението на попаденията се отчита като метрика.
+ */
+@ExtendWith(MockitoExtension.class)
+class BlogSidebarCacheTest {
+
+    @Mock
+    private BlogService blogService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(blogService.getTop5Tags()).thenReturn(List.of("grammar"));
+        when(blogService.getTop5Categories()).thenReturn(List.of("English"));
+        when(blogService.getRecentPostSummaries(5)).thenReturn(List.of());
+    }
+
+    @Test
+    void get_shouldComputeOnceAndServeFromCache() {
+        BlogSidebarCache cache = new BlogSidebarCache(blogService, Duration.ofMinutes(5), meterRegistry);
+
+        BlogSidebar first = cache.get();
+        BlogSidebar second = cache.get();
+        cache.get();
+        cache.get();
+
+        assertSame(first, second);
+        assertEquals(List.of("grammar"), first.getTags());
+        verify(blogService, times(1)).getTop5Tags();
+        verify(blogService, times(1)).getTop5Categories();
+        assertEquals(0.75, meterRegistry.get("blog.sidebar.cache.hit.ratio").gauge().value());
+        assertEquals(1.0, meterRegistry.get("blog.sidebar.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void refresh_shouldRebuildSnapshot() {
+        BlogSidebarCache cache = new BlogSidebarCache(blogService, Duration.ofMinutes(5), meterRegistry);
+        BlogSidebar before = cache.get();
+        when(blogService.getTop5Tags()).thenReturn(List.of("vocabulary"));
+
+        cache.refresh();
+        BlogSidebar after = cache.get();
+
+        assertNotSame(before, after);
+        assertEquals(List.of("vocabulary"), after.getTags());
+    }
+
+    @Test
+    void get_whenTtlExpired_shouldRebuildSnapshot() {
+        BlogSidebarCache cache = new BlogSidebarCache(blogService, Duration.ZERO, meterRegistry);
+
+        cache.get();
+        cache.get();
+
+        verify(blogService, times(2)).getTop5Tags();
+    }
+}
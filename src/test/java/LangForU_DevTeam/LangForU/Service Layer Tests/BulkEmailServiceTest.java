@@ -0,0 +1,104 @@
+package LangForU_DevTeam.LangForU.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа BulkEmailService.
+ * Проверява разделянето на порции, повторния опит за неуспешните съобщения и отчитането на грешките.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkEmailServiceTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private BulkEmailService bulkEmailService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MailDispatchProperties properties = new MailDispatchProperties();
+        properties.setBulkChunkSize(2);
+        properties.setBulkConcurrency(1);
+
+        Session session = Session.getInstance(new Properties());
+        lenient().when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+
+        EmailService emailService = new EmailService(mailSender, meterRegistry);
+        bulkEmailService = new BulkEmailService(emailService, properties, Runnable::run, meterRegistry);
+    }
+
+    @Test
+    void sendAll_shouldSendEachChunkThroughOneConnection() {
+        List<OutgoingEmail> emails = List.of(
+                new OutgoingEmail("a@example.com", "<p>a</p>"),
+                new OutgoingEmail("b@example.com", "<p>b</p>"),
+                new OutgoingEmail("c@example.com", "<p>c</p>"));
+
+        BulkSendResult result = bulkEmailService.sendAll(emails);
+
+        // 3 имейла при порция от 2 -> две извиквания на send(MimeMessage...)
+        verify(mailSender, times(2)).send(any(MimeMessage[].class));
+        assertEquals(3, result.getSentCount());
+        assertTrue(result.getFailures().isEmpty());
+    }
+
+    @Test
+    void sendAll_whenMessageFails_shouldRetryOnlyFailedMessagesOnce() {
+        OutgoingEmail ok = new OutgoingEmail("ok@example.com", "<p>ok</p>");
+        OutgoingEmail flaky = new OutgoingEmail("flaky@example.com", "<p>flaky</p>");
+
+        doAnswer(invocation -> {
+            MimeMessage[] messages = (MimeMessage[]) invocation.getRawArguments()[0];
+            if (messages.length == 2) {
+                throw new MailSendException(Map.of(messages[1], new RuntimeException("Connection reset")));
+            }
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        BulkSendResult result = bulkEmailService.sendAll(List.of(ok, flaky));
+
+        verify(mailSender, times(2)).send(any(MimeMessage[].class));
+        assertEquals(2, result.getSentCount());
+        assertNull(result.getFailure(flaky));
+    }
+
+    @Test
+    void sendAll_whenServerRejectsLogin_shouldReportEveryMessageAsFailed() {
+        OutgoingEmail first = new OutgoingEmail("a@example.com", "<p>a</p>");
+        OutgoingEmail second = new OutgoingEmail("b@example.com", "<p>b</p>");
+        doThrow(new MailAuthenticationException("Bad credentials")).when(mailSender).send(any(MimeMessage[].class));
+
+        BulkSendResult result = bulkEmailService.sendAll(List.of(first, second));
+
+        assertEquals(0, result.getSentCount());
+        assertEquals(2, result.getFailures().size());
+        assertInstanceOf(MailAuthenticationException.class, result.getFailure(first));
+    }
+
+    @Test
+    void sendAll_whenListIsEmpty_shouldNotTouchMailServer() {
+        BulkSendResult result = bulkEmailService.sendAll(List.of());
+
+        assertEquals(0, result.getSentCount());
+        verifyNoInteractions(mailSender);
+    }
+}
@@ -0,0 +1,125 @@
+package LangForU_DevTeam.LangForU.courses;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за индекса за търсене на курсове {@link CourseSearchIndex}.
+ * Проверява търсенето по триграми, филтрите и броя курсове за всяка стойност на филтрите.
+ */
+@ExtendWith(MockitoExtension.class)
+class CourseSearchIndexTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    private CourseSearchIndex searchIndex;
+
+    private static final LocalDate MARCH = LocalDate.of(2031, 3, 1);
+    private static final LocalDate APRIL = LocalDate.of(2031, 4, 1);
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new CourseSearchIndex(courseRepository);
+        // lenient - тестът за триграмите не изгражда индекса.
+        lenient().when(courseRepository.findSearchDocuments()).thenReturn(List.of(
+                row(1L, "Английски", Level.A1, 0f, MARCH, "Курс за начинаещи.", "Иван Петров", true),
+                row(2L, "Немски", Level.B1, 90f, MARCH, "Граматика и разговор, с помощ от английски.", "Мария Иванова", false),
+                row(3L, "Английски", Level.B1, 250f, APRIL, "Бизнес английски за напреднали.", "Петър Колев", true),
+                row(4L, "Японски", Level.HSK1, 400f, APRIL, "Йероглифи.", "Мария Петрова", false)));
+    }
+
+    @Test
+    void search_withTypo_shouldMatchByTrigramsAndRankLanguageAboveDescription() {
+        List<Long> ids = ids(searchIndex.search(query("англиски", Set.of(), Set.of(), null)));
+
+        // Курсовете по английски са преди курса, който само споменава английски в описанието.
+        assertEquals(List.of(3L, 1L, 2L), ids);
+    }
+
+    @Test
+    void search_shouldMatchInstructorNamesIgnoringCase() {
+        assertEquals(List.of(2L, 4L), ids(searchIndex.search(query("МАРИЯ", Set.of(), Set.of(), null))));
+    }
+
+    @Test
+    void search_withoutText_shouldReturnAllCoursesOrderedByStartDateWithFacetCounts() {
+        CourseSearchResult result = searchIndex.search(CourseSearchQuery.all());
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(result));
+        assertEquals(Map.of(Level.A1, 1, Level.B1, 2, Level.HSK1, 1), result.getLevelCounts());
+        assertEquals(List.of(PriceBand.FREE, PriceBand.UP_TO_100, PriceBand.UP_TO_300, PriceBand.OVER_300),
+                List.copyOf(result.getPriceBandCounts().keySet()));
+        assertEquals(List.of(YearMonth.of(2031, 3), YearMonth.of(2031, 4)), List.copyOf(result.getStartMonthCounts().keySet()));
+        assertEquals(Map.of(true, 2, false, 2), result.getFinalExamCounts());
+    }
+
+    @Test
+    void search_withFilters_shouldIntersectFacetsAndCountOtherValuesWithinSelection() {
+        CourseSearchResult result = searchIndex.search(query("", Set.of(Level.B1), Set.of(), true));
+
+        assertEquals(List.of(3L), ids(result));
+        // Броят за нивата не отчита избраното ниво, а само избора "с финален изпит".
+        assertEquals(1, result.getLevelCounts().get(Level.A1));
+        assertEquals(1, result.getLevelCounts().get(Level.B1));
+        assertEquals(0, result.getLevelCounts().get(Level.HSK1));
+        // Броят за финалния изпит отчита избраното ниво.
+        assertEquals(Map.of(true, 1, false, 1), result.getFinalExamCounts());
+        assertEquals(1, result.getStartMonthCounts().get(YearMonth.of(2031, 4)));
+        assertEquals(0, result.getStartMonthCounts().get(YearMonth.of(2031, 3)));
+    }
+
+    @Test
+    void search_shouldCombineTextAndFiltersInOneCall() {
+        CourseSearchResult result = searchIndex.search(query("английски", Set.of(), Set.of(YearMonth.of(2031, 3)), null));
+
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertEquals(Map.of(Level.A1, 1, Level.B1, 1, Level.HSK1, 0), result.getLevelCounts());
+        assertEquals(1, result.getStartMonthCounts().get(YearMonth.of(2031, 4)));
+    }
+
+    @Test
+    void refresh_withoutTransaction_shouldRebuildFromRepository() {
+        searchIndex.search(CourseSearchQuery.all());
+        when(courseRepository.findSearchDocuments()).thenReturn(List.<Object[]>of(
+                row(5L, "Испански", Level.A2, 120f, MARCH, "Ново.", "Хосе Гарсия", false)));
+
+        searchIndex.refresh();
+
+        assertEquals(List.of(5L), ids(searchIndex.search(query("испански", Set.of(), Set.of(), null))));
+        verify(courseRepository, times(2)).findSearchDocuments();
+    }
+
+    @Test
+    void trigrams_shouldPadWordsAndFoldCase() {
+        assertEquals(List.of(" ко", "кот", "от "), List.copyOf(CourseSearchIndex.trigrams("Кот!")));
+        assertTrue(CourseSearchIndex.trigrams("  ").isEmpty());
+        assertTrue(CourseSearchIndex.trigrams(null).isEmpty());
+    }
+
+    private static CourseSearchQuery query(String text, Set<Level> levels, Set<YearMonth> months, Boolean hasFinalExam) {
+        return new CourseSearchQuery(text, levels, Set.of(), months, hasFinalExam);
+    }
+
+    private static List<Long> ids(CourseSearchResult result) {
+        return result.getCourses().stream().map(ActiveCourseCard::getId).toList();
+    }
+
+    private static Object[] row(Long id, String language, Level level, Float price, LocalDate start,
+                                String description, String instructor, boolean hasFinalExam) {
+        return new Object[]{id, language, level, price, start, start.plusMonths(3), description, 5,
+                "/img/course" + id + ".png", instructor, null, hasFinalExam};
+    }
+}
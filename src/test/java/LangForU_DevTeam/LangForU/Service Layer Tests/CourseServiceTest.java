@@ -1,5 +1,6 @@
 package LangForU_DevTeam.LangForU.courses;
 
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -26,6 +28,15 @@ class CourseServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private RenderedPageCache pageCache;
+
+    @Mock
+    private ActiveCourseCatalog activeCourseCatalog;
+
+    @Mock
+    private CourseSearchIndex courseSearchIndex;
+
     @InjectMocks
     private CourseService courseService;
     //</editor-fold>
@@ -84,6 +95,9 @@ class CourseServiceTest {
 
         // Assert
         verify(courseRepository).save(testCourse);
+        verify(activeCourseCatalog).refresh();
+        verify(courseSearchIndex).refresh();
+        verify(pageCache).invalidate();
     }
 
     @Test
@@ -96,6 +110,9 @@ class CourseServiceTest {
 
         // Assert
         verify(courseRepository).deleteById(1L);
+        verify(activeCourseCatalog).refresh();
+        verify(courseSearchIndex).refresh();
+        verify(pageCache).invalidate();
     }
 
     @Test
@@ -126,6 +143,33 @@ class CourseServiceTest {
         verify(courseRepository).findActiveCourses(any(LocalDate.class));
     }
 
+    @Test
+    void getActiveCourseCards_whenCalled_shouldReadFromCatalogWithoutRepository() {
+        // Arrange
+        ActiveCourseCard card = new ActiveCourseCard(1L, "English", Level.B1, 100.0f,
+                testCourse.getStartDate(), testCourse.getEndDate(), testCourse.getDescription(), null, "/img/test.png");
+        when(activeCourseCatalog.getCards()).thenReturn(List.of(card));
+
+        // Act
+        List<ActiveCourseCard> cards = courseService.getActiveCourseCards();
+
+        // Assert
+        assertEquals(List.of(card), cards);
+        verifyNoInteractions(courseRepository);
+    }
+
+    @Test
+    void searchCourses_whenCalled_shouldDelegateToSearchIndex() {
+        // Arrange
+        CourseSearchQuery query = CourseSearchQuery.all();
+        CourseSearchResult result = new CourseSearchResult(List.of(), Map.of(), Map.of(), Map.of(), Map.of());
+        when(courseSearchIndex.search(query)).thenReturn(result);
+
+        // Act & Assert
+        assertSame(result, courseService.searchCourses(query));
+        verifyNoInteractions(courseRepository);
+    }
+
     @Test
     void getCoursesByLanguage_whenCalled_shouldInvokeRepositoryMethod() {
         // Arrange
@@ -0,0 +1,87 @@
+package LangForU_DevTeam.LangForU.digest;
+
+import LangForU_DevTeam.LangForU.email.EmailOutboxService;
+import LangForU_DevTeam.LangForU.email.EmailTemplateService;
+import LangForU_DevTeam.LangForU.email.OutgoingEmail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа DigestService.
+ * Проверява групирането на събитията по потребител и генерирането на по един имейл на потребител.
+ */
+@ExtendWith(MockitoExtension.class)
+class DigestServiceTest {
+
+    @Mock
+    private NotificationEventRepository eventRepository;
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    private DigestService digestService;
+
+    @BeforeEach
+    void setUp() {
+        DigestProperties properties = new DigestProperties();
+        properties.setPageSize(2);
+        digestService = new DigestService(eventRepository, emailOutboxService, new EmailTemplateService(), properties);
+    }
+
+    @Test
+    void processNextPage_shouldEnqueueOneDigestPerUserAndDeleteEvents() {
+        LocalDateTime windowEnd = LocalDateTime.now();
+        List<NotificationEvent> events = List.of(
+                event(3L, NotificationEventType.LECTION, "Урок 1 (Английски)"),
+                event(3L, NotificationEventType.BLOG, "Нова статия"),
+                event(5L, NotificationEventType.LECTION, "Урок 7 (Немски)"));
+        when(eventRepository.findPendingUserIdsAfter(eq(0L), eq(windowEnd), any(Pageable.class))).thenReturn(List.of(3L, 5L));
+        when(eventRepository.findPendingForUpdate(List.of(3L, 5L), windowEnd)).thenReturn(events);
+
+        long lastUserId = digestService.processNextPage(0L, windowEnd);
+
+        assertEquals(5L, lastUserId);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailOutboxService).enqueueAll(captor.capture());
+        List<OutgoingEmail> emails = captor.getValue();
+        assertEquals(List.of("user3@example.com", "user5@example.com"), emails.stream().map(OutgoingEmail::getTo).toList());
+        assertTrue(emails.get(0).getBody().contains("Урок 1 (Английски)"));
+        assertTrue(emails.get(0).getBody().contains("Нова статия"));
+        assertTrue(emails.get(0).getBody().contains("(2)"));
+        verify(eventRepository).deleteAllInBatch(events);
+    }
+
+    @Test
+    void processNextPage_whenNoPendingEvents_shouldReturnMinusOne() {
+        when(eventRepository.findPendingUserIdsAfter(anyLong(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(-1L, digestService.processNextPage(0L, LocalDateTime.now()));
+        verifyNoInteractions(emailOutboxService);
+        verify(eventRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    @Test
+    void recordAll_whenEmpty_shouldNotTouchRepository() {
+        digestService.recordAll(List.of());
+
+        verifyNoInteractions(eventRepository);
+    }
+
+    private static NotificationEvent event(Long userId, NotificationEventType type, String title) {
+        return new NotificationEvent(userId, "user" + userId + "@example.com", "User " + userId, type, title,
+                "http://localhost:8080/lections/view/1", LocalDateTime.now().minusHours(1));
+    }
+}
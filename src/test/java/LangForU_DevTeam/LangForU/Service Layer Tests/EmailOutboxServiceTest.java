@@ -0,0 +1,98 @@
+package LangForU_DevTeam.LangForU.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа EmailOutboxService.
+ * Проверява записването в опашката, повторните опити с експоненциално забавяне и dead-letter състоянието.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    private EmailOutboxProperties properties;
+    private EmailOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EmailOutboxProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoffSeconds(10);
+        properties.setMaxBackoffSeconds(25);
+        outboxService = new EmailOutboxService(outboxRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void enqueue_shouldSavePendingMessage() {
+        outboxService.enqueue("user@example.com", "<p>body</p>");
+
+        verify(outboxRepository).save(argThat(m ->
+                m.getRecipient().equals("user@example.com")
+                        && m.getStatus() == EmailOutboxStatus.PENDING
+                        && m.getAttempts() == 0));
+    }
+
+    @Test
+    void enqueue_whenRecipientIsEmpty_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> outboxService.enqueue("", "body"));
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    void backoffSeconds_shouldDoubleAndRespectMaximum() {
+        assertEquals(10, outboxService.backoffSeconds(1));
+        assertEquals(20, outboxService.backoffSeconds(2));
+        assertEquals(25, outboxService.backoffSeconds(3));
+    }
+
+    @Test
+    void markFailed_beforeMaxAttempts_shouldRescheduleAsPending() {
+        EmailOutboxMessage message = new EmailOutboxMessage("user@example.com", "body", LocalDateTime.now());
+        message.setStatus(EmailOutboxStatus.SENDING);
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(message));
+
+        outboxService.markFailed(1L, "SMTP timeout");
+
+        assertEquals(EmailOutboxStatus.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertEquals("SMTP timeout", message.getLastError());
+        assertTrue(message.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(5)));
+    }
+
+    @Test
+    void markFailed_onLastAttempt_shouldMoveToDeadLetter() {
+        EmailOutboxMessage message = new EmailOutboxMessage("user@example.com", "body", LocalDateTime.now());
+        message.setAttempts(2);
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(message));
+
+        outboxService.markFailed(1L, "Mailbox unavailable");
+
+        assertEquals(EmailOutboxStatus.DEAD, message.getStatus());
+        assertEquals(3, message.getAttempts());
+    }
+
+    @Test
+    void markSent_shouldSetStatusAndTimestamp() {
+        EmailOutboxMessage message = new EmailOutboxMessage("user@example.com", "body", LocalDateTime.now());
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(message));
+
+        outboxService.markSent(1L);
+
+        assertEquals(EmailOutboxStatus.SENT, message.getStatus());
+        assertNotNull(message.getSentAt());
+    }
+}
@@ -0,0 +1,64 @@
+package LangForU_DevTeam.LangForU.email;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа EmailOutboxWorker.
+ * Проверява, че една проверка на опашката изпраща ограничен брой партиди.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxWorkerTest {
+
+    @Mock
+    private EmailOutboxService outboxService;
+
+    @Mock
+    private BulkEmailService bulkEmailService;
+
+    private EmailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        EmailOutboxProperties properties = new EmailOutboxProperties();
+        properties.setMaxBatchesPerPoll(3);
+        worker = new EmailOutboxWorker(outboxService, bulkEmailService, properties);
+        when(bulkEmailService.sendAll(anyList())).thenReturn(new BulkSendResult());
+    }
+
+    @Test
+    void poll_whenQueueIsLarge_shouldStopAfterMaxBatches() {
+        when(outboxService.claimBatch()).thenAnswer(invocation -> List.of(message(1L)));
+
+        worker.poll();
+
+        verify(outboxService, times(3)).claimBatch();
+        verify(outboxService, times(3)).markSent(1L);
+    }
+
+    @Test
+    void poll_whenQueueEmpties_shouldStopEarly() {
+        when(outboxService.claimBatch()).thenReturn(List.of(message(1L))).thenReturn(List.of());
+
+        worker.poll();
+
+        verify(outboxService, times(2)).claimBatch();
+        verify(outboxService).markSent(1L);
+    }
+
+    private static EmailOutboxMessage message(Long id) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setRecipient("user@example.com");
+        message.setBody("<p>body</p>");
+        return message;
+    }
+}
@@ -1,15 +1,18 @@
 package LangForU_DevTeam.LangForU.email;
 
-import jakarta.mail.MessagingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -20,8 +23,8 @@ class EmailServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
-    @Mock
-    private EmailTemplateService emailTemplateService;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private EmailService emailService;
@@ -57,4 +60,15 @@ class EmailServiceTest {
             emailService.send(to, emailBody);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void send_shouldRecordLatencyAndFailureMetrics() {
+        doNothing().doThrow(new MailSendException("Simulated failure")).when(mailSender).send(any(MimeMessage.class));
+
+        emailService.send("ok@example.com", "body");
+        assertThrows(MailSendException.class, () -> emailService.send("fail@example.com", "body"));
+
+        assertEquals(2, meterRegistry.get("mail.send.latency").timer().count());
+        assertEquals(1.0, meterRegistry.get("mail.send.failures").counter().count());
+    }
+}
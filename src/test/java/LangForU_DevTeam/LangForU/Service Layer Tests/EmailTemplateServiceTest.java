@@ -0,0 +1,78 @@
+package LangForU_DevTeam.LangForU.email;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за класа EmailTemplateService и компилираните шаблони {@link EmailTemplate}.
+ * Проверява, че новите шаблони генерират същия HTML като предишната имплементация и че стойностите се екранират.
+ */
+class EmailTemplateServiceTest {
+
+    private final EmailTemplateService templateService = new EmailTemplateService();
+    private final LegacyEmailTemplateService legacy = new LegacyEmailTemplateService();
+
+    @Test
+    void allTemplates_shouldMatchLegacyOutput() {
+        assertEquals(legacy.buildEmail_AdminActivation("Иван", "http://localhost:8080/confirm?token=abc"),
+                templateService.buildEmail_AdminActivation("Иван", "http://localhost:8080/confirm?token=abc"));
+        assertEquals(legacy.buildEmail_Registration("Иван", "http://localhost:8080/register"),
+                templateService.buildEmail_Registration("Иван", "http://localhost:8080/register"));
+        assertEquals(legacy.buildEmail_LectureReleased("Иван", "Урок 1"),
+                templateService.buildEmail_LectureReleased("Иван", "Урок 1"));
+        assertEquals(legacy.buildEmail_AccountDeletion("Иван", "ivan@example.com"),
+                templateService.buildEmail_AccountDeletion("Иван", "ivan@example.com"));
+        assertEquals(legacy.buildEmail_AccountDisable("Иван", "ivan@example.com"),
+                templateService.buildEmail_AccountDisable("Иван", "ivan@example.com"));
+        assertEquals(legacy.buildEmail_AccountEnabled("Иван", "ivan@example.com"),
+                templateService.buildEmail_AccountEnabled("Иван", "ivan@example.com"));
+        assertEquals(legacy.buildEmail_contactAnswer("Благодарим за въпроса.", "Мария", "Иван"),
+                templateService.buildEmail_contactAnswer("Благодарим за въпроса.", "Мария", "Иван"));
+        assertEquals(legacy.buildEmail_NewLectionNotification("Иван", "Английски", "Урок 2", "http://localhost:8080/lections/view/2"),
+                templateService.buildEmail_NewLectionNotification("Иван", "Английски", "Урок 2", "http://localhost:8080/lections/view/2"));
+        assertEquals(legacy.buildEmail_NewBlogNotification("Иван", "Нова статия", "http://localhost:8080/blog/detail/1"),
+                templateService.buildEmail_NewBlogNotification("Иван", "Нова статия", "http://localhost:8080/blog/detail/1"));
+    }
+
+    @Test
+    void render_shouldEscapeHtmlInValues() {
+        String html = templateService.buildEmail_NewBlogNotification("<script>alert('x')</script>", "A & B", "http://x/?a=1&b=\"2\"");
+
+        assertFalse(html.contains("<script>"));
+        assertTrue(html.contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;"));
+        assertTrue(html.contains("A &amp; B"));
+        assertTrue(html.contains("http://x/?a=1&amp;b=&quot;2&quot;"));
+    }
+
+    @Test
+    void render_whenValueIsNull_shouldWriteEmptyString() {
+        EmailTemplate template = EmailTemplate.compile("test", "<p>{{a}}|{{b}}|{{a}}</p>", "a", "b");
+
+        assertEquals("<p>x||x</p>", template.render("x", null));
+    }
+
+    @Test
+    void render_whenSlotIsRaw_shouldNotEscape() {
+        EmailTemplate template = EmailTemplate.compile("test", "<ul>{{{items}}}</ul><p>{{name}}</p>", "name", "items");
+
+        assertEquals("<ul><li>a</li></ul><p>&lt;b&gt;</p>", template.render("<b>", "<li>a</li>"));
+    }
+
+    @Test
+    void buildDigest_shouldEscapeItemValuesOnce() {
+        String item = templateService.buildEmail_DigestItem("Нова лекция", "A & B", "http://localhost:8080/lections/view/1");
+        String html = templateService.buildEmail_Digest("Иван", 1, item);
+
+        assertTrue(html.contains("A &amp; B"));
+        assertFalse(html.contains("&amp;amp;"));
+        assertTrue(html.contains("(1)"));
+    }
+
+    @Test
+    void compile_whenSlotIsUnknownOrUnclosed_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("test", "<p>{{missing}}</p>", "a"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("test", "<p>{{a</p>", "a"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("test", "<p>{{{a}}</p>", "a"));
+    }
+}
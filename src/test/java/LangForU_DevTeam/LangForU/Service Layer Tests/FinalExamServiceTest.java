@@ -3,6 +3,7 @@ package LangForU_DevTeam.LangForU.finalexam;
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.courses.Course;
 import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.courses.CourseSearchIndex;
 import LangForU_DevTeam.LangForU.question.QuestionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +38,8 @@ class FinalExamServiceTest {
     private CourseRepository courseRepository;
     @Mock
     private QuestionRepository questionRepository; // Макар и да не се ползва директно, е зависимост
+    @Mock
+    private CourseSearchIndex courseSearchIndex;
 
     @InjectMocks
     private FinalExamService finalExamService;
@@ -91,6 +94,7 @@ class FinalExamServiceTest {
         assertNull(testCourse.getFinalExam());
         // Проверяваме дали промяната в курса е запазена
         verify(courseRepository).save(testCourse);
+        verify(courseSearchIndex).refresh();
         // Проверяваме дали самият изпит е изтрит
         verify(finalExamRepository).delete(testFinalExam);
     }
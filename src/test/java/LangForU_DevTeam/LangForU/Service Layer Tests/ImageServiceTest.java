@@ -0,0 +1,132 @@
+package LangForU_DevTeam.LangForU.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за класа ImageService и адресите на вариантите в ImageUrls.
+ * Проверява размерите на вариантите, имената по хеш, повторното качване и отхвърлянето на невалидни файлове.
+ */
+class ImageServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private ImageProperties properties;
+    private ImageService imageService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImageProperties();
+        properties.setStorageDir(storageDir.toString());
+        imageService = new ImageService(properties, new SyncTaskExecutor());
+    }
+
+    @Test
+    void store_shouldWriteAllVariantsScaledToWidth() throws IOException {
+        StoredImage stored = imageService.store(png(2000, 1000, true)).join();
+
+        assertEquals(3, stored.getVariants().size());
+        assertEquals(ImageUrls.of(stored.getHash(), ImageVariant.HERO), stored.getUrl());
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage image = read(ImageUrls.fileName(stored.getHash(), variant));
+            assertEquals(variant.getWidth(), image.getWidth());
+            assertEquals(variant.getWidth() / 2, image.getHeight());
+        }
+        // Прозрачният фон става бял, тъй като JPEG няма алфа канал.
+        BufferedImage thumbnail = read(ImageUrls.fileName(stored.getHash(), ImageVariant.THUMBNAIL));
+        assertTrue(new Color(thumbnail.getRGB(1, 1)).getGreen() > 240);
+    }
+
+    @Test
+    void store_whenImageIsNarrow_shouldNotUpscale() throws IOException {
+        StoredImage stored = imageService.store(png(300, 200, false)).join();
+
+        assertEquals(300, read(ImageUrls.fileName(stored.getHash(), ImageVariant.HERO)).getWidth());
+        assertEquals(300, read(ImageUrls.fileName(stored.getHash(), ImageVariant.CARD)).getWidth());
+        assertEquals(160, read(ImageUrls.fileName(stored.getHash(), ImageVariant.THUMBNAIL)).getWidth());
+    }
+
+    @Test
+    void store_sameContentTwice_shouldReuseNamesAndFiles() throws IOException {
+        byte[] content = png(800, 600, false);
+        StoredImage first = imageService.store(content).join();
+        Path hero = storageDir.resolve(ImageUrls.fileName(first.getHash(), ImageVariant.HERO));
+        long modified = Files.getLastModifiedTime(hero).toMillis();
+
+        StoredImage second = imageService.store(content).join();
+        StoredImage other = imageService.store(png(801, 600, false)).join();
+
+        assertEquals(first.getVariants(), second.getVariants());
+        assertEquals(modified, Files.getLastModifiedTime(hero).toMillis());
+        assertNotEquals(first.getHash(), other.getHash());
+        try (Stream<Path> files = Files.list(storageDir)) {
+            assertEquals(6, files.count()); // Без останали временни файлове.
+        }
+    }
+
+    @Test
+    void store_whenContentIsNotAnImage_shouldFailWithIllegalArgument() {
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> imageService.store("<svg></svg>".getBytes(StandardCharsets.UTF_8)).join());
+
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void process_whenImageHasTooManyPixels_shouldBeRejectedBeforeDecoding() throws IOException {
+        properties.setMaxPixels(100 * 100);
+
+        assertThrows(IllegalArgumentException.class, () -> imageService.process(png(101, 100, false)));
+        assertNotNull(imageService.process(png(100, 100, false)));
+    }
+
+    @Test
+    void imageUrls_shouldDeriveVariantsOnlyForGeneratedImages() {
+        String hero = ImageUrls.of("0123456789abcdef01234567", ImageVariant.HERO);
+        ImageUrls urls = new ImageUrls();
+
+        assertEquals("/media/images/0123456789abcdef01234567-card.jpg", urls.url(hero, "card"));
+        assertEquals("/media/images/0123456789abcdef01234567-thumb.jpg", urls.url(hero, "thumbnail"));
+        assertEquals("/media/images/0123456789abcdef01234567-thumb.jpg 160w, "
+                + "/media/images/0123456789abcdef01234567-card.jpg 480w, "
+                + "/media/images/0123456789abcdef01234567-hero.jpg 1200w", urls.srcset(hero));
+        assertEquals("https://example.com/a.png", urls.url("https://example.com/a.png", "card"));
+        assertNull(urls.srcset("/img/blog/blog_1.png"));
+        assertNull(urls.url(null, "card"));
+    }
+
+    private BufferedImage read(String fileName) throws IOException {
+        return ImageIO.read(storageDir.resolve(fileName).toFile());
+    }
+
+    private static byte[] png(int width, int height, boolean transparent) throws IOException {
+        BufferedImage image = new BufferedImage(width, height,
+                transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        if (!transparent) {
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(Color.BLUE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -1,5 +1,8 @@
 package LangForU_DevTeam.LangForU.lections;
 
+import LangForU_DevTeam.LangForU.courses.Course;
+import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +11,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +28,12 @@ class LectionServiceTest {
     @Mock
     private LectionRepository lectionRepository;
 
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private RenderedPageCache pageCache;
+
     @InjectMocks
     private LectionService lectionService;
 
@@ -88,6 +98,20 @@ class LectionServiceTest {
 
         // Assert
         verify(lectionRepository).save(testLection);
+        assertNotNull(testLection.getLastModified());
+    }
+
+    @Test
+    void save_whenLectionMovesToAnotherCourse_shouldMarkBothCoursesModified() {
+        Course course = new Course();
+        course.setId(7L);
+        testLection.setCourse(course);
+        when(lectionRepository.findCourseIdById(1L)).thenReturn(Optional.of(5L));
+
+        lectionService.save(testLection);
+
+        verify(courseRepository).markModified(eq(5L), any(LocalDateTime.class));
+        verify(courseRepository).markModified(eq(7L), any(LocalDateTime.class));
     }
 
     @Test
@@ -116,6 +140,8 @@ class LectionServiceTest {
 
         // Assert
         verify(lectionRepository).deleteById(lectionId);
+        verify(courseRepository, never()).markModified(any(), any());
+        verify(pageCache).invalidate();
     }
 
     @Test
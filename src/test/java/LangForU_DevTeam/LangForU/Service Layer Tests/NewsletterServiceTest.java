@@ -0,0 +1,161 @@
+package LangForU_DevTeam.LangForU.subscriber;
+
+import LangForU_DevTeam.LangForU.blog.Blog;
+import LangForU_DevTeam.LangForU.digest.DigestService;
+import LangForU_DevTeam.LangForU.digest.NotificationEvent;
+import LangForU_DevTeam.LangForU.digest.NotificationEventType;
+import LangForU_DevTeam.LangForU.email.EmailOutboxService;
+import LangForU_DevTeam.LangForU.email.EmailTemplateService;
+import LangForU_DevTeam.LangForU.email.OutgoingEmail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа NewsletterService.
+ * Проверява създаването на задачи, обхождането на абонатите по страници и запазването на позицията.
+ */
+@ExtendWith(MockitoExtension.class)
+class NewsletterServiceTest {
+
+    @Mock
+    private NewsletterJobRepository jobRepository;
+    @Mock
+    private SubscriberRepository subscriberRepository;
+    @Mock
+    private EmailOutboxService emailOutboxService;
+    @Mock
+    private EmailTemplateService emailTemplateService;
+    @Mock
+    private DigestService digestService;
+
+    private NewsletterService newsletterService;
+
+    @BeforeEach
+    void setUp() {
+        NewsletterProperties properties = new NewsletterProperties();
+        properties.setPageSize(2);
+        newsletterService = new NewsletterService(jobRepository, subscriberRepository, emailOutboxService, emailTemplateService, properties, digestService);
+    }
+
+    @Test
+    void startFanout_shouldSavePendingJobWithRecipientCount() {
+        Blog blog = new Blog();
+        blog.setId(7L);
+        blog.setName("Нова статия");
+        when(subscriberRepository.countRecipients()).thenReturn(3L);
+        when(jobRepository.save(any(NewsletterJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        NewsletterJob job = newsletterService.startFanout(blog);
+
+        assertEquals(7L, job.getBlogId());
+        assertEquals(3L, job.getTotalRecipients());
+        assertEquals(NewsletterJobStatus.PENDING, job.getStatus());
+        verifyNoInteractions(emailOutboxService);
+    }
+
+    @Test
+    void processNextPage_whenPageIsFull_shouldEnqueueAndAdvanceCursor() {
+        NewsletterJob job = new NewsletterJob(7L, "Нова статия", 3, LocalDateTime.now());
+        when(jobRepository.findUnfinishedForUpdate(any(Pageable.class))).thenReturn(List.of(job));
+        when(subscriberRepository.findRecipientsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new SubscriberRecipient(4L, "a@example.com", "Анна", 40L, false),
+                new SubscriberRecipient(9L, "b@example.com", "Борис", 90L, false)));
+        when(emailTemplateService.buildEmail_NewBlogNotification(anyString(), anyString(), anyString())).thenReturn("<p>body</p>");
+
+        assertTrue(newsletterService.processNextPage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailOutboxService).enqueueAll(captor.capture());
+        assertEquals(List.of("a@example.com", "b@example.com"), captor.getValue().stream().map(OutgoingEmail::getTo).toList());
+        verify(emailTemplateService).buildEmail_NewBlogNotification("Анна", "Нова статия", "http://localhost:8080/blog/detail/7");
+
+        assertEquals(9L, job.getLastSubscriberId());
+        assertEquals(2, job.getProcessedRecipients());
+        assertEquals(NewsletterJobStatus.IN_PROGRESS, job.getStatus());
+    }
+
+    @Test
+    void processNextPage_whenPageIsShort_shouldCompleteJob() {
+        NewsletterJob job = new NewsletterJob(7L, "Нова статия", 3, LocalDateTime.now());
+        job.setLastSubscriberId(9L);
+        job.setProcessedRecipients(2);
+        job.setStatus(NewsletterJobStatus.IN_PROGRESS);
+        when(jobRepository.findUnfinishedForUpdate(any(Pageable.class))).thenReturn(List.of(job));
+        when(subscriberRepository.findRecipientsAfter(eq(9L), any(Pageable.class)))
+                .thenReturn(List.of(new SubscriberRecipient(12L, "c@example.com", "Вера", 120L, false)));
+
+        assertTrue(newsletterService.processNextPage());
+
+        assertEquals(12L, job.getLastSubscriberId());
+        assertEquals(NewsletterJobStatus.COMPLETED, job.getStatus());
+        assertNotNull(job.getCompletedAt());
+        assertEquals(100, job.getProgressPercent());
+    }
+
+    @Test
+    void processNextPage_whenSubscriberOptedIntoDigest_shouldRecordEventInsteadOfEmail() {
+        NewsletterJob job = new NewsletterJob(7L, "Нова статия", 2, LocalDateTime.now());
+        when(jobRepository.findUnfinishedForUpdate(any(Pageable.class))).thenReturn(List.of(job));
+        when(subscriberRepository.findRecipientsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new SubscriberRecipient(4L, "a@example.com", "Анна", 40L, true),
+                new SubscriberRecipient(9L, "b@example.com", "Борис", 90L, false)));
+        when(emailTemplateService.buildEmail_NewBlogNotification(anyString(), anyString(), anyString())).thenReturn("<p>body</p>");
+
+        assertTrue(newsletterService.processNextPage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> emails = ArgumentCaptor.forClass(List.class);
+        verify(emailOutboxService).enqueueAll(emails.capture());
+        assertEquals(List.of("b@example.com"), emails.getValue().stream().map(OutgoingEmail::getTo).toList());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(digestService).recordAll(events.capture());
+        assertEquals(1, events.getValue().size());
+        NotificationEvent event = events.getValue().get(0);
+        assertEquals(40L, event.getUserId());
+        assertEquals(NotificationEventType.BLOG, event.getType());
+        assertEquals("http://localhost:8080/blog/detail/7", event.getLink());
+        assertEquals(9L, job.getLastSubscriberId());
+    }
+
+    @Test
+    void processNextPage_whenNoUnfinishedJobs_shouldReturnFalse() {
+        when(jobRepository.findUnfinishedForUpdate(any(Pageable.class))).thenReturn(List.of());
+
+        assertFalse(newsletterService.processNextPage());
+        verifyNoInteractions(subscriberRepository, emailOutboxService);
+    }
+
+    @Test
+    void findRecentJobs_shouldReturnProgressOfEachJob() {
+        NewsletterJob job = new NewsletterJob(7L, "Нова статия", 4, LocalDateTime.now());
+        job.setId(3L);
+        job.setStatus(NewsletterJobStatus.IN_PROGRESS);
+        job.setLastSubscriberId(11L);
+        job.setProcessedRecipients(1);
+        when(jobRepository.findTop20ByOrderByIdDesc()).thenReturn(List.of(job));
+
+        NewsletterJobProgress progress = newsletterService.findRecentJobs().get(0);
+
+        assertEquals(3L, progress.getId());
+        assertEquals(NewsletterJobStatus.IN_PROGRESS, progress.getStatus());
+        assertEquals(11L, progress.getLastSubscriberId());
+        assertEquals(25, progress.getProgressPercent());
+    }
+}
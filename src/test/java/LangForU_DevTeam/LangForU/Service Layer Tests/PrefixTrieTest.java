@@ -0,0 +1,54 @@
+package LangForU_DevTeam.LangForU.blog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за класа PrefixTrie.
+ * Проверява допълването без значение от регистъра, подредбата по тегло и ограничаването на резултатите.
+ */
+class PrefixTrieTest {
+
+    private final PrefixTrie trie = PrefixTrie.build(Map.of(
+            "Граматика", 12L,
+            "Глаголи", 7L,
+            "грамофон", 12L,
+            "Grammar", 3L,
+            "German", 9L,
+            "Гр", 1L), 3);
+
+    @Test
+    void complete_shouldIgnoreCyrillicAndLatinCase() {
+        assertEquals(List.of("Граматика", "грамофон"), trie.complete("ГРАМ", 10));
+        assertEquals(List.of("German", "Grammar"), trie.complete("g", 10));
+        assertEquals(List.of("Grammar"), trie.complete(" gRa ", 10));
+    }
+
+    @Test
+    void complete_shouldOrderByWeightThenNameAndKeepOnlyTopK() {
+        // Четири имена започват с "г" (кирилица); пазят се само трите най-тежки.
+        assertEquals(List.of("Граматика", "грамофон", "Глаголи"), trie.complete("г", 10));
+        assertEquals(List.of("Граматика"), trie.complete("г", 1));
+    }
+
+    @Test
+    void complete_withPrefixThatIsAlsoAName_shouldIncludeIt() {
+        assertEquals(List.of("Граматика", "грамофон", "Гр"), trie.complete("гр", 10));
+    }
+
+    @Test
+    void complete_whenNothingMatches_shouldReturnEmptyList() {
+        assertTrue(trie.complete("x", 10).isEmpty());
+        assertTrue(trie.complete("грамоф0", 10).isEmpty());
+        assertTrue(PrefixTrie.build(Map.of(), 3).complete("", 10).isEmpty());
+    }
+
+    @Test
+    void complete_withEmptyPrefix_shouldReturnHeaviestOverall() {
+        assertEquals(List.of("Граматика", "грамофон", "German"), trie.complete("", 10));
+    }
+}
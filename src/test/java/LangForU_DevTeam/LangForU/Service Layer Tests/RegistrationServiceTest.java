@@ -2,7 +2,7 @@ package LangForU_DevTeam.LangForU.registration;
 
 import LangForU_DevTeam.LangForU.appuser.AppUser;
 import LangForU_DevTeam.LangForU.appuser.AppUserService;
-import LangForU_DevTeam.LangForU.email.EmailService;
+import LangForU_DevTeam.LangForU.email.EmailOutboxService;
 import LangForU_DevTeam.LangForU.email.EmailTemplateService;
 import LangForU_DevTeam.LangForU.registration.token.ConfirmationToken;
 import LangForU_DevTeam.LangForU.registration.token.ConfirmationTokenService;
@@ -31,7 +31,7 @@ class RegistrationServiceTest {
     @Mock
     private ConfirmationTokenService confirmationTokenService;
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
     @Mock
     private EmailTemplateService emailTemplateService;
 
@@ -63,7 +63,7 @@ class RegistrationServiceTest {
         when(emailValidator.test(registrationRequest.getEmail())).thenReturn(true);
         when(appUserService.signUpUser(any(AppUser.class))).thenReturn(testToken);
         when(emailTemplateService.buildEmail_Registration(anyString(), anyString())).thenReturn(emailBody);
-        doNothing().when(emailService).send(anyString(), anyString());
+        doNothing().when(emailOutboxService).enqueue(anyString(), anyString());
 
         String resultToken = registrationService.register(registrationRequest);
 
@@ -77,7 +77,7 @@ class RegistrationServiceTest {
         assertEquals(registrationRequest.getName(), capturedUser.getName());
         assertEquals(registrationRequest.getEmail(), capturedUser.getEmail());
 
-        verify(emailService).send(registrationRequest.getEmail(), emailBody);
+        verify(emailOutboxService).enqueue(registrationRequest.getEmail(), emailBody);
     }
 
     @Test
@@ -89,7 +89,7 @@ class RegistrationServiceTest {
         assertEquals("Невалиден имейл адрес", exception.getMessage());
 
         verify(appUserService, never()).signUpUser(any());
-        verify(emailService, never()).send(anyString(), anyString());
+        verify(emailOutboxService, never()).enqueue(anyString(), anyString());
     }
 
     @Test
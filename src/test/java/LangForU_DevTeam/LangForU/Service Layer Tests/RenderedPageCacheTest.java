@@ -0,0 +1,132 @@
+package LangForU_DevTeam.LangForU.pagecache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за класа RenderedPageCache.
+ * Проверява LRU изхвърлянето по общ размер, изчистването, отхвърлянето на страници, генерирани преди изчистване,
+ * и компресирането на тялото в {@link CachedPage}.
+ */
+class RenderedPageCacheTest {
+
+    private PageCacheProperties properties;
+    private RenderedPageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PageCacheProperties();
+        cache = new RenderedPageCache(properties);
+    }
+
+    @Test
+    void cachedPage_shouldCompressAndRestoreBody() throws IOException {
+        String html = "<html><body>" + "<p>Блог</p>".repeat(500) + "</body></html>";
+        byte[] content = html.getBytes(StandardCharsets.UTF_8);
+
+        CachedPage page = CachedPage.of("text/html;charset=UTF-8", Map.of(), content);
+
+        assertEquals(content.length, page.getLength());
+        assertTrue(page.getCompressedLength() < content.length / 10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        page.writeDecompressed(out);
+        assertEquals(html, out.toString(StandardCharsets.UTF_8));
+        // Буферът не се изчерпва - страницата може да се изпрати повторно.
+        out.reset();
+        page.writeDecompressed(out);
+        assertEquals(html, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void put_whenOverBudget_shouldEvictLeastRecentlyUsed() {
+        CachedPage first = page(1);
+        properties.setMaxSize(DataSize.ofBytes(first.getCompressedLength() * 2L + 100));
+        cache.put("/blog/detail/1", first, cache.generation());
+        cache.put("/blog/detail/2", page(2), cache.generation());
+        cache.get("/blog/detail/1"); // Първата страница става последно използвана.
+
+        cache.put("/blog/detail/3", page(3), cache.generation());
+
+        assertNotNull(cache.get("/blog/detail/1"));
+        assertNull(cache.get("/blog/detail/2"));
+        assertNotNull(cache.get("/blog/detail/3"));
+        assertEquals(2, cache.size());
+        assertTrue(cache.usedBytes() <= properties.getMaxSize().toBytes());
+    }
+
+    @Test
+    void put_whenReplacingKey_shouldNotCountOldPage() {
+        cache.put("/blog", page(1), cache.generation());
+        CachedPage replacement = page(2);
+
+        cache.put("/blog", replacement, cache.generation());
+
+        assertSame(replacement, cache.get("/blog"));
+        assertEquals(replacement.getCompressedLength(), cache.usedBytes());
+    }
+
+    @Test
+    void put_whenCacheWasInvalidatedDuringRendering_shouldBeRejected() {
+        long generation = cache.generation();
+        cache.invalidate(); // Запис, потвърден докато страницата се генерира.
+
+        assertFalse(cache.put("/courses", page(1), generation));
+        assertNull(cache.get("/courses"));
+    }
+
+    @Test
+    void invalidate_shouldDropAllPages() {
+        cache.put("/index", page(1), cache.generation());
+        cache.put("/courses", page(2), cache.generation());
+
+        cache.invalidate();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.usedBytes());
+        assertNull(cache.get("/index"));
+    }
+
+    @Test
+    void invalidatePaths_shouldDropOnlyThosePagesAndRejectPagesRenderedBefore() {
+        cache.put("/index", page(1), cache.generation());
+        cache.put("/courses?level=A1", page(2), cache.generation());
+        cache.put("/blog/detail/1", page(3), cache.generation());
+        long generation = cache.generation();
+
+        cache.invalidate(List.of("/index", "/courses"));
+
+        assertEquals(1, cache.size());
+        assertEquals(page(3).getCompressedLength(), cache.usedBytes());
+        assertNull(cache.get("/courses?level=A1"));
+        assertFalse(cache.put("/index", page(1), generation));
+    }
+
+    @Test
+    void get_whenPageIsExpired_shouldReturnNull() {
+        properties.setTtl(Duration.ZERO);
+        cache.put("/index", page(1), cache.generation());
+
+        assertNull(cache.get("/index"));
+        assertEquals(0, cache.usedBytes());
+    }
+
+    /**
+     * Страница със случайно съдържание, за да има компресираното тяло предвидим, немалък размер.
+     */
+    private static CachedPage page(long seed) {
+        byte[] content = new byte[4096];
+        new Random(seed).nextBytes(content);
+        return CachedPage.of("text/html;charset=UTF-8", Map.of(), content);
+    }
+}
@@ -0,0 +1,111 @@
+package LangForU_DevTeam.LangForU.taskService;
+
+import LangForU_DevTeam.LangForU.digest.DigestService;
+import LangForU_DevTeam.LangForU.digest.NotificationEvent;
+import LangForU_DevTeam.LangForU.digest.NotificationEventType;
+import LangForU_DevTeam.LangForU.email.BulkEmailService;
+import LangForU_DevTeam.LangForU.email.BulkSendResult;
+import LangForU_DevTeam.LangForU.email.EmailTemplateService;
+import LangForU_DevTeam.LangForU.email.OutgoingEmail;
+import LangForU_DevTeam.LangForU.lections.Lection;
+import LangForU_DevTeam.LangForU.lections.LectionRecipient;
+import LangForU_DevTeam.LangForU.lections.LectionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа ScheduledTaskService.
+ * Проверява обхождането на получателите на порции и масовото изпращане на известията.
+ */
+@ExtendWith(MockitoExtension.class)
+class ScheduledTaskServiceTest {
+
+    @Mock
+    private LectionService lectionService;
+    @Mock
+    private BulkEmailService bulkEmailService;
+    @Mock
+    private EmailTemplateService emailTemplateService;
+    @Mock
+    private DigestService digestService;
+
+    private ScheduledTaskService scheduledTaskService;
+
+    @BeforeEach
+    void setUp() {
+        LectionNotificationProperties properties = new LectionNotificationProperties();
+        properties.setChunkSize(2);
+        scheduledTaskService = new ScheduledTaskService(lectionService, bulkEmailService, emailTemplateService, properties, digestService);
+    }
+
+    @Test
+    void notifyAvailableLections_shouldSendEachChunkAndContinueAfterLastRow() {
+        LocalDate today = LocalDate.now();
+        when(lectionService.findByReleaseDate(today)).thenReturn(List.of(lection(1L), lection(2L)));
+        when(lectionService.findNotificationRecipients(1L, 0L, 2)).thenReturn(List.of(
+                new LectionRecipient(1L, "Урок 1", "Английски", 10L, "a@example.com", "Анна", false),
+                new LectionRecipient(1L, "Урок 1", "Английски", 11L, "b@example.com", "Борис", false)));
+        when(lectionService.findNotificationRecipients(1L, 11L, 2)).thenReturn(List.of());
+        when(lectionService.findNotificationRecipients(2L, 0L, 2)).thenReturn(List.of(
+                new LectionRecipient(2L, "Урок 7", "Немски", 10L, "a@example.com", "Анна", false)));
+        when(emailTemplateService.buildEmail_NewLectionNotification(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn("<p>body</p>");
+        when(bulkEmailService.sendAll(anyList())).thenReturn(new BulkSendResult());
+
+        scheduledTaskService.notifyAvailableLections();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutgoingEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bulkEmailService, times(2)).sendAll(captor.capture());
+        assertEquals(List.of("a@example.com", "b@example.com"), captor.getAllValues().get(0).stream().map(OutgoingEmail::getTo).toList());
+        assertEquals(List.of("a@example.com"), captor.getAllValues().get(1).stream().map(OutgoingEmail::getTo).toList());
+        verify(emailTemplateService).buildEmail_NewLectionNotification("Анна", "Немски", "Урок 7", "http://localhost:8080/lections/view/2");
+    }
+
+    @Test
+    void notifyAvailableLections_whenUserOptedIntoDigest_shouldRecordEventInsteadOfEmail() {
+        LocalDate today = LocalDate.now();
+        when(lectionService.findByReleaseDate(today)).thenReturn(List.of(lection(1L)));
+        when(lectionService.findNotificationRecipients(1L, 0L, 2)).thenReturn(List.of(
+                new LectionRecipient(1L, "Урок 1", "Английски", 10L, "a@example.com", "Анна", true)));
+
+        scheduledTaskService.notifyAvailableLections();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(digestService).recordAll(captor.capture());
+        NotificationEvent event = captor.getValue().get(0);
+        assertEquals(10L, event.getUserId());
+        assertEquals(NotificationEventType.LECTION, event.getType());
+        assertEquals("Урок 1 (Английски)", event.getTitle());
+        assertEquals("http://localhost:8080/lections/view/1", event.getLink());
+        verifyNoInteractions(bulkEmailService, emailTemplateService);
+    }
+
+    @Test
+    void notifyAvailableLections_whenNoLectionsToday_shouldNotSendAnything() {
+        when(lectionService.findByReleaseDate(any(LocalDate.class))).thenReturn(List.of());
+
+        scheduledTaskService.notifyAvailableLections();
+
+        verify(lectionService, never()).findNotificationRecipients(anyLong(), anyLong(), anyInt());
+        verifyNoInteractions(bulkEmailService, emailTemplateService);
+    }
+
+    private static Lection lection(Long id) {
+        Lection lection = new Lection();
+        lection.setId(id);
+        return lection;
+    }
+}
@@ -0,0 +1,34 @@
+package LangForU_DevTeam.LangForU.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Модулни тестове за анализа на текст ({@link TextAnalyzer}) и българския стемер ({@link BulgarianStemmer}).
+ */
+class TextAnalyzerTest {
+
+    @Test
+    void analyze_shouldSplitFoldCaseAndDropStopWords() {
+        assertEquals(List.of("english", "b2", "курс"), TextAnalyzer.analyze("English B2 и курс!"));
+    }
+
+    @Test
+    void analyze_shouldReduceBulgarianInflectionsToTheSameStem() {
+        String stem = BulgarianStemmer.stem("урок");
+
+        assertEquals(List.of(stem, stem, stem), TextAnalyzer.analyze("Урок уроци урокът"));
+        assertEquals(TextAnalyzer.analyze("граматика"), TextAnalyzer.analyze("граматиката"));
+        assertEquals(TextAnalyzer.analyze("учител"), TextAnalyzer.analyze("учителите"));
+        assertEquals(TextAnalyzer.analyze("език"), TextAnalyzer.analyze("езици"));
+    }
+
+    @Test
+    void analyze_whenTextIsNullOrEmpty_shouldReturnNoTerms() {
+        assertEquals(List.of(), TextAnalyzer.analyze(null));
+        assertEquals(List.of(), TextAnalyzer.analyze(" ,.- "));
+    }
+}
@@ -0,0 +1,113 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import LangForU_DevTeam.LangForU.blog.BlogPostSummary;
+import LangForU_DevTeam.LangForU.blog.BlogRepository;
+import LangForU_DevTeam.LangForU.courses.CourseRepository;
+import LangForU_DevTeam.LangForU.pagecache.RenderedPageCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Модулни тестове за класа TrendingService.
+ * Проверява подредбата на заредените данни, пропускането на изтрити елементи, изчистването на кеша на страниците
+ * само при промяна и запазването и зареждането на резултатите.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+
+    //<editor-fold desc="Mocks">
+    @Mock
+    private TrendingScoreRepository trendingScoreRepository;
+
+    @Mock
+    private BlogRepository blogRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private RenderedPageCache pageCache;
+    //</editor-fold>
+
+    private TrendingTracker tracker;
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        TrendingProperties properties = new TrendingProperties();
+        tracker = new TrendingTracker(properties);
+        trendingService = new TrendingService(tracker, properties, trendingScoreRepository, blogRepository,
+                courseRepository, pageCache, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void refresh_shouldKeepRankingOrderAndSkipDeletedPosts() {
+        tracker.recordLike(TrendingKind.BLOG, 2);
+        tracker.recordView(TrendingKind.BLOG, 1);
+        tracker.recordView(TrendingKind.BLOG, 9); // Изтрита публикация
+        tracker.recordView(TrendingKind.BLOG, 9);
+        when(blogRepository.findPostSummariesByIds(List.of(2L, 9L, 1L)))
+                .thenReturn(List.of(summary(1L), summary(2L)));
+
+        trendingService.refresh();
+
+        assertEquals(List.of(2L, 1L), trendingService.getTrendingBlogs().stream().map(BlogPostSummary::getId).toList());
+        assertEquals(List.of(), trendingService.getTrendingCourses());
+        verify(courseRepository, never()).findSummariesByIds(anyList());
+        verify(pageCache).invalidate(TrendingService.TRENDING_PAGES);
+        verify(pageCache, never()).invalidate();
+        assertEquals(2, tracker.size());
+    }
+
+    @Test
+    void refresh_whenRankingIsUnchanged_shouldNotInvalidatePageCache() {
+        trendingService.refresh();
+
+        verify(pageCache, never()).invalidate(anyList());
+        verifyNoInteractions(blogRepository, courseRepository);
+    }
+
+    @Test
+    void persistScores_shouldReplaceStoredScores() {
+        tracker.recordView(TrendingKind.COURSE, 4);
+
+        trendingService.persistScores();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TrendingScore>> captor = ArgumentCaptor.forClass(List.class);
+        verify(trendingScoreRepository).deleteAllInBatch();
+        verify(trendingScoreRepository).saveAll(captor.capture());
+        TrendingScore saved = captor.getValue().get(0);
+        assertEquals(TrendingKind.COURSE, saved.getKind());
+        assertEquals(4L, saved.getItemId());
+        assertEquals(1.0, saved.getScore(), 1e-6);
+    }
+
+    @Test
+    void restoreScores_shouldLoadStoredScoresIntoRanking() {
+        when(trendingScoreRepository.findAll()).thenReturn(List.of(
+                new TrendingScore(TrendingKind.BLOG, 5L, 3.0, LocalDateTime.now())));
+        when(blogRepository.findPostSummariesByIds(List.of(5L))).thenReturn(List.of(summary(5L)));
+
+        trendingService.restoreScores();
+
+        assertEquals(5L, trendingService.getTrendingBlogs().get(0).getId());
+    }
+
+    private static BlogPostSummary summary(Long id) {
+        return new BlogPostSummary(id, "Публикация " + id, null, LocalDate.now());
+    }
+}
@@ -0,0 +1,126 @@
+package LangForU_DevTeam.LangForU.trending;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Модулни тестове за класа TrendingTracker.
+ * Проверява тежестите на събитията, затихването на резултатите, избора на първите елементи,
+ * премахването на забравените елементи и броенето от много нишки.
+ */
+class TrendingTrackerTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private TrendingProperties properties;
+    private TrendingTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TrendingProperties();
+        properties.setHalfLife(Duration.ofHours(1));
+        properties.setTopSize(2);
+        tracker = new TrendingTracker(properties);
+    }
+
+    @Test
+    void refresh_shouldRankByWeightedEventsPerKind() {
+        views(TrendingKind.BLOG, 1, 4);
+        tracker.recordLike(TrendingKind.BLOG, 2); // 5 точки срещу 4
+        views(TrendingKind.BLOG, 3, 1);
+        views(TrendingKind.COURSE, 1, 2);
+
+        assertTrue(tracker.refresh(0));
+
+        assertEquals(List.of(2L, 1L), tracker.top(TrendingKind.BLOG));
+        assertEquals(List.of(1L), tracker.top(TrendingKind.COURSE));
+        assertFalse(tracker.refresh(0));
+    }
+
+    @Test
+    void refresh_shouldLetOlderActivityDecay() {
+        views(TrendingKind.BLOG, 1, 10);
+        tracker.refresh(0);
+
+        // След 3 полуразпада старите 10 разглеждания тежат 1.25 - по-малко от 2 нови.
+        views(TrendingKind.BLOG, 2, 2);
+        tracker.refresh(3 * HOUR);
+
+        assertEquals(List.of(2L, 1L), tracker.top(TrendingKind.BLOG));
+        assertEquals(1.25, tracker.snapshot(10).get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void refresh_shouldDropItemsThatDecayedBelowMinimum() {
+        views(TrendingKind.COURSE, 5, 1);
+        tracker.refresh(0);
+
+        tracker.refresh(10 * HOUR);
+
+        assertEquals(0, tracker.size());
+        assertEquals(List.of(), tracker.top(TrendingKind.COURSE));
+    }
+
+    @Test
+    void restore_shouldDecayByAgeAndKeepNewEvents() {
+        tracker.restore(TrendingKind.BLOG, 1, 8, 2 * HOUR);
+        views(TrendingKind.BLOG, 1, 1);
+
+        tracker.refresh(0);
+
+        assertEquals(3.0, tracker.snapshot(1).get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    void forget_shouldRemoveItemFromNextRanking() {
+        views(TrendingKind.BLOG, 1, 3);
+        tracker.refresh(0);
+
+        tracker.forget(TrendingKind.BLOG, 1);
+        tracker.refresh(0);
+
+        assertEquals(List.of(), tracker.top(TrendingKind.BLOG));
+    }
+
+    @Test
+    void recordView_whenTrackingLimitIsReached_shouldIgnoreNewItemsButCountKnownOnes() {
+        properties.setMaxTrackedItems(2);
+        views(TrendingKind.BLOG, 1, 1);
+        views(TrendingKind.BLOG, 2, 1);
+
+        views(TrendingKind.BLOG, 3, 5);
+        views(TrendingKind.BLOG, 1, 2);
+        tracker.refresh(0);
+
+        assertEquals(2, tracker.size());
+        assertEquals(List.of(1L, 2L), tracker.top(TrendingKind.BLOG));
+    }
+
+    @Test
+    void recordView_fromManyThreads_shouldNotLoseEvents() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.submit(() -> views(TrendingKind.BLOG, 1, 10_000));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        tracker.refresh(0);
+
+        assertEquals(80_000.0, tracker.snapshot(1).get(0).getScore(), 1e-9);
+    }
+
+    private void views(TrendingKind kind, long id, int count) {
+        for (int i = 0; i < count; i++) {
+            tracker.recordView(kind, id);
+        }
+    }
+}